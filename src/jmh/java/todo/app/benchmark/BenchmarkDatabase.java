@@ -0,0 +1,68 @@
+package todo.app.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+
+/**
+ * Builds embedded HSQLDB datasets of configurable size for the benchmarks.
+ *
+ * Users are named {@code user1..userN} with the password {@code password}; user IDs
+ * start at 1 and each user owns tasks {@code 1..tasksPerUser}.
+ */
+public final class BenchmarkDatabase {
+
+	private static final int INSERT_BATCH_SIZE = 1000;
+
+	private BenchmarkDatabase() {}
+
+	/**
+	 * Creates a fresh embedded database with the application schema and the given dataset.
+	 *
+	 * @param users        The number of users to create.
+	 * @param tasksPerUser The number of tasks each user owns.
+	 * @return the populated database, to be shut down by the caller
+	 */
+	public static EmbeddedDatabase create(int users, int tasksPerUser) {
+		EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+				.generateUniqueName(true)
+				.addScript("classpath:todo/testdb/schema.sql")
+				.build();
+
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+		for (int user = 1; user <= users; user++) {
+			String username = "user" + user;
+			jdbcTemplate.update("INSERT INTO t_users (username, email, password) VALUES (?,?,?)",
+					username, username + "@example.com", "{noop}password");
+			jdbcTemplate.update("INSERT INTO t_authorities (username, authority, user_id) VALUES (?,?,?)",
+					username, "ROLE_USER", user);
+			insertTasks(jdbcTemplate, user, 1, tasksPerUser);
+		}
+		return database;
+	}
+
+	/**
+	 * Inserts consecutive tasks for a user with batched inserts.
+	 *
+	 * @param jdbcTemplate The template for database access.
+	 * @param userId       The owner of the tasks.
+	 * @param firstTaskId  The ID of the first inserted task.
+	 * @param count        The number of tasks to insert.
+	 */
+	public static void insertTasks(JdbcTemplate jdbcTemplate, long userId, long firstTaskId, int count) {
+		List<Object[]> rows = new ArrayList<>(INSERT_BATCH_SIZE);
+		for (long taskId = firstTaskId; taskId < firstTaskId + count; taskId++) {
+			rows.add(new Object[] {taskId, "Task " + taskId, "Description of task " + taskId, userId});
+			if (rows.size() == INSERT_BATCH_SIZE) {
+				jdbcTemplate.batchUpdate("INSERT INTO t_tasks (id, title, description, user_id) VALUES (?,?,?,?)", rows);
+				rows.clear();
+			}
+		}
+		if (!rows.isEmpty()) {
+			jdbcTemplate.batchUpdate("INSERT INTO t_tasks (id, title, description, user_id) VALUES (?,?,?,?)", rows);
+		}
+	}
+}
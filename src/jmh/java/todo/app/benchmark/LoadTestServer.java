@@ -0,0 +1,160 @@
+package todo.app.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import reactor.core.publisher.Flux;
+import todo.app.config.ToDoAppConfig;
+import todo.app.exception.GoblalExceptionHandler;
+import todo.app.reactive.ReactiveToDoListApplication;
+import todo.app.security.SecurityConfig;
+import todo.app.web.AuthController;
+import todo.app.web.TaskController;
+import todo.app.web.UserController;
+
+/**
+ * The task API running on a random port for the HTTP load benchmarks, on one of three servers:
+ * {@code platform-threads} (the default Tomcat pool), {@code virtual-threads} (the
+ * {@code virtual-threads} profile, Java 21) or {@code reactive} (WebFlux on Netty with R2DBC).
+ *
+ * One user {@value #USERNAME} owning tasks {@code 1..tasksPerUser} is created. Clients
+ * authenticate with HTTP Basic on every stack, so each request costs the same user lookup.
+ */
+final class LoadTestServer implements AutoCloseable {
+
+	static final String USERNAME = "loaduser";
+
+	private static final String PASSWORD = "password";
+
+	private final ConfigurableApplicationContext context;
+
+	private final String baseUrl;
+
+	private LoadTestServer(ConfigurableApplicationContext context) {
+		this.context = context;
+		this.baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+	}
+
+	/**
+	 * Starts the task API and creates the load test user with its tasks.
+	 *
+	 * @param server       The server: platform-threads, virtual-threads or reactive.
+	 * @param tasksPerUser The number of tasks of the load test user.
+	 * @return the running server, to be closed by the caller
+	 */
+	static LoadTestServer start(String server, int tasksPerUser) {
+		String[] properties = {"server.port=0", "spring.main.banner-mode=off", "logging.level.root=WARN"};
+		switch (server) {
+			case "platform-threads", "virtual-threads" -> {
+				if (server.equals("virtual-threads") && Runtime.version().feature() < 21) {
+					throw new IllegalStateException("Virtual threads need a Java 21 runtime, build and run with -Pjava21");
+				}
+				SpringApplicationBuilder application = new SpringApplicationBuilder(LoadTestApplication.class)
+						.properties(properties);
+				if (server.equals("virtual-threads")) {
+					application.profiles("virtual-threads");
+				}
+				// Arguments, as default properties would lose against application.properties
+				LoadTestServer loadTestServer = new LoadTestServer(application.run(
+						// The reactive stack has no task cache, both read every task from the database
+						"--todo.tasks.cache.enabled=false", "--spring.sql.init.mode=always",
+						"--spring.sql.init.schema-locations=classpath:todo/testdb/schema.sql",
+						// All load comes from one user, far over any per-user rate limit
+						"--todo.rate-limit.enabled=false"));
+				loadTestServer.insertUserAndTasks(loadTestServer.context.getBean(JdbcTemplate.class), tasksPerUser);
+				return loadTestServer;
+			}
+			case "reactive" -> {
+				LoadTestServer loadTestServer = new LoadTestServer(ReactiveToDoListApplication.application()
+						.properties(properties)
+						.run());
+				loadTestServer.insertUserAndTasks(loadTestServer.context.getBean(DatabaseClient.class), tasksPerUser);
+				return loadTestServer;
+			}
+			default -> throw new IllegalArgumentException("Unknown server " + server);
+		}
+	}
+
+	String baseUrl() {
+		return baseUrl;
+	}
+
+	/**
+	 * Returns the Authorization header value of the load test user.
+	 */
+	String authorization() {
+		return "Basic " + Base64.getEncoder().encodeToString((USERNAME + ":" + PASSWORD).getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Override
+	public void close() {
+		context.close();
+	}
+
+	private void insertUserAndTasks(JdbcTemplate jdbcTemplate, int tasksPerUser) {
+		jdbcTemplate.update("INSERT INTO t_users (username, email, password) VALUES (?,?,?)",
+				USERNAME, USERNAME + "@example.com", "{noop}" + PASSWORD);
+		Long userId = jdbcTemplate.queryForObject("SELECT id FROM t_users WHERE username = ?", Long.class, USERNAME);
+		jdbcTemplate.update("INSERT INTO t_authorities (username, authority, user_id) VALUES (?,?,?)",
+				USERNAME, "ROLE_USER", userId);
+		BenchmarkDatabase.insertTasks(jdbcTemplate, userId, 1L, tasksPerUser);
+	}
+
+	private void insertUserAndTasks(DatabaseClient databaseClient, int tasksPerUser) {
+		databaseClient.sql("INSERT INTO t_users (username, email, password) VALUES (:username, :email, :password)")
+				.bind("username", USERNAME)
+				.bind("email", USERNAME + "@example.com")
+				.bind("password", "{noop}" + PASSWORD)
+				.then()
+				.block();
+		Long userId = databaseClient.sql("SELECT id FROM t_users WHERE username = :username")
+				.bind("username", USERNAME)
+				.map(row -> row.get("id", Long.class))
+				.one()
+				.block();
+		databaseClient.sql("INSERT INTO t_authorities (username, authority, user_id) VALUES (:username, 'ROLE_USER', :user_id)")
+				.bind("username", USERNAME)
+				.bind("user_id", userId)
+				.then()
+				.block();
+		databaseClient.inConnection(connection -> {
+			Statement statement = connection.createStatement(
+					"INSERT INTO t_tasks (id, title, description, user_id) VALUES ($1, $2, $3, $4)");
+			for (long taskId = 1; taskId <= tasksPerUser; taskId++) {
+				if (taskId > 1) {
+					statement.add();
+				}
+				statement.bind(0, taskId).bind(1, "Task " + taskId).bind(2, "Description of task " + taskId).bind(3, userId);
+			}
+			return Flux.from(statement.execute()).flatMap(Result::getRowsUpdated).then();
+		}).block();
+		databaseClient.sql("INSERT INTO t_task_sequences (user_id, next_id) VALUES (:user_id, :next_id)")
+				.bind("user_id", userId)
+				.bind("next_id", tasksPerUser + 1L)
+				.then()
+				.block();
+	}
+
+	/**
+	 * The blocking task API without component scanning, so the test configurations on the
+	 * benchmark classpath do not replace the pooled DataSource.
+	 */
+	@SpringBootConfiguration
+	@EnableAutoConfiguration(exclude = R2dbcAutoConfiguration.class)
+	@Import({ToDoAppConfig.class, SecurityConfig.class, AuthController.class, TaskController.class,
+			UserController.class, GoblalExceptionHandler.class})
+	static class LoadTestApplication {
+	}
+}
@@ -0,0 +1,80 @@
+package todo.app.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import todo.app.ratelimit.TokenBucketRateLimiter;
+
+/**
+ * Cost of a rate limit check for a client under its limit, the path of every allowed request. The
+ * {@code mapLookup} baseline is the bucket lookup alone; {@code distinctClients} spreads the threads
+ * over {@code clients} buckets, {@code sameClient} has them all compete for one bucket's
+ * compare-and-set. Run with {@code -t} to vary the threads and {@code -prof gc} to check that
+ * allowed requests allocate nothing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+	@Param({"1000"})
+	public int clients;
+
+	private String[] keys;
+
+	private TokenBucketRateLimiter limiter;
+
+	private ConcurrentMap<String, Object> map;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		keys = new String[clients];
+		map = new ConcurrentHashMap<>();
+		for (int i = 0; i < clients; i++) {
+			keys[i] = "user" + i;
+			map.put(keys[i], new Object());
+		}
+		// A limit no benchmark thread reaches, so every check is allowed
+		limiter = new TokenBucketRateLimiter(TokenBucketRateLimiter.MAX_CAPACITY, 1_000_000_000, Duration.ofMinutes(10));
+	}
+
+	@Benchmark
+	public Object mapLookup() {
+		return map.get(randomKey());
+	}
+
+	@Benchmark
+	public long distinctClients() {
+		return limiter.tryAcquire(randomKey());
+	}
+
+	@Benchmark
+	public long sameClient() {
+		return limiter.tryAcquire(keys[0]);
+	}
+
+	private String randomKey() {
+		return keys[ThreadLocalRandom.current().nextInt(clients)];
+	}
+}
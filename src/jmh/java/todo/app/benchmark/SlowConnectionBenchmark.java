@@ -0,0 +1,137 @@
+package todo.app.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Memory and threads held per slow client connection on each server of {@link LoadTestServer}.
+ *
+ * Every operation opens {@code connections} sockets that send the headers of a task creation
+ * and only half of its body, like mobile clients on a slow link, then measures the heap retained
+ * after a full GC and the live threads while the server waits for the rest. The blocking stacks
+ * park a request thread in the body read of each connection, the reactive stack none.
+ *
+ * The {@code heapBytesPerConnection} and {@code threadsPerConnection} secondary results carry the
+ * comparison; the primary score is only the time to set the connections up. Client sockets live
+ * in the same JVM and add the same small amount on every server.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class SlowConnectionBenchmark {
+
+	private static final String BODY = "{\"title\":\"Slow task\",\"description\":\"Sent by a client on a slow link\"}";
+
+	@Param({"platform-threads", "virtual-threads", "reactive"})
+	public String server;
+
+	@Param({"1000"})
+	public int connections;
+
+	/**
+	 * Time the server gets to accept the connections and reach the body read.
+	 */
+	@Param({"2000"})
+	public long settleMillis;
+
+	private LoadTestServer loadTestServer;
+
+	private URI baseUri;
+
+	private String authorization;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		loadTestServer = LoadTestServer.start(server, 1);
+		baseUri = URI.create(loadTestServer.baseUrl());
+		authorization = loadTestServer.authorization();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		loadTestServer.close();
+	}
+
+	/**
+	 * Secondary results, reported as measured by the last operation of each iteration.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Footprint {
+
+		public double heapBytesPerConnection;
+
+		public double threadsPerConnection;
+	}
+
+	@Benchmark
+	public void holdSlowConnections(Footprint footprint) throws Exception {
+		MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+		System.gc();
+		long heapBefore = memory.getHeapMemoryUsage().getUsed();
+		int threadsBefore = threads.getThreadCount();
+
+		byte[] body = BODY.getBytes(StandardCharsets.UTF_8);
+		byte[] head = ("POST /todo/app/tasks/ HTTP/1.1\r\n"
+				+ "Host: " + baseUri.getHost() + ":" + baseUri.getPort() + "\r\n"
+				+ "Authorization: " + authorization + "\r\n"
+				+ "Content-Type: application/json\r\n"
+				+ "Content-Length: " + body.length + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+
+		List<Socket> sockets = new ArrayList<>(connections);
+		try {
+			for (int i = 0; i < connections; i++) {
+				Socket socket = new Socket(baseUri.getHost(), baseUri.getPort());
+				sockets.add(socket);
+				OutputStream output = socket.getOutputStream();
+				output.write(head);
+				output.write(body, 0, body.length / 2);
+				output.flush();
+			}
+			Thread.sleep(settleMillis);
+
+			System.gc();
+			footprint.heapBytesPerConnection = (double) (memory.getHeapMemoryUsage().getUsed() - heapBefore) / connections;
+			footprint.threadsPerConnection = (double) (threads.getThreadCount() - threadsBefore) / connections;
+		} finally {
+			for (Socket socket : sockets) {
+				try {
+					socket.close();
+				} catch (IOException exception) {
+					// The measurement is taken, a failing close only delays the server's cleanup
+				}
+			}
+		}
+		// Let the server release the aborted requests before the next operation measures
+		Thread.sleep(settleMillis);
+	}
+}
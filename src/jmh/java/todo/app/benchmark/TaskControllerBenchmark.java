@@ -0,0 +1,131 @@
+package todo.app.benchmark;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import todo.app.ToDoListApplication;
+import todo.app.config.SystemTestConfig;
+import todo.app.logic.LoginDTO;
+import todo.app.logic.TokenDTO;
+
+/**
+ * Full request path through the security filter chain, TaskController, service and repository,
+ * driven by MockMvc against the application context. Compares HTTP Basic, which hashes the
+ * password on every request, with bearer tokens. Alice (user 1) owns {@code tasksPerUser} tasks.
+ * Runs without rate limits, which would answer most requests with 429; any response but a 2xx
+ * fails the run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskControllerBenchmark {
+
+	private static final String TASKS_URL = "/todo/app/tasks/";
+
+	private static final String NEW_TASK = "{\"title\":\"Benchmark task\",\"description\":\"Created by the benchmark\"}";
+
+	@Param({"100", "10000"})
+	public int tasksPerUser;
+
+	private ConfigurableApplicationContext context;
+
+	private MockMvc mockMvc;
+
+	private String bearerToken;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		context = new SpringApplicationBuilder(ToDoListApplication.class, SystemTestConfig.class)
+				.properties("server.port=0", "spring.main.banner-mode=off", "logging.level.root=WARN")
+				// An argument, as a default property would lose against application.properties
+				.run("--todo.rate-limit.enabled=false");
+
+		// The seed data gives Alice tasks 1 and 2
+		BenchmarkDatabase.insertTasks(context.getBean(JdbcTemplate.class), 1L, 3L, tasksPerUser - 2);
+
+		mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context)
+				.apply(springSecurity())
+				.build();
+
+		ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+		String login = mockMvc.perform(post("/todo/app/login")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(new LoginDTO("Alice", "password123"))))
+				.andExpect(status().is2xxSuccessful())
+				.andReturn().getResponse().getContentAsString();
+		bearerToken = "Bearer " + objectMapper.readValue(login, TokenDTO.class).getToken();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public int getTaskByIdWithBasicAuth() throws Exception {
+		return mockMvc.perform(get(TASKS_URL + randomTaskId()).with(httpBasic("Alice", "password123")))
+				.andExpect(status().is2xxSuccessful())
+				.andReturn().getResponse().getStatus();
+	}
+
+	@Benchmark
+	public int getTaskByIdWithToken() throws Exception {
+		return mockMvc.perform(get(TASKS_URL + randomTaskId()).header(HttpHeaders.AUTHORIZATION, bearerToken))
+				.andExpect(status().is2xxSuccessful())
+				.andReturn().getResponse().getStatus();
+	}
+
+	@Benchmark
+	public int getTaskPageWithToken() throws Exception {
+		return mockMvc.perform(get(TASKS_URL).param("limit", "50").header(HttpHeaders.AUTHORIZATION, bearerToken))
+				.andExpect(status().is2xxSuccessful())
+				.andReturn().getResponse().getStatus();
+	}
+
+	@Benchmark
+	public int saveTaskWithToken() throws Exception {
+		return mockMvc.perform(post(TASKS_URL)
+						.header(HttpHeaders.AUTHORIZATION, bearerToken)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(NEW_TASK))
+				.andExpect(status().is2xxSuccessful())
+				.andReturn().getResponse().getStatus();
+	}
+
+	private long randomTaskId() {
+		return ThreadLocalRandom.current().nextLong(1, tasksPerUser + 1);
+	}
+}
@@ -0,0 +1,77 @@
+package todo.app.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Throughput and latency percentiles of task reads over real HTTP with many concurrent clients
+ * ({@code @Threads}, 1000 by default, override with {@code -t}), comparing the platform-thread
+ * Tomcat pool, the {@code virtual-threads} profile and the reactive stack. The blocking stacks
+ * run on their HikariCP pool configuration, the reactive one on its R2DBC pool; the
+ * virtual-thread run needs a Java 21 runtime.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(1000)
+@Fork(1)
+public class TaskLoadBenchmark {
+
+	@Param({"platform-threads", "virtual-threads", "reactive"})
+	public String server;
+
+	@Param({"100"})
+	public int tasksPerUser;
+
+	private LoadTestServer loadTestServer;
+
+	private HttpClient httpClient;
+
+	private String tasksUrl;
+
+	private String authorization;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		loadTestServer = LoadTestServer.start(server, tasksPerUser);
+		tasksUrl = loadTestServer.baseUrl() + "/todo/app/tasks/";
+		authorization = loadTestServer.authorization();
+		httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		loadTestServer.close();
+	}
+
+	@Benchmark
+	public int getTaskById() throws Exception {
+		long taskId = ThreadLocalRandom.current().nextLong(1, tasksPerUser + 1);
+		HttpRequest request = HttpRequest.newBuilder(URI.create(tasksUrl + taskId))
+				.header(HttpHeaders.AUTHORIZATION, authorization)
+				.build();
+		return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+	}
+}
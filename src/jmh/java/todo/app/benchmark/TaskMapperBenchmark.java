@@ -0,0 +1,52 @@
+package todo.app.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import todo.app.logic.Task;
+import todo.app.logic.TaskDTO;
+import todo.app.mapper.TaskMapper;
+
+/**
+ * Cost of the Task/TaskDTO conversions done for every task crossing the service layer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskMapperBenchmark {
+
+	private Task task;
+
+	private TaskDTO taskDTO;
+
+	@Setup
+	public void setUp() {
+		task = new Task("Buy groceries", "Milk, eggs, bread");
+		task.setEntityId(1L);
+		task.setUserId(1L);
+		taskDTO = new TaskDTO(1L, "Buy groceries", "Milk, eggs, bread");
+	}
+
+	@Benchmark
+	public TaskDTO toDTO() {
+		return TaskMapper.toDTO(task);
+	}
+
+	@Benchmark
+	public Task toEntity() {
+		return TaskMapper.toEntity(taskDTO, 1L);
+	}
+}
@@ -0,0 +1,132 @@
+package todo.app.benchmark;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import todo.app.logic.Task;
+import todo.app.logic.TaskDTO;
+import todo.app.mapper.TaskMapper;
+import todo.app.repository.impl.CachingTaskRepository;
+import todo.app.repository.impl.JdbcTaskRepository;
+
+/**
+ * Latency and allocation of reading a user's tasks into DTOs, against an embedded database holding
+ * {@code users × tasksPerUser} tasks. The {@code entity*} benchmarks are the former read path
+ * (a Task per row, then a TaskDTO copied into a LinkedList or a second list); the {@code projected*} benchmarks map the three selected columns straight into an
+ * array-backed DTO list. {@code cachedAll} reads through the task list cache once it holds every
+ * user, {@code uncachedAll} through a cache whose entries expire at once, so every read loads from
+ * the database. Run with {@code -prof gc} and compare {@code gc.alloc.rate.norm}, the
+ * bytes allocated per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskReadPathBenchmark {
+
+	private static final int PAGE_SIZE = 50;
+
+	@Param({"10"})
+	public int users;
+
+	@Param({"100", "10000"})
+	public int tasksPerUser;
+
+	private EmbeddedDatabase database;
+
+	private JdbcTaskRepository taskRepository;
+
+	private CachingTaskRepository cachedRepository;
+
+	private CachingTaskRepository uncachedRepository;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		database = BenchmarkDatabase.create(users, tasksPerUser);
+		taskRepository = new JdbcTaskRepository(database);
+		cachedRepository = new CachingTaskRepository(taskRepository, (long) users * tasksPerUser, Duration.ofHours(1),
+				new SimpleMeterRegistry());
+		uncachedRepository = new CachingTaskRepository(taskRepository, (long) users * tasksPerUser, Duration.ZERO,
+				new SimpleMeterRegistry());
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		database.shutdown();
+	}
+
+	@Benchmark
+	public List<TaskDTO> entityAll() {
+		List<Task> tasks = taskRepository.getAll(randomUserId());
+		List<TaskDTO> tasksDTO = new LinkedList<>();
+		for (Task task : tasks) {
+			tasksDTO.add(TaskMapper.toDTO(task));
+		}
+		return tasksDTO;
+	}
+
+	@Benchmark
+	public List<TaskDTO> projectedAll() {
+		return taskRepository.getAllDTOs(randomUserId());
+	}
+
+	@Benchmark
+	public List<TaskDTO> cachedAll() {
+		return cachedRepository.getAllDTOs(randomUserId());
+	}
+
+	@Benchmark
+	public List<TaskDTO> uncachedAll() {
+		return uncachedRepository.getAllDTOs(randomUserId());
+	}
+
+	@Benchmark
+	public List<TaskDTO> entityPage() {
+		List<Task> tasks = taskRepository.getPage(randomUserId(), randomAfterId(), PAGE_SIZE + 1);
+		List<TaskDTO> tasksDTO = new ArrayList<>(Math.min(tasks.size(), PAGE_SIZE));
+		for (int i = 0; i < tasks.size() && i < PAGE_SIZE; i++) {
+			tasksDTO.add(TaskMapper.toDTO(tasks.get(i)));
+		}
+		return tasksDTO;
+	}
+
+	@Benchmark
+	public List<TaskDTO> projectedPage() {
+		List<TaskDTO> tasksDTO = taskRepository.getPageDTOs(randomUserId(), randomAfterId(), PAGE_SIZE + 1);
+		if (tasksDTO.size() > PAGE_SIZE) {
+			tasksDTO.remove(PAGE_SIZE);
+		}
+		return tasksDTO;
+	}
+
+	private Long randomUserId() {
+		return ThreadLocalRandom.current().nextLong(1, users + 1);
+	}
+
+	private Long randomAfterId() {
+		return ThreadLocalRandom.current().nextLong(0, Math.max(1, tasksPerUser - PAGE_SIZE));
+	}
+}
@@ -0,0 +1,126 @@
+package todo.app.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+
+import todo.app.logic.Task;
+import todo.app.repository.impl.JdbcTaskRepository;
+
+/**
+ * Latency of the JdbcTaskRepository operations on the request path, against an embedded
+ * database holding {@code users × tasksPerUser} tasks. {@code existById} and {@code findTaskById}
+ * should stay flat as {@code tasksPerUser} grows; {@code getAll} grows with it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskRepositoryBenchmark {
+
+	private static final int BATCH_SIZE = 100;
+
+	@Param({"10"})
+	public int users;
+
+	@Param({"100", "10000"})
+	public int tasksPerUser;
+
+	private EmbeddedDatabase database;
+
+	private JdbcTaskRepository taskRepository;
+
+	private List<Task> batch;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		database = BenchmarkDatabase.create(users, tasksPerUser);
+		taskRepository = new JdbcTaskRepository(database);
+
+		batch = new ArrayList<>(BATCH_SIZE);
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			batch.add(new Task("Batch task " + i, "Created by the batch benchmark"));
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		database.shutdown();
+	}
+
+	@Benchmark
+	public Task findTaskById() {
+		return taskRepository.findTaskById(randomTaskId(), randomUserId());
+	}
+
+	@Benchmark
+	public boolean existById() {
+		return taskRepository.existById(randomTaskId(), randomUserId());
+	}
+
+	@Benchmark
+	public List<Task> getAll() {
+		return taskRepository.getAll(randomUserId());
+	}
+
+	@Benchmark
+	public List<Task> getPage() {
+		return taskRepository.getPage(randomUserId(), randomTaskId() - 1, 50);
+	}
+
+	@Benchmark
+	public Long createTask() {
+		return taskRepository.createTask(new Task("Benchmark task", "Created by the benchmark"), randomUserId());
+	}
+
+	@Benchmark
+	public boolean createThenDeleteTask() {
+		Long userId = randomUserId();
+		Long taskId = taskRepository.createTask(new Task("Benchmark task", "Created by the benchmark"), userId);
+		return taskRepository.deleteTaskById(taskId, userId);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public List<Long> createTasksBatched() {
+		return taskRepository.createTasks(batch, randomUserId());
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public List<Long> createTasksOneByOne() {
+		Long userId = randomUserId();
+		List<Long> ids = new ArrayList<>(BATCH_SIZE);
+		for (Task task : batch) {
+			ids.add(taskRepository.createTask(task, userId));
+		}
+		return ids;
+	}
+
+	private Long randomUserId() {
+		return ThreadLocalRandom.current().nextLong(1, users + 1);
+	}
+
+	private Long randomTaskId() {
+		return ThreadLocalRandom.current().nextLong(1, tasksPerUser + 1);
+	}
+}
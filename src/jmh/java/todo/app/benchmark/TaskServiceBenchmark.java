@@ -0,0 +1,88 @@
+package todo.app.benchmark;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+
+import todo.app.logic.TaskDTO;
+import todo.app.logic.TaskPageDTO;
+import todo.app.repository.impl.JdbcTaskRepository;
+import todo.app.service.TaskService;
+import todo.app.service.impl.TaskServiceImpl;
+
+/**
+ * Latency of TaskServiceImpl over the JDBC repository, i.e. validation and mapping on top of
+ * the queries measured by {@link TaskRepositoryBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskServiceBenchmark {
+
+	@Param({"10"})
+	public int users;
+
+	@Param({"100", "10000"})
+	public int tasksPerUser;
+
+	private EmbeddedDatabase database;
+
+	private TaskService taskService;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		database = BenchmarkDatabase.create(users, tasksPerUser);
+		taskService = new TaskServiceImpl(new JdbcTaskRepository(database));
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		database.shutdown();
+	}
+
+	@Benchmark
+	public TaskDTO getTaskById() {
+		return taskService.getTaskById(randomTaskId(), randomUserId());
+	}
+
+	@Benchmark
+	public List<TaskDTO> getAllTasks() {
+		return taskService.getAllTasks(randomUserId());
+	}
+
+	@Benchmark
+	public TaskPageDTO getTaskPage() {
+		return taskService.getTaskPage(randomUserId(), randomTaskId() - 1, 50);
+	}
+
+	@Benchmark
+	public Long saveTask() {
+		return taskService.saveTask(new TaskDTO("Benchmark task", "Created by the benchmark"), randomUserId());
+	}
+
+	private Long randomUserId() {
+		return ThreadLocalRandom.current().nextLong(1, users + 1);
+	}
+
+	private Long randomTaskId() {
+		return ThreadLocalRandom.current().nextLong(1, tasksPerUser + 1);
+	}
+}
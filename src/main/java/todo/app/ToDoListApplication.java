@@ -1,19 +1,20 @@
 package todo.app;
 
-import java.util.List;
-
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
 import org.springframework.context.annotation.Bean;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
-import todo.app.logic.User;
-import todo.app.repository.UserRepository;
+import todo.app.security.PasswordMigration;
 
-@SpringBootApplication
+// The R2DBC connection factory belongs to the reactive variant only, it would take over SQL initialization
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class ToDoListApplication {
 
 	public static void main(String[] args) {
@@ -21,23 +22,33 @@ public class ToDoListApplication {
 	}
 	
     @Bean
-    CommandLineRunner encodeExistingPasswords(UserRepository userRepository) {
+    PasswordMigration passwordMigration(JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder,
+    		@Value("${todo.security.password-migration.page-size:" + PasswordMigration.DEFAULT_PAGE_SIZE + "}") int pageSize,
+    		@Value("${todo.security.password-migration.workers:0}") int workers) {
+    	// Hashing is CPU bound, so by default one worker per core
+    	int hashingWorkers = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+    	return new PasswordMigration(jdbcTemplate, passwordEncoder, pageSize, hashingWorkers);
+    }
+	
+    @Bean
+    CommandLineRunner encodeExistingPasswords(PasswordMigration passwordMigration,
+    		@Value("${todo.security.password-migration.background:false}") boolean background) {
         return args -> {
-            // Create the encoder
-            PasswordEncoder encoder = PasswordEncoderFactories.createDelegatingPasswordEncoder();
-            
-            // Get all users
-            List<User> users = userRepository.getAll();
-            
-            // Update each user's password
-            users.forEach(user -> {
-                // Only encode if the password isn't already encoded
-                if (!user.getPassword().startsWith("$2a$")) {
-                    String encodedPassword = encoder.encode(user.getPassword());
-                    user.setPassword(encodedPassword);
-                    userRepository.updateUser(user);
-                }
-            });
+            // Blocks startup until every stored password is encoded
+            if (!background) {
+                passwordMigration.migrate();
+            }
+        };
+    }
+    
+    @Bean
+    ApplicationListener<ApplicationReadyEvent> encodeExistingPasswordsInBackground(PasswordMigration passwordMigration,
+    		@Value("${todo.security.password-migration.background:false}") boolean background) {
+        return event -> {
+            // Starts once the application reports ready, logins of unmigrated users fail until it is done
+            if (background) {
+                passwordMigration.migrateInBackground();
+            }
         };
     }
 
@@ -1,16 +1,53 @@
 package todo.app.config;
 
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
 import javax.sql.DataSource;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
+import todo.app.metrics.LayerTimers;
+import todo.app.metrics.StatementBudgetFilter;
+import todo.app.metrics.StatementCounter;
+import todo.app.metrics.TimedJsonHttpMessageConverter;
+import todo.app.ratelimit.AddressRateLimitFilter;
+import todo.app.ratelimit.RateLimitInterceptor;
 import todo.app.repository.TaskRepository;
+import todo.app.repository.TaskVersionRepository;
 import todo.app.repository.UserRepository;
+import todo.app.repository.impl.CachingTaskRepository;
+import todo.app.repository.impl.CachingUserRepository;
+import todo.app.repository.impl.InMemoryTaskRepository;
+import todo.app.repository.impl.JdbcTaskIdAllocator;
 import todo.app.repository.impl.JdbcTaskRepository;
+import todo.app.repository.impl.JdbcTaskVersionRepository;
 import todo.app.repository.impl.JdbcUserRepository;
+import todo.app.search.TaskSearchIndex;
 import todo.app.service.TaskService;
 import todo.app.service.UserService;
 import todo.app.service.impl.TaskServiceImpl;
@@ -19,31 +56,277 @@ import todo.app.service.impl.UserServiceImpl;
 @Configuration
 public class ToDoAppConfig {
 
+	/**
+	 * Pool connections left to other work while the task search index is rebuilt from the database.
+	 */
+	private static final int REBUILD_CONNECTION_HEADROOM = 2;
+
 	@Autowired
 	private DataSource dataSource;
+	
+	@Autowired
+	private ObjectProvider<MeterRegistry> meterRegistry;
+	
+	@Autowired
+	private Environment environment;
+	
+	@Value("${todo.tasks.id-block-size:" + JdbcTaskIdAllocator.DEFAULT_BLOCK_SIZE + "}")
+	private int taskIdBlockSize;
+	
+	@Value("${todo.tasks.max-batch-size:" + TaskServiceImpl.DEFAULT_MAX_BATCH_SIZE + "}")
+	private int taskMaxBatchSize;
+	
+	@Value("${todo.tasks.repository:jdbc}")
+	private String taskRepositoryType;
+	
+	@Value("${todo.tasks.memory.directory:data/tasks}")
+	private String taskMemoryDirectory;
+	
+	@Value("${todo.tasks.memory.segment-size:" + InMemoryTaskRepository.DEFAULT_SEGMENT_SIZE + "}")
+	private int taskMemorySegmentSize;
+	
+	@Value("${todo.tasks.memory.checkpoint-interval-seconds:60}")
+	private long taskMemoryCheckpointIntervalSeconds;
+	
+	@Value("${todo.tasks.memory.sync:false}")
+	private boolean taskMemorySync;
+	
+	@Value("${todo.tasks.cache.enabled:true}")
+	private boolean taskCacheEnabled;
+	
+	@Value("${todo.tasks.cache.maximum-size:100000}")
+	private long taskCacheMaximumSize;
+	
+	@Value("${todo.tasks.cache.ttl-seconds:60}")
+	private long taskCacheTtlSeconds;
+	
+	@Value("${todo.tasks.search.rebuild-workers:0}")
+	private int taskSearchRebuildWorkers;
+	
+	@Value("${spring.datasource.hikari.maximum-pool-size:10}")
+	private int connectionPoolSize;
+	
+	@Value("${todo.users.id-cache.maximum-size:10000}")
+	private long userIdCacheMaximumSize;
+	
+	@Value("${todo.users.id-cache.ttl-seconds:600}")
+	private long userIdCacheTtlSeconds;
+	
+	@Value("${todo.sql.statement-budget.default:10}")
+	private int defaultStatementBudget;
+	
+	@Value("${todo.sql.statement-budget.enforce:false}")
+	private boolean enforceStatementBudget;
+	
+	@Value("${todo.rate-limit.enabled:true}")
+	private boolean rateLimitEnabled;
+	
+	@Value("${todo.rate-limit.capacity:100}")
+	private int rateLimitCapacity;
+	
+	@Value("${todo.rate-limit.permits-per-second:50}")
+	private double rateLimitPermitsPerSecond;
+	
+	@Value("${todo.rate-limit.idle-timeout-seconds:600}")
+	private long rateLimitIdleTimeoutSeconds;
+	
+	@Value("${todo.rate-limit.address.capacity:200}")
+	private int addressRateLimitCapacity;
+	
+	@Value("${todo.rate-limit.address.permits-per-second:100}")
+	private double addressRateLimitPermitsPerSecond;
+	
+    /**
+     * Wraps the application's DataSource so the statements of each request are counted. Static, so
+     * the DataSource is wrapped before any bean, this configuration included, receives it.
+     */
+    @Bean
+    public static BeanPostProcessor statementCountingPostProcessor() {
+    	return new BeanPostProcessor() {
+    		@Override
+    		public Object postProcessAfterInitialization(Object bean, String beanName) {
+    			return bean instanceof DataSource dataSource ? StatementCounter.counting(dataSource) : bean;
+    		}
+    	};
+    }
+    
+    /**
+     * Reports the statements of each request and checks them against the endpoint's budget, failing
+     * the request when {@code todo.sql.statement-budget.enforce} is true.
+     */
+    @Bean
+    public StatementBudgetFilter statementBudgetFilter() {
+    	return new StatementBudgetFilter(statementMeterRegistry(), defaultStatementBudget, enforceStatementBudget);
+    }
+    
+    /**
+     * Counts the statements of streamed response bodies, written on another thread, into their request.
+     */
+    @Bean
+    public WebMvcConfigurer statementBudgetConfigurer() {
+    	return new WebMvcConfigurer() {
+    		@Override
+    		public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+    			configurer.registerCallableInterceptors(StatementBudgetFilter.callableInterceptor());
+    		}
+    	};
+    }
+    
+    /**
+     * Rate limits the API per client address ahead of Spring Security, so floods are rejected before
+     * authentication queries and password checks, unless {@code todo.rate-limit.enabled} is false.
+     */
+    @Bean
+    public AddressRateLimitFilter addressRateLimitFilter() {
+    	return new AddressRateLimitFilter(statementMeterRegistry(), addressRateLimitCapacity, addressRateLimitPermitsPerSecond,
+    			Duration.ofSeconds(rateLimitIdleTimeoutSeconds));
+    }
+    
+    @Bean
+    public FilterRegistrationBean<AddressRateLimitFilter> addressRateLimitFilterRegistration() {
+    	FilterRegistrationBean<AddressRateLimitFilter> registration = new FilterRegistrationBean<>(addressRateLimitFilter());
+    	registration.addUrlPatterns("/todo/app/*");
+    	registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+    	registration.setEnabled(rateLimitEnabled);
+    	return registration;
+    }
+    
+    /**
+     * Limits each endpoint as its {@code @RateLimit} declares, or to the default limit, unless
+     * overridden by {@code todo.rate-limit.endpoints.<method>.*} properties.
+     */
+    @Bean
+    public RateLimitInterceptor rateLimitInterceptor() {
+    	return new RateLimitInterceptor(statementMeterRegistry(), rateLimitCapacity, rateLimitPermitsPerSecond,
+    			Duration.ofSeconds(rateLimitIdleTimeoutSeconds), environment);
+    }
+    
+    /**
+     * Rate limits the API per user, or per address for anonymous requests, unless
+     * {@code todo.rate-limit.enabled} is false.
+     */
+    @Bean
+    public WebMvcConfigurer rateLimitConfigurer() {
+    	return new WebMvcConfigurer() {
+    		@Override
+    		public void addInterceptors(InterceptorRegistry registry) {
+    			if (rateLimitEnabled) {
+    				registry.addInterceptor(rateLimitInterceptor()).addPathPatterns("/todo/app/**");
+    			}
+    		}
+    	};
+    }
 
+    /**
+     * The single JdbcTemplate shared by all repositories, running on the application's connection pool.
+     */
     @Bean
     public JdbcTemplate jdbcTemplate() {
 		return new JdbcTemplate(dataSource);
 	}
     
     @Bean
+    public JdbcTaskIdAllocator taskIdAllocator() {
+    	return new JdbcTaskIdAllocator(jdbcTemplate(), taskIdBlockSize);
+    }
+    
+    /**
+     * The task store selected by {@code todo.tasks.repository}: the database ({@code jdbc}) or
+     * memory backed by a write-ahead log ({@code memory}), closed with the context. A memory store
+     * takes over the tasks in the database until one import into its directory has completed; its
+     * later changes are never written back. Database reads are cached unless {@code todo.tasks.cache.enabled} is false.
+     * Every call is timed.
+     */
+    @Bean
     public TaskRepository taskRepository() {
-    	return new JdbcTaskRepository(dataSource);
+    	TaskRepository taskRepository;
+    	if ("memory".equalsIgnoreCase(taskRepositoryType)) {
+    		InMemoryTaskRepository memoryRepository = new InMemoryTaskRepository(Path.of(taskMemoryDirectory),
+    				taskMemorySegmentSize, Duration.ofSeconds(taskMemoryCheckpointIntervalSeconds), taskMemorySync);
+    		if (!memoryRepository.isImported()) {
+    			memoryRepository.importTasks(new JdbcTaskRepository(jdbcTemplate(), taskIdAllocator(), statementMeterRegistry()),
+    					userIds());
+    		}
+    		taskRepository = memoryRepository;
+    	} else {
+    		taskRepository = new JdbcTaskRepository(jdbcTemplate(), taskIdAllocator(), statementMeterRegistry());
+    		if (taskCacheEnabled) {
+    			taskRepository = new CachingTaskRepository(taskRepository, taskCacheMaximumSize,
+    					Duration.ofSeconds(taskCacheTtlSeconds), statementMeterRegistry());
+    		}
+    	}
+    	return LayerTimers.timed(TaskRepository.class, taskRepository, "repository", "task", statementMeterRegistry());
+    }
+    
+    @Bean
+    public TaskVersionRepository taskVersionRepository() {
+    	return new JdbcTaskVersionRepository(jdbcTemplate());
     }
     
     @Bean
     public UserRepository userRepository() {
-    	return new JdbcUserRepository(dataSource);
+    	UserRepository userRepository = new CachingUserRepository(new JdbcUserRepository(jdbcTemplate(), statementMeterRegistry()),
+    			userIdCacheMaximumSize, Duration.ofSeconds(userIdCacheTtlSeconds), statementMeterRegistry());
+    	return LayerTimers.timed(UserRepository.class, userRepository, "repository", "user", statementMeterRegistry());
+    }
+    
+    private List<Long> userIds() {
+    	List<Long> userIds = new ArrayList<>();
+    	userRepository().exportUsers(user -> userIds.add(user.getEntityId()));
+    	return userIds;
+    }
+    
+    /**
+     * The registry for layer timers, repository statement and cache metrics: the application's one when
+     * Actuator is present, otherwise a private in-memory registry.
+     */
+    private MeterRegistry statementMeterRegistry() {
+    	return meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+    }
+    
+    /**
+     * The full-text index of all tasks, rebuilt from the task store before the application serves
+     * requests and kept current by the task service afterwards. Rebuilding from the database, each
+     * worker holds a pool connection, so workers are capped at the pool size less a headroom.
+     */
+    @Bean
+    public TaskSearchIndex taskSearchIndex() {
+    	TaskSearchIndex taskSearchIndex = new TaskSearchIndex();
+    	// Reading is I/O bound and indexing CPU bound, so by default one worker per core
+    	int workers = taskSearchRebuildWorkers > 0 ? taskSearchRebuildWorkers : Runtime.getRuntime().availableProcessors();
+    	if (!"memory".equalsIgnoreCase(taskRepositoryType)) {
+    		// More workers would wait on the pool and fail after its connection timeout
+    		workers = Math.min(workers, Math.max(1, connectionPoolSize - REBUILD_CONNECTION_HEADROOM));
+    	}
+    	taskSearchIndex.rebuild(userIds(), taskRepository(), workers);
+    	return taskSearchIndex;
     }
     
     @Bean
-    public UserService userService() {
-    	return new UserServiceImpl(userRepository());
+    public UserService userService(PasswordEncoder passwordEncoder) {
+    	// The encoder is passed in, field injection would reach the timing proxy instead of the service
+    	return LayerTimers.timed(UserService.class, new UserServiceImpl(userRepository(), passwordEncoder, taskRepository()),
+    			"service", "user", statementMeterRegistry());
     }
     
     @Bean
     public TaskService taskService() {
-    	return new TaskServiceImpl(taskRepository());
+    	// Task writes and their version increments commit together when both live in the database
+    	TransactionOperations transactionOperations = "memory".equalsIgnoreCase(taskRepositoryType)
+    			? TransactionOperations.withoutTransaction()
+    			: new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    	return LayerTimers.timed(TaskService.class,
+    			new TaskServiceImpl(taskRepository(), taskMaxBatchSize, taskVersionRepository(), taskSearchIndex(),
+    					transactionOperations),
+    			"service", "task", statementMeterRegistry());
+    }
+    
+    /**
+     * The JSON converter of the REST controllers, timing the conversion of request and response bodies.
+     */
+    @Bean
+    public TimedJsonHttpMessageConverter jsonHttpMessageConverter(ObjectProvider<ObjectMapper> objectMapper) {
+    	return new TimedJsonHttpMessageConverter(objectMapper.getIfAvailable(() -> Jackson2ObjectMapperBuilder.json().build()),
+    			statementMeterRegistry());
     }
 }
@@ -0,0 +1,10 @@
+package todo.app.exception;
+
+public class StatementBudgetExceededException extends RuntimeException {
+
+	private static final long serialVersionUID = 3620981947207345512L;
+
+	public StatementBudgetExceededException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,38 @@
+package todo.app.logic;
+
+import java.util.List;
+
+/**
+ * One page of a user's tasks returned by the keyset-paginated task listing.
+ *
+ * The next cursor is the ID of the last task on the page, to be passed as
+ * {@code after} to fetch the following page. It is null on the last page.
+ */
+public class TaskPageDTO {
+
+	private List<TaskDTO> tasks;
+	private Long nextCursor;
+
+	public TaskPageDTO() {}
+
+	public TaskPageDTO(List<TaskDTO> tasks, Long nextCursor) {
+		this.tasks = tasks;
+		this.nextCursor = nextCursor;
+	}
+
+	public List<TaskDTO> getTasks() {
+		return tasks;
+	}
+
+	public void setTasks(List<TaskDTO> tasks) {
+		this.tasks = tasks;
+	}
+
+	public Long getNextCursor() {
+		return nextCursor;
+	}
+
+	public void setNextCursor(Long nextCursor) {
+		this.nextCursor = nextCursor;
+	}
+}
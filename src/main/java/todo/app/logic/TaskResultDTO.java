@@ -0,0 +1,38 @@
+package todo.app.logic;
+
+/**
+ * Outcome for one task ID of a bulk update or bulk delete.
+ *
+ * A task that does not exist or belongs to another user is reported as
+ * {@link Status#NOT_FOUND}, like the single-task endpoints answer 404 for it.
+ */
+public class TaskResultDTO {
+
+	public enum Status { UPDATED, DELETED, NOT_FOUND }
+
+	private Long id;
+	private Status status;
+
+	public TaskResultDTO() {}
+
+	public TaskResultDTO(Long id, Status status) {
+		this.id = id;
+		this.status = status;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	public void setStatus(Status status) {
+		this.status = status;
+	}
+}
@@ -6,6 +6,8 @@ public class UserDTO {
 	private String username;
 	private String email;
 
+	public UserDTO() {}
+
 	public UserDTO(Long id, String username, String email) {
 		this.id = id;
 		this.username = username;
@@ -0,0 +1,38 @@
+package todo.app.logic;
+
+import java.util.List;
+
+/**
+ * One page of users returned by the keyset-paginated user listing.
+ *
+ * The next cursor is the ID of the last user on the page, to be passed as
+ * {@code after} to fetch the following page. It is null on the last page.
+ */
+public class UserPageDTO {
+
+	private List<UserDTO> users;
+	private Long nextCursor;
+
+	public UserPageDTO() {}
+
+	public UserPageDTO(List<UserDTO> users, Long nextCursor) {
+		this.users = users;
+		this.nextCursor = nextCursor;
+	}
+
+	public List<UserDTO> getUsers() {
+		return users;
+	}
+
+	public void setUsers(List<UserDTO> users) {
+		this.users = users;
+	}
+
+	public Long getNextCursor() {
+		return nextCursor;
+	}
+
+	public void setNextCursor(Long nextCursor) {
+		this.nextCursor = nextCursor;
+	}
+}
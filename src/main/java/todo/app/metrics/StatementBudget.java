@@ -0,0 +1,29 @@
+package todo.app.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the maximum number of SQL statements one request to a controller method may execute,
+ * authentication included. Requests over budget are reported by the {@link StatementBudgetFilter},
+ * and fail when budgets are enforced, as they are in tests.
+ *
+ * Budgets are upper bounds for the coldest path of the endpoint, e.g. the first request of a user
+ * since startup, so a warm request usually stays well below them.
+ *
+ * @author Marcel Pulido
+ * @version 1.0
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface StatementBudget {
+
+	/**
+	 * @return the maximum number of statements per request
+	 */
+	int value();
+}
@@ -0,0 +1,203 @@
+package todo.app.metrics;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import todo.app.exception.StatementBudgetExceededException;
+
+/**
+ * Counts the SQL statements of each request and checks them against the endpoint's
+ * {@link StatementBudget}, or the default budget when the endpoint declares none.
+ *
+ * Runs ahead of Spring Security so authentication queries are counted. Per request it records
+ * {@value #STATEMENTS_NAME} and {@value #TIME_NAME}, tagged with {@code method} and {@code uri}
+ * like {@code http.server.requests}, and sets the {@value #STATEMENTS_ATTRIBUTE} and
+ * {@value #TIME_ATTRIBUTE} request attributes for the access log. A request over budget is
+ * logged and counted as {@value #OVER_BUDGET_NAME}; when budgets are enforced it also fails.
+ *
+ * A request handled asynchronously, e.g. with a streamed response body, is checked on the dispatch
+ * completing it. The body's statements are counted when the {@link #callableInterceptor()} is
+ * registered with Spring MVC; a budget exceeded there can no longer change the committed response.
+ *
+ * @author Marcel Pulido
+ * @version 1.0
+ */
+public class StatementBudgetFilter extends OncePerRequestFilter implements Ordered {
+
+	public static final String STATEMENTS_NAME = "todo.request.statements";
+
+	public static final String TIME_NAME = "todo.request.statements.time";
+
+	public static final String OVER_BUDGET_NAME = "todo.request.statements.over.budget";
+
+	public static final String STATEMENTS_ATTRIBUTE = "todo.sql.statements";
+
+	public static final String TIME_ATTRIBUTE = "todo.sql.millis";
+
+	/**
+	 * Request attribute holding the counter of the request across its dispatches and threads.
+	 */
+	private static final String COUNTER_ATTRIBUTE = StatementBudgetFilter.class.getName() + ".counter";
+
+	private static final Logger logger = LoggerFactory.getLogger(StatementBudgetFilter.class);
+
+	private final MeterRegistry meterRegistry;
+
+	private final int defaultBudget;
+
+	private final boolean enforce;
+
+	/**
+	 * Constructs a filter reporting to a meter registry.
+	 *
+	 * @param meterRegistry The registry receiving the metrics.
+	 * @param defaultBudget The budget of endpoints declaring none.
+	 * @param enforce       Whether a request over budget fails with a {@link StatementBudgetExceededException}.
+	 * @throws IllegalArgumentException if the meter registry is null or the default budget negative
+	 */
+	public StatementBudgetFilter(MeterRegistry meterRegistry, int defaultBudget, boolean enforce) {
+
+		if (meterRegistry == null) throw new IllegalArgumentException("MeterRegistry value is null");
+		if (defaultBudget < 0) throw new IllegalArgumentException("Default statement budget must not be negative");
+
+		this.meterRegistry = meterRegistry;
+		this.defaultBudget = defaultBudget;
+		this.enforce = enforce;
+	}
+
+	@Override
+	public int getOrder() {
+		return Ordered.HIGHEST_PRECEDENCE;
+	}
+
+	/**
+	 * Returns the interceptor counting the statements of a request's {@code Callable}, which
+	 * includes a streamed response body, on the thread running it.
+	 *
+	 * @return the interceptor to register with Spring MVC's async support
+	 */
+	public static CallableProcessingInterceptor callableInterceptor() {
+		return new CallableProcessingInterceptor() {
+			@Override
+			public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+				if (request.getAttribute(COUNTER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof StatementCounter counter) {
+					StatementCounter.resume(counter);
+				}
+			}
+
+			@Override
+			public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+				StatementCounter.stop();
+			}
+		};
+	}
+
+	/**
+	 * Also runs on the dispatch completing an asynchronous request, to report the request as a whole.
+	 */
+	@Override
+	protected boolean shouldNotFilterAsyncDispatch() {
+		return false;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		StatementCounter counter = isAsyncDispatch(request)
+				&& request.getAttribute(COUNTER_ATTRIBUTE) instanceof StatementCounter started
+				? StatementCounter.resume(started)
+				: StatementCounter.start();
+		request.setAttribute(COUNTER_ATTRIBUTE, counter);
+		// Handling continues on another thread and a later dispatch, which reports the request
+		boolean completed = false;
+		try {
+			filterChain.doFilter(request, response);
+			completed = !isAsyncStarted(request);
+		} finally {
+			StatementCounter.stop();
+			if (completed || !isAsyncStarted(request)) {
+				record(request, counter);
+			}
+		}
+		if (completed) {
+			checkBudget(request, counter);
+		}
+	}
+
+	private void record(HttpServletRequest request, StatementCounter counter) {
+		String uri = uri(request);
+		long millis = TimeUnit.NANOSECONDS.toMillis(counter.nanos());
+		request.setAttribute(STATEMENTS_ATTRIBUTE, counter.statements());
+		request.setAttribute(TIME_ATTRIBUTE, millis);
+
+		DistributionSummary.builder(STATEMENTS_NAME)
+				.description("SQL statements executed per request")
+				.baseUnit("statements")
+				.tags("method", request.getMethod(), "uri", uri)
+				.register(meterRegistry)
+				.record(counter.statements());
+		Timer.builder(TIME_NAME)
+				.description("Time spent executing SQL statements per request")
+				.tags("method", request.getMethod(), "uri", uri)
+				.register(meterRegistry)
+				.record(counter.nanos(), TimeUnit.NANOSECONDS);
+
+		logger.debug("{} {} executed {} statements in {} ms", request.getMethod(), uri, counter.statements(), millis);
+	}
+
+	private void checkBudget(HttpServletRequest request, StatementCounter counter) {
+		int budget = budget(request);
+		if (counter.statements() <= budget) {
+			return;
+		}
+
+		String uri = uri(request);
+		Counter.builder(OVER_BUDGET_NAME)
+				.description("Requests executing more SQL statements than their endpoint's budget")
+				.tags("method", request.getMethod(), "uri", uri)
+				.register(meterRegistry)
+				.increment();
+
+		String message = request.getMethod() + " " + uri + " executed " + counter.statements()
+				+ " SQL statements, over its budget of " + budget;
+		logger.warn(message);
+		if (enforce) {
+			throw new StatementBudgetExceededException(message);
+		}
+	}
+
+	private int budget(HttpServletRequest request) {
+		// Spring MVC leaves the matched controller method on the request
+		if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handlerMethod) {
+			StatementBudget statementBudget = handlerMethod.getMethodAnnotation(StatementBudget.class);
+			if (statementBudget != null) {
+				return statementBudget.value();
+			}
+		}
+		return defaultBudget;
+	}
+
+	private static String uri(HttpServletRequest request) {
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		return pattern == null ? "UNKNOWN" : pattern.toString();
+	}
+}
@@ -0,0 +1,153 @@
+package todo.app.metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.springframework.util.ClassUtils;
+
+/**
+ * Counts the JDBC statements executed on the current thread, and the time spent executing them,
+ * between {@link #start()} and {@link #stop()}.
+ *
+ * Statements are only seen through a {@link #counting(DataSource) counting DataSource}. Every
+ * {@code execute*} call counts once, so a JDBC batch is one statement; the time is the one spent
+ * in the call, rows fetched afterwards while reading a result set are not included. Work done on
+ * another thread, e.g. a streamed response body, is only counted once the counter is
+ * {@link #resume(StatementCounter) resumed} there.
+ *
+ * @author Marcel Pulido
+ * @version 1.0
+ */
+public final class StatementCounter {
+
+	private static final ThreadLocal<StatementCounter> CURRENT = new ThreadLocal<>();
+
+	private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate",
+			"executeBatch", "executeLargeUpdate", "executeLargeBatch");
+
+	private int statements;
+
+	private long nanos;
+
+	private StatementCounter() {}
+
+	/**
+	 * Starts counting the statements of the current thread.
+	 *
+	 * @return the counter, read once {@link #stop()} has been called
+	 */
+	public static StatementCounter start() {
+		StatementCounter counter = new StatementCounter();
+		CURRENT.set(counter);
+		return counter;
+	}
+
+	/**
+	 * Continues counting into a counter started on another thread, which must no longer execute
+	 * statements, e.g. on the thread writing the response body of its request.
+	 *
+	 * @param counter The counter to add the statements of the current thread to.
+	 * @return the same counter
+	 */
+	public static StatementCounter resume(StatementCounter counter) {
+		CURRENT.set(counter);
+		return counter;
+	}
+
+	/**
+	 * Stops counting the statements of the current thread.
+	 */
+	public static void stop() {
+		CURRENT.remove();
+	}
+
+	/**
+	 * @return the number of statements executed
+	 */
+	public int statements() {
+		return statements;
+	}
+
+	/**
+	 * @return the time spent executing the statements, in nanoseconds
+	 */
+	public long nanos() {
+		return nanos;
+	}
+
+	/**
+	 * Wraps a DataSource so the statements run on its connections are counted. The proxy implements
+	 * every interface of the target, so e.g. a {@link java.io.Closeable} pool is still closed with the
+	 * context and can still be unwrapped for its metrics.
+	 *
+	 * @param dataSource The DataSource to wrap.
+	 * @return the counting DataSource
+	 * @throws IllegalArgumentException if the DataSource is null
+	 */
+	public static DataSource counting(DataSource dataSource) {
+
+		if (dataSource == null) throw new IllegalArgumentException("DataSource value is null");
+
+		return (DataSource) Proxy.newProxyInstance(dataSource.getClass().getClassLoader(),
+				ClassUtils.getAllInterfaces(dataSource), new CountingHandler(dataSource));
+	}
+
+	private static void record(long elapsed) {
+		StatementCounter counter = CURRENT.get();
+		if (counter != null) {
+			counter.statements++;
+			counter.nanos += elapsed;
+		}
+	}
+
+	/**
+	 * Wraps the connections of a DataSource, the statements of a connection, and counts the
+	 * executions of a statement.
+	 */
+	private static final class CountingHandler implements InvocationHandler {
+
+		private final Object target;
+
+		private CountingHandler(Object target) {
+			this.target = target;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			if (method.getDeclaringClass() == Object.class) {
+				return switch (method.getName()) {
+					case "equals" -> proxy == args[0];
+					case "hashCode" -> System.identityHashCode(proxy);
+					default -> "Counting " + target;
+				};
+			}
+
+			boolean execute = EXECUTE_METHODS.contains(method.getName());
+			long start = execute ? System.nanoTime() : 0L;
+			Object result;
+			try {
+				result = method.invoke(target, args);
+			} catch (InvocationTargetException exception) {
+				throw exception.getCause();
+			} finally {
+				if (execute) {
+					record(System.nanoTime() - start);
+				}
+			}
+
+			// Connections and statements handed out are counted too
+			String name = method.getName();
+			if (result != null && (name.equals("getConnection") && target instanceof DataSource
+					|| name.equals("createStatement") || name.equals("prepareStatement") || name.equals("prepareCall"))) {
+				return Proxy.newProxyInstance(target.getClass().getClassLoader(),
+						new Class<?>[] {method.getReturnType()}, new CountingHandler(result));
+			}
+			return result;
+		}
+	}
+}
@@ -0,0 +1,68 @@
+package todo.app.metrics;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * PasswordEncoder timing the encoder it delegates to, so the hashing cost of registrations and
+ * Basic or password logins shows apart from the rest of the request.
+ *
+ * Calls are recorded as {@value #TIMER_NAME}, tagged with {@code operation=encode|matches}.
+ *
+ * @author Marcel Pulido
+ * @version 1.0
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+	public static final String TIMER_NAME = "todo.security.password";
+
+	private final PasswordEncoder delegate;
+
+	private final Timer encodeTimer;
+
+	private final Timer matchesTimer;
+
+	/**
+	 * Constructs the encoder around the one doing the work.
+	 *
+	 * @param delegate      The encoder hashing and checking passwords.
+	 * @param meterRegistry The registry receiving the timers.
+	 * @throws IllegalArgumentException if any argument is null
+	 */
+	public TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry meterRegistry) {
+
+		if (delegate == null) throw new IllegalArgumentException("PasswordEncoder value is null");
+		if (meterRegistry == null) throw new IllegalArgumentException("MeterRegistry value is null");
+
+		this.delegate = delegate;
+		this.encodeTimer = timer("encode", meterRegistry);
+		this.matchesTimer = timer("matches", meterRegistry);
+	}
+
+	@Override
+	public String encode(CharSequence rawPassword) {
+		return encodeTimer.record((Supplier<String>) () -> delegate.encode(rawPassword));
+	}
+
+	@Override
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		return matchesTimer.record((BooleanSupplier) () -> delegate.matches(rawPassword, encodedPassword));
+	}
+
+	@Override
+	public boolean upgradeEncoding(String encodedPassword) {
+		return delegate.upgradeEncoding(encodedPassword);
+	}
+
+	private static Timer timer(String operation, MeterRegistry meterRegistry) {
+		return Timer.builder(TIMER_NAME)
+				.description("Password hashing and verification")
+				.tag("operation", operation)
+				.register(meterRegistry);
+	}
+}
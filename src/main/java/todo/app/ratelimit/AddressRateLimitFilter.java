@@ -0,0 +1,87 @@
+package todo.app.ratelimit;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Rate limits all requests of each client address with one {@link TokenBucketRateLimiter}, ahead of
+ * Spring Security, so a flood is rejected before it costs a password check or a user query: requests
+ * with bad credentials, which never reach the {@link RateLimitInterceptor}, are limited too.
+ *
+ * The limit is meant to be well above what a single user needs, since many users may share an
+ * address behind a NAT or proxy; the per-user, per-endpoint limits stay with the interceptor. A
+ * request over the limit gets a 429 with a {@code Retry-After} header in seconds and is counted as
+ * {@value RateLimitSupport#REJECTED_NAME}, tagged with {@code limit=address} and {@code method}.
+ * Idle buckets are dropped by a background sweep, stopped on {@link #destroy()}.
+ *
+ * @author Marcel Pulido
+ * @version 1.0
+ */
+public class AddressRateLimitFilter extends OncePerRequestFilter {
+
+	private static final Logger logger = LoggerFactory.getLogger(AddressRateLimitFilter.class);
+
+	private final TokenBucketRateLimiter limiter;
+
+	private final MeterRegistry meterRegistry;
+
+	private final ScheduledExecutorService evictor;
+
+	/**
+	 * Constructs a filter reporting to a meter registry.
+	 *
+	 * @param meterRegistry    The registry receiving the rejections.
+	 * @param capacity         The burst of requests allowed per address.
+	 * @param permitsPerSecond The sustained rate of requests per address.
+	 * @param idleTimeout      How long an address's bucket is kept after its last request.
+	 * @throws IllegalArgumentException if the meter registry is null or a limit invalid
+	 */
+	public AddressRateLimitFilter(MeterRegistry meterRegistry, int capacity, double permitsPerSecond, Duration idleTimeout) {
+
+		if (meterRegistry == null) throw new IllegalArgumentException("MeterRegistry value is null");
+
+		this.limiter = new TokenBucketRateLimiter(capacity, permitsPerSecond, idleTimeout);
+		this.meterRegistry = meterRegistry;
+		this.evictor = RateLimitSupport.scheduleEviction("address-rate-limit-evictor", idleTimeout, this::evictIdle);
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		long waitMicros = limiter.tryAcquire(request.getRemoteAddr());
+		if (waitMicros == 0) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+		RateLimitSupport.reject(response, waitMicros, meterRegistry, "limit", "address", "method", request.getMethod(),
+				"uri", "UNKNOWN");
+	}
+
+	/**
+	 * Drops the buckets of idle addresses.
+	 */
+	public void evictIdle() {
+		try {
+			logger.debug("Evicted {} idle address rate limit buckets", limiter.evictIdle());
+		} catch (RuntimeException e) {
+			// An exception would cancel the periodic sweep
+			logger.error("Failed to evict idle address rate limit buckets", e);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		evictor.shutdownNow();
+	}
+}
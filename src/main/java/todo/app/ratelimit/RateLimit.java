@@ -0,0 +1,31 @@
+package todo.app.ratelimit;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the rate limit of a controller method, per authenticated user or, for anonymous
+ * requests, per client address. Endpoints declaring none get the configured default limit, each
+ * with buckets of its own. Enforced by the {@link RateLimitInterceptor}.
+ *
+ * @author Marcel Pulido
+ * @version 1.0
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface RateLimit {
+
+	/**
+	 * @return the number of requests a client may send at once, after being idle
+	 */
+	int capacity();
+
+	/**
+	 * @return the sustained number of requests per second a client may send
+	 */
+	double permitsPerSecond();
+}
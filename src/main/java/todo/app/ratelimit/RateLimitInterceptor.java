@@ -0,0 +1,193 @@
+package todo.app.ratelimit;
+
+import java.io.Closeable;
+import java.lang.reflect.Method;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.env.PropertyResolver;
+import org.springframework.core.env.PropertySourcesPropertyResolver;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Rate limits each controller method per client with a {@link TokenBucketRateLimiter}, using the
+ * method's {@link RateLimit} or the default limit. Clients are the authenticated user, or the
+ * remote address for anonymous requests such as login and registration.
+ *
+ * Operators override the limit of one endpoint with the properties
+ * {@code todo.rate-limit.endpoints.<method>.capacity}, {@code .permits-per-second} and
+ * {@code .enabled}, where {@code <method>} is the name of the controller method, e.g.
+ * {@code todo.rate-limit.endpoints.login.capacity=20}. Attributes not set keep the declared or
+ * default value; {@code enabled=false} lets every request of the endpoint through.
+ *
+ * Runs once the handler is resolved and Spring Security has authenticated the request, behind the
+ * {@link AddressRateLimitFilter} that shields authentication itself. A request over the limit gets a
+ * 429 with a {@code Retry-After} header in seconds and is counted as {@value #REJECTED_NAME},
+ * tagged with {@code limit=endpoint}, {@code method} and {@code uri}. Idle buckets are dropped by a
+ * background sweep, stopped on {@link #close()}.
+ *
+ * @author Marcel Pulido
+ * @version 1.0
+ */
+public class RateLimitInterceptor implements HandlerInterceptor, Closeable {
+
+	public static final String REJECTED_NAME = RateLimitSupport.REJECTED_NAME;
+
+	/**
+	 * Prefix of the properties overriding the limit of one endpoint.
+	 */
+	public static final String ENDPOINTS_PREFIX = "todo.rate-limit.endpoints.";
+
+	private static final Logger logger = LoggerFactory.getLogger(RateLimitInterceptor.class);
+
+	/**
+	 * Limiter of each controller method, empty for endpoints whose limit is disabled.
+	 */
+	private final ConcurrentMap<Method, Optional<TokenBucketRateLimiter>> limiters = new ConcurrentHashMap<>();
+
+	private final PropertyResolver endpointProperties;
+
+	private final MeterRegistry meterRegistry;
+
+	private final int defaultCapacity;
+
+	private final double defaultPermitsPerSecond;
+
+	private final Duration idleTimeout;
+
+	private final ScheduledExecutorService evictor;
+
+	/**
+	 * Constructs an interceptor reporting to a meter registry, with no endpoint overrides.
+	 *
+	 * @param meterRegistry           The registry receiving the rejections.
+	 * @param defaultCapacity         The capacity of endpoints declaring no limit.
+	 * @param defaultPermitsPerSecond The rate of endpoints declaring no limit.
+	 * @param idleTimeout             How long a client's bucket is kept after its last request.
+	 * @throws IllegalArgumentException if the meter registry is null or a limit invalid
+	 */
+	public RateLimitInterceptor(MeterRegistry meterRegistry, int defaultCapacity, double defaultPermitsPerSecond,
+			Duration idleTimeout) {
+		this(meterRegistry, defaultCapacity, defaultPermitsPerSecond, idleTimeout,
+				new PropertySourcesPropertyResolver(new MutablePropertySources()));
+	}
+
+	/**
+	 * Constructs an interceptor reporting to a meter registry, reading endpoint overrides from
+	 * the given properties.
+	 *
+	 * @param meterRegistry           The registry receiving the rejections.
+	 * @param defaultCapacity         The capacity of endpoints declaring no limit.
+	 * @param defaultPermitsPerSecond The rate of endpoints declaring no limit.
+	 * @param idleTimeout             How long a client's bucket is kept after its last request.
+	 * @param endpointProperties      The properties overriding the limits of single endpoints.
+	 * @throws IllegalArgumentException if the meter registry or the properties are null, or a limit invalid
+	 */
+	public RateLimitInterceptor(MeterRegistry meterRegistry, int defaultCapacity, double defaultPermitsPerSecond,
+			Duration idleTimeout, PropertyResolver endpointProperties) {
+
+		if (meterRegistry == null) throw new IllegalArgumentException("MeterRegistry value is null");
+		if (endpointProperties == null) throw new IllegalArgumentException("PropertyResolver value is null");
+		if (idleTimeout == null || idleTimeout.isZero() || idleTimeout.isNegative()) throw new IllegalArgumentException("Idle timeout must be positive");
+		// Fails on an invalid default limit at startup rather than on the first request
+		new TokenBucketRateLimiter(defaultCapacity, defaultPermitsPerSecond, idleTimeout);
+
+		this.meterRegistry = meterRegistry;
+		this.defaultCapacity = defaultCapacity;
+		this.defaultPermitsPerSecond = defaultPermitsPerSecond;
+		this.idleTimeout = idleTimeout;
+		this.endpointProperties = endpointProperties;
+
+		this.evictor = RateLimitSupport.scheduleEviction("rate-limit-evictor", idleTimeout, this::evictIdle);
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+		if (!(handler instanceof HandlerMethod handlerMethod)) {
+			return true;
+		}
+
+		Optional<TokenBucketRateLimiter> limiter = limiter(handlerMethod);
+		if (limiter.isEmpty()) {
+			return true;
+		}
+		long waitMicros = limiter.get().tryAcquire(clientKey(request));
+		if (waitMicros == 0) {
+			return true;
+		}
+
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		RateLimitSupport.reject(response, waitMicros, meterRegistry,
+				"limit", "endpoint", "method", request.getMethod(), "uri", pattern == null ? "UNKNOWN" : pattern.toString());
+		return false;
+	}
+
+	/**
+	 * Drops the buckets of idle clients from every endpoint's limiter.
+	 */
+	public void evictIdle() {
+		try {
+			int evicted = 0;
+			for (Optional<TokenBucketRateLimiter> limiter : limiters.values()) {
+				if (limiter.isPresent()) {
+					evicted += limiter.get().evictIdle();
+				}
+			}
+			logger.debug("Evicted {} idle rate limit buckets", evicted);
+		} catch (RuntimeException e) {
+			// An exception would cancel the periodic sweep
+			logger.error("Failed to evict idle rate limit buckets", e);
+		}
+	}
+
+	@Override
+	public void close() {
+		evictor.shutdownNow();
+	}
+
+	private Optional<TokenBucketRateLimiter> limiter(HandlerMethod handlerMethod) {
+		Method method = handlerMethod.getMethod();
+		Optional<TokenBucketRateLimiter> limiter = limiters.get(method);
+		if (limiter == null) {
+			limiter = limiters.computeIfAbsent(method, m -> createLimiter(handlerMethod));
+		}
+		return limiter;
+	}
+
+	/**
+	 * Creates the limiter of an endpoint from its overriding properties, falling back on its
+	 * {@link RateLimit} and then on the default limit.
+	 */
+	private Optional<TokenBucketRateLimiter> createLimiter(HandlerMethod handlerMethod) {
+		String prefix = ENDPOINTS_PREFIX + handlerMethod.getMethod().getName() + ".";
+		if (!endpointProperties.getProperty(prefix + "enabled", Boolean.class, true)) {
+			return Optional.empty();
+		}
+
+		RateLimit rateLimit = handlerMethod.getMethodAnnotation(RateLimit.class);
+		int capacity = endpointProperties.getProperty(prefix + "capacity", Integer.class,
+				rateLimit == null ? defaultCapacity : rateLimit.capacity());
+		double permitsPerSecond = endpointProperties.getProperty(prefix + "permits-per-second", Double.class,
+				rateLimit == null ? defaultPermitsPerSecond : rateLimit.permitsPerSecond());
+		return Optional.of(new TokenBucketRateLimiter(capacity, permitsPerSecond, idleTimeout));
+	}
+
+	private static String clientKey(HttpServletRequest request) {
+		// Spring Security exposes no principal for anonymous requests
+		Principal principal = request.getUserPrincipal();
+		return principal != null ? principal.getName() : "address:" + request.getRemoteAddr();
+	}
+}
@@ -0,0 +1,69 @@
+package todo.app.ratelimit;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * What the rate limit filter and interceptor share: the 429 response with its {@code Retry-After}
+ * header, the {@value #REJECTED_NAME} counter, and the background sweep of idle buckets.
+ *
+ * @author Marcel Pulido
+ * @version 1.0
+ */
+final class RateLimitSupport {
+
+	static final String REJECTED_NAME = "todo.rate-limit.rejected";
+
+	private RateLimitSupport() {
+	}
+
+	/**
+	 * Answers a request over its limit and counts it.
+	 *
+	 * @param response      The response to write.
+	 * @param waitMicros    The time until the client's next token.
+	 * @param meterRegistry The registry receiving the rejection.
+	 * @param tags          The tags of the rejection counter, as key and value pairs.
+	 */
+	static void reject(HttpServletResponse response, long waitMicros, MeterRegistry meterRegistry, String... tags)
+			throws IOException {
+		Counter.builder(REJECTED_NAME)
+				.description("Requests rejected for exceeding a rate limit")
+				.tags(tags)
+				.register(meterRegistry)
+				.increment();
+
+		long retryAfterSeconds = Math.max(1L, (waitMicros + 999_999) / 1_000_000);
+		response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+		response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+		response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+		response.getWriter().write("Too many requests. Retry after " + retryAfterSeconds + " seconds.");
+	}
+
+	/**
+	 * Runs a sweep of idle buckets on a daemon thread, twice per idle timeout and at most once a second.
+	 *
+	 * @return the executor, to be shut down with its owner
+	 */
+	static ScheduledExecutorService scheduleEviction(String threadName, Duration idleTimeout, Runnable sweep) {
+		ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, threadName);
+			thread.setDaemon(true);
+			return thread;
+		});
+		long sweepMillis = Math.max(1000L, idleTimeout.toMillis() / 2);
+		evictor.scheduleWithFixedDelay(sweep, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+		return evictor;
+	}
+}
@@ -0,0 +1,173 @@
+package todo.app.ratelimit;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets keyed by client, all with the same limit: a bucket holds up to {@code capacity}
+ * tokens, gains one every {@code 1 / permitsPerSecond} seconds, and each request takes one.
+ *
+ * A bucket is a single {@link AtomicLong} packing its token count (high {@value #TOKEN_BITS} bits)
+ * with the time of its last refill in microseconds (low {@value #TIME_BITS} bits), so acquiring is
+ * one read and one compare-and-set, retried only under contention on the same client. Tokens are
+ * refilled lazily from the elapsed time, in whole tokens, keeping the remainder of the time for the
+ * next refill. Times are stored modulo 2^{@value #TIME_BITS} microseconds (about 203 days), far beyond the
+ * idle timeout after which a bucket is dropped, so differences stay exact.
+ *
+ * A bucket idle for the idle timeout is full again and thus equivalent to a new one, so
+ * {@link #evictIdle()} removes it. It is first marked evicted with a compare-and-set, so a
+ * concurrent acquire never takes a token from a bucket being dropped.
+ *
+ * @author Marcel Pulido
+ * @version 1.0
+ */
+public class TokenBucketRateLimiter {
+
+	private static final int TIME_BITS = 44;
+
+	private static final int TOKEN_BITS = Long.SIZE - TIME_BITS;
+
+	private static final long TIME_MASK = (1L << TIME_BITS) - 1;
+
+	/**
+	 * Largest capacity that can be packed, the all-ones state being reserved for evicted buckets.
+	 */
+	public static final int MAX_CAPACITY = (1 << TOKEN_BITS) - 2;
+
+	private static final long EVICTED = -1L;
+
+	private final ConcurrentMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+	private final long capacity;
+
+	/**
+	 * Microseconds needed to gain one token.
+	 */
+	private final long refillMicros;
+
+	private final long idleMicros;
+
+	private final LongSupplier clockMicros;
+
+	/**
+	 * Constructs a rate limiter running on the system clock.
+	 *
+	 * @param capacity         The maximum number of tokens of a bucket, the size of a burst.
+	 * @param permitsPerSecond The sustained rate of requests per client.
+	 * @param idleTimeout      How long a bucket is kept after its last request.
+	 * @throws IllegalArgumentException if a limit is not positive or out of range
+	 */
+	public TokenBucketRateLimiter(int capacity, double permitsPerSecond, Duration idleTimeout) {
+		this(capacity, permitsPerSecond, idleTimeout, () -> System.nanoTime() / 1000);
+	}
+
+	TokenBucketRateLimiter(int capacity, double permitsPerSecond, Duration idleTimeout, LongSupplier clockMicros) {
+
+		if (capacity < 1 || capacity > MAX_CAPACITY) throw new IllegalArgumentException("Capacity must be between 1 and " + MAX_CAPACITY);
+		if (!(permitsPerSecond > 0) || Double.isInfinite(permitsPerSecond)) throw new IllegalArgumentException("Permits per second must be positive");
+		if (idleTimeout == null || idleTimeout.isNegative()) throw new IllegalArgumentException("Idle timeout value is null or negative");
+
+		this.capacity = capacity;
+		this.refillMicros = Math.max(1L, Math.round(1_000_000 / permitsPerSecond));
+		// A bucket may only be dropped once it is full again
+		this.idleMicros = Math.max(idleTimeout.toNanos() / 1000, capacity * refillMicros);
+		this.clockMicros = clockMicros;
+
+		if (idleMicros > TIME_MASK >>> 2) throw new IllegalArgumentException("Idle timeout or refill time too long");
+	}
+
+	/**
+	 * Takes a token from a client's bucket.
+	 *
+	 * @param key The client, e.g. a username or an address.
+	 * @return 0 if the request is allowed, otherwise the microseconds until a token is available
+	 */
+	public long tryAcquire(String key) {
+		long now = clockMicros.getAsLong() & TIME_MASK;
+		while (true) {
+			AtomicLong bucket = buckets.get(key);
+			if (bucket == null) {
+				// Only a client's first request takes the map's bin lock
+				bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(pack(capacity, now)));
+			}
+			long waitMicros = tryAcquire(bucket, now);
+			if (waitMicros >= 0) {
+				return waitMicros;
+			}
+			// Evicted meanwhile, finish removing it and start over with a new bucket
+			buckets.remove(key, bucket);
+		}
+	}
+
+	/**
+	 * Drops the buckets of clients idle for the idle timeout.
+	 *
+	 * @return the number of buckets dropped
+	 */
+	public int evictIdle() {
+		long now = clockMicros.getAsLong() & TIME_MASK;
+		int evicted = 0;
+		for (Map.Entry<String, AtomicLong> entry : buckets.entrySet()) {
+			AtomicLong bucket = entry.getValue();
+			long state = bucket.get();
+			if (state != EVICTED && elapsed(state, now) >= idleMicros && bucket.compareAndSet(state, EVICTED)) {
+				buckets.remove(entry.getKey(), bucket);
+				evicted++;
+			}
+		}
+		return evicted;
+	}
+
+	/**
+	 * @return the number of clients with a bucket
+	 */
+	public int size() {
+		return buckets.size();
+	}
+
+	/**
+	 * @return 0 if a token was taken, the microseconds until one is available, or -1 if the bucket is evicted
+	 */
+	private long tryAcquire(AtomicLong bucket, long now) {
+		while (true) {
+			long state = bucket.get();
+			if (state == EVICTED) {
+				return -1L;
+			}
+
+			long elapsed = elapsed(state, now);
+			long gained = elapsed / refillMicros;
+			long tokens = state >>> TIME_BITS;
+			long refilledAt;
+			if (tokens + gained >= capacity) {
+				tokens = capacity;
+				refilledAt = now;
+			} else {
+				tokens += gained;
+				refilledAt = ((state & TIME_MASK) + gained * refillMicros) & TIME_MASK;
+			}
+
+			if (tokens == 0) {
+				// Nothing gained, so the next token is due one refill period after the last refill
+				return refillMicros - elapsed;
+			}
+			if (bucket.compareAndSet(state, pack(tokens - 1, refilledAt))) {
+				return 0L;
+			}
+		}
+	}
+
+	private static long elapsed(long state, long now) {
+		long elapsed = (now - state) & TIME_MASK;
+		// A clock read just before another thread's update looks like a wrap-around, no time passed
+		return elapsed > TIME_MASK >>> 1 ? 0L : elapsed;
+	}
+
+	private static long pack(long tokens, long time) {
+		return tokens << TIME_BITS | time;
+	}
+}
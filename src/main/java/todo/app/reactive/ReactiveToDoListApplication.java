@@ -0,0 +1,93 @@
+package todo.app.reactive;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import io.r2dbc.spi.ConnectionFactory;
+import todo.app.exception.GoblalExceptionHandler;
+import todo.app.reactive.repository.ReactiveTaskRepository;
+import todo.app.reactive.repository.ReactiveUserRepository;
+import todo.app.reactive.repository.impl.R2dbcTaskRepository;
+import todo.app.reactive.repository.impl.R2dbcUserRepository;
+import todo.app.reactive.service.ReactiveTaskService;
+import todo.app.reactive.service.ReactiveUserService;
+import todo.app.reactive.service.impl.ReactiveTaskServiceImpl;
+import todo.app.reactive.service.impl.ReactiveUserServiceImpl;
+import todo.app.service.impl.TaskServiceImpl;
+
+/**
+ * Reactive variant of the task API: WebFlux controllers on Netty and R2DBC repositories,
+ * serving the same endpoints and validation rules as {@link todo.app.ToDoListApplication}
+ * without a thread per request.
+ *
+ * Every class of this package is restricted to the {@value #PROFILE} profile, which this
+ * application activates, so the blocking application scanning {@code todo.app} skips them.
+ */
+@SpringBootApplication(exclude = DataSourceAutoConfiguration.class)
+@Profile(ReactiveToDoListApplication.PROFILE)
+@Import(GoblalExceptionHandler.class)
+public class ReactiveToDoListApplication {
+
+	/**
+	 * The profile of the reactive stack, also selecting {@code application-reactive.properties}.
+	 */
+	public static final String PROFILE = "reactive";
+
+	public static void main(String[] args) {
+		application().run(args);
+	}
+
+	/**
+	 * Returns the builder of the reactive application, with its profile active.
+	 */
+	public static SpringApplicationBuilder application() {
+		return new SpringApplicationBuilder(ReactiveToDoListApplication.class)
+				.profiles(PROFILE)
+				.web(WebApplicationType.REACTIVE);
+	}
+
+	/**
+	 * Runs on Netty. Tomcat is on the classpath for the blocking application, and Spring Boot
+	 * would pick it over Netty for a reactive server of its own choosing.
+	 */
+	@Bean
+	NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+		return new NettyReactiveWebServerFactory();
+	}
+
+	@Bean
+	DatabaseClient databaseClient(ConnectionFactory connectionFactory) {
+		return DatabaseClient.create(connectionFactory);
+	}
+
+	@Bean
+	ReactiveTaskRepository reactiveTaskRepository(DatabaseClient databaseClient, ReactiveTransactionManager transactionManager) {
+		return new R2dbcTaskRepository(databaseClient, TransactionalOperator.create(transactionManager));
+	}
+
+	@Bean
+	ReactiveUserRepository reactiveUserRepository(DatabaseClient databaseClient) {
+		return new R2dbcUserRepository(databaseClient);
+	}
+
+	@Bean
+	ReactiveTaskService reactiveTaskService(ReactiveTaskRepository reactiveTaskRepository,
+			@Value("${todo.tasks.max-batch-size:" + TaskServiceImpl.DEFAULT_MAX_BATCH_SIZE + "}") int maxBatchSize) {
+		return new ReactiveTaskServiceImpl(reactiveTaskRepository, maxBatchSize);
+	}
+
+	@Bean
+	ReactiveUserService reactiveUserService(ReactiveUserRepository reactiveUserRepository) {
+		return new ReactiveUserServiceImpl(reactiveUserRepository);
+	}
+}
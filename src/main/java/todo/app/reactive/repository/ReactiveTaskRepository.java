@@ -0,0 +1,82 @@
+package todo.app.reactive.repository;
+
+import java.util.List;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import todo.app.logic.Task;
+
+/**
+ * Non-blocking counterpart of {@link todo.app.repository.TaskRepository}. Every operation
+ * returns immediately and completes once the database has answered, without holding a thread
+ * while it waits.
+ *
+ * @author Marcel Pulido
+ * @version 1.0
+ */
+public interface ReactiveTaskRepository {
+
+    /**
+     * Stores a new task under the next task ID of its owner.
+     *
+     * @param task The task to store.
+     * @param user_id The ID of the user owning the task.
+     * @return the ID allocated to the task
+     */
+    Mono<Long> createTask(Task task, Long user_id);
+
+    /**
+     * Stores several new tasks in one transaction, allocating their IDs together.
+     *
+     * @param tasks The tasks to store.
+     * @param user_id The ID of the user owning the tasks.
+     * @return the IDs allocated to the tasks, in the order of the given tasks
+     */
+    Mono<List<Long>> createTasks(List<Task> tasks, Long user_id);
+
+    /**
+     * Retrieves a task of a user.
+     *
+     * @param task_id The ID of the task.
+     * @param user_id The ID of the user owning the task.
+     * @return the task, or an empty Mono if the user has no such task
+     */
+    Mono<Task> findTaskById(Long task_id, Long user_id);
+
+    /**
+     * Replaces the title and description of a task.
+     *
+     * @param task_id The ID of the task.
+     * @param user_id The ID of the user owning the task.
+     * @param task The new title and description.
+     * @return true if the task was updated, false if the user has no such task
+     */
+    Mono<Boolean> updateTask(Long task_id, Long user_id, Task task);
+
+    /**
+     * Deletes a task of a user.
+     *
+     * @param task_id The ID of the task.
+     * @param user_id The ID of the user owning the task.
+     * @return true if the task was deleted, false if the user has no such task
+     */
+    Mono<Boolean> deleteTaskById(Long task_id, Long user_id);
+
+    /**
+     * Streams all tasks of a user in ascending ID order.
+     *
+     * @param user_id The ID of the user.
+     * @return the tasks, emitted as their rows arrive
+     */
+    Flux<Task> getAll(Long user_id);
+
+    /**
+     * Streams the tasks of a user following a cursor, in ascending ID order.
+     *
+     * @param user_id The ID of the user.
+     * @param after_id The ID after which the page starts.
+     * @param limit The maximum number of tasks.
+     * @return the tasks of the page
+     */
+    Flux<Task> getPage(Long user_id, Long after_id, int limit);
+}
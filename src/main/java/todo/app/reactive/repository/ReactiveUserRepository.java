@@ -0,0 +1,38 @@
+package todo.app.reactive.repository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import todo.app.logic.User;
+
+/**
+ * Non-blocking counterpart of the user administration operations of
+ * {@link todo.app.repository.UserRepository}.
+ *
+ * @author Marcel Pulido
+ * @version 1.0
+ */
+public interface ReactiveUserRepository {
+
+    /**
+     * Retrieves a user.
+     *
+     * @param id The ID of the user.
+     * @return the user, or an empty Mono if there is no such user
+     */
+    Mono<User> findUserById(Long id);
+
+    /**
+     * Deletes a user together with its tasks and authorities.
+     *
+     * @param id The ID of the user.
+     * @return the deleted user, or an empty Mono if there is no such user
+     */
+    Mono<User> deleteUserById(Long id);
+
+    /**
+     * Streams all users.
+     *
+     * @return the users, emitted as their rows arrive
+     */
+    Flux<User> getAll();
+}
@@ -0,0 +1,195 @@
+package todo.app.reactive.repository.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import io.r2dbc.spi.Readable;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+import todo.app.logic.Task;
+import todo.app.reactive.repository.ReactiveTaskRepository;
+
+/**
+ * R2DBC implementation of the ReactiveTaskRepository interface, issuing the same statements
+ * as the JDBC task repository through a non-blocking DatabaseClient.
+ *
+ * Task IDs are allocated per user from {@code t_task_sequences} in the transaction inserting
+ * the tasks, so a failed insert never leaves a gap behind.
+ *
+ * @author Marcel Pulido
+ * @version 1.0
+ */
+public class R2dbcTaskRepository implements ReactiveTaskRepository {
+
+    private static final String CREATE_TASK_SQL = "INSERT INTO t_tasks (id, title, description, user_id) VALUES ($1, $2, $3, $4)";
+
+    private static final String FIND_TASK_BY_ID_SQL = "SELECT id, title, description, user_id FROM t_tasks WHERE id = :id AND user_id = :user_id";
+
+    private static final String UPDATE_TASK_SQL = " UPDATE t_tasks"
+            + " SET title = :title, description = :description"
+            + " WHERE id = :id AND user_id = :user_id";
+
+    private static final String DELETE_TASK_BY_ID_SQL = "DELETE FROM t_tasks WHERE id = :id AND user_id = :user_id";
+
+    private static final String GET_ALL_SQL = "SELECT id, title, description, user_id FROM t_tasks WHERE user_id = :user_id ORDER BY id";
+
+    private static final String GET_PAGE_SQL = " SELECT id, title, description, user_id FROM t_tasks"
+            + " WHERE user_id = :user_id AND id > :after_id"
+            + " ORDER BY id LIMIT :limit";
+
+    private static final String ADVANCE_SEQUENCE_SQL = "UPDATE t_task_sequences SET next_id = next_id + :count WHERE user_id = :user_id";
+
+    private static final String NEXT_ID_SQL = "SELECT next_id FROM t_task_sequences WHERE user_id = :user_id";
+
+    private static final String SEED_SEQUENCE_SQL = "INSERT INTO t_task_sequences (user_id, next_id)"
+            + " SELECT :user_id, COALESCE(MAX(id), 0) + 1 + :count FROM t_tasks WHERE user_id = :user_id";
+
+    private final DatabaseClient databaseClient;
+
+    private final TransactionalOperator transactionalOperator;
+
+    /**
+     * Constructs the repository on a DatabaseClient and the transaction manager of its connection factory.
+     *
+     * @param databaseClient The client issuing the statements.
+     * @param transactionalOperator Runs multi-statement writes in a single transaction.
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public R2dbcTaskRepository(DatabaseClient databaseClient, TransactionalOperator transactionalOperator) {
+
+    	if (databaseClient == null) throw new IllegalArgumentException("DatabaseClient value is null");
+    	if (transactionalOperator == null) throw new IllegalArgumentException("TransactionalOperator value is null");
+
+    	this.databaseClient = databaseClient;
+    	this.transactionalOperator = transactionalOperator;
+    }
+
+    @Override
+    public Mono<Long> createTask(Task task, Long user_id) {
+        return createTasks(List.of(task), user_id).map(ids -> ids.get(0));
+    }
+
+    @Override
+    public Mono<List<Long>> createTasks(List<Task> tasks, Long user_id) {
+        Mono<List<Long>> insert = allocateIds(user_id, tasks.size())
+            .flatMap(firstId -> databaseClient.inConnection(connection -> {
+                // One statement with a binding per task, sent as a single batch
+                Statement statement = connection.createStatement(CREATE_TASK_SQL);
+                List<Long> ids = new ArrayList<>(tasks.size());
+                for (int i = 0; i < tasks.size(); i++) {
+                    if (i > 0) {
+                        statement.add();
+                    }
+                    Task task = tasks.get(i);
+                    long id = firstId + i;
+                    statement.bind(0, id).bind(1, task.getTitle()).bind(3, user_id);
+                    if (task.getDescription() == null) {
+                        statement.bindNull(2, String.class);
+                    } else {
+                        statement.bind(2, task.getDescription());
+                    }
+                    ids.add(id);
+                }
+                return Flux.from(statement.execute()).flatMap(Result::getRowsUpdated).then(Mono.just(ids));
+            }));
+
+        // A concurrent first task of the same user may create the sequence row first, retry once
+        return Mono.defer(() -> transactionalOperator.transactional(insert))
+            .retryWhen(Retry.max(1).filter(DataIntegrityViolationException.class::isInstance))
+            .doOnNext(ids -> {
+                for (int i = 0; i < ids.size(); i++) {
+                    tasks.get(i).setEntityId(ids.get(i));
+                }
+            });
+    }
+
+    @Override
+    public Mono<Task> findTaskById(Long task_id, Long user_id) {
+        return databaseClient.sql(FIND_TASK_BY_ID_SQL)
+            .bind("id", task_id)
+            .bind("user_id", user_id)
+            .map(R2dbcTaskRepository::mapToTask)
+            .one();
+    }
+
+    @Override
+    public Mono<Boolean> updateTask(Long task_id, Long user_id, Task task) {
+        DatabaseClient.GenericExecuteSpec update = databaseClient.sql(UPDATE_TASK_SQL)
+            .bind("title", task.getTitle())
+            .bind("id", task_id)
+            .bind("user_id", user_id);
+        update = task.getDescription() == null
+            ? update.bindNull("description", String.class)
+            : update.bind("description", task.getDescription());
+
+        return update.fetch().rowsUpdated().map(rows -> rows > 0);
+    }
+
+    @Override
+    public Mono<Boolean> deleteTaskById(Long task_id, Long user_id) {
+        return databaseClient.sql(DELETE_TASK_BY_ID_SQL)
+            .bind("id", task_id)
+            .bind("user_id", user_id)
+            .fetch()
+            .rowsUpdated()
+            .map(rows -> rows > 0);
+    }
+
+    @Override
+    public Flux<Task> getAll(Long user_id) {
+        return databaseClient.sql(GET_ALL_SQL)
+            .bind("user_id", user_id)
+            .map(R2dbcTaskRepository::mapToTask)
+            .all();
+    }
+
+    @Override
+    public Flux<Task> getPage(Long user_id, Long after_id, int limit) {
+        return databaseClient.sql(GET_PAGE_SQL)
+            .bind("user_id", user_id)
+            .bind("after_id", after_id)
+            .bind("limit", limit)
+            .map(R2dbcTaskRepository::mapToTask)
+            .all();
+    }
+
+    /**
+     * Reserves consecutive task IDs of a user. Must run in the transaction using them,
+     * the sequence row stays locked until it completes.
+     *
+     * @return the first reserved ID
+     */
+    private Mono<Long> allocateIds(Long user_id, int count) {
+        return databaseClient.sql(ADVANCE_SEQUENCE_SQL)
+            .bind("count", count)
+            .bind("user_id", user_id)
+            .fetch()
+            .rowsUpdated()
+            // The first allocation of a user starts after the tasks already stored
+            .flatMap(rows -> rows > 0
+                ? Mono.<Long>empty()
+                : databaseClient.sql(SEED_SEQUENCE_SQL)
+                    .bind("user_id", user_id)
+                    .bind("count", count)
+                    .fetch()
+                    .rowsUpdated())
+            .then(databaseClient.sql(NEXT_ID_SQL)
+                .bind("user_id", user_id)
+                .map(row -> row.get("next_id", Long.class) - count)
+                .one());
+    }
+
+    private static Task mapToTask(Readable row) {
+        Task task = new Task(row.get("title", String.class), row.get("description", String.class));
+        task.setEntityId(row.get("id", Long.class));
+        task.setUserId(row.get("user_id", Long.class));
+        return task;
+    }
+}
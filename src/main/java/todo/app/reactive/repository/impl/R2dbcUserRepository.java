@@ -0,0 +1,70 @@
+package todo.app.reactive.repository.impl;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import todo.app.logic.User;
+import todo.app.reactive.repository.ReactiveUserRepository;
+
+/**
+ * R2DBC implementation of the ReactiveUserRepository interface.
+ *
+ * @author Marcel Pulido
+ * @version 1.0
+ */
+public class R2dbcUserRepository implements ReactiveUserRepository {
+
+    private static final String FIND_USER_BY_ID_SQL = "SELECT id, username, email, password FROM t_users WHERE id = :id";
+
+    private static final String DELETE_USER_BY_ID_SQL = "DELETE FROM t_users WHERE id = :id";
+
+    private static final String GET_ALL_SQL = "SELECT id, username, email, password FROM t_users ORDER BY id";
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Constructs the repository on a DatabaseClient.
+     *
+     * @param databaseClient The client issuing the statements.
+     * @throws IllegalArgumentException if the client is null
+     */
+    public R2dbcUserRepository(DatabaseClient databaseClient) {
+
+    	if (databaseClient == null) throw new IllegalArgumentException("DatabaseClient value is null");
+
+    	this.databaseClient = databaseClient;
+    }
+
+    @Override
+    public Mono<User> findUserById(Long id) {
+        return databaseClient.sql(FIND_USER_BY_ID_SQL)
+            .bind("id", id)
+            .map(R2dbcUserRepository::mapToUser)
+            .one();
+    }
+
+    @Override
+    public Mono<User> deleteUserById(Long id) {
+        // Tasks and authorities of the user are removed by the cascading foreign keys
+        return findUserById(id).flatMap(user -> databaseClient.sql(DELETE_USER_BY_ID_SQL)
+            .bind("id", id)
+            .then()
+            .thenReturn(user));
+    }
+
+    @Override
+    public Flux<User> getAll() {
+        return databaseClient.sql(GET_ALL_SQL)
+            .map(R2dbcUserRepository::mapToUser)
+            .all();
+    }
+
+    private static User mapToUser(Readable row) {
+        User user = new User(row.get("username", String.class), row.get("email", String.class),
+            row.get("password", String.class));
+        user.setEntityId(row.get("id", Long.class));
+        return user;
+    }
+}
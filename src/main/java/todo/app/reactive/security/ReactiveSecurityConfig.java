@@ -0,0 +1,79 @@
+package todo.app.reactive.security;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpMethod;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+
+import todo.app.reactive.ReactiveToDoListApplication;
+import todo.app.security.TodoUserDetails;
+
+import static org.springframework.security.config.Customizer.withDefaults;
+
+/**
+ * Security of the reactive task API: the access rules of the blocking stack over stateless
+ * HTTP Basic, with users and authorities read from the same tables.
+ */
+@Configuration
+@EnableWebFluxSecurity
+@Profile(ReactiveToDoListApplication.PROFILE)
+public class ReactiveSecurityConfig {
+
+	private static final String USER_BY_USERNAME_QUERY =
+			"SELECT id, username, password, enabled FROM t_users WHERE username = :username";
+
+	private static final String AUTHORITIES_BY_USERNAME_QUERY =
+			"SELECT authority FROM t_authorities WHERE username = :username";
+
+	@Bean
+	public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+		return http.authorizeExchange((exchanges) -> exchanges
+				.pathMatchers(HttpMethod.GET, "/todo/app/tasks/**").hasRole("USER")
+				.pathMatchers(HttpMethod.POST, "/todo/app/tasks/**").hasRole("USER")
+				.pathMatchers(HttpMethod.PUT, "/todo/app/tasks/**").hasRole("USER")
+				.pathMatchers(HttpMethod.DELETE, "/todo/app/tasks/**").hasRole("USER")
+				.pathMatchers(HttpMethod.GET, "/todo/app/users/**").hasRole("ADMIN")
+				.pathMatchers(HttpMethod.DELETE, "/todo/app/users/**").hasRole("ADMIN")
+				.pathMatchers("/actuator/health").permitAll()
+				.pathMatchers("/actuator/**").hasRole("ADMIN"))
+		.securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+		.csrf(ServerHttpSecurity.CsrfSpec::disable)
+		.httpBasic(withDefaults())
+		.build();
+	}
+
+	@Bean
+	public ReactiveUserDetailsService userDetailsService(DatabaseClient databaseClient) {
+		// Loads the user ID together with the credentials into the principal
+		return username -> databaseClient.sql(AUTHORITIES_BY_USERNAME_QUERY)
+				.bind("username", username)
+				.map(row -> new SimpleGrantedAuthority(row.get("authority", String.class)))
+				.all()
+				.collectList()
+				.flatMap(authorities -> databaseClient.sql(USER_BY_USERNAME_QUERY)
+						.bind("username", username)
+						.map(row -> new TodoUserDetails(
+								row.get("id", Long.class),
+								row.get("username", String.class),
+								row.get("password", String.class),
+								row.get("enabled", Integer.class) == 1,
+								List.copyOf(authorities)))
+						.one());
+	}
+
+	@Bean
+	public PasswordEncoder passwordEncoder() {
+		return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+	}
+}
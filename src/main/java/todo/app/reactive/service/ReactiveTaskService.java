@@ -0,0 +1,82 @@
+package todo.app.reactive.service;
+
+import java.util.List;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import todo.app.logic.TaskDTO;
+import todo.app.logic.TaskPageDTO;
+
+/**
+ * Non-blocking counterpart of {@link todo.app.service.TaskService}, applying the same
+ * validation rules. Errors are signalled with the exceptions of the blocking service.
+ *
+ * @author Marcel Pulido
+ * @since 1.0
+ */
+public interface ReactiveTaskService {
+
+    /**
+     * Persists a new task.
+     *
+     * @param task the task to be saved
+     * @param user_id the ID of the user who owns the task
+     * @return the ID allocated to the new task
+     */
+    Mono<Long> saveTask(TaskDTO task, Long user_id);
+
+    /**
+     * Persists several new tasks at once, either all of them or none.
+     *
+     * @param tasks the tasks to be saved
+     * @param user_id the ID of the user who owns the tasks
+     * @return the IDs allocated to the new tasks, in the order of the given tasks
+     */
+    Mono<List<Long>> saveTasks(List<TaskDTO> tasks, Long user_id);
+
+    /**
+     * Retrieves a specific task by its ID.
+     *
+     * @param task_id the unique identifier of the task to retrieve
+     * @param user_id the ID of the user requesting the task
+     * @return the requested task, or a TaskNotFoundException signal
+     */
+    Mono<TaskDTO> getTaskById(Long task_id, Long user_id);
+
+    /**
+     * Updates an existing task of the user.
+     *
+     * @param task_id the unique identifier of the task to update
+     * @param user_id the ID of the user who owns the task
+     * @param task the updated title and description
+     * @return completion, or a TaskNotFoundException signal
+     */
+    Mono<Void> updateTask(Long task_id, Long user_id, TaskDTO task);
+
+    /**
+     * Removes a task of the user.
+     *
+     * @param task_id the unique identifier of the task to delete
+     * @param user_id the ID of the user requesting the deletion
+     * @return completion, or a TaskNotFoundException signal
+     */
+    Mono<Void> deleteTaskById(Long task_id, Long user_id);
+
+    /**
+     * Streams all tasks of a user in ascending ID order.
+     *
+     * @param user_id the ID of the user whose tasks should be retrieved
+     * @return the tasks, empty if the user has none
+     */
+    Flux<TaskDTO> getAllTasks(Long user_id);
+
+    /**
+     * Retrieves one page of a user's tasks in ascending ID order.
+     *
+     * @param user_id the ID of the user whose tasks should be retrieved
+     * @param after the cursor returned with the previous page, or null for the first page
+     * @param limit the maximum number of tasks on the page, capped at the maximum page size
+     * @return the page of tasks together with the cursor of the next page
+     */
+    Mono<TaskPageDTO> getTaskPage(Long user_id, Long after, int limit);
+}
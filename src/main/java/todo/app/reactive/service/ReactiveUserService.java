@@ -0,0 +1,38 @@
+package todo.app.reactive.service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import todo.app.logic.UserDTO;
+
+/**
+ * Non-blocking counterpart of the user administration operations of
+ * {@link todo.app.service.UserService}.
+ *
+ * @author Marcel Pulido
+ * @since 1.0
+ */
+public interface ReactiveUserService {
+
+    /**
+     * Retrieves a user.
+     *
+     * @param id the ID of the user
+     * @return the user, or a UserNotFoundException signal
+     */
+    Mono<UserDTO> getUserById(Long id);
+
+    /**
+     * Deletes a user with all of its tasks.
+     *
+     * @param id the ID of the user
+     * @return the deleted user, or a UserNotFoundException signal
+     */
+    Mono<UserDTO> deleteUserById(Long id);
+
+    /**
+     * Streams all users.
+     *
+     * @return the users
+     */
+    Flux<UserDTO> getAllUsers();
+}
@@ -0,0 +1,102 @@
+package todo.app.reactive.service.impl;
+
+import static todo.app.service.impl.TaskValidator.validateBatchSize;
+import static todo.app.service.impl.TaskValidator.validatePageRequest;
+import static todo.app.service.impl.TaskValidator.validateTaskAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import todo.app.exception.TaskNotFoundException;
+import todo.app.logic.Task;
+import todo.app.logic.TaskDTO;
+import todo.app.logic.TaskPageDTO;
+import todo.app.mapper.TaskMapper;
+import todo.app.reactive.repository.ReactiveTaskRepository;
+import todo.app.reactive.service.ReactiveTaskService;
+import todo.app.service.impl.TaskServiceImpl;
+
+public class ReactiveTaskServiceImpl implements ReactiveTaskService {
+
+	private static final String INVALID_TASK_ID_MESSAGE = "Invalid task ID.";
+
+	private ReactiveTaskRepository taskRepository;
+
+	private int maxBatchSize;
+
+	public ReactiveTaskServiceImpl(ReactiveTaskRepository taskRepository, int maxBatchSize) {
+		this.taskRepository = taskRepository;
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	@Override
+	public Mono<Long> saveTask(TaskDTO taskDTO, Long user_id) {
+		// Validation failures become error signals of the returned Mono
+		return Mono.defer(() -> {
+			validateTaskAttributes(taskDTO);
+			return taskRepository.createTask(TaskMapper.toEntity(taskDTO, user_id), user_id);
+		});
+	}
+
+	@Override
+	public Mono<List<Long>> saveTasks(List<TaskDTO> tasksDTO, Long user_id) {
+		return Mono.defer(() -> {
+			validateBatchSize(tasksDTO, maxBatchSize);
+
+			List<Task> tasks = new ArrayList<>(tasksDTO.size());
+			for (TaskDTO taskDTO : tasksDTO) {
+				validateTaskAttributes(taskDTO);
+				tasks.add(TaskMapper.toEntity(taskDTO, user_id));
+			}
+			return taskRepository.createTasks(tasks, user_id);
+		});
+	}
+
+	@Override
+	public Mono<TaskDTO> getTaskById(Long task_id, Long user_id) {
+		return taskRepository.findTaskById(task_id, user_id)
+				.map(TaskMapper::toDTO)
+				.switchIfEmpty(Mono.error(() -> new TaskNotFoundException(INVALID_TASK_ID_MESSAGE)));
+	}
+
+	@Override
+	public Mono<Void> updateTask(Long task_id, Long user_id, TaskDTO taskDTO) {
+		return Mono.defer(() -> {
+			validateTaskAttributes(taskDTO);
+			return taskRepository.updateTask(task_id, user_id, TaskMapper.toEntity(taskDTO, user_id));
+		}).flatMap(updated -> updated ? Mono.empty() : Mono.error(new TaskNotFoundException(INVALID_TASK_ID_MESSAGE)));
+	}
+
+	@Override
+	public Mono<Void> deleteTaskById(Long task_id, Long user_id) {
+		return taskRepository.deleteTaskById(task_id, user_id)
+				.flatMap(deleted -> deleted ? Mono.empty() : Mono.error(new TaskNotFoundException(INVALID_TASK_ID_MESSAGE)));
+	}
+
+	@Override
+	public Flux<TaskDTO> getAllTasks(Long user_id) {
+		return taskRepository.getAll(user_id).map(TaskMapper::toDTO);
+	}
+
+	@Override
+	public Mono<TaskPageDTO> getTaskPage(Long user_id, Long after, int limit) {
+		return Mono.defer(() -> {
+			validatePageRequest(after, limit);
+
+			int pageSize = Math.min(limit, TaskServiceImpl.MAX_PAGE_SIZE);
+
+			// Reads one extra row to know whether another page follows
+			return taskRepository.getPage(user_id, after == null ? 0L : after, pageSize + 1)
+					.map(TaskMapper::toDTO)
+					.collectList()
+					.map(tasksDTO -> {
+						boolean hasNextPage = tasksDTO.size() > pageSize;
+						List<TaskDTO> page = hasNextPage ? tasksDTO.subList(0, pageSize) : tasksDTO;
+						Long nextCursor = hasNextPage ? page.get(pageSize - 1).getId() : null;
+						return new TaskPageDTO(new ArrayList<>(page), nextCursor);
+					});
+		});
+	}
+}
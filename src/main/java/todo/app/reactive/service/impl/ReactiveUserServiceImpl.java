@@ -0,0 +1,37 @@
+package todo.app.reactive.service.impl;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import todo.app.exception.UserNotFoundException;
+import todo.app.logic.UserDTO;
+import todo.app.mapper.UserMapper;
+import todo.app.reactive.repository.ReactiveUserRepository;
+import todo.app.reactive.service.ReactiveUserService;
+
+public class ReactiveUserServiceImpl implements ReactiveUserService {
+
+	private ReactiveUserRepository userRepository;
+
+	public ReactiveUserServiceImpl(ReactiveUserRepository userRepository) {
+		this.userRepository = userRepository;
+	}
+
+	@Override
+	public Mono<UserDTO> getUserById(Long id) {
+		return userRepository.findUserById(id)
+				.map(UserMapper::toDTO)
+				.switchIfEmpty(Mono.error(() -> new UserNotFoundException("Invalid user ID.")));
+	}
+
+	@Override
+	public Mono<UserDTO> deleteUserById(Long id) {
+		return userRepository.deleteUserById(id)
+				.map(UserMapper::toDTO)
+				.switchIfEmpty(Mono.error(() -> new UserNotFoundException("Invalid user ID.")));
+	}
+
+	@Override
+	public Flux<UserDTO> getAllUsers() {
+		return userRepository.getAll().map(UserMapper::toDTO);
+	}
+}
@@ -0,0 +1,95 @@
+package todo.app.reactive.web;
+
+import java.net.URI;
+import java.util.List;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import todo.app.logic.TaskDTO;
+import todo.app.logic.TaskPageDTO;
+import todo.app.reactive.ReactiveToDoListApplication;
+import todo.app.reactive.service.ReactiveTaskService;
+import todo.app.security.TodoUserDetails;
+
+@RestController
+@Profile(ReactiveToDoListApplication.PROFILE)
+public class ReactiveTaskController {
+	
+	private ReactiveTaskService taskService;
+	
+	public ReactiveTaskController(ReactiveTaskService taskService) {
+		this.taskService = taskService;
+	}
+	
+	@GetMapping("/todo/app/tasks/{taskId}")
+	public Mono<TaskDTO> getTaskById(@PathVariable Long taskId, Authentication authentication) {
+		return taskService.getTaskById(taskId, getUserId(authentication));
+	}
+	
+	@GetMapping("/todo/app/tasks/")
+	public Mono<List<TaskDTO>> getAllTasks(Authentication authentication) {
+		return taskService.getAllTasks(getUserId(authentication)).collectList();
+	}
+	
+	@GetMapping(value = "/todo/app/tasks/", params = "limit")
+	public Mono<TaskPageDTO> getTaskPage(@RequestParam(required = false) Long after, @RequestParam int limit,
+			Authentication authentication) {
+		return taskService.getTaskPage(getUserId(authentication), after, limit);
+	}
+	
+	@GetMapping(value = "/todo/app/tasks/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public Flux<TaskDTO> exportTasks(Authentication authentication) {
+		// Each task is written as one JSON line as soon as its row arrives
+		return taskService.getAllTasks(getUserId(authentication));
+	}
+	
+	@PostMapping("/todo/app/tasks/")
+	public Mono<ResponseEntity<Void>> createTask(@RequestBody TaskDTO taskDTO, Authentication authentication,
+			UriComponentsBuilder uriBuilder) {
+		return taskService.saveTask(taskDTO, getUserId(authentication))
+				.map(newTaskId -> ResponseEntity.created(createLocationHeaderForNewTask(uriBuilder, newTaskId)).build());
+	}
+	
+	@PostMapping("/todo/app/tasks/batch")
+	public Mono<ResponseEntity<List<Long>>> createTasks(@RequestBody List<TaskDTO> tasksDTO, Authentication authentication) {
+		return taskService.saveTasks(tasksDTO, getUserId(authentication))
+				.map(newTaskIds -> ResponseEntity.status(HttpStatus.CREATED).body(newTaskIds));
+	}
+	
+	@PutMapping("/todo/app/tasks/{taskId}")
+	public Mono<ResponseEntity<Void>> updateTaskById(@RequestBody TaskDTO taskDTO, @PathVariable Long taskId,
+			Authentication authentication) {
+		return taskService.updateTask(taskId, getUserId(authentication), taskDTO)
+				.then(Mono.fromSupplier(() -> ResponseEntity.noContent().build()));
+	}
+	
+	@DeleteMapping("/todo/app/tasks/{taskId}")
+	public Mono<ResponseEntity<Void>> deleteTaskById(@PathVariable Long taskId, Authentication authentication) {
+		return taskService.deleteTaskById(taskId, getUserId(authentication))
+				.then(Mono.fromSupplier(() -> ResponseEntity.noContent().build()));
+	}
+	
+	private URI createLocationHeaderForNewTask(UriComponentsBuilder uriBuilder, Long newTaskId) {
+		return uriBuilder.path("/todo/app/tasks/{taskId}").buildAndExpand(newTaskId).toUri();
+	}
+	
+	private Long getUserId(Authentication authentication) {
+		// Users are always loaded from the database, so the principal carries the user ID
+		return ((TodoUserDetails) authentication.getPrincipal()).getId();
+	}
+}
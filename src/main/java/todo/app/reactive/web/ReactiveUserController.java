@@ -0,0 +1,41 @@
+package todo.app.reactive.web;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import reactor.core.publisher.Mono;
+import todo.app.logic.UserDTO;
+import todo.app.reactive.ReactiveToDoListApplication;
+import todo.app.reactive.service.ReactiveUserService;
+
+@RestController
+@Profile(ReactiveToDoListApplication.PROFILE)
+public class ReactiveUserController {
+
+	private ReactiveUserService userService;
+	
+	public ReactiveUserController(ReactiveUserService userService) {
+		this.userService = userService;
+	}
+	
+	@GetMapping("/todo/app/users/{userId}")
+	public Mono<UserDTO> getUserById(@PathVariable Long userId) {
+		return userService.getUserById(userId);
+	}
+	
+	@GetMapping("/todo/app/users/")
+	public Mono<List<UserDTO>> getAllUsers() {
+		return userService.getAllUsers().collectList();
+	}
+	
+	@DeleteMapping("/todo/app/users/{userId}") 
+	public Mono<ResponseEntity<Void>> deleteUserById(@PathVariable Long userId) {
+		return userService.deleteUserById(userId).map(userDTO -> ResponseEntity.noContent().build());
+	}
+}
@@ -1,8 +1,10 @@
 package todo.app.repository;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import todo.app.logic.Task;
+import todo.app.logic.TaskDTO;
 
 /**
  * Repository interface for managing CRUD (Create, Read, Update, Delete) operations on
@@ -14,12 +16,38 @@ import todo.app.logic.Task;
 public interface TaskRepository {
 
     /**
-     * Creates a new task in the data source.
+     * Reserves IDs for tasks about to be created, so a store allocating them from the database does
+     * so before the caller opens the transaction creating the tasks, rather than holding a second
+     * connection while that transaction holds the first. Tasks carrying a reserved ID as their entity
+     * ID are created with it.
+     *
+     * @param user_id The identifier of the user who will own the tasks.
+     * @param count The number of IDs to reserve.
+     * @return The reserved IDs in ascending order, or an empty list if the store assigns IDs on creation.
+     */
+    List<Long> reserveTaskIds(Long user_id, int count);
+
+    /**
+     * Creates a new task in the data source, with the ID reserved for it by {@link #reserveTaskIds}
+     * if it carries one, otherwise allocating the next unused task ID for the user.
      *
      * @param task The task to create.
+     * @param user_id The identifier of the user who owns the task.
+     * @return The ID allocated to the new task.
      * @throws InvalidTaskAttributesException if the task attributes are not valid.
      */
-    void createTask(Task task, Long user_id);
+    Long createTask(Task task, Long user_id);
+
+    /**
+     * Creates several tasks for a user with a single batched insert in one transaction.
+     * Either all tasks are created or none is. Tasks are created with the IDs reserved for them by
+     * {@link #reserveTaskIds} if they all carry one, otherwise new IDs are allocated.
+     *
+     * @param tasks The tasks to create.
+     * @param user_id The identifier of the user who owns the tasks.
+     * @return The IDs allocated to the new tasks, in the order of the given tasks.
+     */
+    List<Long> createTasks(List<Task> tasks, Long user_id);
 
     /**
      * Finds a task by its unique identifier.
@@ -31,25 +59,55 @@ public interface TaskRepository {
      */
     Task findTaskById(Long task_id, Long userId);
     
-    Long getNextTaskIdForUser(Long user_id);
-
     /**
-     * Updates an existing task in the data source.
+     * Updates an existing task in the data source with a single statement.
      *
      * @param task The task object with updated values.
-     * @throws TaskNotFoundException if no task exists with the given ID.
+     * @return true if the task was updated, false if no task exists with the given ID for the user.
      * @throws DatabaseException if there's an error during task update
      */
-    void updateTask(Long id,Long user_id, Task task);
+    boolean updateTask(Long id,Long user_id, Task task);
 
     /**
-     * Deletes a task by its unique identifier.
+     * Deletes a task by its unique identifier with a single statement.
      *
      * @param task_id The unique identifier of the task to delete.
      * @param userId  The identifier of the user who created the task.
-     * @return The deleted `Task` object, or null if no task was found with the given ID.
+     * @return true if the task was deleted, false if no task was found with the given ID.
+     */
+    boolean deleteTaskById(Long task_id, Long userId);
+    
+    /**
+     * Partially updates a task, writing only the attributes that are supplied and differ from
+     * the stored ones. A task whose supplied attributes already hold those values is not written.
+     *
+     * @param task_id The identifier of the task to update.
+     * @param user_id The identifier of the user who owns the task.
+     * @param changes The new title and description, null for an attribute left unchanged.
+     * @return {@code true} if the task was changed, {@code false} if it is missing or already up to date
+     */
+    boolean patchTask(Long task_id, Long user_id, Task changes);
+    
+    /**
+     * Updates several tasks of a user in one transaction. The tasks owned by the user are
+     * found with a single query, then updated with one batched statement; tasks the user
+     * does not own are left out.
+     *
+     * @param tasks The tasks with their IDs set and the new title and description.
+     * @param user_id The identifier of the user who owns the tasks.
+     * @return The IDs of the tasks that were updated.
+     */
+    List<Long> updateTasks(List<Task> tasks, Long user_id);
+    
+    /**
+     * Deletes several tasks of a user in one transaction. The tasks owned by the user are
+     * found and deleted with one statement each; IDs the user does not own are left out.
+     *
+     * @param task_ids The IDs of the tasks to delete.
+     * @param user_id The identifier of the user who owns the tasks.
+     * @return The IDs of the tasks that were deleted.
      */
-    Task deleteTaskById(Long task_id, Long userId);
+    List<Long> deleteTasksById(List<Long> task_ids, Long user_id);
     
     /**
      * Retrieves a list of all tasks in the database.
@@ -59,6 +117,47 @@ public interface TaskRepository {
      */
     List<Task> getAll(Long user_id);
     
+    /**
+     * Retrieves one page of a user's tasks ordered by task ID, starting after a given task ID.
+     * The page is read with a keyset seek on the (user_id, id) key, so its cost does not
+     * depend on how many pages precede it.
+     * 
+     * @param user_id The identifier of the user who owns the tasks.
+     * @param after_id The last task ID of the previous page, or 0 for the first page.
+     * @param limit The maximum number of tasks to return.
+     * @return The tasks with an ID greater than after_id, in ascending ID order.
+     */
+    List<Task> getPage(Long user_id, Long after_id, int limit);
+    
+    /**
+     * Retrieves all tasks of a user in ascending ID order, projected straight into DTOs. Only the
+     * id, title and description are read, and no intermediate Task is created per row.
+     * 
+     * @param user_id The identifier of the user who owns the tasks.
+     * @return The tasks of the user, in an array-backed list.
+     */
+    List<TaskDTO> getAllDTOs(Long user_id);
+    
+    /**
+     * Retrieves one page of a user's tasks like {@link #getPage}, projected straight into DTOs.
+     * 
+     * @param user_id The identifier of the user who owns the tasks.
+     * @param after_id The last task ID of the previous page, or 0 for the first page.
+     * @param limit The maximum number of tasks to return.
+     * @return The tasks with an ID greater than after_id, in an array-backed list.
+     */
+    List<TaskDTO> getPageDTOs(Long user_id, Long after_id, int limit);
+    
+    /**
+     * Streams all tasks of a user in ascending ID order to a consumer, one row at a time,
+     * without materializing the full list. The underlying connection stays open until
+     * the last row has been consumed.
+     * 
+     * @param user_id The identifier of the user who owns the tasks.
+     * @param consumer The consumer receiving each task as it is read.
+     */
+    void exportTasks(Long user_id, Consumer<Task> consumer);
+    
     /**
      * Validates a task ID against existing tasks for a user.
      * 
@@ -68,4 +167,12 @@ public interface TaskRepository {
      */
     boolean existById(Long task_id, Long user_id);
     
+    /**
+     * Drops whatever the repository keeps of a user's tasks besides the stored ones, after these
+     * changed without going through it, as when deleting the user removes its tasks by cascade.
+     * 
+     * @param user_id The identifier of the user whose tasks changed.
+     */
+    void evictUserTasks(Long user_id);
+    
 }
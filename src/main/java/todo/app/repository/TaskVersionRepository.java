@@ -0,0 +1,27 @@
+package todo.app.repository;
+
+/**
+ * Repository interface for the per-user task list version, a counter that grows
+ * monotonically with every change to the tasks of a user.
+ * 
+ * @author Marcel Pulido
+ * @version 1.0
+ */
+public interface TaskVersionRepository {
+
+    /**
+     * Returns the current task list version of a user.
+     *
+     * @param user_id The identifier of the user.
+     * @return The current version, 0 if the tasks of the user were never changed.
+     */
+    long getVersion(Long user_id);
+
+    /**
+     * Advances the task list version of a user after a change to the user's tasks.
+     *
+     * @param user_id The identifier of the user.
+     * @return The new version.
+     */
+    long incrementVersion(Long user_id);
+}
@@ -1,6 +1,7 @@
 package todo.app.repository;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import todo.app.logic.User;
 
@@ -69,6 +70,25 @@ public interface UserRepository {
      * @throws DatabaseException if there's an error retrieving users
      */
     List<User> getAll();
+    
+    /**
+     * Retrieves one page of users ordered by user ID, starting after a given user ID. The page is
+     * read with a keyset seek on the primary key and without the password column, so the returned
+     * users have a null password.
+     * 
+     * @param after_id The last user ID of the previous page, or 0 for the first page.
+     * @param limit The maximum number of users to return.
+     * @return The users with an ID greater than after_id, in ascending ID order.
+     */
+    List<User> getPage(Long after_id, int limit);
+    
+    /**
+     * Streams all users in ascending ID order to a consumer, one row at a time, without
+     * materializing the full list or reading the password column. The users have a null password.
+     * 
+     * @param consumer The consumer receiving each user as it is read.
+     */
+    void exportUsers(Consumer<User> consumer);
 
 	/**
 	 * Validates a user ID against the total number of users in the database.
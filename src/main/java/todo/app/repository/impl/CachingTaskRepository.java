@@ -0,0 +1,269 @@
+package todo.app.repository.impl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import todo.app.logic.Task;
+import todo.app.logic.TaskDTO;
+import todo.app.repository.TaskRepository;
+
+/**
+ * TaskRepository decorator serving repeated task reads from memory.
+ *
+ * Single tasks are cached by user and task ID, and the full task list of each user by user ID,
+ * as loaded by the delegate's DTO projection, which both list reads are served from. Both caches
+ * are bounded, the task lists by their total number of tasks, and entries expire a
+ * fixed time after they were loaded. Every change made through this repository invalidates
+ * exactly the entries it affects; pages and exports are always read from the delegate.
+ *
+ * Loads run inside the cache, so an invalidation waits for a load of the same entry in progress
+ * and no value read before a change survives it. A change made inside a transaction invalidates
+ * again once the transaction completes, since a load in between still reads the rows from before
+ * the change. Cached tasks and DTOs are never handed out, callers receive copies.
+ *
+ * Hit, miss, eviction and load time statistics are published to Micrometer as the
+ * {@code tasks.byId} and {@code tasks.byUser} caches.
+ *
+ * @author Marcel Pulido
+ * @version 1.0
+ * @see TaskRepository
+ */
+public class CachingTaskRepository implements TaskRepository {
+
+	private final TaskRepository delegate;
+
+	/**
+	 * Cache of single tasks keyed by owner and task ID.
+	 */
+	private final Cache<TaskKey, Task> taskCache;
+
+	/**
+	 * Cache of the complete task list of each user, in ascending ID order.
+	 */
+	private final Cache<Long, List<TaskDTO>> taskListCache;
+
+	/**
+	 * Constructs a caching repository in front of the given repository.
+	 *
+	 * @param delegate      The repository performing the actual reads and all writes.
+	 * @param maximumSize   The maximum number of cached tasks, in each of the two caches.
+	 * @param timeToLive    How long a cached entry stays valid after it was loaded.
+	 * @param meterRegistry The registry receiving the cache statistics.
+	 * @throws IllegalArgumentException if the delegate or the meter registry is null
+	 */
+	public CachingTaskRepository(TaskRepository delegate, long maximumSize, Duration timeToLive, MeterRegistry meterRegistry) {
+
+		if (delegate == null) throw new IllegalArgumentException("TaskRepository value is null");
+		if (meterRegistry == null) throw new IllegalArgumentException("MeterRegistry value is null");
+
+		this.delegate = delegate;
+		this.taskCache = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfterWrite(timeToLive)
+				.recordStats()
+				.build();
+		this.taskListCache = Caffeine.newBuilder()
+				.maximumWeight(maximumSize)
+				.<Long, List<TaskDTO>>weigher((user_id, tasks) -> Math.max(1, tasks.size()))
+				.expireAfterWrite(timeToLive)
+				.recordStats()
+				.build();
+
+		CaffeineCacheMetrics.monitor(meterRegistry, taskCache, "tasks.byId");
+		CaffeineCacheMetrics.monitor(meterRegistry, taskListCache, "tasks.byUser");
+	}
+
+	@Override
+	public List<Long> reserveTaskIds(Long user_id, int count) {
+		return delegate.reserveTaskIds(user_id, count);
+	}
+
+	@Override
+	public Long createTask(Task task, Long user_id) {
+		Long taskId = delegate.createTask(task, user_id);
+		invalidate(() -> taskListCache.invalidate(user_id));
+		return taskId;
+	}
+
+	@Override
+	public List<Long> createTasks(List<Task> tasks, Long user_id) {
+		List<Long> taskIds = delegate.createTasks(tasks, user_id);
+		invalidate(() -> taskListCache.invalidate(user_id));
+		return taskIds;
+	}
+
+	@Override
+	public Task findTaskById(Long task_id, Long user_id) {
+		// Missing tasks are not cached, the loader returning null leaves no entry
+		Task task = taskCache.get(new TaskKey(user_id, task_id), key -> delegate.findTaskById(task_id, user_id));
+		return task == null ? null : copyOf(task);
+	}
+
+	@Override
+	public boolean updateTask(Long task_id, Long user_id, Task task) {
+		boolean updated = delegate.updateTask(task_id, user_id, task);
+		invalidate(task_id, user_id);
+		return updated;
+	}
+
+	@Override
+	public boolean deleteTaskById(Long task_id, Long user_id) {
+		boolean deleted = delegate.deleteTaskById(task_id, user_id);
+		invalidate(task_id, user_id);
+		return deleted;
+	}
+
+	@Override
+	public boolean patchTask(Long task_id, Long user_id, Task changes) {
+		// A patch that wrote nothing leaves the cached copies valid
+		boolean patched = delegate.patchTask(task_id, user_id, changes);
+		if (patched) {
+			invalidate(task_id, user_id);
+		}
+		return patched;
+	}
+
+	@Override
+	public List<Long> updateTasks(List<Task> tasks, Long user_id) {
+		List<Long> updated = delegate.updateTasks(tasks, user_id);
+		invalidate(() -> {
+			for (Task task : tasks) {
+				taskCache.invalidate(new TaskKey(user_id, task.getEntityId()));
+			}
+			taskListCache.invalidate(user_id);
+		});
+		return updated;
+	}
+
+	@Override
+	public List<Long> deleteTasksById(List<Long> task_ids, Long user_id) {
+		List<Long> deleted = delegate.deleteTasksById(task_ids, user_id);
+		invalidate(() -> {
+			for (Long task_id : task_ids) {
+				taskCache.invalidate(new TaskKey(user_id, task_id));
+			}
+			taskListCache.invalidate(user_id);
+		});
+		return deleted;
+	}
+
+	@Override
+	public List<Task> getAll(Long user_id) {
+		List<TaskDTO> tasksDTO = cachedTaskList(user_id);
+		List<Task> tasks = new ArrayList<>(tasksDTO.size());
+		for (TaskDTO taskDTO : tasksDTO) {
+			Task task = new Task(taskDTO.getTitle(), taskDTO.getDescription());
+			task.setEntityId(taskDTO.getId());
+			tasks.add(task);
+		}
+		return tasks;
+	}
+
+	@Override
+	public List<Task> getPage(Long user_id, Long after_id, int limit) {
+		return delegate.getPage(user_id, after_id, limit);
+	}
+
+	@Override
+	public List<TaskDTO> getAllDTOs(Long user_id) {
+		List<TaskDTO> cached = cachedTaskList(user_id);
+		List<TaskDTO> tasksDTO = new ArrayList<>(cached.size());
+		for (TaskDTO taskDTO : cached) {
+			tasksDTO.add(new TaskDTO(taskDTO.getId(), taskDTO.getTitle(), taskDTO.getDescription()));
+		}
+		return tasksDTO;
+	}
+
+	@Override
+	public List<TaskDTO> getPageDTOs(Long user_id, Long after_id, int limit) {
+		return delegate.getPageDTOs(user_id, after_id, limit);
+	}
+
+	@Override
+	public void exportTasks(Long user_id, Consumer<Task> consumer) {
+		delegate.exportTasks(user_id, consumer);
+	}
+
+	@Override
+	public boolean existById(Long task_id, Long user_id) {
+		return delegate.existById(task_id, user_id);
+	}
+
+	@Override
+	public void evictUserTasks(Long user_id) {
+		delegate.evictUserTasks(user_id);
+		// Single tasks are keyed by task too, so the user's entries are found by a scan
+		invalidate(() -> {
+			taskCache.asMap().keySet().removeIf(key -> key.user_id().equals(user_id));
+			taskListCache.invalidate(user_id);
+		});
+	}
+
+	/**
+	 * Returns a snapshot of the statistics of the single task cache.
+	 *
+	 * @return the cache statistics
+	 */
+	public CacheStats taskStats() {
+		return taskCache.stats();
+	}
+
+	/**
+	 * Returns a snapshot of the statistics of the task list cache.
+	 *
+	 * @return the cache statistics
+	 */
+	public CacheStats taskListStats() {
+		return taskListCache.stats();
+	}
+
+	/**
+	 * Returns a user's cached task list, loading it with the delegate's DTO projection on a miss.
+	 */
+	private List<TaskDTO> cachedTaskList(Long user_id) {
+		return taskListCache.get(user_id, key -> List.copyOf(delegate.getAllDTOs(user_id)));
+	}
+
+	private void invalidate(Long task_id, Long user_id) {
+		invalidate(() -> {
+			taskCache.invalidate(new TaskKey(user_id, task_id));
+			taskListCache.invalidate(user_id);
+		});
+	}
+
+	private static void invalidate(Runnable invalidation) {
+		invalidation.run();
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					invalidation.run();
+				}
+			});
+		}
+	}
+
+	private static Task copyOf(Task task) {
+		Task copy = new Task(task.getTitle(), task.getDescription());
+		copy.setEntityId(task.getEntityId());
+		copy.setUserId(task.getUserId());
+		return copy;
+	}
+
+	/**
+	 * Identifies a cached task by its owner and ID.
+	 */
+	private record TaskKey(Long user_id, Long task_id) {}
+}
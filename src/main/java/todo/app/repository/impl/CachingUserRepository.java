@@ -0,0 +1,170 @@
+package todo.app.repository.impl;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import todo.app.logic.User;
+import todo.app.repository.UserRepository;
+
+/**
+ * UserRepository decorator caching the username to user ID resolution performed on every
+ * task request.
+ *
+ * The cache is bounded by size and by time since write, and records hit, miss and eviction
+ * statistics. Entries are invalidated when a user is updated or deleted through this
+ * repository; every other operation is delegated unchanged. A user ID loaded while an
+ * invalidation ran may predate the change, so it is dropped again instead of being served.
+ *
+ * The statistics are published to Micrometer as the {@code users.idByUsername} cache.
+ *
+ * @author Marcel Pulido
+ * @version 1.0
+ * @see UserRepository
+ */
+public class CachingUserRepository implements UserRepository {
+
+	private final UserRepository delegate;
+
+	/**
+	 * Cache of user IDs keyed by username.
+	 */
+	private final Cache<String, Long> userIdCache;
+
+	/**
+	 * Number of invalidations started, advanced before their entries are removed.
+	 */
+	private final AtomicLong invalidations = new AtomicLong();
+
+	/**
+	 * Constructs a caching repository in front of the given repository.
+	 *
+	 * @param delegate      The repository performing the actual lookups.
+	 * @param maximumSize   The maximum number of cached usernames.
+	 * @param timeToLive    How long a cached user ID stays valid after it was loaded.
+	 * @param meterRegistry The registry receiving the cache statistics.
+	 * @throws IllegalArgumentException if the delegate or the meter registry is null
+	 */
+	public CachingUserRepository(UserRepository delegate, long maximumSize, Duration timeToLive, MeterRegistry meterRegistry) {
+
+		if (delegate == null) throw new IllegalArgumentException("UserRepository value is null");
+		if (meterRegistry == null) throw new IllegalArgumentException("MeterRegistry value is null");
+
+		this.delegate = delegate;
+		this.userIdCache = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfterWrite(timeToLive)
+				.recordStats()
+				.build();
+
+		CaffeineCacheMetrics.monitor(meterRegistry, userIdCache, "users.idByUsername");
+	}
+
+	@Override
+	public void createUser(User user) {
+		delegate.createUser(user);
+	}
+
+	@Override
+	public void updateUser(User user) {
+		delegate.updateUser(user);
+		// The username may have changed, so drop every entry of this user
+		if (user.getEntityId() != null) {
+			invalidateUserId(user.getEntityId());
+		} else {
+			invalidations.incrementAndGet();
+			userIdCache.invalidateAll();
+		}
+	}
+
+	@Override
+	public User findUserById(Long id) {
+		return delegate.findUserById(id);
+	}
+
+	@Override
+	public User findUserByUsername(String username) {
+		return delegate.findUserByUsername(username);
+	}
+
+	@Override
+	public Long findUserIdByUsername(String username) {
+		Long userId = userIdCache.getIfPresent(username);
+		if (userId == null) {
+			// Loaded outside the cache's compute lock so a virtual thread waiting on the
+			// database does not pin its carrier; lookup failures propagate and are not cached
+			long invalidationsBefore = invalidations.get();
+			userId = delegate.findUserIdByUsername(username);
+			if (userId != null && userIdCache.asMap().putIfAbsent(username, userId) == null
+					&& invalidations.get() != invalidationsBefore) {
+				// An invalidation ran during the load and may have missed this entry, which could be stale
+				userIdCache.asMap().remove(username, userId);
+			}
+		}
+		return userId;
+	}
+
+	@Override
+	public User deleteUserById(Long id) {
+		User user = delegate.deleteUserById(id);
+		invalidateUserId(id);
+		return user;
+	}
+
+	@Override
+	public List<User> getAll() {
+		return delegate.getAll();
+	}
+
+	@Override
+	public List<User> getPage(Long after_id, int limit) {
+		return delegate.getPage(after_id, limit);
+	}
+
+	@Override
+	public void exportUsers(Consumer<User> consumer) {
+		delegate.exportUsers(consumer);
+	}
+
+	@Override
+	public boolean existById(Long id) {
+		return delegate.existById(id);
+	}
+
+	/**
+	 * Returns a snapshot of the hit, miss, load and eviction statistics of the user ID cache.
+	 *
+	 * @return the cache statistics
+	 */
+	public CacheStats stats() {
+		return userIdCache.stats();
+	}
+
+	/**
+	 * Returns the approximate number of cached usernames.
+	 *
+	 * @return the estimated cache size
+	 */
+	public long estimatedSize() {
+		return userIdCache.estimatedSize();
+	}
+
+	/**
+	 * Removes every cached username resolving to the given user ID.
+	 *
+	 * @param id The user ID whose entries should be dropped.
+	 */
+	private void invalidateUserId(Long id) {
+		// Advanced first, so a load putting its entry after the removal below sees it and drops the entry
+		invalidations.incrementAndGet();
+		userIdCache.asMap().values().removeIf(id::equals);
+	}
+}
@@ -0,0 +1,900 @@
+package todo.app.repository.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import todo.app.logic.Task;
+import todo.app.logic.TaskDTO;
+import todo.app.repository.TaskRepository;
+
+/**
+ * TaskRepository keeping every task in memory, for deployments where task operations must
+ * not wait on a database round trip.
+ *
+ * Tasks are held per user in a {@link LongObjectHashMap} keyed by the primitive user ID, each
+ * user's tasks in parallel arrays sorted by task ID, so lookups are a binary search and pages
+ * a contiguous range. Task IDs are allocated per user and never reused.
+ *
+ * Every change is appended to a {@link TaskWriteAheadLog} before it is applied. A checkpoint,
+ * run periodically and on close, rotates the log, writes a compacted snapshot of all tasks and
+ * deletes the log files the snapshot covers. On startup the latest snapshot is loaded and the
+ * log files written after it are replayed. A checkpoint that fails is logged, and the next one
+ * retries, the log still holding every change.
+ *
+ * The repository only stores what was written through it. Tasks kept elsewhere, e.g. in the
+ * database before switching to memory storage, are taken over with {@link #importTasks}, which
+ * leaves a marker file in the directory once it has run to completion.
+ *
+ * @author Marcel Pulido
+ * @version 1.0
+ */
+public class InMemoryTaskRepository implements TaskRepository, AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(InMemoryTaskRepository.class);
+
+	/**
+	 * Size in bytes of each write-ahead log file when none is configured.
+	 */
+	public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+	/**
+	 * Number of tasks handed to an export consumer per read lock acquisition.
+	 */
+	private static final int EXPORT_CHUNK_SIZE = 500;
+
+	/**
+	 * Number of imported tasks written per log record.
+	 */
+	private static final int IMPORT_BATCH_SIZE = 500;
+
+	private static final int SNAPSHOT_MAGIC = 0x54534B53;
+
+	/**
+	 * File created in the data directory once an import has completed.
+	 */
+	private static final String IMPORTED_MARKER = "imported";
+
+	private final Path directory;
+
+	/**
+	 * Tasks of each user. Guarded by {@link #usersLock}; the tasks themselves by their own lock.
+	 */
+	private final LongObjectHashMap<UserTasks> users = new LongObjectHashMap<>();
+
+	private final ReentrantReadWriteLock usersLock = new ReentrantReadWriteLock();
+
+	/**
+	 * Held shared by every change and exclusively by a checkpoint, so a snapshot is taken
+	 * exactly at a log rotation.
+	 */
+	private final ReentrantReadWriteLock checkpointLock = new ReentrantReadWriteLock();
+
+	/**
+	 * Serializes checkpoints, including the snapshot writing done outside {@link #checkpointLock}.
+	 */
+	private final ReentrantLock snapshotLock = new ReentrantLock();
+
+	private final TaskWriteAheadLog log;
+
+	private final ScheduledExecutorService checkpointScheduler;
+
+	/**
+	 * Opens the repository in a data directory, recovering the tasks stored there.
+	 *
+	 * @param directory          The directory holding snapshots and log files, created if missing.
+	 * @param segmentSize        The size in bytes of each log file.
+	 * @param checkpointInterval The time between checkpoints, or null to checkpoint only on close.
+	 * @param sync               Whether every change is forced to the storage device before it returns.
+	 * @throws IllegalArgumentException if the directory is null or the segment size is not positive
+	 * @throws UncheckedIOException if the stored tasks cannot be recovered
+	 */
+	public InMemoryTaskRepository(Path directory, int segmentSize, Duration checkpointInterval, boolean sync) {
+
+		if (directory == null) throw new IllegalArgumentException("Directory value is null");
+		if (segmentSize < 1) throw new IllegalArgumentException("Segment size must be positive");
+
+		this.directory = directory;
+		try {
+			Files.createDirectories(directory);
+			long nextGeneration = recover();
+			this.log = new TaskWriteAheadLog(directory, nextGeneration, segmentSize, sync);
+		} catch (IOException exception) {
+			throw new UncheckedIOException("Unable to recover tasks from " + directory, exception);
+		}
+
+		if (checkpointInterval == null) {
+			this.checkpointScheduler = null;
+		} else {
+			this.checkpointScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "task-checkpoint");
+				thread.setDaemon(true);
+				return thread;
+			});
+			long intervalMillis = checkpointInterval.toMillis();
+			checkpointScheduler.scheduleWithFixedDelay(this::scheduledCheckpoint, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	@Override
+	public List<Long> reserveTaskIds(Long user_id, int count) {
+		// IDs are assigned under the user's lock on creation, nothing to reserve
+		return new ArrayList<>();
+	}
+
+	@Override
+	public Long createTask(Task task, Long user_id) {
+		checkpointLock.readLock().lock();
+		try {
+			UserTasks tasks = tasksForWrite(user_id);
+			tasks.lock.writeLock().lock();
+			try {
+				long taskId = tasks.nextId++;
+				log.appendCreate(user_id, taskId, task.getTitle(), task.getDescription());
+				tasks.put(taskId, task.getTitle(), task.getDescription());
+
+				task.setEntityId(taskId);
+				return taskId;
+			} finally {
+				tasks.lock.writeLock().unlock();
+			}
+		} finally {
+			checkpointLock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public List<Long> createTasks(List<Task> tasks, Long user_id) {
+		int count = tasks.size();
+		long[] taskIds = new long[count];
+		String[] titles = new String[count], descriptions = new String[count];
+		for (int i = 0; i < count; i++) {
+			titles[i] = tasks.get(i).getTitle();
+			descriptions[i] = tasks.get(i).getDescription();
+		}
+
+		checkpointLock.readLock().lock();
+		try {
+			UserTasks userTasks = tasksForWrite(user_id);
+			userTasks.lock.writeLock().lock();
+			try {
+				for (int i = 0; i < count; i++) {
+					taskIds[i] = userTasks.nextId + i;
+				}
+				// One record for the whole batch, so it is recovered entirely or not at all
+				log.appendCreateBatch(user_id, taskIds, titles, descriptions);
+				userTasks.nextId += count;
+				for (int i = 0; i < count; i++) {
+					userTasks.put(taskIds[i], titles[i], descriptions[i]);
+				}
+			} finally {
+				userTasks.lock.writeLock().unlock();
+			}
+		} finally {
+			checkpointLock.readLock().unlock();
+		}
+
+		List<Long> ids = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			tasks.get(i).setEntityId(taskIds[i]);
+			ids.add(taskIds[i]);
+		}
+		return ids;
+	}
+
+	@Override
+	public Task findTaskById(Long task_id, Long user_id) {
+		UserTasks tasks = tasksForRead(user_id);
+		if (tasks == null) {
+			return null;
+		}
+
+		tasks.lock.readLock().lock();
+		try {
+			int index = tasks.indexOf(task_id);
+			return index < 0 ? null : tasks.toTask(index);
+		} finally {
+			tasks.lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean updateTask(Long task_id, Long user_id, Task task) {
+		UserTasks tasks = tasksForRead(user_id);
+		if (tasks == null) {
+			return false;
+		}
+
+		checkpointLock.readLock().lock();
+		try {
+			tasks.lock.writeLock().lock();
+			try {
+				int index = tasks.indexOf(task_id);
+				if (index < 0) {
+					return false;
+				}
+				log.appendUpdate(user_id, task_id, task.getTitle(), task.getDescription());
+				tasks.titles[index] = task.getTitle();
+				tasks.descriptions[index] = task.getDescription();
+				return true;
+			} finally {
+				tasks.lock.writeLock().unlock();
+			}
+		} finally {
+			checkpointLock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean deleteTaskById(Long task_id, Long user_id) {
+		UserTasks tasks = tasksForRead(user_id);
+		if (tasks == null) {
+			return false;
+		}
+
+		checkpointLock.readLock().lock();
+		try {
+			tasks.lock.writeLock().lock();
+			try {
+				int index = tasks.indexOf(task_id);
+				if (index < 0) {
+					return false;
+				}
+				log.appendDelete(user_id, task_id);
+				tasks.removeAt(index);
+				return true;
+			} finally {
+				tasks.lock.writeLock().unlock();
+			}
+		} finally {
+			checkpointLock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean patchTask(Long task_id, Long user_id, Task changes) {
+		UserTasks tasks = tasksForRead(user_id);
+		if (tasks == null) {
+			return false;
+		}
+
+		checkpointLock.readLock().lock();
+		try {
+			tasks.lock.writeLock().lock();
+			try {
+				int index = tasks.indexOf(task_id);
+				if (index < 0) {
+					return false;
+				}
+				String title = changes.getTitle() == null ? tasks.titles[index] : changes.getTitle();
+				String description = changes.getDescription() == null ? tasks.descriptions[index] : changes.getDescription();
+				// Nothing differs from the stored task, so nothing is logged
+				if (title.equals(tasks.titles[index]) && Objects.equals(description, tasks.descriptions[index])) {
+					return false;
+				}
+				log.appendUpdate(user_id, task_id, title, description);
+				tasks.titles[index] = title;
+				tasks.descriptions[index] = description;
+				return true;
+			} finally {
+				tasks.lock.writeLock().unlock();
+			}
+		} finally {
+			checkpointLock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public List<Long> updateTasks(List<Task> tasks, Long user_id) {
+		UserTasks userTasks = tasksForRead(user_id);
+		if (userTasks == null) {
+			return new ArrayList<>();
+		}
+
+		checkpointLock.readLock().lock();
+		try {
+			userTasks.lock.writeLock().lock();
+			try {
+				int count = 0;
+				int[] indexes = new int[tasks.size()];
+				long[] taskIds = new long[tasks.size()];
+				String[] titles = new String[tasks.size()], descriptions = new String[tasks.size()];
+				for (Task task : tasks) {
+					int index = userTasks.indexOf(task.getEntityId());
+					if (index >= 0) {
+						indexes[count] = index;
+						taskIds[count] = task.getEntityId();
+						titles[count] = task.getTitle();
+						descriptions[count] = task.getDescription();
+						count++;
+					}
+				}
+				if (count == 0) {
+					return new ArrayList<>();
+				}
+
+				// One record for the whole batch, so it is recovered entirely or not at all
+				log.appendUpdateBatch(user_id, Arrays.copyOf(taskIds, count),
+						Arrays.copyOf(titles, count), Arrays.copyOf(descriptions, count));
+				List<Long> updated = new ArrayList<>(count);
+				for (int i = 0; i < count; i++) {
+					userTasks.titles[indexes[i]] = titles[i];
+					userTasks.descriptions[indexes[i]] = descriptions[i];
+					updated.add(taskIds[i]);
+				}
+				return updated;
+			} finally {
+				userTasks.lock.writeLock().unlock();
+			}
+		} finally {
+			checkpointLock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public List<Long> deleteTasksById(List<Long> task_ids, Long user_id) {
+		UserTasks userTasks = tasksForRead(user_id);
+		if (userTasks == null) {
+			return new ArrayList<>();
+		}
+
+		checkpointLock.readLock().lock();
+		try {
+			userTasks.lock.writeLock().lock();
+			try {
+				int count = 0;
+				long[] taskIds = new long[task_ids.size()];
+				for (Long taskId : task_ids) {
+					if (userTasks.indexOf(taskId) >= 0) {
+						taskIds[count++] = taskId;
+					}
+				}
+				if (count == 0) {
+					return new ArrayList<>();
+				}
+
+				log.appendDeleteBatch(user_id, Arrays.copyOf(taskIds, count));
+				List<Long> deleted = new ArrayList<>(count);
+				for (int i = 0; i < count; i++) {
+					userTasks.removeAt(userTasks.indexOf(taskIds[i]));
+					deleted.add(taskIds[i]);
+				}
+				return deleted;
+			} finally {
+				userTasks.lock.writeLock().unlock();
+			}
+		} finally {
+			checkpointLock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public List<Task> getAll(Long user_id) {
+		return getPage(user_id, 0L, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public List<Task> getPage(Long user_id, Long after_id, int limit) {
+		return readPage(user_id, after_id, limit, UserTasks::toTask);
+	}
+
+	@Override
+	public List<TaskDTO> getAllDTOs(Long user_id) {
+		return getPageDTOs(user_id, 0L, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public List<TaskDTO> getPageDTOs(Long user_id, Long after_id, int limit) {
+		return readPage(user_id, after_id, limit, UserTasks::toTaskDTO);
+	}
+
+	@Override
+	public void exportTasks(Long user_id, Consumer<Task> consumer) {
+		// Hands tasks over in chunks, so a slow consumer never blocks writers of the user
+		long after = 0L;
+		List<Task> chunk;
+		do {
+			chunk = getPage(user_id, after, EXPORT_CHUNK_SIZE);
+			chunk.forEach(consumer);
+			if (!chunk.isEmpty()) {
+				after = chunk.get(chunk.size() - 1).getEntityId();
+			}
+		} while (chunk.size() == EXPORT_CHUNK_SIZE);
+	}
+
+	@Override
+	public boolean existById(Long task_id, Long user_id) {
+		UserTasks tasks = tasksForRead(user_id);
+		if (tasks == null) {
+			return false;
+		}
+
+		tasks.lock.readLock().lock();
+		try {
+			return tasks.indexOf(task_id) >= 0;
+		} finally {
+			tasks.lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void evictUserTasks(Long user_id) {
+		// The tasks are only stored here, nothing changes them underneath
+	}
+
+	/**
+	 * Writes a compacted snapshot of all tasks and deletes the log files it covers.
+	 * Changes are only held back while the log is rotated and the tasks are copied.
+	 */
+	public void checkpoint() {
+		snapshotLock.lock();
+		try {
+			long generation;
+			List<UserSnapshot> snapshot = new ArrayList<>();
+
+			checkpointLock.writeLock().lock();
+			try {
+				generation = log.rotate();
+				usersLock.readLock().lock();
+				try {
+					users.forEach((userId, tasks) -> snapshot.add(tasks.copy(userId)));
+				} finally {
+					usersLock.readLock().unlock();
+				}
+			} finally {
+				checkpointLock.writeLock().unlock();
+			}
+
+			writeSnapshot(generation, snapshot);
+			deleteFilesBefore(generation);
+		} catch (IOException exception) {
+			// The log still holds every change, the next checkpoint retries
+			throw new UncheckedIOException("Unable to write task snapshot", exception);
+		} finally {
+			snapshotLock.unlock();
+		}
+	}
+
+	/**
+	 * Tells whether an import into the data directory has run to completion. An import cut
+	 * short, e.g. by a crash, leaves part of the tasks stored but does not count.
+	 *
+	 * @return true if the directory holds the marker of a completed import
+	 */
+	public boolean isImported() {
+		return Files.exists(directory.resolve(IMPORTED_MARKER));
+	}
+
+	/**
+	 * Copies the tasks of the given users from another task store, keeping their IDs, checkpoints
+	 * so the copy is loaded from a snapshot on the next start, and then marks the directory
+	 * imported. The tasks are logged in batches, each recovered entirely or not at all, and
+	 * replace stored tasks with the same IDs, so an interrupted import can be run again.
+	 *
+	 * @param source   The store to read the tasks from.
+	 * @param user_ids The users whose tasks are copied.
+	 * @return the number of tasks copied
+	 * @throws UncheckedIOException if the completed import cannot be marked
+	 */
+	public long importTasks(TaskRepository source, List<Long> user_ids) {
+		long[] imported = new long[1];
+		for (Long user_id : user_ids) {
+			List<Task> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+			source.exportTasks(user_id, task -> {
+				batch.add(task);
+				if (batch.size() == IMPORT_BATCH_SIZE) {
+					imported[0] += importBatch(user_id, batch);
+				}
+			});
+			imported[0] += importBatch(user_id, batch);
+		}
+		checkpoint();
+		// Only after the snapshot, so a marked directory always holds every imported task
+		try (FileChannel marker = FileChannel.open(directory.resolve(IMPORTED_MARKER),
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+			marker.force(true);
+		} catch (IOException exception) {
+			throw new UncheckedIOException("Unable to mark the task import complete", exception);
+		}
+		logger.info("Imported {} tasks of {} users into {}", imported[0], user_ids.size(), directory);
+		return imported[0];
+	}
+
+	/**
+	 * Stops periodic checkpoints and writes a final snapshot.
+	 */
+	@Override
+	public void close() {
+		if (checkpointScheduler != null) {
+			checkpointScheduler.shutdown();
+		}
+		checkpoint();
+		log.close();
+	}
+
+	/**
+	 * Runs a periodic checkpoint. An exception would cancel all later ones, so it is only logged.
+	 */
+	private void scheduledCheckpoint() {
+		try {
+			checkpoint();
+		} catch (RuntimeException exception) {
+			logger.error("Failed to checkpoint tasks in {}", directory, exception);
+		}
+	}
+
+	/**
+	 * Logs and stores tasks with the IDs they have, then empties the batch.
+	 *
+	 * @return the number of tasks stored
+	 */
+	private int importBatch(Long user_id, List<Task> batch) {
+		int count = batch.size();
+		if (count == 0) {
+			return 0;
+		}
+		long[] taskIds = new long[count];
+		String[] titles = new String[count], descriptions = new String[count];
+		for (int i = 0; i < count; i++) {
+			taskIds[i] = batch.get(i).getEntityId();
+			titles[i] = batch.get(i).getTitle();
+			descriptions[i] = batch.get(i).getDescription();
+		}
+
+		checkpointLock.readLock().lock();
+		try {
+			UserTasks userTasks = tasksForWrite(user_id);
+			userTasks.lock.writeLock().lock();
+			try {
+				log.appendCreateBatch(user_id, taskIds, titles, descriptions);
+				for (int i = 0; i < count; i++) {
+					userTasks.put(taskIds[i], titles[i], descriptions[i]);
+					userTasks.nextId = Math.max(userTasks.nextId, taskIds[i] + 1);
+				}
+			} finally {
+				userTasks.lock.writeLock().unlock();
+			}
+		} finally {
+			checkpointLock.readLock().unlock();
+		}
+		batch.clear();
+		return count;
+	}
+
+	/**
+	 * Reads one page of a user's tasks under the read lock, mapping each to the returned type.
+	 */
+	private <T> List<T> readPage(Long user_id, Long after_id, int limit, BiFunction<UserTasks, Integer, T> mapper) {
+		UserTasks tasks = tasksForRead(user_id);
+		if (tasks == null) {
+			return new ArrayList<>();
+		}
+
+		tasks.lock.readLock().lock();
+		try {
+			int from = tasks.indexAfter(after_id);
+			int to = (int) Math.min(tasks.size, (long) from + limit);
+			List<T> page = new ArrayList<>(to - from);
+			for (int index = from; index < to; index++) {
+				page.add(mapper.apply(tasks, index));
+			}
+			return page;
+		} finally {
+			tasks.lock.readLock().unlock();
+		}
+	}
+
+	private UserTasks tasksForRead(Long user_id) {
+		usersLock.readLock().lock();
+		try {
+			return users.get(user_id);
+		} finally {
+			usersLock.readLock().unlock();
+		}
+	}
+
+	private UserTasks tasksForWrite(Long user_id) {
+		UserTasks tasks = tasksForRead(user_id);
+		if (tasks != null) {
+			return tasks;
+		}
+
+		usersLock.writeLock().lock();
+		try {
+			return users.computeIfAbsent(user_id, UserTasks::new);
+		} finally {
+			usersLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Loads the latest snapshot and replays the log files written after it.
+	 *
+	 * @return the generation of the next log file
+	 */
+	private long recover() throws IOException {
+		long snapshotGeneration = latestSnapshotGeneration();
+		if (snapshotGeneration > 0) {
+			readSnapshot(snapshotFile(snapshotGeneration));
+		}
+
+		long lastGeneration = snapshotGeneration;
+		TaskWriteAheadLog.Visitor replay = new Replay();
+		for (long generation : TaskWriteAheadLog.generations(directory)) {
+			if (generation >= snapshotGeneration) {
+				TaskWriteAheadLog.replay(TaskWriteAheadLog.file(directory, generation), replay);
+			}
+			lastGeneration = Math.max(lastGeneration, generation);
+		}
+		// Never append to a file that may end in a torn record
+		return lastGeneration + 1;
+	}
+
+	private void writeSnapshot(long generation, List<UserSnapshot> snapshot) throws IOException {
+		Path temporary = directory.resolve("snapshot.tmp");
+		try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			DataOutputStream output = new DataOutputStream(new BufferedOutputStream(uncloseable(Channels.newOutputStream(channel))));
+			output.writeInt(SNAPSHOT_MAGIC);
+			output.writeInt(snapshot.size());
+			for (UserSnapshot user : snapshot) {
+				output.writeLong(user.userId);
+				output.writeLong(user.nextId);
+				output.writeInt(user.ids.length);
+				for (int i = 0; i < user.ids.length; i++) {
+					output.writeLong(user.ids[i]);
+					writeText(output, user.titles[i]);
+					writeText(output, user.descriptions[i]);
+				}
+			}
+			output.flush();
+			channel.force(true);
+		}
+		// A snapshot file is either complete or absent
+		Files.move(temporary, snapshotFile(generation), StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private void readSnapshot(Path file) throws IOException {
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			if (input.readInt() != SNAPSHOT_MAGIC) {
+				throw new IOException("Not a task snapshot: " + file);
+			}
+			int userCount = input.readInt();
+			for (int u = 0; u < userCount; u++) {
+				long userId = input.readLong();
+				UserTasks tasks = new UserTasks();
+				tasks.nextId = input.readLong();
+				int taskCount = input.readInt();
+				for (int t = 0; t < taskCount; t++) {
+					tasks.put(input.readLong(), readText(input), readText(input));
+				}
+				users.put(userId, tasks);
+			}
+		}
+	}
+
+	private long latestSnapshotGeneration() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.map(file -> file.getFileName().toString())
+					.filter(name -> name.startsWith("snapshot-") && name.endsWith(".bin"))
+					.mapToLong(name -> Long.parseLong(name.substring(9, name.length() - 4)))
+					.max()
+					.orElse(0L);
+		}
+	}
+
+	private void deleteFilesBefore(long generation) throws IOException {
+		for (long logGeneration : TaskWriteAheadLog.generations(directory)) {
+			if (logGeneration < generation) {
+				Files.deleteIfExists(TaskWriteAheadLog.file(directory, logGeneration));
+			}
+		}
+		try (Stream<Path> files = Files.list(directory)) {
+			for (Path file : files.toList()) {
+				String name = file.getFileName().toString();
+				if (name.startsWith("snapshot-") && name.endsWith(".bin")
+						&& Long.parseLong(name.substring(9, name.length() - 4)) < generation) {
+					Files.deleteIfExists(file);
+				}
+			}
+		}
+	}
+
+	private Path snapshotFile(long generation) {
+		return directory.resolve(String.format("snapshot-%020d.bin", generation));
+	}
+
+	private static void writeText(DataOutputStream output, String text) throws IOException {
+		if (text == null) {
+			output.writeInt(-1);
+		} else {
+			byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+			output.writeInt(bytes.length);
+			output.write(bytes);
+		}
+	}
+
+	private static String readText(DataInputStream input) throws IOException {
+		int length = input.readInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		input.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Keeps the channel open when the stream wrapping it is discarded, so it can still be forced.
+	 */
+	private static OutputStream uncloseable(OutputStream output) {
+		return new OutputStream() {
+			@Override
+			public void write(int b) throws IOException {
+				output.write(b);
+			}
+
+			@Override
+			public void write(byte[] bytes, int offset, int length) throws IOException {
+				output.write(bytes, offset, length);
+			}
+		};
+	}
+
+	/**
+	 * Applies replayed log records; records may repeat changes already in the snapshot.
+	 */
+	private final class Replay implements TaskWriteAheadLog.Visitor {
+
+		@Override
+		public void create(long userId, long taskId, String title, String description) {
+			UserTasks tasks = users.computeIfAbsent(userId, UserTasks::new);
+			tasks.put(taskId, title, description);
+			tasks.nextId = Math.max(tasks.nextId, taskId + 1);
+		}
+
+		@Override
+		public void update(long userId, long taskId, String title, String description) {
+			UserTasks tasks = users.get(userId);
+			int index = tasks == null ? -1 : tasks.indexOf(taskId);
+			if (index >= 0) {
+				tasks.titles[index] = title;
+				tasks.descriptions[index] = description;
+			}
+		}
+
+		@Override
+		public void delete(long userId, long taskId) {
+			UserTasks tasks = users.get(userId);
+			int index = tasks == null ? -1 : tasks.indexOf(taskId);
+			if (index >= 0) {
+				tasks.removeAt(index);
+			}
+		}
+	}
+
+	/**
+	 * Tasks of one user in parallel arrays sorted by task ID, guarded by {@link #lock}.
+	 */
+	private static final class UserTasks {
+
+		private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+		private long[] ids = new long[8];
+
+		private String[] titles = new String[8];
+
+		private String[] descriptions = new String[8];
+
+		private int size;
+
+		/**
+		 * Next task ID to allocate, beyond every ID ever used so deleted IDs are not reused.
+		 */
+		private long nextId = 1;
+
+		private UserTasks() {}
+
+		private int indexOf(long taskId) {
+			int index = Arrays.binarySearch(ids, 0, size, taskId);
+			return index >= 0 ? index : -1;
+		}
+
+		/**
+		 * Returns the index of the first task with an ID greater than the given one.
+		 */
+		private int indexAfter(long taskId) {
+			int index = Arrays.binarySearch(ids, 0, size, taskId);
+			return index >= 0 ? index + 1 : -index - 1;
+		}
+
+		/**
+		 * Inserts or replaces a task. New IDs are the highest so far, so inserting is an append.
+		 */
+		private void put(long taskId, String title, String description) {
+			int index = Arrays.binarySearch(ids, 0, size, taskId);
+			if (index >= 0) {
+				titles[index] = title;
+				descriptions[index] = description;
+				return;
+			}
+
+			int insertAt = -index - 1;
+			if (size == ids.length) {
+				int capacity = ids.length << 1;
+				ids = Arrays.copyOf(ids, capacity);
+				titles = Arrays.copyOf(titles, capacity);
+				descriptions = Arrays.copyOf(descriptions, capacity);
+			}
+			if (insertAt < size) {
+				System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+				System.arraycopy(titles, insertAt, titles, insertAt + 1, size - insertAt);
+				System.arraycopy(descriptions, insertAt, descriptions, insertAt + 1, size - insertAt);
+			}
+			ids[insertAt] = taskId;
+			titles[insertAt] = title;
+			descriptions[insertAt] = description;
+			size++;
+		}
+
+		private void removeAt(int index) {
+			int moved = size - index - 1;
+			System.arraycopy(ids, index + 1, ids, index, moved);
+			System.arraycopy(titles, index + 1, titles, index, moved);
+			System.arraycopy(descriptions, index + 1, descriptions, index, moved);
+			size--;
+			titles[size] = null;
+			descriptions[size] = null;
+		}
+
+		private Task toTask(int index) {
+			Task task = new Task(titles[index], descriptions[index]);
+			task.setEntityId(ids[index]);
+			return task;
+		}
+
+		private TaskDTO toTaskDTO(int index) {
+			return new TaskDTO(ids[index], titles[index], descriptions[index]);
+		}
+
+		private UserSnapshot copy(long userId) {
+			lock.readLock().lock();
+			try {
+				return new UserSnapshot(userId, nextId, Arrays.copyOf(ids, size),
+						Arrays.copyOf(titles, size), Arrays.copyOf(descriptions, size));
+			} finally {
+				lock.readLock().unlock();
+			}
+		}
+	}
+
+	private record UserSnapshot(long userId, long nextId, long[] ids, String[] titles, String[] descriptions) {}
+}
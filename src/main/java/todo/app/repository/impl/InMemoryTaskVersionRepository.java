@@ -0,0 +1,30 @@
+package todo.app.repository.impl;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import todo.app.repository.TaskVersionRepository;
+
+/**
+ * Task list versions kept in memory only. Versions restart at 0 with the process, so this
+ * implementation suits tests and single-run tools rather than clients caching across restarts.
+ * 
+ * @author Marcel Pulido
+ * @version 1.0
+ */
+public class InMemoryTaskVersionRepository implements TaskVersionRepository {
+
+	private final ConcurrentMap<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+
+	@Override
+	public long getVersion(Long user_id) {
+		AtomicLong version = versions.get(user_id);
+		return version == null ? 0L : version.get();
+	}
+
+	@Override
+	public long incrementVersion(Long user_id) {
+		return versions.computeIfAbsent(user_id, id -> new AtomicLong()).incrementAndGet();
+	}
+}
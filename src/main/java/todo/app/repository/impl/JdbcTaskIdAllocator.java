@@ -0,0 +1,225 @@
+package todo.app.repository.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.sql.DataSource;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import todo.app.repository.TaskRepository;
+
+/**
+ * Allocates per-user task identifiers backed by the {@code t_task_sequences} counter table.
+ *
+ * Identifiers are reserved from the database in blocks (hi/lo style): the counter row of a user
+ * is advanced by {@code blockSize} with a compare-and-set update, and the reserved range is then
+ * handed out from memory. Most allocations therefore need no database round trip, identifiers are
+ * never duplicated between concurrent callers (or application instances sharing the database) and
+ * identifiers of deleted tasks are never reused.
+ *
+ * A reservation commits on its own, outside any transaction of the caller, so a task write
+ * rolled back never takes back a range the allocator has already started handing out. Called
+ * inside such a transaction it holds a second pool connection, so callers reserve identifiers
+ * before opening their own transaction (see {@link TaskRepository#reserveTaskIds}).
+ *
+ * @author Marcel Pulido
+ * @version 1.0
+ */
+public class JdbcTaskIdAllocator {
+
+	/**
+	 * Number of identifiers reserved per database round trip when none is configured.
+	 */
+	public static final int DEFAULT_BLOCK_SIZE = 20;
+
+	private static final String SELECT_NEXT_ID_SQL = "SELECT next_id FROM t_task_sequences WHERE user_id = ?";
+
+	private static final String ADVANCE_NEXT_ID_SQL = "UPDATE t_task_sequences SET next_id = ? WHERE user_id = ? AND next_id = ?";
+
+	/**
+	 * Seeds the counter after the highest task ID the user already has, so rows inserted
+	 * before the counter existed are never collided with.
+	 */
+	private static final String SEED_NEXT_ID_SQL = "INSERT INTO t_task_sequences (user_id, next_id)"
+			+ " SELECT ?, COALESCE(MAX(id), 0) + 1 FROM t_tasks WHERE user_id = ?";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final int blockSize;
+
+	/**
+	 * Runs each reservation in a transaction of its own.
+	 */
+	private final TransactionTemplate reservationTemplate;
+
+	/**
+	 * In-memory ranges of identifiers already reserved in the database, keyed by user ID.
+	 */
+	private final ConcurrentMap<Long, IdBlock> blocks = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructs an allocator reserving {@link #DEFAULT_BLOCK_SIZE} identifiers at a time.
+	 *
+	 * @param dataSource The data source for database connections.
+	 */
+	public JdbcTaskIdAllocator(DataSource dataSource) {
+		this(dataSource, DEFAULT_BLOCK_SIZE);
+	}
+
+	/**
+	 * Constructs an allocator reserving the given number of identifiers at a time.
+	 *
+	 * @param dataSource The data source for database connections.
+	 * @param blockSize  The number of identifiers reserved per database round trip.
+	 * @throws IllegalArgumentException if the data source is null or the block size is not positive
+	 */
+	public JdbcTaskIdAllocator(DataSource dataSource, int blockSize) {
+		this(createJdbcTemplate(dataSource), blockSize);
+	}
+
+	/**
+	 * Constructs an allocator running on a shared JdbcTemplate.
+	 *
+	 * @param jdbcTemplate The shared template for database access.
+	 * @param blockSize    The number of identifiers reserved per database round trip.
+	 * @throws IllegalArgumentException if the template is null or the block size is not positive
+	 */
+	public JdbcTaskIdAllocator(JdbcTemplate jdbcTemplate, int blockSize) {
+
+		if (jdbcTemplate == null) throw new IllegalArgumentException("JdbcTemplate value is null");
+		if (blockSize < 1) throw new IllegalArgumentException("Block size must be positive");
+
+		this.jdbcTemplate = jdbcTemplate;
+		this.blockSize = blockSize;
+		this.reservationTemplate = new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+		this.reservationTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+	}
+
+	/**
+	 * Returns the next unused task identifier for a user.
+	 *
+	 * @param user_id The identifier of the user owning the task.
+	 * @return a task identifier that has never been handed out for this user
+	 */
+	public Long nextId(Long user_id) {
+		IdBlock block = blocks.computeIfAbsent(user_id, id -> new IdBlock());
+
+		block.lock.lock();
+		try {
+			if (block.next >= block.limit) {
+				block.next = reserve(user_id, blockSize);
+				block.limit = block.next + blockSize;
+			}
+			return block.next++;
+		} finally {
+			block.lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns a number of unused task identifiers for a user in one step. Requests that fit in the
+	 * range already reserved in memory are served without a database round trip, larger requests
+	 * reserve exactly the required range with a single counter update.
+	 *
+	 * @param user_id The identifier of the user owning the tasks.
+	 * @param count   The number of identifiers to allocate.
+	 * @return the allocated identifiers in ascending order
+	 * @throws IllegalArgumentException if the count is negative
+	 */
+	public List<Long> nextIds(Long user_id, int count) {
+		if (count < 0) throw new IllegalArgumentException("Count cannot be negative");
+
+		IdBlock block = blocks.computeIfAbsent(user_id, id -> new IdBlock());
+		long first;
+
+		block.lock.lock();
+		try {
+			if (block.limit - block.next >= count) {
+				first = block.next;
+				block.next += count;
+			} else {
+				first = reserve(user_id, count);
+			}
+		} finally {
+			block.lock.unlock();
+		}
+
+		List<Long> ids = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			ids.add(first + i);
+		}
+		return ids;
+	}
+
+	/**
+	 * Reserves a range of identifiers in the counter table of a user.
+	 *
+	 * @param user_id The identifier of the user.
+	 * @param size    The number of identifiers to reserve.
+	 * @return the first identifier of the reserved range
+	 */
+	private long reserve(Long user_id, int size) {
+		return reservationTemplate.execute(status -> reserveInTransaction(user_id, size));
+	}
+
+	private long reserveInTransaction(Long user_id, int size) {
+		while (true) {
+			List<Long> current = jdbcTemplate.queryForList(SELECT_NEXT_ID_SQL, Long.class, user_id);
+
+			if (current.isEmpty()) {
+				seed(user_id);
+				continue;
+			}
+
+			long first = current.get(0);
+			if (jdbcTemplate.update(ADVANCE_NEXT_ID_SQL, first + size, user_id, first) == 1) {
+				return first;
+			}
+			// Another allocator advanced the counter first, retry with the new value
+		}
+	}
+
+	/**
+	 * Creates the counter row of a user, tolerating a concurrent creation of the same row.
+	 *
+	 * @param user_id The identifier of the user.
+	 */
+	private void seed(Long user_id) {
+		try {
+			jdbcTemplate.update(SEED_NEXT_ID_SQL, user_id, user_id);
+		} catch (DuplicateKeyException exception) {
+			// Row created concurrently, the caller reads it on its next attempt
+		}
+	}
+
+	/**
+	 * Creates a JdbcTemplate for the given data source.
+	 *
+	 * @param dataSource The data source for database connections.
+	 * @return a new JdbcTemplate
+	 * @throws IllegalArgumentException if the data source is null
+	 */
+	private static JdbcTemplate createJdbcTemplate(DataSource dataSource) {
+		if (dataSource == null) throw new IllegalArgumentException("DataSource value is null");
+		return new JdbcTemplate(dataSource);
+	}
+
+	/**
+	 * Half-open range {@code [next, limit)} of reserved identifiers, guarded by its own lock.
+	 * A lock rather than a monitor, because the range is refilled with a database round trip
+	 * and a virtual thread blocking inside {@code synchronized} pins its carrier thread.
+	 */
+	private static final class IdBlock {
+		private final ReentrantLock lock = new ReentrantLock();
+		private long next;
+		private long limit;
+	}
+}
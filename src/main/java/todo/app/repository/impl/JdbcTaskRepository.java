@@ -2,13 +2,30 @@ package todo.app.repository.impl;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import javax.sql.DataSource;
 
+import org.springframework.dao.support.DataAccessUtils;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.RowMapperResultSetExtractor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import todo.app.logic.Task;
+import todo.app.logic.TaskDTO;
 import todo.app.repository.TaskRepository;
 
 /**
@@ -22,6 +39,65 @@ import todo.app.repository.TaskRepository;
  */
 public class JdbcTaskRepository implements TaskRepository {
 
+    /**
+     * Number of rows fetched per round trip while streaming an export.
+     */
+    private static final int EXPORT_FETCH_SIZE = 500;
+
+    private static final String CREATE_TASK = "createTask";
+    private static final String CREATE_TASKS = "createTasks";
+    private static final String FIND_TASK_BY_ID = "findTaskById";
+    private static final String UPDATE_TASK = "updateTask";
+    private static final String DELETE_TASK_BY_ID = "deleteTaskById";
+    private static final String GET_ALL = "getAll";
+    private static final String GET_PAGE = "getPage";
+    private static final String EXPORT_TASKS = "exportTasks";
+    private static final String EXIST_BY_ID = "existById";
+    private static final String FIND_OWNED_TASK_IDS = "findOwnedTaskIds";
+    private static final String UPDATE_TASKS = "updateTasks";
+    private static final String DELETE_TASKS_BY_ID = "deleteTasksById";
+    private static final String PATCH_TITLE = "patchTitle";
+    private static final String PATCH_DESCRIPTION = "patchDescription";
+    private static final String PATCH_TASK = "patchTask";
+
+    /**
+     * Maps the id, title and description columns, in that order, straight into a TaskDTO.
+     */
+    private static final RowMapper<TaskDTO> TASK_DTO_MAPPER =
+        (rs, rowNumber) -> new TaskDTO(rs.getLong(1), rs.getString(2), rs.getString(3));
+
+    /**
+     * SQL of every statement this repository executes, keyed by statement name.
+     */
+    private static final Map<String, String> STATEMENTS = Map.ofEntries(
+        Map.entry(CREATE_TASK, "INSERT INTO t_tasks (id, title, description, user_id) values (?,?,?,?)"),
+        Map.entry(CREATE_TASKS, "INSERT INTO t_tasks (id, title, description, user_id) values (?,?,?,?)"),
+        Map.entry(FIND_TASK_BY_ID, "SELECT * FROM t_tasks WHERE id = ? and user_id = ?"),
+        Map.entry(UPDATE_TASK, " UPDATE t_tasks"
+            + " SET title = ?, description = ?"
+            + " WHERE id = ? AND user_id = ?"),
+        Map.entry(DELETE_TASK_BY_ID, "DELETE FROM t_tasks WHERE id = ? AND user_id = ?"),
+        Map.entry(GET_ALL, "SELECT id, title, description FROM t_tasks WHERE user_id = ? ORDER BY id"),
+        Map.entry(GET_PAGE, " SELECT id, title, description FROM t_tasks"
+            + " WHERE user_id = ? AND id > ?"
+            + " ORDER BY id LIMIT ?"),
+        Map.entry(EXPORT_TASKS, "SELECT id, title, description FROM t_tasks WHERE user_id = ? ORDER BY id"),
+        Map.entry(EXIST_BY_ID, "SELECT COUNT(*) FROM t_tasks WHERE user_id = ? AND id = ?"),
+        Map.entry(FIND_OWNED_TASK_IDS, "SELECT id FROM t_tasks WHERE user_id = :user_id AND id IN (:task_ids)"),
+        Map.entry(UPDATE_TASKS, " UPDATE t_tasks"
+            + " SET title = ?, description = ?"
+            + " WHERE id = ? AND user_id = ?"),
+        Map.entry(DELETE_TASKS_BY_ID, "DELETE FROM t_tasks WHERE user_id = :user_id AND id IN (:task_ids)"),
+        // Rows already holding the supplied values are filtered out, so they are neither locked nor written.
+        // HSQLDB cannot infer the type of a parameter compared with IS DISTINCT FROM, so it is cast to the column's
+        Map.entry(PATCH_TITLE, " UPDATE t_tasks SET title = ?"
+            + " WHERE id = ? AND user_id = ? AND title IS DISTINCT FROM CAST(? AS VARCHAR(100))"),
+        Map.entry(PATCH_DESCRIPTION, " UPDATE t_tasks SET description = ?"
+            + " WHERE id = ? AND user_id = ? AND description IS DISTINCT FROM CAST(? AS VARCHAR(255))"),
+        Map.entry(PATCH_TASK, " UPDATE t_tasks SET title = ?, description = ?"
+            + " WHERE id = ? AND user_id = ?"
+            + " AND (title IS DISTINCT FROM CAST(? AS VARCHAR(100)) OR description IS DISTINCT FROM CAST(? AS VARCHAR(255)))"));
+
     /**
      * JdbcTemplate for executing SQL operations.
      * Provides convenient methods for database interactions.
@@ -29,12 +105,33 @@ public class JdbcTaskRepository implements TaskRepository {
     private JdbcTemplate jdbcTemplate;
 
     /**
-     * Temporary storage for SQL statements used in repository methods.
+     * Template on the same DataSource expanding the ID lists of bulk statements.
+     */
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * JdbcTemplate tuned with a bounded fetch size for streaming exports.
      */
-    private String sqlStatement;
+    private JdbcTemplate exportJdbcTemplate;
+
+    /**
+     * Allocator handing out per-user task identifiers.
+     */
+    private JdbcTaskIdAllocator taskIdAllocator;
+
+    /**
+     * Runs multi-statement writes in a single transaction on the repository's DataSource.
+     */
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Named statements of this repository, recording per-statement metrics.
+     */
+    private final StatementRegistry statements;
 
     /**
      * Constructor to initialize JdbcTemplate with a DataSource.
+     * Statement metrics are kept in a private registry.
      * 
      * @param dataSource The data source for database connections.
      */
@@ -43,82 +140,275 @@ public class JdbcTaskRepository implements TaskRepository {
     	if (dataSource == null) throw new IllegalArgumentException("DataSource value is null");
         
     	this.jdbcTemplate = new JdbcTemplate(dataSource);
+    	this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    	this.taskIdAllocator = new JdbcTaskIdAllocator(dataSource);
+    	this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    	this.exportJdbcTemplate = createExportJdbcTemplate(dataSource);
+    	this.statements = new StatementRegistry("tasks", STATEMENTS, new SimpleMeterRegistry());
+    }
+
+    /**
+     * Constructor to run on the application's shared JdbcTemplate and task ID allocator.
+     * 
+     * @param jdbcTemplate The shared template, backed by the application's connection pool.
+     * @param taskIdAllocator The allocator handing out per-user task identifiers.
+     * @param meterRegistry The registry receiving the per-statement metrics.
+     */
+    public JdbcTaskRepository(JdbcTemplate jdbcTemplate, JdbcTaskIdAllocator taskIdAllocator, MeterRegistry meterRegistry) {
+    	
+    	if (jdbcTemplate == null) throw new IllegalArgumentException("JdbcTemplate value is null");
+    	if (taskIdAllocator == null) throw new IllegalArgumentException("Task ID allocator value is null");
+        
+    	DataSource dataSource = jdbcTemplate.getDataSource();
+    	this.jdbcTemplate = jdbcTemplate;
+    	this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    	this.taskIdAllocator = taskIdAllocator;
+    	this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    	this.exportJdbcTemplate = createExportJdbcTemplate(dataSource);
+    	this.statements = new StatementRegistry("tasks", STATEMENTS, meterRegistry);
     }
 
     @Override
-    public void createTask(Task task, Long user_id) {
+    public List<Long> reserveTaskIds(Long user_id, int count) {
+        // A single ID comes from the block reserved in memory, like any other creation
+        return count == 1 ? List.of(taskIdAllocator.nextId(user_id)) : taskIdAllocator.nextIds(user_id, count);
+    }
+
+    @Override
+    public Long createTask(Task task, Long user_id) {
    
-        Long nextTaskId = getNextTaskIdForUser(task.getUserId());
+        Long nextTaskId = task.getEntityId() != null ? task.getEntityId() : taskIdAllocator.nextId(user_id);
          
         // Inserts task into database
-        sqlStatement = "INSERT INTO t_tasks (id, title, description, user_id) values (?,?,?,?)";
-        jdbcTemplate.update(sqlStatement,nextTaskId, task.getTitle(), task.getDescription(), user_id);
+        statements.execute(CREATE_TASK,
+            sql -> jdbcTemplate.update(sql, nextTaskId, task.getTitle(), task.getDescription(), user_id),
+            Integer::intValue);
+        
+        task.setEntityId(nextTaskId);
+        return nextTaskId;
+    }
+
+    @Override
+    public List<Long> createTasks(List<Task> tasks, Long user_id) {
+
+        // Uses the reserved IDs, or allocates all IDs up front, outside the insert transaction
+        List<Long> taskIds = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            if (task.getEntityId() == null) {
+                taskIds = taskIdAllocator.nextIds(user_id, tasks.size());
+                break;
+            }
+            taskIds.add(task.getEntityId());
+        }
+
+        List<Object[]> rows = new ArrayList<>(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            task.setEntityId(taskIds.get(i));
+            rows.add(new Object[] {taskIds.get(i), task.getTitle(), task.getDescription(), user_id});
+        }
+
+        // Inserts all tasks with one JDBC batch in a single transaction
+        statements.execute(CREATE_TASKS,
+            sql -> transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(sql, rows)),
+            counts -> counts.length);
+
+        return taskIds;
     }
 
 	@Override
     public Task findTaskById(Long task_id, Long user_id) {
         // Retrieves task from database
-        sqlStatement = "SELECT * FROM t_tasks WHERE id = ? and user_id = ?";
-        return jdbcTemplate.queryForObject(sqlStatement,
-            (rs, rowNumber) -> mapToTask(rs, rowNumber), task_id, user_id);
+        List<Task> tasks = statements.execute(FIND_TASK_BY_ID,
+            sql -> jdbcTemplate.query(sql, (rs, rowNumber) -> mapToTask(rs, rowNumber), task_id, user_id),
+            List::size);
+
+        return DataAccessUtils.singleResult(tasks);
     }
 
     @Override
-    public void updateTask(Long task_id, Long user_id, Task task) {
-        // Updates task in database
-        sqlStatement = " UPDATE t_tasks"
-            + " SET title = ?, description = ?"
-            + " WHERE id = ? AND user_id = ?";
+    public boolean updateTask(Long task_id, Long user_id, Task task) {
+        // Updates task in database, the affected row count tells whether it exists
+        int updatedRows = statements.execute(UPDATE_TASK,
+            sql -> jdbcTemplate.update(sql, task.getTitle(), task.getDescription(), task_id, user_id),
+            Integer::intValue);
+        return updatedRows > 0;
+    }
+
+    @Override
+    public boolean deleteTaskById(Long task_id, Long user_id) {
+        // Deletes task from database, the affected row count tells whether it existed
+        int deletedRows = statements.execute(DELETE_TASK_BY_ID,
+            sql -> jdbcTemplate.update(sql, task_id, user_id),
+            Integer::intValue);
 
-        jdbcTemplate.update(sqlStatement, task.getTitle(), 
-        								  task.getDescription(), 
-        								  task_id, user_id);
+        return deletedRows > 0;
     }
 
     @Override
-    public Task deleteTaskById(Long task_id, Long user_id) {
-        // Retrieves task before deletion
-        Task task = findTaskById(task_id, user_id);
+    public boolean patchTask(Long task_id, Long user_id, Task changes) {
+        String title = changes.getTitle(), description = changes.getDescription();
 
-        // Deletes task from database
-        sqlStatement = "DELETE FROM t_tasks WHERE id = ? AND user_id = ?";
-        jdbcTemplate.update(sqlStatement, task_id, user_id);
+        // Only the supplied columns appear in the statement, nothing supplied means nothing to write
+        int updatedRows;
+        if (title != null && description != null) {
+            updatedRows = statements.execute(PATCH_TASK,
+                sql -> jdbcTemplate.update(sql, title, description, task_id, user_id, title, description),
+                Integer::intValue);
+        } else if (title != null) {
+            updatedRows = statements.execute(PATCH_TITLE,
+                sql -> jdbcTemplate.update(sql, title, task_id, user_id, title),
+                Integer::intValue);
+        } else if (description != null) {
+            updatedRows = statements.execute(PATCH_DESCRIPTION,
+                sql -> jdbcTemplate.update(sql, description, task_id, user_id, description),
+                Integer::intValue);
+        } else {
+            updatedRows = 0;
+        }
+        return updatedRows > 0;
+    }
 
-        return task;
+    @Override
+    public List<Long> updateTasks(List<Task> tasks, Long user_id) {
+        List<Long> taskIds = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            taskIds.add(task.getEntityId());
+        }
+
+        return transactionTemplate.execute(status -> {
+            // One IN query finds the tasks the user owns, only those are sent in the batch
+            Set<Long> ownedTaskIds = findOwnedTaskIds(taskIds, user_id);
+            List<Object[]> rows = new ArrayList<>(ownedTaskIds.size());
+            List<Long> updatedTaskIds = new ArrayList<>(ownedTaskIds.size());
+            for (Task task : tasks) {
+                if (ownedTaskIds.contains(task.getEntityId())) {
+                    rows.add(new Object[] {task.getTitle(), task.getDescription(), task.getEntityId(), user_id});
+                    updatedTaskIds.add(task.getEntityId());
+                }
+            }
+            if (!rows.isEmpty()) {
+                statements.execute(UPDATE_TASKS, sql -> jdbcTemplate.batchUpdate(sql, rows), counts -> counts.length);
+            }
+            return updatedTaskIds;
+        });
+    }
+
+    @Override
+    public List<Long> deleteTasksById(List<Long> task_ids, Long user_id) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+            .addValue("user_id", user_id)
+            .addValue("task_ids", task_ids);
+
+        return transactionTemplate.execute(status -> {
+            // The IN query tells which IDs existed, one IN delete removes them all
+            Set<Long> ownedTaskIds = findOwnedTaskIds(task_ids, user_id);
+            if (!ownedTaskIds.isEmpty()) {
+                statements.execute(DELETE_TASKS_BY_ID,
+                    sql -> namedParameterJdbcTemplate.update(sql, parameters),
+                    Integer::intValue);
+            }
+            List<Long> deletedTaskIds = new ArrayList<>(ownedTaskIds.size());
+            for (Long taskId : task_ids) {
+                if (ownedTaskIds.contains(taskId)) {
+                    deletedTaskIds.add(taskId);
+                }
+            }
+            return deletedTaskIds;
+        });
     }
 
     @Override
     public List<Task> getAll(Long user_id) {
         // Retrieves all tasks for a specific user
-        sqlStatement = " SELECT * FROM t_tasks"
-            + " JOIN t_users"
-            + " ON t_tasks.user_id = t_users.id WHERE t_users.id = ?";
-
-        return jdbcTemplate.query(sqlStatement,
-            (rs, rowNumber) -> mapToTask(rs, rowNumber), user_id);
+        return statements.execute(GET_ALL,
+            sql -> jdbcTemplate.query(sql, (rs, rowNumber) -> mapToTask(rs, rowNumber), user_id),
+            List::size);
+    }
+    
+    @Override
+    public List<Task> getPage(Long user_id, Long after_id, int limit) {
+        // Seeks past the cursor on the (user_id, id) key and reads one page
+        return statements.execute(GET_PAGE,
+            sql -> jdbcTemplate.query(sql, (rs, rowNumber) -> mapToTask(rs, rowNumber), user_id, after_id, limit),
+            List::size);
+    }
+    
+    @Override
+    public List<TaskDTO> getAllDTOs(Long user_id) {
+        // Runs the statement of getAll, projecting the three columns straight into DTOs without an entity per row
+        return statements.execute(GET_ALL,
+            sql -> jdbcTemplate.query(sql, TASK_DTO_MAPPER, user_id),
+            List::size);
+    }
+    
+    @Override
+    public List<TaskDTO> getPageDTOs(Long user_id, Long after_id, int limit) {
+        // Runs the statement of getPage; the page size is known, so the list is allocated once at its final capacity
+        return statements.execute(GET_PAGE,
+            sql -> jdbcTemplate.query(sql, new RowMapperResultSetExtractor<>(TASK_DTO_MAPPER, limit),
+                user_id, after_id, limit),
+            List::size);
+    }
+    
+    @Override
+    public void exportTasks(Long user_id, Consumer<Task> consumer) {
+        // Streams rows straight from the result set, fetching them in bounded chunks
+        statements.execute(EXPORT_TASKS, sql -> {
+            try (Stream<Task> tasks = exportJdbcTemplate.queryForStream(sql,
+                    (rs, rowNumber) -> mapToTask(rs, rowNumber), user_id)) {
+                int exportedRows = 0;
+                for (Iterator<Task> iterator = tasks.iterator(); iterator.hasNext(); exportedRows++) {
+                    consumer.accept(iterator.next());
+                }
+                return exportedRows;
+            }
+        }, Integer::intValue);
     }
     
     @Override
     public boolean existById(Long task_id, Long user_id) {
-        // Checks if task ID exists and belongs to the user
-        sqlStatement = " SELECT t_tasks.id"
-            + " FROM t_tasks"
-            + " JOIN t_users"
-            + " ON t_tasks.user_id = t_users.id WHERE t_users.id = ?";
+        // Probes the (user_id, id) primary key for a single row
+        Integer matchingTasks = statements.execute(EXIST_BY_ID,
+            sql -> jdbcTemplate.queryForObject(sql, Integer.class, user_id, task_id),
+            count -> 1);
 
-        List<Long> userTasks = jdbcTemplate.queryForList(sqlStatement, Long.class, user_id);
+        return matchingTasks != null && matchingTasks > 0;
+    }
 
-        return userTasks.contains(task_id);
+    @Override
+    public void evictUserTasks(Long user_id) {
+        // Nothing is kept besides the rows
     }
 
-   @Override
-   public Long getNextTaskIdForUser(Long user_id) {
-		
-    	sqlStatement = "SELECT COUNT(id) FROM t_tasks WHERE user_id = ?";
-		Long max_task_id = jdbcTemplate.queryForObject(sqlStatement, Long.class, user_id); 
-		
-		return max_task_id + 1;
-	}
+   /**
+    * Selects which of the given task IDs belong to the user, with one IN query.
+    *
+    * @param task_ids The task IDs to check.
+    * @param user_id The identifier of the user.
+    * @return the IDs owned by the user
+    */
+   private Set<Long> findOwnedTaskIds(List<Long> task_ids, Long user_id) {
+       MapSqlParameterSource parameters = new MapSqlParameterSource()
+           .addValue("user_id", user_id)
+           .addValue("task_ids", task_ids);
+       List<Long> ownedTaskIds = statements.execute(FIND_OWNED_TASK_IDS,
+           sql -> namedParameterJdbcTemplate.queryForList(sql, parameters, Long.class),
+           List::size);
+       return new HashSet<>(ownedTaskIds);
+   }
+
+   /**
+    * Creates the JdbcTemplate used for streaming exports.
+    * 
+    * @param dataSource The data source for database connections.
+    * @return JdbcTemplate fetching {@value #EXPORT_FETCH_SIZE} rows per round trip
+    */
+   private static JdbcTemplate createExportJdbcTemplate(DataSource dataSource) {
+       JdbcTemplate template = new JdbcTemplate(dataSource);
+       template.setFetchSize(EXPORT_FETCH_SIZE);
+       return template;
+   }
    
    /**
     * Maps a database result set row to a Task object.
@@ -0,0 +1,102 @@
+package todo.app.repository.impl;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import todo.app.repository.TaskVersionRepository;
+
+/**
+ * Task list versions held in memory and backed by the {@code t_task_versions} table.
+ *
+ * Reads are answered from memory and only fall back to the database for a user not seen
+ * since startup, so conditional reads cost no query. Increments are written to the database
+ * first, so versions keep growing across restarts and an old ETag never matches new content.
+ * An increment made inside a transaction, the one of the task write it stands for, is only
+ * published in memory once that transaction commits.
+ * Application instances sharing the database only see each other's increments once the
+ * user's version is reloaded, so each instance should serve a user's conditional reads
+ * from its own writes (e.g. sticky sessions).
+ *
+ * @author Marcel Pulido
+ * @version 1.0
+ */
+public class JdbcTaskVersionRepository implements TaskVersionRepository {
+
+	private static final String SELECT_VERSION_SQL = "SELECT version FROM t_task_versions WHERE user_id = ?";
+
+	private static final String INCREMENT_VERSION_SQL = "UPDATE t_task_versions SET version = version + 1 WHERE user_id = ?";
+
+	private static final String INSERT_VERSION_SQL = "INSERT INTO t_task_versions (user_id, version) VALUES (?, 1)";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	/**
+	 * Last known version of each user.
+	 */
+	private final ConcurrentMap<Long, Long> versions = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructs a version repository running on a shared JdbcTemplate.
+	 *
+	 * @param jdbcTemplate The shared template for database access.
+	 * @throws IllegalArgumentException if the template is null
+	 */
+	public JdbcTaskVersionRepository(JdbcTemplate jdbcTemplate) {
+
+		if (jdbcTemplate == null) throw new IllegalArgumentException("JdbcTemplate value is null");
+
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	@Override
+	public long getVersion(Long user_id) {
+		Long version = versions.get(user_id);
+		if (version != null) {
+			return version;
+		}
+		// First read since startup, load the stored version
+		return remember(user_id, loadVersion(user_id));
+	}
+
+	@Override
+	public long incrementVersion(Long user_id) {
+		if (jdbcTemplate.update(INCREMENT_VERSION_SQL, user_id) == 0) {
+			try {
+				jdbcTemplate.update(INSERT_VERSION_SQL, user_id);
+			} catch (DuplicateKeyException exception) {
+				// Row created concurrently, increment it instead
+				jdbcTemplate.update(INCREMENT_VERSION_SQL, user_id);
+			}
+		}
+		long version = loadVersion(user_id);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			// Inside the task write's transaction, readers only get the new version once the change is committed
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					remember(user_id, version);
+				}
+			});
+			return version;
+		}
+		return remember(user_id, version);
+	}
+
+	private long loadVersion(Long user_id) {
+		List<Long> stored = jdbcTemplate.queryForList(SELECT_VERSION_SQL, Long.class, user_id);
+		return stored.isEmpty() ? 0L : stored.get(0);
+	}
+
+	/**
+	 * Stores a version unless a newer one is already known, so concurrent callers never move it back.
+	 */
+	private long remember(Long user_id, long version) {
+		return versions.merge(user_id, version, Math::max);
+	}
+}
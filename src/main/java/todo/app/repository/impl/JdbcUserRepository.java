@@ -2,11 +2,18 @@ package todo.app.repository.impl;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
 import javax.sql.DataSource;
 
 import org.springframework.jdbc.core.JdbcTemplate;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import todo.app.logic.User;
 import todo.app.repository.UserRepository;
 
@@ -31,15 +38,51 @@ public class JdbcUserRepository implements UserRepository {
      */
     private JdbcTemplate jdbcTemplate;
 
+    private static final String CREATE_USER = "createUser";
+    private static final String CREATE_USER_AUTHORITIES = "createUserAuthorities";
+    private static final String UPDATE_USER = "updateUser";
+    private static final String FIND_USER_BY_ID = "findUserById";
+    private static final String FIND_USER_BY_USERNAME = "findUserByUsername";
+    private static final String FIND_USER_ID_BY_USERNAME = "findUserIdByUsername";
+    private static final String DELETE_USER_BY_ID = "deleteUserById";
+    private static final String GET_ALL = "getAll";
+    private static final String EXIST_BY_ID = "existById";
+    private static final String GET_PAGE = "getPage";
+    private static final String EXPORT_USERS = "exportUsers";
+
+    /**
+     * Number of rows fetched per round trip while streaming an export.
+     */
+    private static final int EXPORT_FETCH_SIZE = 500;
+
     /** 
-     * Temporary storage for SQL statements to be executed.
-     * Note: In a production environment, consider using prepared statements 
-     * or a more robust SQL management approach.
+     * SQL of every statement this repository executes, keyed by statement name.
      */
-    private String SQL_QUERY;
+    private static final Map<String, String> STATEMENTS = Map.ofEntries(
+    		Map.entry(CREATE_USER, "INSERT INTO t_users (username, email, password) VALUES (?,?,?)"),
+    		Map.entry(CREATE_USER_AUTHORITIES, "INSERT INTO t_authorities (username, authority, user_id) VALUES (?,?,?)"),
+    		Map.entry(UPDATE_USER, "UPDATE t_users SET username = ?, password = ? WHERE t_users.email = ?"),
+    		Map.entry(FIND_USER_BY_ID, "SELECT * FROM t_users WHERE id = ?"),
+    		Map.entry(FIND_USER_BY_USERNAME, "SELECT * FROM t_users WHERE t_users.username = ?"),
+    		Map.entry(FIND_USER_ID_BY_USERNAME, "SELECT id FROM t_users WHERE t_users.username = ?"),
+    		Map.entry(DELETE_USER_BY_ID, "DELETE FROM t_users WHERE id = ?"),
+    		Map.entry(GET_ALL, "SELECT * FROM t_users"),
+    		Map.entry(EXIST_BY_ID, "SELECT COUNT(id) FROM t_users WHERE t_users.id = ?"),
+    		Map.entry(GET_PAGE, "SELECT id, username, email FROM t_users WHERE id > ? ORDER BY id LIMIT ?"),
+    		Map.entry(EXPORT_USERS, "SELECT id, username, email FROM t_users ORDER BY id"));
     
     private final String ROLE_USER = "ROLE_USER";
 
+    /**
+     * Named statements of this repository, recording per-statement metrics.
+     */
+    private final StatementRegistry statements;
+
+    /**
+     * JdbcTemplate tuned with a bounded fetch size for streaming exports.
+     */
+    private final JdbcTemplate exportJdbcTemplate;
+
     /**
      * Constructs a new JdbcUserRepository with the specified data source.
      * 
@@ -51,61 +94,103 @@ public class JdbcUserRepository implements UserRepository {
     	if (dataSource == null) throw new IllegalArgumentException("DataSource value is null");
     	
         this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.exportJdbcTemplate = createExportJdbcTemplate(dataSource);
+        this.statements = new StatementRegistry("users", STATEMENTS, new SimpleMeterRegistry());
+    }
+    
+    /**
+     * Constructs a new JdbcUserRepository running on the application's shared JdbcTemplate.
+     * 
+     * @param jdbcTemplate The shared template, backed by the application's connection pool
+     * @param meterRegistry The registry receiving the per-statement metrics
+     * @throws IllegalArgumentException if the provided template is null
+     */
+    public JdbcUserRepository(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+    	
+    	if (jdbcTemplate == null) throw new IllegalArgumentException("JdbcTemplate value is null");
+    	
+        this.jdbcTemplate = jdbcTemplate;
+        this.exportJdbcTemplate = createExportJdbcTemplate(jdbcTemplate.getDataSource());
+        this.statements = new StatementRegistry("users", STATEMENTS, meterRegistry);
     }
 	
 	@Override
 	public void createUser(User user) {	
-		SQL_QUERY = "INSERT INTO t_users (username, email, password) VALUES (?,?,?)";
-		jdbcTemplate.update(SQL_QUERY, user.getUsername(), user.getEmail(), user.getPassword());
+		statements.execute(CREATE_USER,
+				sql -> jdbcTemplate.update(sql, user.getUsername(), user.getEmail(), user.getPassword()),
+				Integer::intValue);
 		createUserAuthorities(user);
 	}
 	
 	@Override
 	public void updateUser(User user) {
-		SQL_QUERY = "UPDATE t_users SET username = ?, password = ? WHERE t_users.email = ?";
-		jdbcTemplate.update(SQL_QUERY, user.getUsername(), user.getPassword(), user.getEmail());
+		statements.execute(UPDATE_USER,
+				sql -> jdbcTemplate.update(sql, user.getUsername(), user.getPassword(), user.getEmail()),
+				Integer::intValue);
 	}
 	
 	@Override
 	public User findUserById(Long id) {
-		SQL_QUERY = "SELECT * FROM t_users WHERE id = ?";
-		return jdbcTemplate.queryForObject(SQL_QUERY, 
-				(rs, rowNum) -> mapToUser(rs, rowNum),
-				id);
+		return statements.execute(FIND_USER_BY_ID,
+				sql -> jdbcTemplate.queryForObject(sql, (rs, rowNum) -> mapToUser(rs, rowNum), id),
+				user -> 1);
 	}
 	
 	@Override
 	public User findUserByUsername(String username) {
-		SQL_QUERY = "SELECT * FROM t_users WHERE t_users.username = ?";
-		return jdbcTemplate.queryForObject(SQL_QUERY, (rs, rowNum) -> mapToUser(rs, rowNum),
-				username);
+		return statements.execute(FIND_USER_BY_USERNAME,
+				sql -> jdbcTemplate.queryForObject(sql, (rs, rowNum) -> mapToUser(rs, rowNum), username),
+				user -> 1);
 	}
 	
 	@Override
 	public Long findUserIdByUsername(String name) {
-		SQL_QUERY = "SELECT id FROM t_users WHERE t_users.username = ?";
-		return jdbcTemplate.queryForObject(SQL_QUERY, Long.class, name);
+		return statements.execute(FIND_USER_ID_BY_USERNAME,
+				sql -> jdbcTemplate.queryForObject(sql, Long.class, name),
+				id -> 1);
 	}
 	
 	@Override
 	public User deleteUserById(Long id) {
 		User user = findUserById(id);		
-		SQL_QUERY = "DELETE FROM t_users WHERE id = ?";
-		jdbcTemplate.update(SQL_QUERY, id);
+		statements.execute(DELETE_USER_BY_ID, sql -> jdbcTemplate.update(sql, id), Integer::intValue);
 		return user;
 	}
 
 	@Override
 	public List<User> getAll() {
-		SQL_QUERY = "SELECT * FROM t_users";
-		return jdbcTemplate.query(SQL_QUERY, 
-				(rs, rowNum) -> mapToUser(rs, rowNum));
+		return statements.execute(GET_ALL,
+				sql -> jdbcTemplate.query(sql, (rs, rowNum) -> mapToUser(rs, rowNum)),
+				List::size);
+	}
+	
+	@Override
+	public List<User> getPage(Long after_id, int limit) {
+		// Seeks past the cursor on the primary key and reads one page, without the password column
+		return statements.execute(GET_PAGE,
+				sql -> jdbcTemplate.query(sql, (rs, rowNum) -> mapToUserSummary(rs, rowNum), after_id, limit),
+				List::size);
+	}
+	
+	@Override
+	public void exportUsers(Consumer<User> consumer) {
+		// Streams rows straight from the result set, fetching them in bounded chunks
+		statements.execute(EXPORT_USERS, sql -> {
+			try (Stream<User> users = exportJdbcTemplate.queryForStream(sql, (rs, rowNum) -> mapToUserSummary(rs, rowNum))) {
+				int exportedRows = 0;
+				for (Iterator<User> iterator = users.iterator(); iterator.hasNext(); exportedRows++) {
+					consumer.accept(iterator.next());
+				}
+				return exportedRows;
+			}
+		}, Integer::intValue);
 	}
 	
 	@Override
     public boolean existById(Long id) {
-		SQL_QUERY = "SELECT COUNT(id) FROM t_users WHERE t_users.id = ?";
-	    int userIdExists = jdbcTemplate.queryForObject(SQL_QUERY, Integer.class, id);
+	    int userIdExists = statements.execute(EXIST_BY_ID,
+	    		sql -> jdbcTemplate.queryForObject(sql, Integer.class, id),
+	    		count -> 1);
 	    return userIdExists != 0;
 	}
 	
@@ -125,9 +210,36 @@ public class JdbcUserRepository implements UserRepository {
         return user;
     }
     
+    /**
+     * Maps a row of the listing statements, which do not read the password, to a User object.
+     * 
+     * @param rs the result set containing the id, username and email columns
+     * @param rowNumber the current row number
+     * @return User object with a null password
+     * @throws SQLException if database access error occurs
+     */
+    private User mapToUserSummary(ResultSet rs, int rowNumber) throws SQLException {
+        User user = new User(rs.getString("username"), rs.getString("email"), null);
+        user.setEntityId(rs.getLong("id"));
+        return user;
+    }
+    
+    /**
+     * Creates the JdbcTemplate used for streaming exports.
+     * 
+     * @param dataSource The data source for database connections.
+     * @return JdbcTemplate fetching {@value #EXPORT_FETCH_SIZE} rows per round trip
+     */
+    private static JdbcTemplate createExportJdbcTemplate(DataSource dataSource) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setFetchSize(EXPORT_FETCH_SIZE);
+        return template;
+    }
+    
     private void createUserAuthorities(User user) {
 		Long user_id = findUserIdByUsername(user.getUsername());	
-		SQL_QUERY = "INSERT INTO t_authorities (username, authority, user_id) VALUES (?,?,?)";
-		jdbcTemplate.update(SQL_QUERY, user.getUsername(), ROLE_USER, user_id);	
+		statements.execute(CREATE_USER_AUTHORITIES,
+				sql -> jdbcTemplate.update(sql, user.getUsername(), ROLE_USER, user_id),
+				Integer::intValue);
 	}
 }
@@ -0,0 +1,142 @@
+package todo.app.repository.impl;
+
+import java.util.function.Supplier;
+
+/**
+ * Open-addressing hash map from primitive {@code long} keys to objects, so keys are never
+ * boxed. Uses linear probing over parallel key and value arrays. Not thread-safe, callers
+ * guard it with their own lock.
+ *
+ * @param <V> The type of the mapped values.
+ */
+final class LongObjectHashMap<V> {
+
+	private static final float LOAD_FACTOR = 0.5f;
+
+	private long[] keys;
+
+	private Object[] values;
+
+	private int size;
+
+	LongObjectHashMap() {
+		this(16);
+	}
+
+	LongObjectHashMap(int expectedSize) {
+		int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+		this.keys = new long[capacity];
+		this.values = new Object[capacity];
+	}
+
+	/**
+	 * Returns the value mapped to a key.
+	 *
+	 * @param key The key.
+	 * @return the value, or null if the key is not mapped
+	 */
+	@SuppressWarnings("unchecked")
+	V get(long key) {
+		int mask = keys.length - 1;
+		for (int index = hash(key) & mask; values[index] != null; index = (index + 1) & mask) {
+			if (keys[index] == key) {
+				return (V) values[index];
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the value mapped to a key, mapping a new value first if there is none.
+	 *
+	 * @param key      The key.
+	 * @param supplier Creates the value of an unmapped key.
+	 * @return the existing or new value
+	 */
+	V computeIfAbsent(long key, Supplier<V> supplier) {
+		V value = get(key);
+		if (value == null) {
+			value = supplier.get();
+			put(key, value);
+		}
+		return value;
+	}
+
+	/**
+	 * Maps a key to a non-null value, replacing any previous value.
+	 *
+	 * @param key   The key.
+	 * @param value The value.
+	 */
+	void put(long key, V value) {
+		if (value == null) throw new IllegalArgumentException("Value cannot be null");
+
+		int mask = keys.length - 1;
+		int index = hash(key) & mask;
+		while (values[index] != null) {
+			if (keys[index] == key) {
+				values[index] = value;
+				return;
+			}
+			index = (index + 1) & mask;
+		}
+		keys[index] = key;
+		values[index] = value;
+		if (++size > keys.length * LOAD_FACTOR) {
+			resize();
+		}
+	}
+
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Visits every mapping, in no particular order.
+	 *
+	 * @param consumer Receives each key and value.
+	 */
+	@SuppressWarnings("unchecked")
+	void forEach(LongObjectConsumer<V> consumer) {
+		for (int index = 0; index < keys.length; index++) {
+			if (values[index] != null) {
+				consumer.accept(keys[index], (V) values[index]);
+			}
+		}
+	}
+
+	private void resize() {
+		long[] oldKeys = keys;
+		Object[] oldValues = values;
+		keys = new long[oldKeys.length << 1];
+		values = new Object[oldValues.length << 1];
+
+		int mask = keys.length - 1;
+		for (int oldIndex = 0; oldIndex < oldKeys.length; oldIndex++) {
+			if (oldValues[oldIndex] != null) {
+				int index = hash(oldKeys[oldIndex]) & mask;
+				while (values[index] != null) {
+					index = (index + 1) & mask;
+				}
+				keys[index] = oldKeys[oldIndex];
+				values[index] = oldValues[oldIndex];
+			}
+		}
+	}
+
+	private static int hash(long key) {
+		// Fibonacci hashing spreads sequential IDs across the table
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	/**
+	 * Receives a primitive key together with its value.
+	 *
+	 * @param <V> The type of the values.
+	 */
+	@FunctionalInterface
+	interface LongObjectConsumer<V> {
+		void accept(long key, V value);
+	}
+}
@@ -0,0 +1,139 @@
+package todo.app.repository.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Immutable registry of the named SQL statements of one repository.
+ *
+ * Every statement is resolved by name at execution time, so no SQL is ever held in mutable
+ * repository state. Each execution is recorded under the statement name:
+ * <ul>
+ * <li>{@value #TIMER_NAME} - latency, tagged with {@code outcome=success|error}</li>
+ * <li>{@value #ROWS_NAME} - rows returned or affected</li>
+ * <li>{@value #ERRORS_NAME} - failed executions</li>
+ * </ul>
+ * All meters carry the {@code repository} and {@code statement} tags.
+ *
+ * @author Marcel Pulido
+ * @version 1.0
+ */
+public final class StatementRegistry {
+
+	public static final String TIMER_NAME = "todo.repository.statement";
+
+	public static final String ROWS_NAME = "todo.repository.statement.rows";
+
+	public static final String ERRORS_NAME = "todo.repository.statement.errors";
+
+	/**
+	 * Statements by name, never modified after construction.
+	 */
+	private final Map<String, Statement> statements;
+
+	/**
+	 * Constructs the registry and registers the meters of every statement.
+	 *
+	 * @param repository    The repository name used as the {@code repository} tag.
+	 * @param sqlByName     The SQL of each statement, keyed by statement name.
+	 * @param meterRegistry The registry receiving the statement metrics.
+	 * @throws IllegalArgumentException if the statements or the meter registry are null
+	 */
+	public StatementRegistry(String repository, Map<String, String> sqlByName, MeterRegistry meterRegistry) {
+
+		if (sqlByName == null) throw new IllegalArgumentException("Statements value is null");
+		if (meterRegistry == null) throw new IllegalArgumentException("MeterRegistry value is null");
+
+		Map<String, Statement> registered = new HashMap<>();
+		sqlByName.forEach((name, sql) -> registered.put(name, new Statement(repository, name, sql, meterRegistry)));
+		this.statements = Map.copyOf(registered);
+	}
+
+	/**
+	 * Returns the SQL of a statement.
+	 *
+	 * @param name The statement name.
+	 * @return the SQL text
+	 * @throws IllegalArgumentException if no statement has that name
+	 */
+	public String sql(String name) {
+		return statement(name).sql;
+	}
+
+	/**
+	 * Executes a statement and records its latency, row count or failure.
+	 *
+	 * @param <T>       The execution result type.
+	 * @param name      The statement name.
+	 * @param execution Runs the SQL it is given and returns the result.
+	 * @param rowCount  Derives the number of rows returned or affected from the result.
+	 * @return the execution result
+	 * @throws IllegalArgumentException if no statement has that name
+	 */
+	public <T> T execute(String name, Function<String, T> execution, ToIntFunction<? super T> rowCount) {
+		Statement statement = statement(name);
+
+		long start = System.nanoTime();
+		try {
+			T result = execution.apply(statement.sql);
+			statement.success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			statement.rows.record(rowCount.applyAsInt(result));
+			return result;
+		} catch (RuntimeException exception) {
+			statement.failure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			statement.errors.increment();
+			throw exception;
+		}
+	}
+
+	private Statement statement(String name) {
+		Statement statement = statements.get(name);
+		if (statement == null) throw new IllegalArgumentException("Unknown statement: " + name);
+		return statement;
+	}
+
+	/**
+	 * A statement's SQL together with its pre-registered meters.
+	 */
+	private static final class Statement {
+
+		private final String sql;
+
+		private final Timer success;
+
+		private final Timer failure;
+
+		private final DistributionSummary rows;
+
+		private final Counter errors;
+
+		private Statement(String repository, String name, String sql, MeterRegistry meterRegistry) {
+			this.sql = sql;
+			this.success = timer(repository, name, "success", meterRegistry);
+			this.failure = timer(repository, name, "error", meterRegistry);
+			this.rows = DistributionSummary.builder(ROWS_NAME)
+					.description("Rows returned or affected per execution")
+					.tags("repository", repository, "statement", name)
+					.register(meterRegistry);
+			this.errors = Counter.builder(ERRORS_NAME)
+					.description("Failed executions")
+					.tags("repository", repository, "statement", name)
+					.register(meterRegistry);
+		}
+
+		private static Timer timer(String repository, String name, String outcome, MeterRegistry meterRegistry) {
+			return Timer.builder(TIMER_NAME)
+					.description("Statement execution latency")
+					.tags("repository", repository, "statement", name, "outcome", outcome)
+					.register(meterRegistry);
+		}
+	}
+}
@@ -0,0 +1,373 @@
+package todo.app.repository.impl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of task changes, written through a memory-mapped file.
+ *
+ * The log is a sequence of generations, one file of {@code segmentSize} bytes each
+ * ({@code wal-<generation>.log}). Every record is framed as {@code length, crc32c, payload};
+ * a zero length marks the end of a file and a checksum mismatch a torn write, where replay
+ * stops. When a record does not fit, the log moves on to the next generation.
+ *
+ * Records reach the page cache as soon as they are appended, so they survive a crash of the
+ * process. With {@code sync} they are also forced to the storage device before the append
+ * returns, so they survive a crash of the machine.
+ *
+ * Only the file being written is mapped: the mapping of a finished file is released right away
+ * instead of lingering, {@code segmentSize} bytes of address space each, until it is collected.
+ */
+final class TaskWriteAheadLog implements Closeable {
+
+	private static final byte CREATE = 1;
+
+	private static final byte UPDATE = 2;
+
+	private static final byte DELETE = 3;
+
+	private static final byte CREATE_BATCH = 4;
+
+	private static final byte UPDATE_BATCH = 5;
+
+	private static final byte DELETE_BATCH = 6;
+
+	private static final int FRAME_HEADER_SIZE = 2 * Integer.BYTES;
+
+	/**
+	 * Releases a mapping, or null where the JDK does not offer the unsupported API to do so.
+	 */
+	private static final MethodHandle UNMAP = unmapHandle();
+
+	private final Path directory;
+
+	private final int segmentSize;
+
+	private final boolean sync;
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private long generation;
+
+	private MappedByteBuffer buffer;
+
+	/**
+	 * Opens a new log file of the given generation.
+	 *
+	 * @param directory   The directory holding the log files.
+	 * @param generation  The generation of the first file written.
+	 * @param segmentSize The size in bytes of each log file.
+	 * @param sync        Whether every append is forced to the storage device.
+	 * @throws IOException if the file cannot be created or mapped
+	 */
+	TaskWriteAheadLog(Path directory, long generation, int segmentSize, boolean sync) throws IOException {
+		this.directory = directory;
+		this.segmentSize = segmentSize;
+		this.sync = sync;
+		open(generation);
+	}
+
+	void appendCreate(long userId, long taskId, String title, String description) {
+		byte[] titleBytes = encode(title), descriptionBytes = encode(description);
+		ByteBuffer payload = ByteBuffer.allocate(1 + 2 * Long.BYTES + textSize(titleBytes) + textSize(descriptionBytes));
+		payload.put(CREATE).putLong(userId).putLong(taskId);
+		putText(payload, titleBytes);
+		putText(payload, descriptionBytes);
+		append(payload.array());
+	}
+
+	/**
+	 * Appends the creation of several tasks as a single record, so it is replayed entirely or not at all.
+	 */
+	void appendCreateBatch(long userId, long[] taskIds, String[] titles, String[] descriptions) {
+		append(tasksPayload(CREATE_BATCH, userId, taskIds, titles, descriptions));
+	}
+
+	void appendUpdate(long userId, long taskId, String title, String description) {
+		byte[] titleBytes = encode(title), descriptionBytes = encode(description);
+		ByteBuffer payload = ByteBuffer.allocate(1 + 2 * Long.BYTES + textSize(titleBytes) + textSize(descriptionBytes));
+		payload.put(UPDATE).putLong(userId).putLong(taskId);
+		putText(payload, titleBytes);
+		putText(payload, descriptionBytes);
+		append(payload.array());
+	}
+
+	void appendDelete(long userId, long taskId) {
+		ByteBuffer payload = ByteBuffer.allocate(1 + 2 * Long.BYTES);
+		payload.put(DELETE).putLong(userId).putLong(taskId);
+		append(payload.array());
+	}
+
+	/**
+	 * Appends the update of several tasks as a single record, so it is replayed entirely or not at all.
+	 */
+	void appendUpdateBatch(long userId, long[] taskIds, String[] titles, String[] descriptions) {
+		append(tasksPayload(UPDATE_BATCH, userId, taskIds, titles, descriptions));
+	}
+
+	/**
+	 * Appends the deletion of several tasks as a single record, so it is replayed entirely or not at all.
+	 */
+	void appendDeleteBatch(long userId, long[] taskIds) {
+		ByteBuffer payload = ByteBuffer.allocate(1 + Long.BYTES + Integer.BYTES + taskIds.length * Long.BYTES);
+		payload.put(DELETE_BATCH).putLong(userId).putInt(taskIds.length);
+		for (long taskId : taskIds) {
+			payload.putLong(taskId);
+		}
+		append(payload.array());
+	}
+
+	/**
+	 * Closes the current file and continues in the next generation.
+	 *
+	 * @return the generation of the new file, every earlier record lives in older generations
+	 */
+	long rotate() {
+		lock.lock();
+		try {
+			nextFile();
+			return generation;
+		} catch (IOException exception) {
+			throw new UncheckedIOException("Unable to rotate the task log", exception);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void close() {
+		lock.lock();
+		try {
+			if (buffer != null) {
+				buffer.force();
+				release(buffer);
+				buffer = null;
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Lists the generations of the log files in a directory.
+	 *
+	 * @param directory The directory holding the log files.
+	 * @return the generations in ascending order
+	 * @throws IOException if the directory cannot be listed
+	 */
+	static List<Long> generations(Path directory) throws IOException {
+		List<Long> generations = new ArrayList<>();
+		try (Stream<Path> files = Files.list(directory)) {
+			files.map(file -> file.getFileName().toString())
+					.filter(name -> name.startsWith("wal-") && name.endsWith(".log"))
+					.forEach(name -> generations.add(Long.parseLong(name.substring(4, name.length() - 4))));
+		}
+		generations.sort(null);
+		return generations;
+	}
+
+	static Path file(Path directory, long generation) {
+		return directory.resolve(String.format("wal-%020d.log", generation));
+	}
+
+	/**
+	 * Replays the complete records of a log file, stopping at its end or at a torn record.
+	 *
+	 * @param file    The log file.
+	 * @param visitor Receives each change in log order.
+	 * @throws IOException if the file cannot be read
+	 */
+	static void replay(Path file, Visitor visitor) throws IOException {
+		ByteBuffer log = ByteBuffer.wrap(Files.readAllBytes(file));
+		CRC32C crc = new CRC32C();
+
+		while (log.remaining() >= FRAME_HEADER_SIZE) {
+			int length = log.getInt();
+			int checksum = log.getInt();
+			if (length <= 0 || length > log.remaining()) {
+				return;
+			}
+
+			crc.reset();
+			crc.update(log.array(), log.position(), length);
+			if ((int) crc.getValue() != checksum) {
+				return;
+			}
+
+			ByteBuffer payload = log.slice(log.position(), length);
+			log.position(log.position() + length);
+
+			byte type = payload.get();
+			long userId = payload.getLong();
+			switch (type) {
+				case CREATE -> visitor.create(userId, payload.getLong(), getText(payload), getText(payload));
+				case UPDATE -> visitor.update(userId, payload.getLong(), getText(payload), getText(payload));
+				case DELETE -> visitor.delete(userId, payload.getLong());
+				case CREATE_BATCH -> {
+					int count = payload.getInt();
+					for (int i = 0; i < count; i++) {
+						visitor.create(userId, payload.getLong(), getText(payload), getText(payload));
+					}
+				}
+				case UPDATE_BATCH -> {
+					int count = payload.getInt();
+					for (int i = 0; i < count; i++) {
+						visitor.update(userId, payload.getLong(), getText(payload), getText(payload));
+					}
+				}
+				case DELETE_BATCH -> {
+					int count = payload.getInt();
+					for (int i = 0; i < count; i++) {
+						visitor.delete(userId, payload.getLong());
+					}
+				}
+				default -> throw new IOException("Unknown task log record type " + type + " in " + file);
+			}
+		}
+	}
+
+	private void append(byte[] payload) {
+		if (payload.length + FRAME_HEADER_SIZE > segmentSize) {
+			throw new IllegalArgumentException("Task log record of " + payload.length + " bytes exceeds the segment size");
+		}
+
+		CRC32C crc = new CRC32C();
+		crc.update(payload);
+
+		lock.lock();
+		try {
+			if (buffer.remaining() < payload.length + FRAME_HEADER_SIZE) {
+				nextFile();
+			}
+			int start = buffer.position();
+			buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+			if (sync) {
+				buffer.force(start, buffer.position() - start);
+			}
+		} catch (IOException exception) {
+			throw new UncheckedIOException("Unable to extend the task log", exception);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void open(long newGeneration) throws IOException {
+		try (FileChannel channel = FileChannel.open(file(directory, newGeneration),
+				StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			// The mapping stays valid after the channel is closed
+			buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+		}
+		generation = newGeneration;
+	}
+
+	/**
+	 * Continues in a new file of the next generation and releases the current one.
+	 */
+	private void nextFile() throws IOException {
+		MappedByteBuffer finished = buffer;
+		// Records of a full or rotated file must be durable before later generations are relied on
+		finished.force();
+		open(generation + 1);
+		release(finished);
+	}
+
+	/**
+	 * Releases the mapping of a file no longer written. The buffer must not be touched afterwards.
+	 */
+	private static void release(MappedByteBuffer mapping) {
+		if (UNMAP != null) {
+			try {
+				UNMAP.invokeExact((ByteBuffer) mapping);
+			} catch (Throwable exception) {
+				// The mapping is then released when the buffer is collected
+			}
+		}
+	}
+
+	private static MethodHandle unmapHandle() {
+		try {
+			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			Field unsafe = unsafeClass.getDeclaredField("theUnsafe");
+			unsafe.setAccessible(true);
+			return MethodHandles.lookup()
+					.findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+					.bindTo(unsafe.get(null));
+		} catch (ReflectiveOperationException | RuntimeException exception) {
+			return null;
+		}
+	}
+
+	private static byte[] tasksPayload(byte type, long userId, long[] taskIds, String[] titles, String[] descriptions) {
+		byte[][] titleBytes = new byte[taskIds.length][], descriptionBytes = new byte[taskIds.length][];
+		int size = 1 + Long.BYTES + Integer.BYTES;
+		for (int i = 0; i < taskIds.length; i++) {
+			titleBytes[i] = encode(titles[i]);
+			descriptionBytes[i] = encode(descriptions[i]);
+			size += Long.BYTES + textSize(titleBytes[i]) + textSize(descriptionBytes[i]);
+		}
+
+		ByteBuffer payload = ByteBuffer.allocate(size);
+		payload.put(type).putLong(userId).putInt(taskIds.length);
+		for (int i = 0; i < taskIds.length; i++) {
+			payload.putLong(taskIds[i]);
+			putText(payload, titleBytes[i]);
+			putText(payload, descriptionBytes[i]);
+		}
+		return payload.array();
+	}
+
+	private static byte[] encode(String text) {
+		return text == null ? null : text.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static int textSize(byte[] text) {
+		return Integer.BYTES + (text == null ? 0 : text.length);
+	}
+
+	private static void putText(ByteBuffer payload, byte[] text) {
+		if (text == null) {
+			payload.putInt(-1);
+		} else {
+			payload.putInt(text.length).put(text);
+		}
+	}
+
+	private static String getText(ByteBuffer payload) {
+		int length = payload.getInt();
+		if (length < 0) {
+			return null;
+		}
+		String text = new String(payload.array(), payload.arrayOffset() + payload.position(), length, StandardCharsets.UTF_8);
+		payload.position(payload.position() + length);
+		return text;
+	}
+
+	/**
+	 * Receives the changes of a replayed log.
+	 */
+	interface Visitor {
+
+		void create(long userId, long taskId, String title, String description);
+
+		void update(long userId, long taskId, String title, String description);
+
+		void delete(long userId, long taskId);
+	}
+}
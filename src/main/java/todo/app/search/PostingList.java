@@ -0,0 +1,132 @@
+package todo.app.search;
+
+import java.util.Arrays;
+
+/**
+ * Task IDs containing one term, with the term's weight in each task, in ascending ID order.
+ *
+ * Entries are stored compressed in a single byte array: the gap to the previous task ID and
+ * the weight, both as variable-length integers of 7 bits per byte. Gaps between the IDs of one
+ * user's tasks are small, so most entries take two bytes. New tasks have the highest ID of the
+ * user, so adding one is an append; other changes re-encode the list. Not thread-safe, guarded
+ * by the lock of the user's index.
+ */
+final class PostingList {
+
+	private byte[] data = new byte[8];
+
+	private int length;
+
+	private int count;
+
+	private long lastTaskId;
+
+	/**
+	 * Receives the entries of a posting list.
+	 */
+	@FunctionalInterface
+	interface EntryConsumer {
+
+		void accept(long taskId, int weight);
+	}
+
+	int count() {
+		return count;
+	}
+
+	/**
+	 * Adds a task, or replaces its weight if it is already listed.
+	 */
+	void add(long taskId, int weight) {
+		if (count == 0 || taskId > lastTaskId) {
+			append(taskId, weight);
+			return;
+		}
+
+		long[] taskIds = new long[count + 1];
+		int[] weights = new int[count + 1];
+		int[] size = {0};
+		forEach((id, w) -> {
+			if (id != taskId) {
+				taskIds[size[0]] = id;
+				weights[size[0]++] = w;
+			}
+		});
+		int insertAt = -Arrays.binarySearch(taskIds, 0, size[0], taskId) - 1;
+		System.arraycopy(taskIds, insertAt, taskIds, insertAt + 1, size[0] - insertAt);
+		System.arraycopy(weights, insertAt, weights, insertAt + 1, size[0] - insertAt);
+		taskIds[insertAt] = taskId;
+		weights[insertAt] = weight;
+		encode(taskIds, weights, size[0] + 1);
+	}
+
+	/**
+	 * Removes a task if it is listed.
+	 */
+	void remove(long taskId) {
+		long[] taskIds = new long[count];
+		int[] weights = new int[count];
+		int[] size = {0};
+		forEach((id, w) -> {
+			if (id != taskId) {
+				taskIds[size[0]] = id;
+				weights[size[0]++] = w;
+			}
+		});
+		if (size[0] != count) {
+			encode(taskIds, weights, size[0]);
+		}
+	}
+
+	void forEach(EntryConsumer consumer) {
+		int position = 0;
+		long taskId = 0;
+		while (position < length) {
+			long gap = 0;
+			int shift = 0;
+			byte b;
+			do {
+				b = data[position++];
+				gap |= (long) (b & 0x7F) << shift;
+				shift += 7;
+			} while (b < 0);
+			int weight = 0;
+			shift = 0;
+			do {
+				b = data[position++];
+				weight |= (b & 0x7F) << shift;
+				shift += 7;
+			} while (b < 0);
+			taskId += gap;
+			consumer.accept(taskId, weight);
+		}
+	}
+
+	private void encode(long[] taskIds, int[] weights, int size) {
+		length = 0;
+		count = 0;
+		lastTaskId = 0;
+		for (int i = 0; i < size; i++) {
+			append(taskIds[i], weights[i]);
+		}
+	}
+
+	private void append(long taskId, int weight) {
+		// At most ten bytes for the gap and five for the weight
+		if (length + 15 > data.length) {
+			data = Arrays.copyOf(data, Math.max(data.length << 1, length + 15));
+		}
+		writeVarLong(taskId - lastTaskId);
+		writeVarLong(weight);
+		lastTaskId = taskId;
+		count++;
+	}
+
+	private void writeVarLong(long value) {
+		while ((value & ~0x7FL) != 0) {
+			data[length++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		data[length++] = (byte) value;
+	}
+}
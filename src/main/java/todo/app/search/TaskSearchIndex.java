@@ -0,0 +1,259 @@
+package todo.app.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import todo.app.logic.TaskDTO;
+import todo.app.repository.TaskRepository;
+
+/**
+ * In-process full-text index over the title and description of every user's tasks.
+ *
+ * Each user has an inverted index of their own: a {@link PostingList} per term listing the
+ * tasks containing it, plus the indexed text of each task, so results are served without a
+ * database round trip and a changed task can be taken out of its old terms. A term counts
+ * {@value #TITLE_WEIGHT} times in the title and once in the description. Results are ranked by
+ * the sum over the query terms of {@code idf(term) * weight / (weight + 1)}.
+ *
+ * The index is kept current by the task service on every change, and rebuilt from the task
+ * store at startup with one worker per slice of users.
+ *
+ * @author Marcel Pulido
+ * @version 1.0
+ */
+public class TaskSearchIndex {
+
+	/**
+	 * Weight of a term occurrence in the title, an occurrence in the description weighs 1.
+	 */
+	public static final int TITLE_WEIGHT = 3;
+
+	private static final Logger logger = LoggerFactory.getLogger(TaskSearchIndex.class);
+
+	private final ConcurrentMap<Long, UserIndex> users = new ConcurrentHashMap<>();
+
+	/**
+	 * Adds a task to the index, or replaces its indexed text.
+	 *
+	 * @param user_id     The ID of the user owning the task.
+	 * @param task_id     The ID of the task.
+	 * @param title       The title of the task.
+	 * @param description The description of the task, may be null.
+	 */
+	public void index(Long user_id, Long task_id, String title, String description) {
+		UserIndex index = users.computeIfAbsent(user_id, id -> new UserIndex());
+		index.lock.writeLock().lock();
+		try {
+			index.put(task_id, title, description);
+		} finally {
+			index.lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Changes some attributes of an indexed task, keeping the others.
+	 *
+	 * @param user_id     The ID of the user owning the task.
+	 * @param task_id     The ID of the task.
+	 * @param title       The new title, or null to keep it.
+	 * @param description The new description, or null to keep it.
+	 */
+	public void patch(Long user_id, Long task_id, String title, String description) {
+		UserIndex index = users.get(user_id);
+		if (index == null) {
+			return;
+		}
+
+		index.lock.writeLock().lock();
+		try {
+			IndexedTask task = index.tasks.get(task_id);
+			if (task != null) {
+				index.put(task_id, title == null ? task.title() : title,
+						description == null ? task.description() : description);
+			}
+		} finally {
+			index.lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes a task from the index.
+	 *
+	 * @param user_id The ID of the user owning the task.
+	 * @param task_id The ID of the task.
+	 */
+	public void remove(Long user_id, Long task_id) {
+		UserIndex index = users.get(user_id);
+		if (index == null) {
+			return;
+		}
+
+		index.lock.writeLock().lock();
+		try {
+			index.remove(task_id);
+		} finally {
+			index.lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the tasks of a user best matching a query, best first. A task matches when it
+	 * contains any query term; ties are ordered by ascending task ID.
+	 *
+	 * @param user_id The ID of the user whose tasks are searched.
+	 * @param query   The query text, tokenized like the tasks.
+	 * @param limit   The maximum number of results.
+	 * @return the matching tasks, empty if none match
+	 */
+	public List<TaskDTO> search(Long user_id, String query, int limit) {
+		UserIndex index = users.get(user_id);
+		List<String> terms = TaskTokenizer.tokenize(query);
+		if (index == null || terms.isEmpty()) {
+			return new ArrayList<>();
+		}
+
+		index.lock.readLock().lock();
+		try {
+			Map<Long, double[]> scores = new HashMap<>();
+			int taskCount = index.tasks.size();
+			for (String term : terms.stream().distinct().toList()) {
+				PostingList postings = index.terms.get(term);
+				if (postings == null) {
+					continue;
+				}
+				double idf = Math.log(1.0 + (double) taskCount / postings.count());
+				postings.forEach((taskId, weight) ->
+						scores.computeIfAbsent(taskId, id -> new double[1])[0] += idf * weight / (weight + 1.0));
+			}
+
+			// Keeps the best results in a bounded heap whose head is the worst of them
+			PriorityQueue<Map.Entry<Long, double[]>> best = new PriorityQueue<>(Math.min(limit, scores.size()) + 1,
+					(a, b) -> a.getValue()[0] != b.getValue()[0]
+							? Double.compare(a.getValue()[0], b.getValue()[0])
+							: Long.compare(b.getKey(), a.getKey()));
+			for (Map.Entry<Long, double[]> score : scores.entrySet()) {
+				best.add(score);
+				if (best.size() > limit) {
+					best.poll();
+				}
+			}
+
+			TaskDTO[] results = new TaskDTO[best.size()];
+			for (int i = results.length - 1; i >= 0; i--) {
+				Long taskId = best.poll().getKey();
+				IndexedTask task = index.tasks.get(taskId);
+				results[i] = new TaskDTO(taskId, task.title(), task.description());
+			}
+			return new ArrayList<>(List.of(results));
+		} finally {
+			index.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Replaces the index of the given users with their tasks read from a task store. Users are
+	 * split across the workers, each building complete user indexes before publishing them.
+	 *
+	 * @param userIds        The IDs of the users to index.
+	 * @param taskRepository The store the tasks are read from.
+	 * @param workers        The number of threads reading and indexing.
+	 * @return the number of tasks indexed
+	 */
+	public long rebuild(List<Long> userIds, TaskRepository taskRepository, int workers) {
+		long start = System.nanoTime();
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, workers));
+		try {
+			List<Future<Long>> indexed = new ArrayList<>(userIds.size());
+			for (Long userId : userIds) {
+				indexed.add(executor.submit(() -> {
+					UserIndex index = new UserIndex();
+					taskRepository.exportTasks(userId,
+							task -> index.put(task.getEntityId(), task.getTitle(), task.getDescription()));
+					users.put(userId, index);
+					return (long) index.tasks.size();
+				}));
+			}
+
+			long tasks = 0;
+			for (Future<Long> future : indexed) {
+				tasks += await(future);
+			}
+			logger.info("Task search index rebuilt, {} tasks of {} users in {} ms",
+					tasks, userIds.size(), (System.nanoTime() - start) / 1_000_000);
+			return tasks;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static long await(Future<Long> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Task search index rebuild interrupted", exception);
+		} catch (ExecutionException exception) {
+			throw new IllegalStateException("Unable to rebuild the task search index", exception.getCause());
+		}
+	}
+
+	private record IndexedTask(String title, String description) {}
+
+	/**
+	 * Inverted index of one user's tasks, guarded by {@link #lock}.
+	 */
+	private static final class UserIndex {
+
+		private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+		private final Map<String, PostingList> terms = new HashMap<>();
+
+		private final Map<Long, IndexedTask> tasks = new HashMap<>();
+
+		private void put(long taskId, String title, String description) {
+			remove(taskId);
+			tasks.put(taskId, new IndexedTask(title, description));
+
+			Map<String, Integer> weights = new HashMap<>();
+			for (String term : TaskTokenizer.tokenize(title)) {
+				weights.merge(term, TITLE_WEIGHT, Integer::sum);
+			}
+			for (String term : TaskTokenizer.tokenize(description)) {
+				weights.merge(term, 1, Integer::sum);
+			}
+			weights.forEach((term, weight) -> terms.computeIfAbsent(term, t -> new PostingList()).add(taskId, weight));
+		}
+
+		private void remove(long taskId) {
+			IndexedTask task = tasks.remove(taskId);
+			if (task == null) {
+				return;
+			}
+
+			List<String> taskTerms = TaskTokenizer.tokenize(task.title());
+			taskTerms.addAll(TaskTokenizer.tokenize(task.description()));
+			for (String term : taskTerms) {
+				PostingList postings = terms.get(term);
+				if (postings != null) {
+					postings.remove(taskId);
+					if (postings.count() == 0) {
+						terms.remove(term);
+					}
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,42 @@
+package todo.app.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits task text into search terms: runs of letters and digits, lower-cased. Tokens longer
+ * than {@link #MAX_TERM_LENGTH} characters are cut, so a pasted blob cannot bloat the index.
+ */
+final class TaskTokenizer {
+
+	static final int MAX_TERM_LENGTH = 40;
+
+	private TaskTokenizer() {}
+
+	/**
+	 * Returns the terms of a text in order of appearance, repeated terms included.
+	 *
+	 * @param text The text, may be null.
+	 * @return the terms, empty for a null or blank text
+	 */
+	static List<String> tokenize(String text) {
+		List<String> terms = new ArrayList<>();
+		if (text == null) {
+			return terms;
+		}
+
+		int length = text.length();
+		int start = -1;
+		for (int i = 0; i <= length; i++) {
+			boolean termCharacter = i < length && Character.isLetterOrDigit(text.charAt(i));
+			if (termCharacter && start < 0) {
+				start = i;
+			} else if (!termCharacter && start >= 0) {
+				terms.add(text.substring(start, Math.min(i, start + MAX_TERM_LENGTH)).toLowerCase(Locale.ROOT));
+				start = -1;
+			}
+		}
+		return terms;
+	}
+}
@@ -0,0 +1,204 @@
+package todo.app.security;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Encodes passwords stored in plain text, e.g. users inserted directly into the database.
+ *
+ * Users are read in pages ordered by ID, only the {@code id} and {@code password} columns. The
+ * passwords of a page are hashed on a bounded worker pool and written back with one batched
+ * update, in the same transaction that records the last migrated user ID in
+ * {@code t_migration_progress}. A restart therefore resumes after the last completed page, and
+ * later runs only look at users added since.
+ *
+ * Passwords already in the {@code {id}encoded} format of the delegating encoder are left alone.
+ * Bare BCrypt hashes are only given the {@code {bcrypt}} prefix, without rehashing.
+ *
+ * @author Marcel Pulido
+ * @version 1.0
+ */
+public class PasswordMigration {
+
+	public static final int DEFAULT_PAGE_SIZE = 500;
+
+	private static final Logger logger = LoggerFactory.getLogger(PasswordMigration.class);
+
+	private static final String MIGRATION_NAME = "password-encoding";
+
+	private static final String SELECT_PROGRESS_SQL = "SELECT last_id FROM t_migration_progress WHERE migration_name = ?";
+
+	private static final String INSERT_PROGRESS_SQL = "INSERT INTO t_migration_progress (migration_name, last_id) VALUES (?, 0)";
+
+	private static final String UPDATE_PROGRESS_SQL = "UPDATE t_migration_progress SET last_id = ? WHERE migration_name = ?";
+
+	private static final String SELECT_PAGE_SQL = "SELECT id, password FROM t_users WHERE id > ? ORDER BY id LIMIT ?";
+
+	/**
+	 * Only replaces the password read from the page, so a concurrent change is never overwritten.
+	 */
+	private static final String UPDATE_PASSWORD_SQL = "UPDATE t_users SET password = ? WHERE id = ? AND password = ?";
+
+	private static final Pattern DELEGATING_FORMAT = Pattern.compile("^\\{[\\w.-]+\\}.+");
+
+	private static final Pattern BARE_BCRYPT = Pattern.compile("^\\$2[aby]?\\$\\d{2}\\$[./A-Za-z0-9]{53}$");
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final PasswordEncoder passwordEncoder;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final int pageSize;
+
+	private final int workers;
+
+	/**
+	 * Constructs a migration running on the given template.
+	 *
+	 * @param jdbcTemplate    The template for database access.
+	 * @param passwordEncoder The encoder producing the stored format.
+	 * @param pageSize        The number of users read, hashed and written per step.
+	 * @param workers         The number of threads hashing passwords.
+	 * @throws IllegalArgumentException if a dependency is null or a size is not positive
+	 */
+	public PasswordMigration(JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder, int pageSize, int workers) {
+
+		if (jdbcTemplate == null) throw new IllegalArgumentException("JdbcTemplate value is null");
+		if (passwordEncoder == null) throw new IllegalArgumentException("PasswordEncoder value is null");
+		if (pageSize < 1 || workers < 1) throw new IllegalArgumentException("Page size and workers must be positive");
+
+		this.jdbcTemplate = jdbcTemplate;
+		this.passwordEncoder = passwordEncoder;
+		this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+		this.pageSize = pageSize;
+		this.workers = workers;
+	}
+
+	/**
+	 * Migrates all users after the recorded progress.
+	 *
+	 * @return the number of passwords rewritten
+	 */
+	public int migrate() {
+		ExecutorService executor = Executors.newFixedThreadPool(workers);
+		try {
+			long lastId = loadProgress();
+			int migrated = 0;
+
+			List<StoredPassword> page;
+			do {
+				page = jdbcTemplate.query(SELECT_PAGE_SQL,
+						(rs, rowNum) -> new StoredPassword(rs.getLong("id"), rs.getString("password")),
+						lastId, pageSize);
+				if (page.isEmpty()) {
+					break;
+				}
+
+				migrated += migratePage(page, executor);
+				lastId = page.get(page.size() - 1).id();
+			} while (page.size() == pageSize);
+
+			logger.info("Password migration finished, {} passwords encoded", migrated);
+			return migrated;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Runs {@link #migrate()} on a background daemon thread and returns immediately.
+	 *
+	 * @return the started thread
+	 */
+	public Thread migrateInBackground() {
+		Thread thread = new Thread(() -> {
+			try {
+				migrate();
+			} catch (RuntimeException exception) {
+				// Progress of completed pages is kept, the next start resumes from there
+				logger.error("Password migration failed", exception);
+			}
+		}, "password-migration");
+		thread.setDaemon(true);
+		thread.start();
+		return thread;
+	}
+
+	/**
+	 * Hashes the passwords of one page and writes them together with the new progress.
+	 *
+	 * @param page     The users of the page.
+	 * @param executor The pool hashing the passwords.
+	 * @return the number of passwords rewritten
+	 */
+	private int migratePage(List<StoredPassword> page, ExecutorService executor) {
+		List<StoredPassword> pending = new ArrayList<>();
+		List<Future<String>> encoded = new ArrayList<>();
+		for (StoredPassword stored : page) {
+			if (!DELEGATING_FORMAT.matcher(stored.password()).matches()) {
+				pending.add(stored);
+				encoded.add(executor.submit(encode(stored.password())));
+			}
+		}
+
+		List<Object[]> rows = new ArrayList<>(pending.size());
+		for (int i = 0; i < pending.size(); i++) {
+			rows.add(new Object[] {await(encoded.get(i)), pending.get(i).id(), pending.get(i).password()});
+		}
+
+		long lastId = page.get(page.size() - 1).id();
+		transactionTemplate.executeWithoutResult(status -> {
+			if (!rows.isEmpty()) {
+				jdbcTemplate.batchUpdate(UPDATE_PASSWORD_SQL, rows);
+			}
+			jdbcTemplate.update(UPDATE_PROGRESS_SQL, lastId, MIGRATION_NAME);
+		});
+		return rows.size();
+	}
+
+	private Callable<String> encode(String password) {
+		if (BARE_BCRYPT.matcher(password).matches()) {
+			return () -> "{bcrypt}" + password;
+		}
+		return () -> passwordEncoder.encode(password);
+	}
+
+	private static String await(Future<String> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Password migration interrupted", exception);
+		} catch (ExecutionException exception) {
+			throw new IllegalStateException("Unable to encode password", exception.getCause());
+		}
+	}
+
+	/**
+	 * Returns the last migrated user ID, creating the progress row on the first run.
+	 */
+	private long loadProgress() {
+		List<Long> progress = jdbcTemplate.queryForList(SELECT_PROGRESS_SQL, Long.class, MIGRATION_NAME);
+		if (!progress.isEmpty()) {
+			return progress.get(0);
+		}
+		jdbcTemplate.update(INSERT_PROGRESS_SQL, MIGRATION_NAME);
+		return 0L;
+	}
+
+	private record StoredPassword(long id, String password) {}
+}
@@ -1,62 +1,100 @@
 package todo.app.security;
 
-import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 //import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.CsrfConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.security.provisioning.JdbcUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import static org.springframework.security.config.Customizer.withDefaults;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import todo.app.metrics.TimedPasswordEncoder;
+
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 	
 	@Bean
-	public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+	public SecurityFilterChain filterChain(HttpSecurity http, TokenService tokenService,
+			@Value("${todo.security.basic-auth.enabled:true}") boolean basicAuthEnabled) throws Exception {
 		http.authorizeHttpRequests((authz) -> authz
 				.requestMatchers(HttpMethod.POST, "/todo/app/register").permitAll()
+				.requestMatchers(HttpMethod.POST, "/todo/app/login").permitAll()
 				.requestMatchers(HttpMethod.GET,"/todo/app/tasks/**").hasRole("USER")
 				.requestMatchers(HttpMethod.POST,"/todo/app/tasks/**").hasRole("USER")
 				.requestMatchers(HttpMethod.PUT,"/todo/app/tasks/**").hasRole("USER")
+				.requestMatchers(HttpMethod.PATCH,"/todo/app/tasks/**").hasRole("USER")
 				.requestMatchers(HttpMethod.DELETE,"/todo/app/tasks/**").hasRole("USER")
 				.requestMatchers(HttpMethod.GET, "/todo/app/users/**").hasRole("ADMIN")
-				.requestMatchers(HttpMethod.DELETE, "/todo/app/users/**").hasRole("ADMIN"))
-		.httpBasic(withDefaults())
+				.requestMatchers(HttpMethod.DELETE, "/todo/app/users/**").hasRole("ADMIN")
+				.requestMatchers("/actuator/health").permitAll()
+				.requestMatchers("/actuator/**").hasRole("ADMIN"))
+		.addFilterBefore(new TokenAuthenticationFilter(tokenService), BasicAuthenticationFilter.class)
+		.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
 		.csrf((CsrfConfigurer::disable));
 		
+		// HTTP Basic stays available as an optional fallback to bearer tokens
+		if (basicAuthEnabled) {
+			http.httpBasic(withDefaults());
+		} else {
+			http.exceptionHandling(exceptions -> exceptions
+					.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)));
+		}
+		
 		return http.build();
 				
 	}
 	
 	@Bean
-	public UserDetailsService userDetailsService(@Autowired DataSource dataSource) {
-		   JdbcUserDetailsManager manager = new JdbcUserDetailsManager(dataSource);
-	        
-	        // Configure custom queries
-	        manager.setUsersByUsernameQuery(
-	            "SELECT username, password, enabled FROM t_users WHERE username = ?"
-	        );
-	        manager.setAuthoritiesByUsernameQuery(
-	            "SELECT username, authority FROM t_authorities WHERE username = ?"
-	        );
-	        
-	        return manager;
+	public UserDetailsService userDetailsService(@Autowired JdbcTemplate jdbcTemplate) {
+		// Loads the user ID together with the credentials into the principal
+		return new TodoUserDetailsManager(jdbcTemplate);
+	}
+	
+	@Bean
+	public AuthenticationManager authenticationManager(UserDetailsService userDetailsService, PasswordEncoder passwordEncoder) {
+		DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+		provider.setUserDetailsService(userDetailsService);
+		provider.setPasswordEncoder(passwordEncoder);
+		return new ProviderManager(provider);
+	}
+	
+	@Bean
+	public TokenService tokenService(@Value("${todo.security.token.secret:}") String secret,
+			@Value("${todo.security.token.ttl-seconds:900}") long ttlSeconds) {
+		// Without a configured secret, tokens are signed with a key that lives as long as the process
+		byte[] key = secret.isEmpty() ? TokenService.randomSecret() : Base64.getDecoder().decode(secret);
+		return new TokenService(key, Duration.ofSeconds(ttlSeconds), Clock.systemUTC());
 	}
 	
 	@Bean
-	public PasswordEncoder passwordEncoder() {
-		return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+	public PasswordEncoder passwordEncoder(ObjectProvider<MeterRegistry> meterRegistry) {
+		// Timed, so the hashing cost of logins and registrations can be told apart from the rest of the request
+		return new TimedPasswordEncoder(PasswordEncoderFactories.createDelegatingPasswordEncoder(),
+				meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
 	}
 	
 }
@@ -0,0 +1,30 @@
+package todo.app.security;
+
+import java.util.Collection;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * Authenticated principal carrying the database ID of the user next to the
+ * credentials, so request handlers do not have to resolve it from the username.
+ */
+public class TodoUserDetails extends User {
+
+	private static final long serialVersionUID = 3164975042512836214L;
+
+	private final Long id;
+
+	public TodoUserDetails(Long id, String username, String password, boolean enabled,
+			Collection<? extends GrantedAuthority> authorities) {
+		super(username, password, enabled, true, true, true, authorities);
+		this.id = id;
+	}
+
+	/**
+	 * Returns the ID of the authenticated user
+	 */
+	public Long getId() {
+		return id;
+	}
+}
@@ -0,0 +1,46 @@
+package todo.app.security;
+
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.provisioning.JdbcUserDetailsManager;
+
+/**
+ * JdbcUserDetailsManager that reads the user ID together with the credentials
+ * and returns it inside a {@link TodoUserDetails} principal.
+ */
+public class TodoUserDetailsManager extends JdbcUserDetailsManager {
+
+	private static final String USERS_BY_USERNAME_QUERY =
+			"SELECT id, username, password, enabled FROM t_users WHERE username = ?";
+
+	private static final String AUTHORITIES_BY_USERNAME_QUERY =
+			"SELECT username, authority FROM t_authorities WHERE username = ?";
+
+	public TodoUserDetailsManager(JdbcTemplate jdbcTemplate) {
+		setJdbcTemplate(jdbcTemplate);
+		setUsersByUsernameQuery(USERS_BY_USERNAME_QUERY);
+		setAuthoritiesByUsernameQuery(AUTHORITIES_BY_USERNAME_QUERY);
+	}
+
+	@Override
+	protected List<UserDetails> loadUsersByUsername(String username) {
+		return getJdbcTemplate().query(USERS_BY_USERNAME_QUERY, (rs, rowNum) -> new TodoUserDetails(
+				rs.getLong("id"),
+				rs.getString("username"),
+				rs.getString("password"),
+				rs.getBoolean("enabled"),
+				AuthorityUtils.NO_AUTHORITIES), username);
+	}
+
+	@Override
+	protected UserDetails createUserDetails(String username, UserDetails userFromUserQuery,
+			List<GrantedAuthority> combinedAuthorities) {
+		TodoUserDetails user = (TodoUserDetails) userFromUserQuery;
+		return new TodoUserDetails(user.getId(), user.getUsername(), user.getPassword(), user.isEnabled(),
+				combinedAuthorities);
+	}
+}
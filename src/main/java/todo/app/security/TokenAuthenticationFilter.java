@@ -0,0 +1,47 @@
+package todo.app.security;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Authenticates requests carrying an {@code Authorization: Bearer} token issued by
+ * {@link TokenService}. Invalid or expired tokens leave the request unauthenticated,
+ * so the security chain answers it with 401.
+ */
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+	private static final String BEARER_PREFIX = "Bearer ";
+
+	private final TokenService tokenService;
+
+	public TokenAuthenticationFilter(TokenService tokenService) {
+		this.tokenService = tokenService;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+
+		if (header != null && header.startsWith(BEARER_PREFIX)) {
+			TodoUserDetails user = tokenService.verifyToken(header.substring(BEARER_PREFIX.length()).trim());
+			if (user != null) {
+				SecurityContext context = SecurityContextHolder.createEmptyContext();
+				context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities()));
+				SecurityContextHolder.setContext(context);
+			}
+		}
+
+		filterChain.doFilter(request, response);
+	}
+}
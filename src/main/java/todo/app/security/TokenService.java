@@ -0,0 +1,145 @@
+package todo.app.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import todo.app.logic.TokenDTO;
+
+/**
+ * Issues and verifies short-lived, HMAC-SHA256 signed access tokens.
+ *
+ * A token has the form {@code base64url(payload).base64url(signature)} where the payload is
+ * {@code userId|expiresAt|authorities|username}. Verification only needs the local key, so
+ * requests presenting a token are authenticated without a database query or password hash.
+ */
+public class TokenService {
+
+	private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+	private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+	private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+	private final SecretKeySpec key;
+
+	private final Duration timeToLive;
+
+	private final Clock clock;
+
+	/**
+	 * Constructs a token service signing with the given key.
+	 *
+	 * @param secret     The HMAC key, at least 32 bytes long.
+	 * @param timeToLive How long an issued token stays valid.
+	 * @param clock      The clock used for issuing and expiring tokens.
+	 * @throws IllegalArgumentException if the key is shorter than 32 bytes
+	 */
+	public TokenService(byte[] secret, Duration timeToLive, Clock clock) {
+
+		if (secret == null || secret.length < 32) throw new IllegalArgumentException("Token secret must be at least 32 bytes");
+
+		this.key = new SecretKeySpec(secret, HMAC_ALGORITHM);
+		this.timeToLive = timeToLive;
+		this.clock = clock;
+	}
+
+	/**
+	 * Generates a random key, used when no secret is configured. Tokens signed with
+	 * it become invalid when the application restarts.
+	 *
+	 * @return a random 32-byte key
+	 */
+	public static byte[] randomSecret() {
+		byte[] secret = new byte[32];
+		new SecureRandom().nextBytes(secret);
+		return secret;
+	}
+
+	/**
+	 * Issues a token for an authenticated user.
+	 *
+	 * @param authentication The authentication whose principal is a {@link TodoUserDetails}.
+	 * @return the signed token and its lifetime
+	 * @throws IllegalArgumentException if the principal does not carry a user ID
+	 */
+	public TokenDTO issueToken(Authentication authentication) {
+		if (!(authentication.getPrincipal() instanceof TodoUserDetails user)) {
+			throw new IllegalArgumentException("Authenticated principal does not carry a user ID");
+		}
+
+		long expiresAt = clock.instant().plus(timeToLive).getEpochSecond();
+		String authorities = user.getAuthorities().stream()
+				.map(GrantedAuthority::getAuthority)
+				.collect(Collectors.joining(","));
+		String payload = user.getId() + "|" + expiresAt + "|" + authorities + "|" + user.getUsername();
+
+		byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+		String token = ENCODER.encodeToString(payloadBytes) + "." + ENCODER.encodeToString(sign(payloadBytes));
+
+		return new TokenDTO(token, timeToLive.getSeconds());
+	}
+
+	/**
+	 * Verifies a token and returns the principal it was issued for.
+	 *
+	 * @param token The token presented by the client.
+	 * @return the principal, or null if the token is malformed, forged or expired
+	 */
+	public TodoUserDetails verifyToken(String token) {
+		int separator = token.indexOf('.');
+		if (separator < 0) {
+			return null;
+		}
+
+		try {
+			byte[] payloadBytes = DECODER.decode(token.substring(0, separator));
+			byte[] signature = DECODER.decode(token.substring(separator + 1));
+			if (!MessageDigest.isEqual(sign(payloadBytes), signature)) {
+				return null;
+			}
+
+			String[] fields = new String(payloadBytes, StandardCharsets.UTF_8).split("\\|", 4);
+			if (fields.length != 4 || Long.parseLong(fields[1]) < clock.instant().getEpochSecond()) {
+				return null;
+			}
+
+			List<GrantedAuthority> authorities = fields[2].isEmpty()
+					? AuthorityUtils.NO_AUTHORITIES
+					: AuthorityUtils.commaSeparatedStringToAuthorityList(fields[2]);
+			return new TodoUserDetails(Long.valueOf(fields[0]), fields[3], "", true, authorities);
+		} catch (IllegalArgumentException exception) {
+			// Not valid Base64 or not a number
+			return null;
+		}
+	}
+
+	/**
+	 * Computes the HMAC of a payload.
+	 *
+	 * @param payload The bytes to sign.
+	 * @return the signature
+	 */
+	private byte[] sign(byte[] payload) {
+		try {
+			Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+			mac.init(key);
+			return mac.doFinal(payload);
+		} catch (GeneralSecurityException exception) {
+			throw new IllegalStateException("Unable to sign token", exception);
+		}
+	}
+}
@@ -1,9 +1,12 @@
 package todo.app.service;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import todo.app.logic.Task;
 import todo.app.logic.TaskDTO;
+import todo.app.logic.TaskPageDTO;
+import todo.app.logic.TaskResultDTO;
 
 /**
  * Provides core functionality for managing tasks within the system. This service handles
@@ -19,9 +22,23 @@ public interface TaskService {
      * fields as defined in the Task entity.
      *
      * @param task the task entity to be saved
+     * @param user_id the ID of the user who owns the task
+     * @return the ID allocated to the new task
      * @throws IllegalArgumentException if the task object is null or contains invalid data
      */
-    void saveTask(TaskDTO task, Long user_id);
+    Long saveTask(TaskDTO task, Long user_id);
+
+    /**
+     * Persists several new tasks at once. All tasks are validated before any is saved,
+     * and either all of them are created or none is.
+     *
+     * @param tasks the tasks to be saved
+     * @param user_id the ID of the user who owns the tasks
+     * @return the IDs allocated to the new tasks, in the order of the given tasks
+     * @throws InvalidTaskDataException if the batch is empty, exceeds the maximum batch size
+     *         or any task contains invalid data
+     */
+    List<Long> saveTasks(List<TaskDTO> tasks, Long user_id);
 
     /**
      * Retrieves a specific task by its ID.
@@ -33,8 +50,6 @@ public interface TaskService {
      */
     TaskDTO getTaskById(Long task_id, Long user_id);
     
-    Long getNextTaskIdForUser(Long user_id);
-
     /**
      * Updates an existing task with new information. Only the owner of the task
      * can update the task.
@@ -45,15 +60,49 @@ public interface TaskService {
      */
     void updateTask(Long task_id, Long user_id, TaskDTO task);
 
+    /**
+     * Partially updates a task. Only the supplied attributes are changed, and the task is
+     * not written at all when they already hold the supplied values.
+     *
+     * @param task_id the unique identifier of the task to update
+     * @param user_id the ID of the user who owns the task
+     * @param task the attributes to change, null for those left unchanged
+     * @throws InvalidTaskDataException if a supplied attribute is empty
+     * @throws TaskNotFoundException if no task exists with the given ID
+     */
+    void patchTask(Long task_id, Long user_id, TaskDTO task);
+
     /**
      * Removes a task from the system.
      *
      * @param task_id the unique identifier of the task to delete
      * @param user_id the ID of the user requesting the deletion
-     * @return the deleted Task object
-     * @throws IllegalArgumentException if no task exists with the given ID
+     * @throws TaskNotFoundException if no task exists with the given ID
+     */
+    void deleteTaskById(Long task_id, Long user_id);
+
+    /**
+     * Updates several tasks of a user at once. The tasks are identified by their IDs;
+     * all of them are validated before any is changed, and the changes are applied together.
+     *
+     * @param tasks the tasks with their IDs and the updated information
+     * @param user_id the ID of the user who owns the tasks
+     * @return one result per given task, in the same order: UPDATED or NOT_FOUND
+     * @throws InvalidTaskDataException if the batch is empty, exceeds the maximum batch size,
+     *         contains a missing or repeated ID or any task contains invalid data
      */
-    TaskDTO deleteTaskById(Long task_id, Long user_id);
+    List<TaskResultDTO> updateTasks(List<TaskDTO> tasks, Long user_id);
+
+    /**
+     * Removes several tasks of a user at once.
+     *
+     * @param task_ids the IDs of the tasks to delete
+     * @param user_id the ID of the user requesting the deletion
+     * @return one result per given ID, in the same order: DELETED or NOT_FOUND
+     * @throws InvalidTaskDataException if the batch is empty, exceeds the maximum batch size
+     *         or contains a missing or repeated ID
+     */
+    List<TaskResultDTO> deleteTasks(List<Long> task_ids, Long user_id);
 
     /**
      * Retrieves all tasks associated with a specific user.
@@ -62,4 +111,45 @@ public interface TaskService {
      * @return a List of Task objects associated with the user, empty list if no tasks are found
      */
     List<TaskDTO> getAllTasks(Long user_id);
-}
\ No newline at end of file
+    
+    /**
+     * Retrieves one page of a user's tasks in ascending ID order.
+     *
+     * @param user_id the ID of the user whose tasks should be retrieved
+     * @param after the cursor returned with the previous page, or null for the first page
+     * @param limit the maximum number of tasks on the page, capped at the maximum page size
+     * @return the page of tasks together with the cursor of the next page, null if it is the last page
+     * @throws InvalidTaskDataException if the cursor is negative or the limit is not positive
+     */
+    TaskPageDTO getTaskPage(Long user_id, Long after, int limit);
+    
+    /**
+     * Searches the title and description of a user's tasks, returning the best matches first.
+     * Tasks matching more of the query terms, or matching them in the title, rank higher.
+     *
+     * @param user_id the ID of the user whose tasks are searched
+     * @param query the search text
+     * @param limit the maximum number of results, capped at the maximum search size
+     * @return the matching tasks, empty if none match
+     * @throws InvalidTaskDataException if the query is blank or the limit is not positive
+     */
+    List<TaskDTO> searchTasks(Long user_id, String query, int limit);
+    
+    /**
+     * Streams all tasks of a user to a consumer one at a time, without holding
+     * the full list in memory.
+     *
+     * @param user_id the ID of the user whose tasks should be exported
+     * @param consumer the consumer receiving each task in ascending ID order
+     */
+    void exportTasks(Long user_id, Consumer<TaskDTO> consumer);
+    
+    /**
+     * Returns the version of a user's task list, which grows with every task created,
+     * updated or deleted. Answered from memory, without querying the tasks.
+     *
+     * @param user_id the ID of the user whose task list version is requested
+     * @return the current version, 0 if the user's tasks were never changed
+     */
+    long getTaskVersion(Long user_id);
+}
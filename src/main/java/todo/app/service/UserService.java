@@ -1,9 +1,11 @@
 package todo.app.service;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import todo.app.logic.User;
 import todo.app.logic.UserDTO;
+import todo.app.logic.UserPageDTO;
 
 /**
  * Provides core operations for managing user entities in the system.
@@ -54,4 +56,22 @@ public interface UserService {
      * @return a List containing all users, empty list if no users exists
      */
     List<UserDTO> getAllUsers();
+    
+    /**
+     * Retrieves one page of users in ascending ID order, read without their password hashes.
+     *
+     * @param after the ID of the last user of the previous page, or null for the first page
+     * @param limit the maximum number of users, capped by the service
+     * @return the page, with the cursor of the next page or null on the last one
+     * @throws InvalidUserDataException if the cursor is negative or the limit is not positive
+     */
+    UserPageDTO getUserPage(Long after, int limit);
+    
+    /**
+     * Streams all users in ascending ID order to a consumer, one at a time, read without their
+     * password hashes and without holding the full list in memory.
+     *
+     * @param consumer the consumer receiving each user as it is read
+     */
+    void exportUsers(Consumer<UserDTO> consumer);
 }
@@ -1,150 +1,314 @@
 package todo.app.service.impl;
 
-import java.util.LinkedList;
+import static todo.app.service.impl.TaskValidator.validateBatchSize;
+import static todo.app.service.impl.TaskValidator.validatePageRequest;
+import static todo.app.service.impl.TaskValidator.validatePatchAttributes;
+import static todo.app.service.impl.TaskValidator.validateSearchRequest;
+import static todo.app.service.impl.TaskValidator.validateTaskAttributes;
+import static todo.app.service.impl.TaskValidator.validateTaskIds;
+
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.springframework.transaction.support.TransactionOperations;
 
-import todo.app.exception.InvalidTaskDataException;
 import todo.app.exception.TaskNotFoundException;
 import todo.app.logic.Task;
 import todo.app.logic.TaskDTO;
+import todo.app.logic.TaskPageDTO;
+import todo.app.logic.TaskResultDTO;
 import todo.app.mapper.TaskMapper;
 import todo.app.repository.TaskRepository;
+import todo.app.repository.TaskVersionRepository;
+import todo.app.repository.impl.InMemoryTaskVersionRepository;
+import todo.app.search.TaskSearchIndex;
 import todo.app.service.TaskService;
 
 public class TaskServiceImpl implements TaskService {
 	
+	/**
+	 * Maximum number of tasks accepted by a single batch creation when none is configured.
+	 */
+	public static final int DEFAULT_MAX_BATCH_SIZE = 500;
+	
+	/**
+	 * Maximum number of tasks returned on a single page.
+	 */
+	public static final int MAX_PAGE_SIZE = 1000;
+	
+	/**
+	 * Maximum number of tasks returned by a single search.
+	 */
+	public static final int MAX_SEARCH_RESULTS = 100;
+	
+	private static final String INVALID_TASK_ID_MESSAGE = "Invalid task ID.";
+	
 	private TaskRepository taskRepository;
 	
+	private TaskVersionRepository taskVersionRepository;
+	
+	private int maxBatchSize;
+	
+	private TaskSearchIndex taskSearchIndex;
+	
+	/**
+	 * Runs each task write together with the version increment it causes.
+	 */
+	private TransactionOperations transactionOperations;
+	
 	public TaskServiceImpl(TaskRepository taskRepository) {
+		this(taskRepository, DEFAULT_MAX_BATCH_SIZE);
+	}
+	
+	public TaskServiceImpl(TaskRepository taskRepository, int maxBatchSize) {
+		this(taskRepository, maxBatchSize, new InMemoryTaskVersionRepository());
+	}
+	
+	public TaskServiceImpl(TaskRepository taskRepository, int maxBatchSize, TaskVersionRepository taskVersionRepository) {
+		this(taskRepository, maxBatchSize, taskVersionRepository, new TaskSearchIndex());
+	}
+	
+	public TaskServiceImpl(TaskRepository taskRepository, int maxBatchSize, TaskVersionRepository taskVersionRepository,
+			TaskSearchIndex taskSearchIndex) {
+		this(taskRepository, maxBatchSize, taskVersionRepository, taskSearchIndex, TransactionOperations.withoutTransaction());
+	}
+	
+	/**
+	 * Constructs a task service whose writes and version increments commit together, when the task
+	 * store and the versions share the transactions run by {@code transactionOperations}.
+	 */
+	public TaskServiceImpl(TaskRepository taskRepository, int maxBatchSize, TaskVersionRepository taskVersionRepository,
+			TaskSearchIndex taskSearchIndex, TransactionOperations transactionOperations) {
 		this.taskRepository = taskRepository;
+		this.maxBatchSize = maxBatchSize;
+		this.taskVersionRepository = taskVersionRepository;
+		this.taskSearchIndex = taskSearchIndex;
+		this.transactionOperations = transactionOperations;
 	}
+	
 	@Override
-	public void saveTask(TaskDTO taskDTO, Long user_id) {
+	public Long saveTask(TaskDTO taskDTO, Long user_id) {
 		// Validates task before insertion
         validateTaskAttributes(taskDTO);
         
         // Map TaskDTO to entity
         Task task = TaskMapper.toEntity(taskDTO, user_id);
+        reserveIds(List.of(task), user_id);
         
         // Save task
-        taskRepository.createTask(task, user_id);
+        Long taskId = versioned(user_id, () -> taskRepository.createTask(task, user_id));
+        taskSearchIndex.index(user_id, taskId, task.getTitle(), task.getDescription());
+        return taskId;
+	}
+	
+	@Override
+	public List<Long> saveTasks(List<TaskDTO> tasksDTO, Long user_id) {
+		// Validates batch size before validating each task
+		validateBatchSize(tasksDTO, maxBatchSize);
+		
+		List<Task> tasks = new ArrayList<>(tasksDTO.size());
+		for (TaskDTO taskDTO : tasksDTO) {
+			validateTaskAttributes(taskDTO);
+			tasks.add(TaskMapper.toEntity(taskDTO, user_id));
+		}
+		
+		reserveIds(tasks, user_id);
+		
+		// Save all tasks in one batch
+		List<Long> taskIds = versioned(user_id, () -> taskRepository.createTasks(tasks, user_id));
+		for (Task task : tasks) {
+			taskSearchIndex.index(user_id, task.getEntityId(), task.getTitle(), task.getDescription());
+		}
+		return taskIds;
 	}
 
 	@Override
 	public TaskDTO getTaskById(Long task_id, Long user_id) {
-		// Validates task ID before querying
-    	validateTaskId(task_id, user_id);
-    	
         Task task = taskRepository.findTaskById(task_id, user_id);
         
+        // A missing row means the task ID is not valid for this user
+        if (task == null) {
+        	throw new TaskNotFoundException(INVALID_TASK_ID_MESSAGE);
+        }
+        
         return TaskMapper.toDTO(task);
 	}
 
-	@Override
-	public Long getNextTaskIdForUser(Long user_id) {
-		return taskRepository.getNextTaskIdForUser(user_id);
-	}
-	
 	@Override
 	public void updateTask(Long task_id, Long user_id, TaskDTO taskDTO) {
-		// Validates task ID before querying
-        validateTaskId(task_id, user_id);
-    	
     	// Validates taskDTO before update
         validateTaskAttributes(taskDTO);
         
         // Map taskDTO to entity
         Task task = TaskMapper.toEntity(taskDTO, user_id);
         
-        taskRepository.updateTask(task_id, user_id, task);
+        // No row updated means the task ID is not valid for this user
+        versioned(user_id, () -> {
+        	if (!taskRepository.updateTask(task_id, user_id, task)) {
+        		throw new TaskNotFoundException(INVALID_TASK_ID_MESSAGE);
+        	}
+        	return task_id;
+        });
+        taskSearchIndex.index(user_id, task_id, task.getTitle(), task.getDescription());
+	}
+
+	@Override
+	public void patchTask(Long task_id, Long user_id, TaskDTO taskDTO) {
+		validatePatchAttributes(taskDTO);
+		
+		Task changes = TaskMapper.toEntity(taskDTO, user_id);
+		boolean patched = transactionOperations.execute(
+				status -> incrementVersionIf(taskRepository.patchTask(task_id, user_id, changes), user_id));
+		if (patched) {
+			taskSearchIndex.patch(user_id, task_id, changes.getTitle(), changes.getDescription());
+			return;
+		}
+		
+		// Nothing written means either a missing task or one already up to date
+		if (!taskRepository.existById(task_id, user_id)) {
+			throw new TaskNotFoundException(INVALID_TASK_ID_MESSAGE);
+		}
 	}
 
 	@Override
-	public TaskDTO deleteTaskById(Long task_id, Long user_id) {
-		// Validates task ID before querying
-    	validateTaskId(task_id, user_id);
-    	
-    	Task task = taskRepository.deleteTaskById(task_id, user_id);
-    	
-    	return TaskMapper.toDTO(task);
+	public void deleteTaskById(Long task_id, Long user_id) {
+		// No row deleted means the task ID is not valid for this user
+    	versioned(user_id, () -> {
+    		if (!taskRepository.deleteTaskById(task_id, user_id)) {
+    			throw new TaskNotFoundException(INVALID_TASK_ID_MESSAGE);
+    		}
+    		return task_id;
+    	});
+    	taskSearchIndex.remove(user_id, task_id);
 	}
 
 	@Override
-	public List<TaskDTO> getAllTasks(Long user_id) {
-		List<Task> tasks = taskRepository.getAll(user_id);
-		List<TaskDTO> tasksDTO = new LinkedList<>();
+	public List<TaskResultDTO> updateTasks(List<TaskDTO> tasksDTO, Long user_id) {
+		// Validates the whole batch before changing any task
+		validateBatchSize(tasksDTO, maxBatchSize);
 		
+		List<Long> taskIds = new ArrayList<>(tasksDTO.size());
+		List<Task> tasks = new ArrayList<>(tasksDTO.size());
+		for (TaskDTO taskDTO : tasksDTO) {
+			validateTaskAttributes(taskDTO);
+			Task task = TaskMapper.toEntity(taskDTO, user_id);
+			task.setEntityId(taskDTO.getId());
+			taskIds.add(taskDTO.getId());
+			tasks.add(task);
+		}
+		validateTaskIds(taskIds);
+		
+		// Tasks missing from the result are not owned by the user
+		Set<Long> updatedIds = transactionOperations.execute(status -> {
+			Set<Long> ids = new HashSet<>(taskRepository.updateTasks(tasks, user_id));
+			incrementVersionIf(!ids.isEmpty(), user_id);
+			return ids;
+		});
 		for (Task task : tasks) {
-			tasksDTO.add(TaskMapper.toDTO(task));
+			if (updatedIds.contains(task.getEntityId())) {
+				taskSearchIndex.index(user_id, task.getEntityId(), task.getTitle(), task.getDescription());
+			}
 		}
-		return tasksDTO;
-	}
-	
-	 /**
-     * Validates the attributes of a task to ensure they meet the required criteria.
-     *
-     * <p>This method checks if the task has valid attributes, specifically 
-     * verifying that the title and description are not null or empty.</p>
-     *
-     * @param task The task object to be validated
-     * @throws IllegalArgumentException if the task attributes are invalid
-     */
-    private void validateTaskAttributes(TaskDTO taskDTO) {
-        if (!isValidTask(taskDTO)) {
-            throw new InvalidTaskDataException("Invalid task attributes. Title and description cannot be empty or null.");
-        }
-    }
-    
-    /**
-     * Validates the task ID in conjunction with the user ID to ensure 
-     * the task exists and belongs to the specified user.
-     *
-     * <p>This method verifies the integrity and ownership of a task 
-     * by checking the task ID against the user ID.</p>
-     *
-     * @param task_id The unique identifier of the task
-     * @param user_id The unique identifier of the user
-     * @throws IllegalArgumentException if the task ID is invalid
-     */
-    private void validateTaskId(Long task_id, Long user_id) {
-        if (!taskRepository.existById(task_id, user_id)) {
-            throw new TaskNotFoundException("Invalid task ID.");
-        }
-    }
-    
-    /**
-     * Validates a task's basic properties.
-     * 
-     * @param task The task to validate
-     * @return boolean indicating if the task is valid
-     */
-    private boolean isValidTask(TaskDTO taskDTO) {
-        // Checks if title and description are non-null and non-empty
-        boolean isValidTitle = hasValidTitle(taskDTO.getTitle());
-        boolean isValidDescription = hasValidDescription(taskDTO.getDescription());
+		return toResults(taskIds, updatedIds, TaskResultDTO.Status.UPDATED);
+	}
+	
+	@Override
+	public List<TaskResultDTO> deleteTasks(List<Long> task_ids, Long user_id) {
+		validateBatchSize(task_ids, maxBatchSize);
+		validateTaskIds(task_ids);
+		
+		Set<Long> deletedIds = transactionOperations.execute(status -> {
+			Set<Long> ids = new HashSet<>(taskRepository.deleteTasksById(task_ids, user_id));
+			incrementVersionIf(!ids.isEmpty(), user_id);
+			return ids;
+		});
+		for (Long taskId : deletedIds) {
+			taskSearchIndex.remove(user_id, taskId);
+		}
+		return toResults(task_ids, deletedIds, TaskResultDTO.Status.DELETED);
+	}
 
-        return isValidTitle && isValidDescription;
-    }
-    
-    /**
-     * Validates the title of a task.
-     * 
-     * @param title The title to validate.
-     * @return {@code true} if the title is valid, 
-     * 		   {@code false} otherwise.
-     */
-    private boolean hasValidTitle(String title) {
-    	return (title != null && !title.isEmpty());
-    }
-    
-    /**
-     * Validates the description of a task.
-     * 
-     * @param description The description to validate.
-     * @return {@code true} if the description is valid, 
-     * 		   {@code false} otherwise.
-     */
-    private boolean hasValidDescription(String description) {
-    	return (description != null  && !description.isEmpty());
-    }
+	@Override
+	public List<TaskDTO> getAllTasks(Long user_id) {
+		// Rows are projected straight into DTOs, without an entity or a copy per task
+		return taskRepository.getAllDTOs(user_id);
+	}
+	
+	@Override
+	public TaskPageDTO getTaskPage(Long user_id, Long after, int limit) {
+		// Validates cursor and limit before querying
+		validatePageRequest(after, limit);
+		
+		int pageSize = Math.min(limit, MAX_PAGE_SIZE);
+		
+		// Reads one extra row to know whether another page follows
+		List<TaskDTO> tasksDTO = taskRepository.getPageDTOs(user_id, after == null ? 0L : after, pageSize + 1);
+		boolean hasNextPage = tasksDTO.size() > pageSize;
+		if (hasNextPage) {
+			tasksDTO.remove(pageSize);
+		}
+		
+		Long nextCursor = hasNextPage ? tasksDTO.get(pageSize - 1).getId() : null;
+		return new TaskPageDTO(tasksDTO, nextCursor);
+	}
+	
+	@Override
+	public List<TaskDTO> searchTasks(Long user_id, String query, int limit) {
+		validateSearchRequest(query, limit);
+		
+		// Answered from the in-process index, without querying the tasks
+		return taskSearchIndex.search(user_id, query, Math.min(limit, MAX_SEARCH_RESULTS));
+	}
+	
+	@Override
+	public void exportTasks(Long user_id, Consumer<TaskDTO> consumer) {
+		taskRepository.exportTasks(user_id, task -> consumer.accept(TaskMapper.toDTO(task)));
+	}
+	
+	@Override
+	public long getTaskVersion(Long user_id) {
+		return taskVersionRepository.getVersion(user_id);
+	}
+	
+	/**
+	 * Gives new tasks the IDs the repository reserves for them. Called before the write transaction
+	 * opens, so a reservation in the database never needs a connection while the transaction holds one.
+	 */
+	private void reserveIds(List<Task> tasks, Long user_id) {
+		List<Long> taskIds = taskRepository.reserveTaskIds(user_id, tasks.size());
+		for (int i = 0; i < taskIds.size(); i++) {
+			tasks.get(i).setEntityId(taskIds.get(i));
+		}
+	}
+	
+	/**
+	 * Runs a write and increments the user's version in the same transaction, so a committed change
+	 * is never served under the version from before it.
+	 */
+	private <T> T versioned(Long user_id, Supplier<T> write) {
+		return transactionOperations.execute(status -> {
+			T result = write.get();
+			taskVersionRepository.incrementVersion(user_id);
+			return result;
+		});
+	}
+	
+	private boolean incrementVersionIf(boolean changed, Long user_id) {
+		if (changed) {
+			taskVersionRepository.incrementVersion(user_id);
+		}
+		return changed;
+	}
+	
+	private static List<TaskResultDTO> toResults(List<Long> taskIds, Set<Long> changedIds, TaskResultDTO.Status changed) {
+		List<TaskResultDTO> results = new ArrayList<>(taskIds.size());
+		for (Long taskId : taskIds) {
+			results.add(new TaskResultDTO(taskId, changedIds.contains(taskId) ? changed : TaskResultDTO.Status.NOT_FOUND));
+		}
+		return results;
+	}
 }
@@ -0,0 +1,146 @@
+package todo.app.service.impl;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import todo.app.exception.InvalidTaskDataException;
+import todo.app.logic.TaskDTO;
+
+/**
+ * Validation rules for task requests, shared by the blocking and the reactive task services
+ * so both stacks accept and reject exactly the same input.
+ *
+ * @author Marcel Pulido
+ * @version 1.0
+ */
+public final class TaskValidator {
+
+	private TaskValidator() {}
+
+	 /**
+     * Validates the attributes of a task to ensure they meet the required criteria.
+     *
+     * <p>This method checks if the task has valid attributes, specifically
+     * verifying that the title and description are not null or empty.</p>
+     *
+     * @param taskDTO The task object to be validated
+     * @throws InvalidTaskDataException if the task attributes are invalid
+     */
+    public static void validateTaskAttributes(TaskDTO taskDTO) {
+        if (taskDTO == null || !isValidTask(taskDTO)) {
+            throw new InvalidTaskDataException("Invalid task attributes. Title and description cannot be empty or null.");
+        }
+    }
+
+    /**
+     * Validates the attributes of a partial update. Attributes may be left out, but those
+     * supplied must not be empty.
+     *
+     * @param taskDTO The partial task to be validated
+     * @throws InvalidTaskDataException if the partial task is null or a supplied attribute is empty
+     */
+    public static void validatePatchAttributes(TaskDTO taskDTO) {
+        if (taskDTO == null
+                || (taskDTO.getTitle() != null && !hasValidTitle(taskDTO.getTitle()))
+                || (taskDTO.getDescription() != null && !hasValidDescription(taskDTO.getDescription()))) {
+            throw new InvalidTaskDataException("Invalid task attributes. Title and description cannot be empty.");
+        }
+    }
+
+    /**
+     * Validates that a batch of tasks is neither empty nor larger than the configured maximum.
+     *
+     * @param tasksDTO The batch of tasks to be validated
+     * @param maxBatchSize The maximum number of tasks accepted in one batch
+     * @throws InvalidTaskDataException if the batch size is invalid
+     */
+    public static void validateBatchSize(List<?> tasksDTO, int maxBatchSize) {
+        if (tasksDTO == null || tasksDTO.isEmpty()) {
+            throw new InvalidTaskDataException("Task batch cannot be empty or null.");
+        }
+        if (tasksDTO.size() > maxBatchSize) {
+            throw new InvalidTaskDataException("Task batch cannot contain more than " + maxBatchSize + " tasks.");
+        }
+    }
+
+    /**
+     * Validates the task IDs of a bulk update or delete, which must be present and distinct.
+     *
+     * @param taskIds The task IDs of the batch
+     * @throws InvalidTaskDataException if an ID is null or repeated
+     */
+    public static void validateTaskIds(List<Long> taskIds) {
+        Set<Long> distinctIds = new HashSet<>();
+        for (Long taskId : taskIds) {
+            if (taskId == null) {
+                throw new InvalidTaskDataException("Task ID cannot be null in a batch.");
+            }
+            if (!distinctIds.add(taskId)) {
+                throw new InvalidTaskDataException("Task ID " + taskId + " appears more than once in the batch.");
+            }
+        }
+    }
+
+    /**
+     * Validates the cursor and limit of a page request.
+     *
+     * @param after The cursor returned with the previous page, or null
+     * @param limit The requested page size
+     * @throws InvalidTaskDataException if the cursor is negative or the limit is not positive
+     */
+    public static void validatePageRequest(Long after, int limit) {
+        if ((after != null && after < 0) || limit < 1) {
+            throw new InvalidTaskDataException("Invalid page request. Cursor cannot be negative and limit must be positive.");
+        }
+    }
+
+    /**
+     * Validates the text and limit of a search request.
+     *
+     * @param query The search text
+     * @param limit The requested number of results
+     * @throws InvalidTaskDataException if the text is blank or the limit is not positive
+     */
+    public static void validateSearchRequest(String query, int limit) {
+        if (query == null || query.isBlank() || limit < 1) {
+            throw new InvalidTaskDataException("Invalid search request. Query cannot be empty and limit must be positive.");
+        }
+    }
+
+    /**
+     * Validates a task's basic properties.
+     *
+     * @param taskDTO The task to validate
+     * @return boolean indicating if the task is valid
+     */
+    private static boolean isValidTask(TaskDTO taskDTO) {
+        // Checks if title and description are non-null and non-empty
+        boolean isValidTitle = hasValidTitle(taskDTO.getTitle());
+        boolean isValidDescription = hasValidDescription(taskDTO.getDescription());
+
+        return isValidTitle && isValidDescription;
+    }
+
+    /**
+     * Validates the title of a task.
+     *
+     * @param title The title to validate.
+     * @return {@code true} if the title is valid,
+     * 		   {@code false} otherwise.
+     */
+    private static boolean hasValidTitle(String title) {
+    	return (title != null && !title.isEmpty());
+    }
+
+    /**
+     * Validates the description of a task.
+     *
+     * @param description The description to validate.
+     * @return {@code true} if the description is valid,
+     * 		   {@code false} otherwise.
+     */
+    private static boolean hasValidDescription(String description) {
+    	return (description != null  && !description.isEmpty());
+    }
+}
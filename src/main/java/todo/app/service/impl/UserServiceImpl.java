@@ -1,7 +1,8 @@
 package todo.app.service.impl;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -10,14 +11,26 @@ import todo.app.exception.InvalidUserDataException;
 import todo.app.exception.UserNotFoundException;
 import todo.app.logic.User;
 import todo.app.logic.UserDTO;
+import todo.app.logic.UserPageDTO;
 import todo.app.mapper.UserMapper;
+import todo.app.repository.TaskRepository;
 import todo.app.repository.UserRepository;
 import todo.app.service.UserService;
 
 public class UserServiceImpl implements UserService {
 
+	/**
+	 * Upper bound on the page size of the user listing, whatever limit is requested.
+	 */
+	public static final int MAX_PAGE_SIZE = 1000;
+
 	private UserRepository userRepository;
 	
+	/**
+	 * Told about deleted users, whose tasks the database removes with them. Null if not wired.
+	 */
+	private TaskRepository taskRepository;
+	
 	@Autowired
 	private PasswordEncoder passwordEncoder;
 	
@@ -25,6 +38,16 @@ public class UserServiceImpl implements UserService {
 		this.userRepository = userRepository;
 	}
 	
+	public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+		this.userRepository = userRepository;
+		this.passwordEncoder = passwordEncoder;
+	}
+	
+	public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder, TaskRepository taskRepository) {
+		this(userRepository, passwordEncoder);
+		this.taskRepository = taskRepository;
+	}
+	
 	@Override
 	public void saveUser(User user) {		
 		if (!isValidUser(user)) {
@@ -58,18 +81,45 @@ public class UserServiceImpl implements UserService {
 			throw new UserNotFoundException("Invalid user ID.");
 		}
 		User user = userRepository.deleteUserById(id);
+		if (taskRepository != null) {
+			// The user's tasks went with it by cascade, without passing through the task repository
+			taskRepository.evictUserTasks(id);
+		}
 		return UserMapper.toDTO(user);
 	}
 
 	@Override
 	public List<UserDTO> getAllUsers() {
-		List<User> users = userRepository.getAll();
-		List<UserDTO> usersDTO = new LinkedList<>();
+		// Streamed without the password column, straight into the result list
+		List<UserDTO> usersDTO = new ArrayList<>();
+		userRepository.exportUsers(user -> usersDTO.add(UserMapper.toDTO(user)));
+		return usersDTO;
+	}
+	
+	@Override
+	public UserPageDTO getUserPage(Long after, int limit) {
+		if ((after != null && after < 0) || limit < 1) {
+			throw new InvalidUserDataException("Invalid page request. Cursor cannot be negative and limit must be positive.");
+		}
+		
+		int pageSize = Math.min(limit, MAX_PAGE_SIZE);
+		
+		// Reads one extra row to know whether another page follows
+		List<User> users = userRepository.getPage(after == null ? 0L : after, pageSize + 1);
+		boolean hasNextPage = users.size() > pageSize;
 		
-		for (User user : users) {
-			usersDTO.add(UserMapper.toDTO(user));
+		List<UserDTO> usersDTO = new ArrayList<>(Math.min(users.size(), pageSize));
+		for (int i = 0; i < users.size() && i < pageSize; i++) {
+			usersDTO.add(UserMapper.toDTO(users.get(i)));
 		}
-		return usersDTO;
+		
+		Long nextCursor = hasNextPage ? usersDTO.get(pageSize - 1).getId() : null;
+		return new UserPageDTO(usersDTO, nextCursor);
+	}
+	
+	@Override
+	public void exportUsers(Consumer<UserDTO> consumer) {
+		userRepository.exportUsers(user -> consumer.accept(UserMapper.toDTO(user)));
 	}
 	
 	  /**
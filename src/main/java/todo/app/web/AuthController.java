@@ -3,23 +3,37 @@ package todo.app.web;
 import java.net.URI;
 
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import todo.app.logic.LoginDTO;
+import todo.app.logic.TokenDTO;
 import todo.app.logic.User;
+import todo.app.metrics.StatementBudget;
+import todo.app.ratelimit.RateLimit;
+import todo.app.security.TokenService;
 import todo.app.service.UserService;
 
 @RestController
 public class AuthController {
 	
 	private UserService userService;
+	private AuthenticationManager authenticationManager;
+	private TokenService tokenService;
 	
-	public AuthController(UserService userService) {
+	public AuthController(UserService userService, AuthenticationManager authenticationManager, TokenService tokenService) {
 		this.userService = userService;
+		this.authenticationManager = authenticationManager;
+		this.tokenService = tokenService;
 	}
 	
+	@RateLimit(capacity = 5, permitsPerSecond = 0.1)
+	@StatementBudget(4)
 	@PostMapping("/todo/app/register")
 	public ResponseEntity<Void> registerUser(@RequestBody User user) {
 		
@@ -33,6 +47,19 @@ public class AuthController {
 		return ResponseEntity.created(location).build();
 	}
 
+	@RateLimit(capacity = 10, permitsPerSecond = 1)
+	@StatementBudget(2)
+	@PostMapping("/todo/app/login")
+	public ResponseEntity<TokenDTO> login(@RequestBody LoginDTO loginDTO) {
+		
+		// Verify the password once
+		Authentication authentication = authenticationManager.authenticate(
+				UsernamePasswordAuthenticationToken.unauthenticated(loginDTO.getUsername(), loginDTO.getPassword()));
+		
+		// Issue a signed token for subsequent requests
+		return ResponseEntity.ok(tokenService.issueToken(authentication));
+	}
+
 	private URI createLocationHeaderForNewUser(User user) {
 		// Get new user id
 		Long newUserId = userService.getUserIdByUsername(user.getUsername());
@@ -1,20 +1,38 @@
 package todo.app.web;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.util.List;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
 import todo.app.logic.TaskDTO;
+import todo.app.logic.TaskPageDTO;
+import todo.app.logic.TaskResultDTO;
+import todo.app.metrics.StatementBudget;
+import todo.app.ratelimit.RateLimit;
+import todo.app.security.TodoUserDetails;
 import todo.app.service.TaskService;
 import todo.app.service.UserService;
 
@@ -23,43 +41,135 @@ public class TaskController {
 	
 	private TaskService taskService;
 	private UserService userService;
+	private ObjectWriter taskWriter;
 	
-	public TaskController(TaskService taskService, UserService userService) {
+	public TaskController(TaskService taskService, UserService userService, ObjectMapper objectMapper) {
 		this.taskService = taskService;
 		this.userService = userService;
+		this.taskWriter = objectMapper.writerFor(TaskDTO.class);
 	}
 	
+	@StatementBudget(4)
 	@GetMapping("/todo/app/tasks/{taskId}")
-	public ResponseEntity<TaskDTO> getTaskById(@PathVariable Long taskId, Authentication authentication) {
+	public ResponseEntity<TaskDTO> getTaskById(@PathVariable Long taskId, WebRequest webRequest, Authentication authentication) {
 		Long userId = getUserId(authentication);
+		
+		// Unchanged since the client's copy, answer 304 without reading the task
+		String eTag = taskListETag(userId);
+		if (webRequest.checkNotModified(eTag)) {
+			return null;
+		}
 		TaskDTO taskDTO = taskService.getTaskById(taskId, userId);
 
-		return ResponseEntity.ok(taskDTO);
+		return ResponseEntity.ok().eTag(eTag).body(taskDTO);
 	}
 	
+	@StatementBudget(4)
 	@GetMapping("/todo/app/tasks/")
-	public ResponseEntity<List<TaskDTO>> getAllTasks(Authentication authentication) {
+	public ResponseEntity<List<TaskDTO>> getAllTasks(WebRequest webRequest, Authentication authentication) {
 		Long userId = getUserId(authentication);
+		
+		// Unchanged since the client's copy, answer 304 without reading the tasks
+		String eTag = taskListETag(userId);
+		if (webRequest.checkNotModified(eTag)) {
+			return null;
+		}
 		List<TaskDTO> tasksDTO = taskService.getAllTasks(userId);
 		
+		return ResponseEntity.ok().eTag(eTag).body(tasksDTO);
+	}
+	
+	@StatementBudget(4)
+	@GetMapping(value = "/todo/app/tasks/", params = "limit")
+	public ResponseEntity<TaskPageDTO> getTaskPage(@RequestParam(required = false) Long after, @RequestParam int limit,
+			WebRequest webRequest, Authentication authentication) {
+		Long userId = getUserId(authentication);
+		
+		String eTag = taskListETag(userId);
+		if (webRequest.checkNotModified(eTag)) {
+			return null;
+		}
+		TaskPageDTO taskPageDTO = taskService.getTaskPage(userId, after, limit);
+		
+		return ResponseEntity.ok().eTag(eTag).body(taskPageDTO);
+	}
+	
+	@RateLimit(capacity = 50, permitsPerSecond = 10)
+	@StatementBudget(2)
+	@GetMapping("/todo/app/tasks/search")
+	public ResponseEntity<List<TaskDTO>> searchTasks(@RequestParam String q, @RequestParam(defaultValue = "20") int limit,
+			Authentication authentication) {
+		Long userId = getUserId(authentication);
+		
+		// Ranked matches from the search index, best first
+		List<TaskDTO> tasksDTO = taskService.searchTasks(userId, q, limit);
 		return ResponseEntity.ok(tasksDTO);
 	}
 	
+	@RateLimit(capacity = 5, permitsPerSecond = 0.5)
+	@StatementBudget(3)
+	@GetMapping(value = "/todo/app/tasks/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> exportTasks(Authentication authentication) {
+		Long userId = getUserId(authentication);
+		
+		// Write each task as one JSON line while rows are read from the database
+		StreamingResponseBody responseBody = outputStream -> writeTasksAsNdjson(userId, outputStream);
+		
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(responseBody);
+	}
+	
+	@StatementBudget(10)
 	@PostMapping("/todo/app/tasks/")
 	public ResponseEntity<Void> createTask(@RequestBody TaskDTO taskDTO, Authentication authentication) {
 		// Get user ID
 		Long userId = getUserId(authentication);
 		
-		// Create location header
-		URI taskLocationUri = createLocationHeaderForNewTask(userId); 
-		
 		// Save new task
-		taskService.saveTask(taskDTO, userId);
+		Long newTaskId = taskService.saveTask(taskDTO, userId);
+		
+		// Create location header
+		URI taskLocationUri = createLocationHeaderForNewTask(newTaskId); 
 		
 		// Return ResponseEntity with Location header and 201 status
 		return ResponseEntity.created(taskLocationUri).build();
 	}
 	
+	@RateLimit(capacity = 20, permitsPerSecond = 5)
+	@StatementBudget(10)
+	@PostMapping("/todo/app/tasks/batch")
+	public ResponseEntity<List<Long>> createTasks(@RequestBody List<TaskDTO> tasksDTO, Authentication authentication) {
+		Long userId = getUserId(authentication);
+		
+		// Save all tasks in one batch
+		List<Long> newTaskIds = taskService.saveTasks(tasksDTO, userId);
+		
+		// Return ResponseEntity with the created IDs and 201 status
+		return ResponseEntity.status(HttpStatus.CREATED).body(newTaskIds);
+	}
+	
+	@RateLimit(capacity = 20, permitsPerSecond = 5)
+	@StatementBudget(7)
+	@PutMapping("/todo/app/tasks/batch")
+	public ResponseEntity<List<TaskResultDTO>> updateTasks(@RequestBody List<TaskDTO> tasksDTO, Authentication authentication) {
+		Long userId = getUserId(authentication);
+		
+		// Update all tasks in one batch, reporting the outcome of each ID
+		List<TaskResultDTO> results = taskService.updateTasks(tasksDTO, userId);
+		return ResponseEntity.ok(results);
+	}
+	
+	@RateLimit(capacity = 20, permitsPerSecond = 5)
+	@StatementBudget(7)
+	@DeleteMapping("/todo/app/tasks/batch")
+	public ResponseEntity<List<TaskResultDTO>> deleteTasks(@RequestParam List<Long> ids, Authentication authentication) {
+		Long userId = getUserId(authentication);
+		
+		// Delete all tasks in one batch, reporting the outcome of each ID
+		List<TaskResultDTO> results = taskService.deleteTasks(ids, userId);
+		return ResponseEntity.ok(results);
+	}
+	
+	@StatementBudget(6)
 	@PutMapping("/todo/app/tasks/{taskId}")
 	public ResponseEntity<Void> updateTaskById(@RequestBody TaskDTO taskDTO, @PathVariable Long taskId, Authentication authentication) {
 		Long userId = getUserId(authentication);
@@ -67,6 +177,17 @@ public class TaskController {
 		return ResponseEntity.noContent().build();
 	}
 	
+	@StatementBudget(6)
+	@PatchMapping("/todo/app/tasks/{taskId}")
+	public ResponseEntity<Void> patchTaskById(@RequestBody TaskDTO taskDTO, @PathVariable Long taskId, Authentication authentication) {
+		Long userId = getUserId(authentication);
+		
+		// Only the attributes present in the body are changed
+		taskService.patchTask(taskId, userId, taskDTO);
+		return ResponseEntity.noContent().build();
+	}
+	
+	@StatementBudget(6)
 	@DeleteMapping("/todo/app/tasks/{taskId}")
 	public ResponseEntity<Void> deleteTaskById(@PathVariable Long taskId, Authentication authentication) {
 		Long userId = getUserId(authentication);
@@ -75,9 +196,29 @@ public class TaskController {
 	}
 	
 
-	private URI createLocationHeaderForNewTask(Long userId) {
-		Long newTaskId = taskService.getNextTaskIdForUser(userId);
-		
+	private void writeTasksAsNdjson(Long userId, OutputStream outputStream) throws IOException {
+		BufferedOutputStream bufferedStream = new BufferedOutputStream(outputStream);
+		try {
+			taskService.exportTasks(userId, taskDTO -> {
+				try {
+					bufferedStream.write(taskWriter.writeValueAsBytes(taskDTO));
+					bufferedStream.write('\n');
+				} catch (IOException exception) {
+					throw new UncheckedIOException(exception);
+				}
+			});
+		} catch (UncheckedIOException exception) {
+			throw exception.getCause();
+		}
+		bufferedStream.flush();
+	}
+
+	private String taskListETag(Long userId) {
+		// Read before the tasks, so a concurrent change can only make the tag older than the body
+		return "\"" + userId + "-" + taskService.getTaskVersion(userId) + "\"";
+	}
+
+	private URI createLocationHeaderForNewTask(Long newTaskId) {
 		URI locationUri = ServletUriComponentsBuilder
 				.fromCurrentContextPath()
 				.path("/todo/app/tasks/{taskId}")
@@ -88,6 +229,10 @@ public class TaskController {
 	}
 
 	private Long getUserId(Authentication authentication) {
+		// The principal carries the user ID when authenticated against the database
+		if (authentication.getPrincipal() instanceof TodoUserDetails userDetails) {
+			return userDetails.getId();
+		}
 		String principalUsername = authentication.getName();
 		return userService.getUserIdByUsername(principalUsername);
 	}
@@ -1,40 +1,92 @@
 package todo.app.web;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 import todo.app.logic.UserDTO;
+import todo.app.logic.UserPageDTO;
+import todo.app.metrics.StatementBudget;
+import todo.app.ratelimit.RateLimit;
 import todo.app.service.UserService;
 
 @RestController
 public class UserController {
 
 	private UserService userService;
+	private ObjectWriter userWriter;
 	
-	public UserController(UserService userService) {
+	public UserController(UserService userService, ObjectMapper objectMapper) {
 		this.userService = userService;
+		this.userWriter = objectMapper.writerFor(UserDTO.class);
 	}
 	
+	@StatementBudget(4)
 	@GetMapping("/todo/app/users/{userId}")
 	public ResponseEntity<UserDTO> getUserById(@PathVariable Long userId) {
 		UserDTO userDTO = userService.getUserById(userId);
 		return ResponseEntity.ok(userDTO);
 	}
 	
+	@StatementBudget(3)
 	@GetMapping("/todo/app/users/")
 	public ResponseEntity<List<UserDTO>> getAllUsers() {
 		List<UserDTO> usersDTO = userService.getAllUsers();
 		return ResponseEntity.ok(usersDTO);
 	}
 	
+	@StatementBudget(3)
+	@GetMapping(value = "/todo/app/users/", params = "limit")
+	public ResponseEntity<UserPageDTO> getUserPage(@RequestParam(required = false) Long after, @RequestParam int limit) {
+		// Only the requested slice is read and held in memory
+		UserPageDTO userPageDTO = userService.getUserPage(after, limit);
+		return ResponseEntity.ok(userPageDTO);
+	}
+	
+	@RateLimit(capacity = 5, permitsPerSecond = 0.5)
+	@StatementBudget(3)
+	@GetMapping(value = "/todo/app/users/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> exportUsers() {
+		// Write each user as one JSON line while rows are read from the database
+		StreamingResponseBody responseBody = this::writeUsersAsNdjson;
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(responseBody);
+	}
+	
+	@StatementBudget(5)
 	@DeleteMapping("/todo/app/users/{userId}") 
 	public ResponseEntity<Void> deleteUserById(@PathVariable Long userId) {
 		userService.deleteUserById(userId);
 		return ResponseEntity.noContent().build();
 	}
+	
+	private void writeUsersAsNdjson(OutputStream outputStream) throws IOException {
+		BufferedOutputStream bufferedStream = new BufferedOutputStream(outputStream);
+		try {
+			userService.exportUsers(userDTO -> {
+				try {
+					bufferedStream.write(userWriter.writeValueAsBytes(userDTO));
+					bufferedStream.write('\n');
+				} catch (IOException exception) {
+					throw new UncheckedIOException(exception);
+				}
+			});
+		} catch (UncheckedIOException exception) {
+			throw exception.getCause();
+		}
+		bufferedStream.flush();
+	}
 }
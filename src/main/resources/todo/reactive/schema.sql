@@ -0,0 +1,35 @@
+-- Schema of the reactive task API on embedded H2, the tables of the blocking stack it serves
+
+CREATE TABLE IF NOT EXISTS t_users (
+    id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    username VARCHAR(100) NOT NULL,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    enabled INTEGER DEFAULT 1 NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS t_authorities (
+    id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    username VARCHAR(50) NOT NULL,
+    authority VARCHAR(50) NOT NULL,
+    user_id BIGINT NOT NULL,
+    CONSTRAINT fk_authorities FOREIGN KEY (user_id) REFERENCES t_users(id) ON DELETE CASCADE
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ix_auth_username ON t_authorities (username, authority);
+
+CREATE TABLE IF NOT EXISTS t_tasks (
+    id BIGINT NOT NULL,
+    title VARCHAR(100) NOT NULL,
+    description VARCHAR(255),
+    user_id BIGINT NOT NULL,
+    PRIMARY KEY (user_id, id),
+    CONSTRAINT fk_tasks FOREIGN KEY (user_id) REFERENCES t_users(id) ON DELETE CASCADE
+);
+
+-- Per-user task ID counter, so task IDs are allocated like in the blocking stack
+CREATE TABLE IF NOT EXISTS t_task_sequences (
+    user_id BIGINT NOT NULL PRIMARY KEY,
+    next_id BIGINT NOT NULL,
+    CONSTRAINT fk_task_sequences FOREIGN KEY (user_id) REFERENCES t_users(id) ON DELETE CASCADE
+);
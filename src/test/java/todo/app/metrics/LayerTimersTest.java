@@ -0,0 +1,87 @@
+package todo.app.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Test suite for the LayerTimers class that verifies calls through the proxy are timed per
+ * method and outcome, and otherwise behave like calls to the target.
+ *
+ * @see LayerTimers
+ */
+class LayerTimersTest {
+
+    /** Registry receiving the timers */
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void shouldTimeSuccessfulAndFailedCallsPerMethod() {
+        TextSupplier timed = LayerTimers.timed(TextSupplier.class, () -> "done", "service", "task", meterRegistry);
+        TextSupplier failing = LayerTimers.timed(TextSupplier.class, () -> {
+            throw new IllegalStateException("failed");
+        }, "repository", "task", meterRegistry);
+
+        assertEquals("done", timed.get());
+        assertEquals("done", timed.get());
+        IllegalStateException exception = assertThrows(IllegalStateException.class, failing::get);
+
+        assertThat(exception).hasMessage("failed");
+        assertThat(timer("service", "success").count()).isEqualTo(2);
+        assertThat(timer("repository", "error").count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldKeepEveryInterfaceOfTarget() throws Exception {
+        ClosableSupplier target = new ClosableSupplier();
+
+        TextSupplier timed = LayerTimers.timed(TextSupplier.class, target, "repository", "task", meterRegistry);
+        ((AutoCloseable) timed).close();
+
+        assertTrue(target.closed);
+        assertEquals(timed, timed);
+    }
+
+    @Test
+    void shouldThrowExceptionWhenTargetIsNull() {
+        assertThrows(IllegalArgumentException.class,
+            () -> LayerTimers.timed(TextSupplier.class, null, "service", "task", meterRegistry));
+    }
+
+    private Timer timer(String layer, String outcome) {
+        return meterRegistry.get(LayerTimers.TIMER_NAME)
+            .tags("layer", layer, "method", "get", "outcome", outcome)
+            .timer();
+    }
+
+    /** Non-generic target type, so the proxy is typed by its class literal without unchecked casts */
+    interface TextSupplier extends Supplier<String> {
+    }
+
+    private static final class ClosableSupplier implements TextSupplier, AutoCloseable {
+
+        private boolean closed;
+
+        @Override
+        public String get() {
+            return "open";
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
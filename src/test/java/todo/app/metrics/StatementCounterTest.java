@@ -0,0 +1,82 @@
+package todo.app.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+
+/**
+ * Test suite for the StatementCounter class that verifies statements run through a counting
+ * DataSource are counted on the thread that started counting, and only there.
+ *
+ * @see StatementCounter
+ */
+class StatementCounterTest {
+
+    /** Database holding the test data */
+    private EmbeddedDatabase database;
+
+    /** Template running on the counting DataSource */
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .generateUniqueName(true)
+                .addScript("classpath:todo/testdb/schema.sql")
+                .addScript("classpath:todo/testdb/data.sql")
+                .build();
+        jdbcTemplate = new JdbcTemplate(StatementCounter.counting(database));
+    }
+
+    @AfterEach
+    void tearDown() {
+        StatementCounter.stop();
+        database.shutdown();
+    }
+
+    @Test
+    void shouldCountQueriesUpdatesAndBatchesOnce() {
+        StatementCounter counter = StatementCounter.start();
+
+        jdbcTemplate.queryForList("SELECT title FROM t_tasks WHERE user_id = ?", String.class, 1L);
+        jdbcTemplate.update("UPDATE t_tasks SET title = ? WHERE id = ? AND user_id = ?", "Buy food", 1L, 1L);
+        jdbcTemplate.batchUpdate("UPDATE t_tasks SET description = ? WHERE id = ? AND user_id = ?",
+                List.of(new Object[] {"Milk", 1L, 1L}, new Object[] {"Flights", 2L, 1L}));
+        StatementCounter.stop();
+
+        assertEquals(3, counter.statements());
+        assertThat(counter.nanos()).isPositive();
+    }
+
+    @Test
+    void shouldNotCountStatementsOutsideCountingOrOnOtherThreads() throws Exception {
+        jdbcTemplate.queryForList("SELECT title FROM t_tasks", String.class);
+
+        StatementCounter counter = StatementCounter.start();
+        Thread other = new Thread(() -> jdbcTemplate.queryForList("SELECT title FROM t_tasks", String.class));
+        other.start();
+        other.join();
+        StatementCounter.stop();
+
+        assertEquals(0, counter.statements());
+    }
+
+    @Test
+    void shouldKeepEveryInterfaceOfTarget() {
+        DataSource counting = StatementCounter.counting(database);
+
+        assertThat(counting).isInstanceOf(EmbeddedDatabase.class);
+        assertEquals(counting, counting);
+        assertThrows(IllegalArgumentException.class, () -> StatementCounter.counting(null));
+    }
+}
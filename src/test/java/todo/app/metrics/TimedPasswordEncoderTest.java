@@ -0,0 +1,34 @@
+package todo.app.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Test suite for the TimedPasswordEncoder class that verifies hashing and verification are
+ * delegated and timed separately.
+ *
+ * @see TimedPasswordEncoder
+ */
+class TimedPasswordEncoderTest {
+
+    @Test
+    void shouldTimeEncodeAndMatchesSeparately() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TimedPasswordEncoder encoder = new TimedPasswordEncoder(
+            PasswordEncoderFactories.createDelegatingPasswordEncoder(), meterRegistry);
+
+        String encoded = encoder.encode("password123");
+
+        assertTrue(encoder.matches("password123", encoded));
+        assertFalse(encoder.matches("wrong", encoded));
+        assertThat(meterRegistry.get(TimedPasswordEncoder.TIMER_NAME).tag("operation", "encode").timer().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get(TimedPasswordEncoder.TIMER_NAME).tag("operation", "matches").timer().count())
+            .isEqualTo(2);
+    }
+}
@@ -0,0 +1,78 @@
+package todo.app.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Test suite for the AddressRateLimitFilter class that verifies requests over an address's limit
+ * get a 429 with Retry-After without reaching the rest of the chain, and are counted.
+ *
+ * @see AddressRateLimitFilter
+ */
+class AddressRateLimitFilterTest {
+
+    /** Registry receiving the rejections */
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    /** Limit of 2 requests per address, one more every 10 seconds */
+    private final AddressRateLimitFilter filter = new AddressRateLimitFilter(meterRegistry, 2, 0.1, Duration.ofMinutes(1));
+
+    @AfterEach
+    void tearDown() {
+        filter.destroy();
+    }
+
+    @Test
+    void shouldThrowExceptionWhenMeterRegistryIsNull() {
+        assertThrows(IllegalArgumentException.class, () -> new AddressRateLimitFilter(null, 2, 0.1, Duration.ofMinutes(1)));
+    }
+
+    @Test
+    void shouldRejectOverAddressLimitWithRetryAfter() throws Exception {
+        assertNotNull(filter(request("10.0.0.1")).getRequest());
+        assertNotNull(filter(request("10.0.0.1")).getRequest());
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request("10.0.0.1"), response, chain);
+
+        assertAll(
+            () -> assertNull(chain.getRequest()),
+            () -> assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), response.getStatus()),
+            () -> assertEquals("10", response.getHeader(HttpHeaders.RETRY_AFTER)),
+            () -> assertEquals(1.0, meterRegistry.get(RateLimitSupport.REJECTED_NAME).tag("limit", "address").counter().count())
+        );
+    }
+
+    @Test
+    void shouldKeepSeparateBucketsPerAddress() throws Exception {
+        filter(request("10.0.0.1"));
+        filter(request("10.0.0.1"));
+
+        assertNotNull(filter(request("10.0.0.2")).getRequest());
+    }
+
+    private MockFilterChain filter(MockHttpServletRequest request) throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return chain;
+    }
+
+    private static MockHttpServletRequest request(String address) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/todo/app/task");
+        request.setRemoteAddr(address);
+        return request;
+    }
+}
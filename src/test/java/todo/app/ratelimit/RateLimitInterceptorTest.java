@@ -0,0 +1,127 @@
+package todo.app.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.web.method.HandlerMethod;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Test suite for the RateLimitInterceptor class that verifies requests over an endpoint's limit
+ * get a 429 with Retry-After, per user or per address for anonymous requests, and are counted,
+ * and that operators can override the limit of one endpoint.
+ *
+ * @see RateLimitInterceptor
+ */
+class RateLimitInterceptorTest {
+
+    /** Registry receiving the rejections */
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    /** Default limit of 2 requests, one more every 10 seconds */
+    private final RateLimitInterceptor interceptor = new RateLimitInterceptor(meterRegistry, 2, 0.1, Duration.ofMinutes(1));
+
+    @AfterEach
+    void tearDown() {
+        interceptor.close();
+    }
+
+    @Test
+    void shouldRejectOverDeclaredLimitWithRetryAfter() throws Exception {
+        HandlerMethod limited = handler("limited");
+
+        assertTrue(interceptor.preHandle(request("Alice"), new MockHttpServletResponse(), limited));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(request("Alice"), response, limited));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), response.getStatus());
+        assertEquals("2", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(1.0, meterRegistry.get(RateLimitInterceptor.REJECTED_NAME).counter().count());
+
+        // Other users and other endpoints have buckets of their own
+        assertTrue(interceptor.preHandle(request("Bob"), new MockHttpServletResponse(), limited));
+        assertTrue(interceptor.preHandle(request("Alice"), new MockHttpServletResponse(), handler("unlimited")));
+    }
+
+    @Test
+    void shouldApplyDefaultLimitPerAddressToAnonymousRequests() throws Exception {
+        HandlerMethod unlimited = handler("unlimited");
+
+        assertTrue(interceptor.preHandle(request(null), new MockHttpServletResponse(), unlimited));
+        assertTrue(interceptor.preHandle(request(null), new MockHttpServletResponse(), unlimited));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(request(null), response, unlimited));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), response.getStatus());
+        assertThat(Long.parseLong(response.getHeader(HttpHeaders.RETRY_AFTER))).isBetween(1L, 10L);
+
+        MockHttpServletRequest otherAddress = request(null);
+        otherAddress.setRemoteAddr("10.0.0.2");
+        assertTrue(interceptor.preHandle(otherAddress, new MockHttpServletResponse(), unlimited));
+    }
+
+    @Test
+    void shouldApplyEndpointOverridesFromProperties() throws Exception {
+        MockEnvironment properties = new MockEnvironment()
+            .withProperty("todo.rate-limit.endpoints.limited.capacity", "3")
+            .withProperty("todo.rate-limit.endpoints.unlimited.enabled", "false");
+        RateLimitInterceptor overridden = new RateLimitInterceptor(meterRegistry, 2, 0.1, Duration.ofMinutes(1), properties);
+        try {
+            // Capacity raised from the declared 1, rate kept from the annotation
+            for (int i = 0; i < 3; i++) {
+                assertTrue(overridden.preHandle(request("Alice"), new MockHttpServletResponse(), handler("limited")));
+            }
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            assertFalse(overridden.preHandle(request("Alice"), response, handler("limited")));
+            assertEquals("2", response.getHeader(HttpHeaders.RETRY_AFTER));
+
+            for (int i = 0; i < 5; i++) {
+                assertTrue(overridden.preHandle(request("Alice"), new MockHttpServletResponse(), handler("unlimited")));
+            }
+        } finally {
+            overridden.close();
+        }
+    }
+
+    @Test
+    void shouldLetThroughRequestsNotHandledByController() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(interceptor.preHandle(request("Alice"), new MockHttpServletResponse(), new Object()));
+        }
+    }
+
+    private static MockHttpServletRequest request(String username) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/todo/app/tasks/");
+        if (username != null) {
+            request.setUserPrincipal(new UsernamePasswordAuthenticationToken(username, null));
+        }
+        return request;
+    }
+
+    private static HandlerMethod handler(String name) throws NoSuchMethodException {
+        return new HandlerMethod(new Endpoints(), Endpoints.class.getMethod(name));
+    }
+
+    /** Controller methods with and without a declared limit */
+    static class Endpoints {
+
+        @RateLimit(capacity = 1, permitsPerSecond = 0.5)
+        public void limited() {
+        }
+
+        public void unlimited() {
+        }
+    }
+}
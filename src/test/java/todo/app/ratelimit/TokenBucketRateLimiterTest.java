@@ -0,0 +1,134 @@
+package todo.app.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test suite for the TokenBucketRateLimiter class that verifies bursts up to the capacity, refill
+ * at the configured rate, the wait reported when denied, eviction of idle buckets and that no more
+ * tokens are handed out than a bucket holds under concurrent requests.
+ *
+ * @see TokenBucketRateLimiter
+ */
+class TokenBucketRateLimiterTest {
+
+    /** Clock in microseconds driven by the tests */
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+
+    /** 3 tokens, one every 100 ms, dropped after a minute idle */
+    private final TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(3, 10, Duration.ofMinutes(1), clock::get);
+
+    @Test
+    void shouldAllowBurstUpToCapacityThenReportWait() {
+        assertEquals(0, limiter.tryAcquire("Alice"));
+        assertEquals(0, limiter.tryAcquire("Alice"));
+        assertEquals(0, limiter.tryAcquire("Alice"));
+
+        assertEquals(100_000, limiter.tryAcquire("Alice"));
+        clock.addAndGet(40_000);
+        assertEquals(60_000, limiter.tryAcquire("Alice"));
+    }
+
+    @Test
+    void shouldRefillAtRateKeepingPartialTime() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("Alice");
+        }
+
+        // 250 ms gain 2 tokens, the remaining 50 ms count towards the next one
+        clock.addAndGet(250_000);
+        assertEquals(0, limiter.tryAcquire("Alice"));
+        assertEquals(0, limiter.tryAcquire("Alice"));
+        assertEquals(50_000, limiter.tryAcquire("Alice"));
+        clock.addAndGet(50_000);
+        assertEquals(0, limiter.tryAcquire("Alice"));
+    }
+
+    @Test
+    void shouldNotRefillAboveCapacity() {
+        clock.addAndGet(10_000_000);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("Alice"));
+        }
+        assertThat(limiter.tryAcquire("Alice")).isPositive();
+    }
+
+    @Test
+    void shouldKeepClientsApart() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("Alice");
+        }
+
+        assertThat(limiter.tryAcquire("Alice")).isPositive();
+        assertEquals(0, limiter.tryAcquire("Bob"));
+    }
+
+    @Test
+    void shouldEvictOnlyIdleBuckets() {
+        limiter.tryAcquire("Alice");
+        clock.addAndGet(30_000_000);
+        limiter.tryAcquire("Bob");
+        clock.addAndGet(30_000_000);
+
+        assertEquals(1, limiter.evictIdle());
+        assertEquals(1, limiter.size());
+
+        // A client evicted starts again with a full bucket
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("Alice"));
+        }
+        assertThat(limiter.tryAcquire("Alice")).isPositive();
+    }
+
+    @Test
+    void shouldNotHandOutMoreTokensThanCapacityUnderContention() throws Exception {
+        TokenBucketRateLimiter frozen = new TokenBucketRateLimiter(1000, 1, Duration.ofHours(1), () -> 0L);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int granted = 0;
+                    for (int i = 0; i < 500; i++) {
+                        if (frozen.tryAcquire("Alice") == 0) {
+                            granted++;
+                        }
+                    }
+                    return granted;
+                }));
+            }
+            start.countDown();
+
+            int granted = 0;
+            for (Future<Integer> result : results) {
+                granted += result.get();
+            }
+            assertEquals(1000, granted);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldRejectInvalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketRateLimiter(0, 10, Duration.ofMinutes(1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> new TokenBucketRateLimiter(TokenBucketRateLimiter.MAX_CAPACITY + 1, 10, Duration.ofMinutes(1)));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketRateLimiter(3, 0, Duration.ofMinutes(1)));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketRateLimiter(3, 10, null));
+    }
+}
@@ -0,0 +1,125 @@
+package todo.app.reactive.repository.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import reactor.test.StepVerifier;
+import todo.app.logic.Task;
+
+/**
+ * Test suite for the R2dbcTaskRepository class that verifies the reactive CRUD operations.
+ * Uses a fresh embedded H2 database per test, seeded like the blocking test database.
+ *
+ * @see R2dbcTaskRepository
+ */
+class R2dbcTaskRepositoryTest {
+
+    /** Client for verifying the stored rows */
+    private DatabaseClient databaseClient;
+
+    /** Instance of the repository being tested */
+    private R2dbcTaskRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        ConnectionFactory connectionFactory = ConnectionFactories.get(
+            "r2dbc:h2:mem:///" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("todo/reactive/schema.sql"),
+            new ClassPathResource("todo/reactive/data.sql")).populate(connectionFactory).block();
+
+        databaseClient = DatabaseClient.create(connectionFactory);
+        repository = new R2dbcTaskRepository(databaseClient,
+            TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory)));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenDatabaseClientIsNull() {
+        assertThrows(IllegalArgumentException.class, () -> new R2dbcTaskRepository(null, null));
+    }
+
+    /**
+     * Verifies that the first new task of a user continues after the tasks already stored.
+     */
+    @Test
+    void shouldCreateTaskAfterExistingTasksOfUser() {
+        Task task = new Task("Do homework", "Finish math assignment");
+
+        StepVerifier.create(repository.createTask(task, 3L))
+            .expectNext(2L)
+            .verifyComplete();
+
+        assertThat(task.getEntityId()).isEqualTo(2L);
+        StepVerifier.create(repository.findTaskById(2L, 3L).map(Task::getTitle))
+            .expectNext("Do homework")
+            .verifyComplete();
+    }
+
+    @Test
+    void shouldCreateTasksInBatchWithConsecutiveIds() {
+        List<Task> tasks = List.of(new Task("Task 1", "Description 1"), new Task("Task 2", null));
+
+        StepVerifier.create(repository.createTasks(tasks, 1L))
+            .expectNext(List.of(3L, 4L))
+            .verifyComplete();
+        StepVerifier.create(repository.createTask(new Task("Task 3", "Description 3"), 1L))
+            .expectNext(5L)
+            .verifyComplete();
+
+        StepVerifier.create(repository.getAll(1L).map(Task::getEntityId))
+            .expectNext(1L, 2L, 3L, 4L, 5L)
+            .verifyComplete();
+    }
+
+    @Test
+    void shouldCompleteEmptyWhenTaskIsNotFound() {
+        StepVerifier.create(repository.findTaskById(2L, 3L)).verifyComplete();
+    }
+
+    @Test
+    void shouldUpdateOnlyTasksOfUser() {
+        StepVerifier.create(repository.updateTask(1L, 2L, new Task("Finish thesis", "Write the conclusion")))
+            .expectNext(true)
+            .verifyComplete();
+        StepVerifier.create(repository.updateTask(2L, 2L, new Task("Finish thesis", "Write the conclusion")))
+            .expectNext(false)
+            .verifyComplete();
+
+        StepVerifier.create(repository.findTaskById(1L, 2L).map(Task::getDescription))
+            .expectNext("Write the conclusion")
+            .verifyComplete();
+    }
+
+    @Test
+    void shouldDeleteTask() {
+        StepVerifier.create(repository.deleteTaskById(2L, 1L))
+            .expectNext(true)
+            .verifyComplete();
+        StepVerifier.create(repository.deleteTaskById(2L, 1L))
+            .expectNext(false)
+            .verifyComplete();
+
+        StepVerifier.create(repository.getAll(1L).map(Task::getEntityId))
+            .expectNext(1L)
+            .verifyComplete();
+    }
+
+    @Test
+    void shouldGetPageAfterCursor() {
+        StepVerifier.create(repository.getPage(1L, 1L, 10).map(Task::getTitle))
+            .expectNext("Book tickets")
+            .verifyComplete();
+    }
+}
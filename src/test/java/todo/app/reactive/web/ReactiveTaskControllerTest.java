@@ -0,0 +1,132 @@
+package todo.app.reactive.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.boot.web.embedded.netty.NettyWebServer;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import todo.app.logic.TaskDTO;
+import todo.app.logic.TaskPageDTO;
+import todo.app.reactive.ReactiveToDoListApplication;
+
+/**
+ * End-to-end tests of the reactive task API over HTTP, checking that it answers like the
+ * blocking one: same status codes, validation messages and access rules.
+ */
+@SpringBootTest(classes = ReactiveToDoListApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = {"spring.main.web-application-type=reactive",
+				"spring.r2dbc.url=r2dbc:h2:mem:///reactive-controller-test;DB_CLOSE_DELAY=-1",
+				"spring.sql.init.data-locations=classpath:todo/reactive/data.sql"})
+@ActiveProfiles(ReactiveToDoListApplication.PROFILE)
+class ReactiveTaskControllerTest {
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@Autowired
+	private WebServerApplicationContext context;
+
+	/**
+	 * Verifies the requests reach the reactive stack on Netty, behind the reactive security
+	 * chain, and not a servlet container picked from the classpath.
+	 */
+	@Test
+	void shouldServeFromNetty() {
+		assertThat(context).isInstanceOf(ReactiveWebServerApplicationContext.class);
+		assertThat(context.getWebServer()).isInstanceOf(NettyWebServer.class);
+	}
+
+	@Test
+	void shouldReturnTaskOfAuthenticatedUser() {
+		TaskDTO task = webTestClient.get().uri("/todo/app/tasks/2")
+				.headers(headers -> headers.setBasicAuth("Alice", "password123"))
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(TaskDTO.class)
+				.returnResult().getResponseBody();
+
+		assertThat(task.getTitle()).isEqualTo("Book tickets");
+	}
+
+	@Test
+	void shouldReturnNotFoundForTaskOfAnotherUser() {
+		webTestClient.get().uri("/todo/app/tasks/2")
+				.headers(headers -> headers.setBasicAuth("Charlie", "mypassword"))
+				.exchange()
+				.expectStatus().isNotFound()
+				.expectBody(String.class).isEqualTo("Invalid task ID.");
+	}
+
+	@Test
+	void shouldRejectInvalidTaskWithSharedValidationMessage() {
+		webTestClient.post().uri("/todo/app/tasks/")
+				.headers(headers -> headers.setBasicAuth("Charlie", "mypassword"))
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(new TaskDTO("Walk the dog", ""))
+				.exchange()
+				.expectStatus().isBadRequest()
+				.expectBody(String.class)
+				.isEqualTo("Invalid task attributes. Title and description cannot be empty or null.");
+	}
+
+	@Test
+	void shouldCreateTaskAndReturnItsLocation() {
+		webTestClient.post().uri("/todo/app/tasks/batch")
+				.headers(headers -> headers.setBasicAuth("Charlie", "mypassword"))
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(List.of(new TaskDTO("Walk the dog", "Around the park")))
+				.exchange()
+				.expectStatus().isCreated();
+
+		webTestClient.post().uri("/todo/app/tasks/")
+				.headers(headers -> headers.setBasicAuth("Charlie", "mypassword"))
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(new TaskDTO("Water the plants", "Balcony and kitchen"))
+				.exchange()
+				.expectStatus().isCreated()
+				.expectHeader().value("Location", location -> assertThat(location).matches(".*/todo/app/tasks/\\d+"));
+	}
+
+	@Test
+	void shouldReturnPageWithNextCursor() {
+		TaskPageDTO page = webTestClient.get().uri("/todo/app/tasks/?limit=1")
+				.headers(headers -> headers.setBasicAuth("Alice", "password123"))
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(TaskPageDTO.class)
+				.returnResult().getResponseBody();
+
+		assertThat(page.getTasks()).extracting(TaskDTO::getId).containsExactly(1L);
+		assertThat(page.getNextCursor()).isEqualTo(1L);
+	}
+
+	@Test
+	void shouldRestrictUserAdministrationToAdmins() {
+		webTestClient.get().uri("/todo/app/users/")
+				.headers(headers -> headers.setBasicAuth("Alice", "password123"))
+				.exchange()
+				.expectStatus().isForbidden();
+
+		webTestClient.get().uri("/todo/app/users/1")
+				.headers(headers -> headers.setBasicAuth("Bob", "securepass"))
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody().jsonPath("$.username").isEqualTo("Alice");
+	}
+
+	@Test
+	void shouldRejectUnauthenticatedRequests() {
+		webTestClient.get().uri("/todo/app/tasks/")
+				.exchange()
+				.expectStatus().isUnauthorized();
+	}
+}
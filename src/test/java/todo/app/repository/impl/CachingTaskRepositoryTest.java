@@ -0,0 +1,175 @@
+package todo.app.repository.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import todo.app.logic.Task;
+import todo.app.logic.TaskDTO;
+
+/**
+ * Test suite for the CachingTaskRepository class that verifies caching, invalidation and
+ * copying of task reads. Uses an embedded test database behind the cache.
+ *
+ * @see CachingTaskRepository
+ */
+class CachingTaskRepositoryTest {
+
+    /** Registry receiving the cache statistics */
+    private SimpleMeterRegistry meterRegistry;
+
+    /** Instance of the repository being tested */
+    private CachingTaskRepository cachingTaskRepository;
+
+    /** Template for changing rows underneath the cache */
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Sets up the test environment before each test case.
+     */
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = new EmbeddedDatabaseBuilder()
+            .setName("To-Do-App")
+            .addScript("classpath:todo/testdb/schema.sql")
+            .addScript("classpath:todo/testdb/data.sql")
+            .build();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        meterRegistry = new SimpleMeterRegistry();
+        cachingTaskRepository = new CachingTaskRepository(new JdbcTaskRepository(dataSource), 100,
+            Duration.ofMinutes(1), meterRegistry);
+    }
+
+    @Test
+    void shouldThrowExceptionWhenDelegateIsNull() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new CachingTaskRepository(null, 100, Duration.ofMinutes(1), meterRegistry));
+    }
+
+    /**
+     * Verifies that repeated reads of the same task and task list are served from the cache.
+     */
+    @Test
+    void shouldServeRepeatedReadsFromCache() {
+        cachingTaskRepository.findTaskById(1L, 1L);
+        Task task = cachingTaskRepository.findTaskById(1L, 1L);
+        cachingTaskRepository.getAll(1L);
+        List<Task> tasks = cachingTaskRepository.getAll(1L);
+
+        assertAll(
+            () -> assertThat(task.getTitle()).isEqualTo("Buy groceries"),
+            () -> assertThat(tasks).extracting(Task::getEntityId).containsExactly(1L, 2L),
+            () -> assertThat(cachingTaskRepository.taskStats().hitCount()).isEqualTo(1),
+            () -> assertThat(cachingTaskRepository.taskListStats().hitCount()).isEqualTo(1),
+            () -> assertThat(meterRegistry.get("cache.gets").tag("cache", "tasks.byId").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0)
+        );
+    }
+
+    /**
+     * Verifies that evicting a user, whose tasks were deleted by cascade, drops only that user's
+     * single tasks and task list.
+     */
+    @Test
+    void shouldEvictAllTasksOfUser() {
+        cachingTaskRepository.findTaskById(1L, 1L);
+        cachingTaskRepository.findTaskById(2L, 1L);
+        cachingTaskRepository.getAll(1L);
+        cachingTaskRepository.findTaskById(1L, 3L);
+        jdbcTemplate.update("DELETE FROM t_users WHERE id = ?", 1L);
+
+        cachingTaskRepository.evictUserTasks(1L);
+
+        assertAll(
+            () -> assertNull(cachingTaskRepository.findTaskById(1L, 1L)),
+            () -> assertNull(cachingTaskRepository.findTaskById(2L, 1L)),
+            () -> assertThat(cachingTaskRepository.getAll(1L)).isEmpty(),
+            () -> assertThat(cachingTaskRepository.findTaskById(1L, 3L).getTitle()).isEqualTo("Pay bills"),
+            () -> assertThat(cachingTaskRepository.taskStats().hitCount()).isEqualTo(1)
+        );
+    }
+
+    /**
+     * Verifies that getAll and the DTO projection of a task list share the list cache.
+     */
+    @Test
+    void shouldServeProjectedTaskListFromCache() {
+        cachingTaskRepository.getAllDTOs(1L);
+        List<Task> tasks = cachingTaskRepository.getAll(1L);
+        List<TaskDTO> tasksDTO = cachingTaskRepository.getAllDTOs(1L);
+
+        assertAll(
+            () -> assertThat(tasks).extracting(Task::getEntityId).containsExactly(1L, 2L),
+            () -> assertThat(tasksDTO).extracting(TaskDTO::getTitle).containsExactly("Buy groceries", "Book tickets"),
+            () -> assertThat(cachingTaskRepository.taskListStats().hitCount()).isEqualTo(2)
+        );
+    }
+
+    /**
+     * Verifies that callers modifying returned tasks do not change the cached ones.
+     */
+    @Test
+    void shouldReturnCopiesOfCachedTasks() {
+        cachingTaskRepository.findTaskById(1L, 1L).setTitle("Changed outside");
+        cachingTaskRepository.getAll(1L).get(1).setTitle("Changed outside");
+        cachingTaskRepository.getAll(1L).clear();
+        cachingTaskRepository.getAllDTOs(1L).get(0).setTitle("Changed outside");
+
+        assertThat(cachingTaskRepository.findTaskById(1L, 1L).getTitle()).isEqualTo("Buy groceries");
+        assertThat(cachingTaskRepository.getAll(1L)).extracting(Task::getTitle)
+            .containsExactly("Buy groceries", "Book tickets");
+    }
+
+    /**
+     * Verifies that creating a task drops the cached task list of its owner only.
+     */
+    @Test
+    void shouldInvalidateTaskListWhenTaskIsCreated() {
+        cachingTaskRepository.getAll(1L);
+        cachingTaskRepository.getAll(2L);
+
+        cachingTaskRepository.createTask(new Task("Walk the dog", "Around the park"), 1L);
+
+        assertThat(cachingTaskRepository.getAll(1L)).hasSize(3);
+        cachingTaskRepository.getAll(2L);
+        assertThat(cachingTaskRepository.taskListStats().hitCount()).isEqualTo(1);
+    }
+
+    /**
+     * Verifies that updating a task drops the cached task and task list.
+     */
+    @Test
+    void shouldInvalidateTaskWhenTaskIsUpdated() {
+        cachingTaskRepository.findTaskById(1L, 2L);
+        cachingTaskRepository.getAll(2L);
+
+        cachingTaskRepository.updateTask(1L, 2L, new Task("Finish thesis", "Write the conclusion"));
+
+        assertThat(cachingTaskRepository.findTaskById(1L, 2L).getTitle()).isEqualTo("Finish thesis");
+        assertThat(cachingTaskRepository.getAll(2L)).extracting(Task::getTitle).containsExactly("Finish thesis");
+    }
+
+    /**
+     * Verifies that deleting a task drops the cached task and task list.
+     */
+    @Test
+    void shouldInvalidateTaskWhenTaskIsDeleted() {
+        cachingTaskRepository.findTaskById(1L, 3L);
+        cachingTaskRepository.getAll(3L);
+
+        cachingTaskRepository.deleteTaskById(1L, 3L);
+
+        assertNull(cachingTaskRepository.findTaskById(1L, 3L));
+        assertThat(cachingTaskRepository.getAll(3L)).isEmpty();
+    }
+}
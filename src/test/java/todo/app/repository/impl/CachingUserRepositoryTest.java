@@ -0,0 +1,127 @@
+package todo.app.repository.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import todo.app.logic.User;
+import todo.app.repository.UserRepository;
+
+/**
+ * Test suite for the CachingUserRepository class that verifies caching and invalidation
+ * of the username to user ID resolution. Uses an embedded test database behind the cache.
+ *
+ * @see CachingUserRepository
+ */
+class CachingUserRepositoryTest {
+
+    /** Registry receiving the cache statistics */
+    private SimpleMeterRegistry meterRegistry;
+
+    /** Instance of the repository being tested */
+    private CachingUserRepository cachingUserRepository;
+
+    /**
+     * Sets up the test environment before each test case.
+     */
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = new EmbeddedDatabaseBuilder()
+            .setName("To-Do-App")
+            .addScript("classpath:todo/testdb/schema.sql")
+            .addScript("classpath:todo/testdb/data.sql")
+            .build();
+        meterRegistry = new SimpleMeterRegistry();
+        cachingUserRepository = new CachingUserRepository(new JdbcUserRepository(dataSource), 100, Duration.ofMinutes(1),
+            meterRegistry);
+    }
+
+    @Test
+    void shouldThrowExceptionWhenDelegateIsNull() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new CachingUserRepository(null, 100, Duration.ofMinutes(1), meterRegistry));
+    }
+
+    /**
+     * Verifies that repeated lookups of the same username are served from the cache.
+     */
+    @Test
+    void shouldServeRepeatedLookupsFromCache() {
+        Long firstLookup = cachingUserRepository.findUserIdByUsername("Alice");
+        Long secondLookup = cachingUserRepository.findUserIdByUsername("Alice");
+
+        assertAll(
+            () -> assertThat(firstLookup).isEqualTo(1L),
+            () -> assertThat(secondLookup).isEqualTo(1L),
+            () -> assertThat(cachingUserRepository.stats().missCount()).isEqualTo(1),
+            () -> assertThat(cachingUserRepository.stats().hitCount()).isEqualTo(1),
+            () -> assertThat(meterRegistry.get("cache.gets").tag("cache", "users.idByUsername").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0)
+        );
+    }
+
+    /**
+     * Verifies that deleting a user drops its cached ID, so the next lookup reaches the database.
+     */
+    @Test
+    void shouldInvalidateCachedIdWhenUserIsDeleted() {
+        cachingUserRepository.findUserIdByUsername("Charlie");
+
+        cachingUserRepository.deleteUserById(3L);
+
+        assertThat(cachingUserRepository.estimatedSize()).isZero();
+        assertThrows(EmptyResultDataAccessException.class,
+            () -> cachingUserRepository.findUserIdByUsername("Charlie"));
+    }
+
+    /**
+     * Verifies that updating a user drops its cached ID.
+     */
+    @Test
+    void shouldInvalidateCachedIdWhenUserIsUpdated() {
+        cachingUserRepository.findUserIdByUsername("Bob");
+        User user = cachingUserRepository.findUserById(2L);
+        user.setPassword("newpassword");
+
+        cachingUserRepository.updateUser(user);
+
+        assertThat(cachingUserRepository.estimatedSize()).isZero();
+    }
+
+    /**
+     * Verifies that an ID loaded while the user was deleted is not left in the cache.
+     */
+    @Test
+    void shouldNotCacheIdLoadedDuringInvalidation() throws Exception {
+        UserRepository delegate = mock(UserRepository.class);
+        CachingUserRepository repository = new CachingUserRepository(delegate, 100, Duration.ofMinutes(1), meterRegistry);
+        CountDownLatch loading = new CountDownLatch(1), deleted = new CountDownLatch(1);
+        given(delegate.findUserIdByUsername("Alice")).willAnswer(invocation -> {
+            loading.countDown();
+            assertTrue(deleted.await(10, TimeUnit.SECONDS));
+            return 1L;
+        }).willReturn(4L);
+
+        CompletableFuture<Long> staleLookup = CompletableFuture.supplyAsync(() -> repository.findUserIdByUsername("Alice"));
+        assertTrue(loading.await(10, TimeUnit.SECONDS));
+        repository.deleteUserById(1L);
+        deleted.countDown();
+
+        assertThat(staleLookup.get(10, TimeUnit.SECONDS)).isEqualTo(1L);
+        assertThat(repository.findUserIdByUsername("Alice")).isEqualTo(4L);
+        then(delegate).should(times(2)).findUserIdByUsername("Alice");
+    }
+}
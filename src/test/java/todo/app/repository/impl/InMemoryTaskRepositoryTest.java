@@ -0,0 +1,229 @@
+package todo.app.repository.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import todo.app.logic.Task;
+import todo.app.repository.TaskRepository;
+
+/**
+ * Test suite for the InMemoryTaskRepository class that verifies, on top of the
+ * {@link TaskRepositoryContractTest} cases, recovery of the tasks from snapshots and the
+ * write-ahead log and the import of tasks from another store.
+ * Seeds the same tasks as the embedded test database.
+ *
+ * @see InMemoryTaskRepository
+ * @see Task
+ */
+class InMemoryTaskRepositoryTest extends TaskRepositoryContractTest<InMemoryTaskRepository> {
+
+    /** Directory holding the snapshots and log files of the repository */
+    @TempDir
+    Path directory;
+
+    @Override
+    protected InMemoryTaskRepository createRepository() {
+        InMemoryTaskRepository seeded = open();
+        seeded.createTask(new Task("Buy groceries", "Milk, eggs, bread"), 1L);
+        seeded.createTask(new Task("Book tickets", "Vacation tickets to Hawaii"), 1L);
+        seeded.createTask(new Task("Finish project", "Complete the final draft by Friday"), 2L);
+        seeded.createTask(new Task("Pay bills", "Electricity and water bills"), 3L);
+        return seeded;
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+    }
+
+    @Test
+    void shouldThrowExceptionWhenDirectoryIsNull() {
+        assertThrows(IllegalArgumentException.class, () -> new InMemoryTaskRepository(null, 1024, null, false));
+    }
+
+    @Test
+    void shouldDeleteTaskWithoutReusingItsId() {
+        assertTrue(repository.deleteTaskById(2L, 1L));
+        assertFalse(repository.existById(2L, 1L));
+        assertFalse(repository.deleteTaskById(2L, 1L));
+
+        assertThat(repository.createTask(new Task("Walk the dog", "Around the park"), 1L)).isEqualTo(3L);
+    }
+
+    @Test
+    void shouldRecoverTasksFromSnapshotAfterClose() {
+        repository.deleteTaskById(1L, 1L);
+        repository.updateTask(1L, 3L, new Task("Pay rent", null));
+        repository.close();
+
+        repository = open();
+
+        assertThat(repository.getAll(1L)).extracting(Task::getTitle).containsExactly("Book tickets");
+        assertThat(repository.findTaskById(1L, 3L).getDescription()).isNull();
+        assertThat(repository.createTask(new Task("Walk the dog", "Around the park"), 1L)).isEqualTo(3L);
+    }
+
+    @Test
+    void shouldReplayLogWrittenAfterLastCheckpoint() {
+        repository.checkpoint();
+        repository.createTask(new Task("Walk the dog", "Around the park"), 3L);
+        repository.deleteTaskById(1L, 2L);
+
+        // Opened without closing, as after a crash of the process
+        InMemoryTaskRepository recovered = open();
+        try {
+            assertThat(recovered.getAll(3L)).extracting(Task::getTitle).containsExactly("Pay bills", "Walk the dog");
+            assertThat(recovered.getAll(2L)).isEmpty();
+        } finally {
+            recovered.close();
+        }
+    }
+
+    @Test
+    void shouldReplayBulkChangesFromLog() {
+        Task update = new Task("Finish thesis", "Write the conclusion");
+        update.setEntityId(1L);
+        repository.updateTasks(List.of(update), 2L);
+        repository.deleteTasksById(List.of(1L, 2L), 1L);
+
+        // Opened without closing, as after a crash of the process
+        InMemoryTaskRepository recovered = open();
+        try {
+            assertThat(recovered.getAll(2L)).extracting(Task::getTitle).containsExactly("Finish thesis");
+            assertThat(recovered.getAll(1L)).isEmpty();
+        } finally {
+            recovered.close();
+        }
+    }
+
+    @Test
+    void shouldStopReplayAtTornRecord() throws IOException {
+        repository.createTask(new Task("Walk the dog", "Around the park"), 3L);
+        Path log = TaskWriteAheadLog.file(directory, TaskWriteAheadLog.generations(directory).get(0));
+
+        // Corrupt the last byte of the last record, as if it was only partly written
+        byte[] bytes = Files.readAllBytes(log);
+        int end = bytes.length;
+        while (bytes[end - 1] == 0) {
+            end--;
+        }
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] { (byte) (bytes[end - 1] + 1) }), end - 1);
+        }
+
+        InMemoryTaskRepository recovered = open();
+        try {
+            assertThat(recovered.getAll(3L)).extracting(Task::getTitle).containsExactly("Pay bills");
+            assertThat(recovered.getAll(1L)).hasSize(2);
+        } finally {
+            recovered.close();
+        }
+    }
+
+    @Test
+    void shouldDeleteLogFilesCoveredBySnapshot() throws IOException {
+        long before = TaskWriteAheadLog.generations(directory).get(0);
+
+        repository.checkpoint();
+
+        assertThat(TaskWriteAheadLog.generations(directory)).allMatch(generation -> generation > before);
+    }
+
+    @Test
+    void shouldImportTasksWithTheirIdsIntoEmptyDirectory(@TempDir Path otherDirectory) {
+        repository.deleteTaskById(1L, 1L);
+
+        InMemoryTaskRepository imported = new InMemoryTaskRepository(otherDirectory, 64 * 1024, null, false);
+        try {
+            assertFalse(imported.isImported());
+            assertThat(imported.importTasks(repository, List.of(1L, 2L, 3L, 4L))).isEqualTo(3L);
+            assertThat(imported.getAll(1L)).extracting(Task::getEntityId).containsExactly(2L);
+            assertThat(imported.createTask(new Task("Walk the dog", "Around the park"), 1L)).isEqualTo(3L);
+        } finally {
+            imported.close();
+        }
+
+        InMemoryTaskRepository reopened = new InMemoryTaskRepository(otherDirectory, 64 * 1024, null, false);
+        try {
+            assertTrue(reopened.isImported());
+            assertThat(reopened.getAll(1L)).extracting(Task::getTitle).containsExactly("Book tickets", "Walk the dog");
+            assertThat(reopened.findTaskById(1L, 3L).getTitle()).isEqualTo("Pay bills");
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void shouldRunInterruptedImportAgainOnNextStart(@TempDir Path otherDirectory) {
+        TaskRepository source = mock(TaskRepository.class);
+        willAnswer(invocation -> {
+            repository.exportTasks(1L, invocation.getArgument(1));
+            return null;
+        }).given(source).exportTasks(eq(1L), any());
+        willThrow(new IllegalStateException("Connection lost")).given(source).exportTasks(eq(2L), any());
+
+        InMemoryTaskRepository interrupted = new InMemoryTaskRepository(otherDirectory, 64 * 1024, null, false);
+        try {
+            assertThrows(IllegalStateException.class, () -> interrupted.importTasks(source, List.of(1L, 2L, 3L)));
+        } finally {
+            interrupted.close();
+        }
+
+        InMemoryTaskRepository restarted = new InMemoryTaskRepository(otherDirectory, 64 * 1024, null, false);
+        try {
+            assertFalse(restarted.isImported());
+            assertThat(restarted.getAll(1L)).hasSize(2);
+
+            assertThat(restarted.importTasks(repository, List.of(1L, 2L, 3L))).isEqualTo(4L);
+            assertTrue(restarted.isImported());
+            assertThat(restarted.getAll(1L)).extracting(Task::getEntityId).containsExactly(1L, 2L);
+            assertThat(restarted.getAll(2L)).extracting(Task::getTitle).containsExactly("Finish project");
+        } finally {
+            restarted.close();
+        }
+    }
+
+    @Test
+    void shouldKeepCheckpointingAfterFailedCheckpoint() throws Exception {
+        // A directory in place of the temporary snapshot file makes checkpoints fail
+        Path temporary = Files.createDirectory(directory.resolve("snapshot.tmp"));
+        InMemoryTaskRepository scheduled = new InMemoryTaskRepository(directory, 64 * 1024, Duration.ofMillis(20), false);
+        try {
+            Thread.sleep(200);
+            Files.delete(temporary);
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (!hasSnapshot() && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+            assertTrue(hasSnapshot());
+        } finally {
+            scheduled.close();
+        }
+    }
+
+    private boolean hasSnapshot() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.anyMatch(file -> file.getFileName().toString().startsWith("snapshot-"));
+        }
+    }
+
+    private InMemoryTaskRepository open() {
+        return new InMemoryTaskRepository(directory, 64 * 1024, null, false);
+    }
+}
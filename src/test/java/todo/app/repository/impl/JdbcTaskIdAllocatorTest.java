@@ -0,0 +1,112 @@
+package todo.app.repository.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+
+/**
+ * Test suite for the JdbcTaskIdAllocator class that verifies per-user task ID allocation.
+ * Uses an embedded test database for isolation and reproducibility.
+ *
+ * @see JdbcTaskIdAllocator
+ */
+class JdbcTaskIdAllocatorTest {
+
+    /** Data source for the embedded test database */
+    private DataSource dataSource;
+
+    /** Template for executing JDBC operations in tests */
+    private JdbcTemplate jdbcTemplate;
+
+    /** Instance of the allocator being tested */
+    private JdbcTaskIdAllocator allocator;
+
+    /**
+     * Sets up the test environment before each test case.
+     */
+    @BeforeEach
+    void setUp() {
+        dataSource = new EmbeddedDatabaseBuilder()
+            .setName("To-Do-App")
+            .addScript("classpath:todo/testdb/schema.sql")
+            .addScript("classpath:todo/testdb/data.sql")
+            .build();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        allocator = new JdbcTaskIdAllocator(dataSource, 5);
+    }
+
+    @Test
+    void shouldThrowExceptionWhenBlockSizeIsNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> new JdbcTaskIdAllocator(dataSource, 0));
+    }
+
+    /**
+     * Verifies that allocation continues after the highest task ID already stored for the user.
+     */
+    @Test
+    void shouldStartAfterExistingTasks() {
+        assertAll(
+            () -> assertThat(allocator.nextId(1L)).isEqualTo(3L),
+            () -> assertThat(allocator.nextId(1L)).isEqualTo(4L),
+            () -> assertThat(allocator.nextId(3L)).isEqualTo(2L)
+        );
+    }
+
+    /**
+     * Verifies that the ID of a deleted task is never handed out again.
+     */
+    @Test
+    void shouldNotReuseIdsAfterDelete() {
+        assertThat(allocator.nextId(3L)).isEqualTo(2L);
+
+        jdbcTemplate.update("DELETE FROM t_tasks WHERE user_id = ?", 3L);
+
+        JdbcTaskIdAllocator restartedAllocator = new JdbcTaskIdAllocator(dataSource, 5);
+        assertThat(restartedAllocator.nextId(3L)).isEqualTo(7L);
+    }
+
+    /**
+     * Verifies that concurrent callers on two allocators sharing the database never receive the same ID.
+     */
+    @Test
+    void shouldAllocateUniqueIdsUnderConcurrency() throws Exception {
+        JdbcTaskIdAllocator otherAllocator = new JdbcTaskIdAllocator(dataSource, 3);
+        Set<Long> allocated = ConcurrentHashMap.newKeySet();
+        int allocationsPerThread = 200, threads = 8;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = IntStream.range(0, threads)
+                .<Future<?>>mapToObj(i -> executor.submit(() -> {
+                    JdbcTaskIdAllocator target = (i % 2 == 0) ? allocator : otherAllocator;
+                    for (int n = 0; n < allocationsPerThread; n++) {
+                        allocated.add(target.nextId(2L));
+                    }
+                }))
+                .toList();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(allocated).hasSize(allocationsPerThread * threads);
+        assertThat(allocated).doesNotContain(1L);
+    }
+}
@@ -0,0 +1,103 @@
+package todo.app.repository.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+/**
+ * Test suite verifying that JdbcTaskRepository exports a million tasks without holding them in
+ * memory. Tagged {@value #TAG}, it runs in a surefire execution of its own with a heap far too
+ * small for the exported tasks. The database is file based with cached tables, so its rows are
+ * kept on disk rather than in the same heap.
+ *
+ * @see JdbcTaskRepository#exportTasks
+ */
+@Tag(JdbcTaskRepositoryExportTest.TAG)
+class JdbcTaskRepositoryExportTest {
+
+    /** Tag of the tests run with a constrained heap */
+    static final String TAG = "constrained-heap";
+
+    /** Number of tasks exported */
+    private static final int TASK_COUNT = 1_000_000;
+
+    /** Number of tasks inserted per batch */
+    private static final int INSERT_BATCH_SIZE = 10_000;
+
+    /** Directory holding the database files */
+    @TempDir
+    Path directory;
+
+    /** Data source for the file database */
+    private SingleConnectionDataSource dataSource;
+
+    /** Instance of the repository being tested */
+    private JdbcTaskRepository jdbcTaskRepository;
+
+    @BeforeEach
+    void setUp() {
+        // Results beyond 10000 rows are kept on disk too, as HSQLDB otherwise builds them in memory
+        dataSource = new SingleConnectionDataSource("jdbc:hsqldb:file:" + directory.resolve("export")
+            + ";hsqldb.default_table_type=cached;hsqldb.cache_rows=10000;hsqldb.result_max_memory_rows=10000"
+            + ";hsqldb.log_data=false", "SA", "", true);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        new ResourceDatabasePopulator(new ClassPathResource("todo/testdb/schema.sql"),
+            new ClassPathResource("todo/testdb/data.sql")).execute(dataSource);
+
+        // User 2 owns task 1 from the seed data, the generated tasks follow it
+        for (long from = 2; from <= TASK_COUNT + 1; from += INSERT_BATCH_SIZE) {
+            long first = from;
+            jdbcTemplate.batchUpdate("INSERT INTO t_tasks (id, title, description, user_id) VALUES (?, ?, ?, 2)",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ps.setLong(1, first + i);
+                        ps.setString(2, "Task " + (first + i));
+                        ps.setString(3, "Description of task " + (first + i));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return INSERT_BATCH_SIZE;
+                    }
+                });
+        }
+        jdbcTaskRepository = new JdbcTaskRepository(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(dataSource).execute("SHUTDOWN");
+        dataSource.destroy();
+    }
+
+    /**
+     * Verifies that every task is handed to the consumer, in ID order.
+     */
+    @Test
+    void shouldExportMillionTasksWithinConstrainedHeap() {
+        long[] exported = new long[2];
+
+        jdbcTaskRepository.exportTasks(2L, exportedTask -> {
+            assertThat(exportedTask.getEntityId()).isGreaterThan(exported[1]);
+            exported[0]++;
+            exported[1] = exportedTask.getEntityId();
+        });
+
+        assertThat(exported[0]).isEqualTo(TASK_COUNT + 1);
+        assertThat(exported[1]).isEqualTo(TASK_COUNT + 1);
+    }
+}
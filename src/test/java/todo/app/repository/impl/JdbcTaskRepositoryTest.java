@@ -5,24 +5,26 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 
 import javax.sql.DataSource;
 
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import todo.app.logic.Task;
 
 /**
- * Test suite for the JdbcTaskRepository class that verifies CRUD operations. Uses an embedded test database for isolation and reproducibility.
+ * Test suite for the JdbcTaskRepository class that verifies CRUD operations against the stored rows, on top of
+ * the {@link TaskRepositoryContractTest} cases. Uses an embedded test database for isolation and reproducibility.
  * 
  * @see JdbcTaskRepository
  * @see Task
  */
-class JdbcTaskRepositoryTest {
+class JdbcTaskRepositoryTest extends TaskRepositoryContractTest<JdbcTaskRepository> {
 
     /** Data source for the embedded test database */
     private DataSource dataSource;
@@ -52,13 +54,14 @@ class JdbcTaskRepositoryTest {
      * Sets up the test environment before each test case.
      * Initializes the test database, repository, and JDBC template.
      * 
-     * @throws Exception if database setup fails
+     * @return the repository being tested
      */
-    @BeforeEach
-    void setUp() throws Exception {
+    @Override
+    protected JdbcTaskRepository createRepository() {
         dataSource = createTestDataSource();
         jdbcTaskRepository = new JdbcTaskRepository(dataSource);
         jdbcTemplate = new JdbcTemplate(dataSource);
+        return jdbcTaskRepository;
     }
 
     /**
@@ -108,26 +111,6 @@ class JdbcTaskRepositoryTest {
         );
     }
     
-    /**
-     * Tests successful task retrieval with valid task and user IDs.
-     * Verifies the retrieved task's attributes match expected values.
-     */
-    @Test
-    void shouldReturnTaskWhenTaskIdIsValid() {
-        task_id = 2L;
-        user_id = 1L;
-        String titleExpected = "Book tickets";
-        String descriptionExpected = "Vacation tickets to Hawaii";
-        
-        task = jdbcTaskRepository.findTaskById(task_id, user_id);
-        
-        assertNotNull(task);
-        assertAll("Verify task attributes",
-            () -> assertThat(task.getTitle()).isEqualTo(titleExpected),
-            () -> assertThat(task.getDescription()).isEqualTo(descriptionExpected)
-        );
-    }
-    
     /**
      * Tests successful task update with valid attributes.
      * Verifies the updated task's attributes in the database.
@@ -151,19 +134,54 @@ class JdbcTaskRepositoryTest {
 
     /**
      * Tests successful task deletion with a valid task ID.
-     * Verifies the deleted task's attributes match the original task.
+     * Verifies the deletion is reported and the task no longer exists.
      */
     @Test
     void shouldDeleteTaskWhenTaskIdIsValid() {
         task_id = 1L;
         user_id = 1L;
-        task = jdbcTemplate.queryForObject(FIND_TASK_SQL, 
+        
+        boolean taskDeleted = jdbcTaskRepository.deleteTaskById(task_id, user_id);
+        
+        List<Task> remainingTasks = jdbcTemplate.query(FIND_TASK_SQL, 
             (rs, rowNumber) -> mapToTask(rs, rowNumber), task_id, user_id);
+        assertTrue(taskDeleted);
+        assertThat(remainingTasks).isEmpty();
+    }
+    
+    /**
+     * Tests that a bulk update changes only the tasks owned by the user and reports their IDs.
+     */
+    @Test
+    void shouldUpdateOwnedTasksInBatch() {
+        user_id = 1L;
+        Task first = new Task("Hello World", "Start programming");
+        first.setEntityId(2L);
+        Task missing = new Task("Not mine", "Belongs to nobody");
+        missing.setEntityId(7L);
+        
+        List<Long> updatedIds = jdbcTaskRepository.updateTasks(List.of(first, missing), user_id);
         
-        Task taskDeleted = jdbcTaskRepository.deleteTaskById(task_id, user_id);
+        Task resultTask = jdbcTemplate.queryForObject(FIND_TASK_SQL, 
+            (rs, rowNumber) -> mapToTask(rs, rowNumber), 2L, user_id);
+        assertThat(updatedIds).containsExactly(2L);
+        assertThat(resultTask.getTitle()).isEqualTo("Hello World");
+        assertThat(jdbcTaskRepository.findTaskById(1L, 2L).getTitle()).isNotEqualTo("Hello World");
+    }
+    
+    /**
+     * Tests that a bulk delete removes only the tasks owned by the user and reports their IDs.
+     */
+    @Test
+    void shouldDeleteOwnedTasksInBatch() {
+        user_id = 1L;
+        
+        List<Long> deletedIds = jdbcTaskRepository.deleteTasksById(List.of(2L, 7L, 1L), user_id);
         
-        assertNotNull(taskDeleted);
-        assertThat(taskDeleted.getTitle()).isEqualTo(task.getTitle());
+        Integer remainingTasks = jdbcTemplate.queryForObject(COUNT_TOTAL_TASKS_FOR_USER_SQL, Integer.class, user_id);
+        assertThat(deletedIds).containsExactly(2L, 1L);
+        assertThat(remainingTasks).isZero();
+        assertTrue(jdbcTaskRepository.existById(1L, 2L));
     }
     
     /**
@@ -182,18 +200,46 @@ class JdbcTaskRepositoryTest {
         assertThat(tasks.size()).isEqualTo(totalTasks);
     }
     
+    /**
+     * Verifies the ownership probe on a user with many tasks, and that a task ID
+     * owned by another user is not reported as existing.
+     */
     @Test
-    void shouldReturnTrueWhenTaskIdIsValid() {
-    	user_id = 1L; task_id = 1L;
-    	assertTrue(jdbcTaskRepository.existById(task_id, user_id));
+    void shouldProbeSingleTaskWhenUserHasManyTasks() {
+    	user_id = 2L;
+    	List<Object[]> rows = new ArrayList<>();
+    	for (long id = 2; id <= 5000; id++) {
+    		rows.add(new Object[] {id, "Task " + id, "Description " + id, user_id});
+    	}
+    	jdbcTemplate.batchUpdate("INSERT INTO t_tasks (id, title, description, user_id) VALUES (?,?,?,?)", rows);
+
+    	assertAll(
+    		() -> assertTrue(jdbcTaskRepository.existById(4999L, user_id)),
+    		() -> assertFalse(jdbcTaskRepository.existById(5001L, user_id)),
+    		() -> assertFalse(jdbcTaskRepository.existById(4999L, 1L))
+    	);
     }
-    
+
+    /**
+     * Verifies that every execution is recorded under its statement name.
+     */
     @Test
-    void shouldReturnFalseWhenTaskIdNotExist() {
-    	user_id = 1L; task_id = 7L;
-    	assertFalse(jdbcTaskRepository.existById(task_id, user_id));
+    void shouldRecordMetricsPerStatement() {
+    	SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    	jdbcTaskRepository = new JdbcTaskRepository(jdbcTemplate, new JdbcTaskIdAllocator(dataSource), meterRegistry);
+
+    	jdbcTaskRepository.getAll(1L);
+    	jdbcTaskRepository.existById(1L, 1L);
+    	jdbcTaskRepository.existById(7L, 1L);
+
+    	assertAll(
+    		() -> assertThat(meterRegistry.get(StatementRegistry.TIMER_NAME)
+    			.tags("repository", "tasks", "statement", "existById", "outcome", "success").timer().count()).isEqualTo(2),
+    		() -> assertThat(meterRegistry.get(StatementRegistry.ROWS_NAME)
+    			.tags("statement", "getAll").summary().totalAmount()).isEqualTo(2)
+    	);
     }
-    
+
     
     /**
      * Creates and configures an embedded test database with predefined schema and test data.
@@ -0,0 +1,90 @@
+package todo.app.repository.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Test suite for the JdbcTaskVersionRepository class that verifies per-user versions
+ * and their persistence. Uses an embedded test database for isolation and reproducibility.
+ *
+ * @see JdbcTaskVersionRepository
+ */
+class JdbcTaskVersionRepositoryTest {
+
+    /** Template for executing JDBC operations in tests */
+    private JdbcTemplate jdbcTemplate;
+
+    /** Instance of the repository being tested */
+    private JdbcTaskVersionRepository taskVersionRepository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new EmbeddedDatabaseBuilder()
+            .setName("To-Do-App")
+            .addScript("classpath:todo/testdb/schema.sql")
+            .addScript("classpath:todo/testdb/data.sql")
+            .build());
+        taskVersionRepository = new JdbcTaskVersionRepository(jdbcTemplate);
+    }
+
+    @Test
+    void shouldThrowExceptionWhenJdbcTemplateIsNull() {
+        assertThrows(IllegalArgumentException.class, () -> new JdbcTaskVersionRepository(null));
+    }
+
+    /**
+     * Verifies that versions start at 0 and grow per user independently.
+     */
+    @Test
+    void shouldIncrementVersionPerUser() {
+        assertAll(
+            () -> assertThat(taskVersionRepository.getVersion(1L)).isZero(),
+            () -> assertThat(taskVersionRepository.incrementVersion(1L)).isEqualTo(1L),
+            () -> assertThat(taskVersionRepository.incrementVersion(1L)).isEqualTo(2L),
+            () -> assertThat(taskVersionRepository.getVersion(1L)).isEqualTo(2L),
+            () -> assertThat(taskVersionRepository.getVersion(2L)).isZero()
+        );
+    }
+
+    /**
+     * Verifies that a new instance, as after a restart, continues from the stored version.
+     */
+    @Test
+    void shouldContinueFromStoredVersionAfterRestart() {
+        taskVersionRepository.incrementVersion(1L);
+        taskVersionRepository.incrementVersion(1L);
+
+        JdbcTaskVersionRepository restarted = new JdbcTaskVersionRepository(jdbcTemplate);
+
+        assertAll(
+            () -> assertThat(restarted.getVersion(1L)).isEqualTo(2L),
+            () -> assertThat(restarted.incrementVersion(1L)).isEqualTo(3L)
+        );
+    }
+
+    /**
+     * Verifies that an increment made in a transaction is only published once it commits.
+     */
+    @Test
+    void shouldPublishIncrementOfTransactionOnlyOnCommit() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+        taskVersionRepository.getVersion(1L);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            taskVersionRepository.incrementVersion(1L);
+            assertThat(taskVersionRepository.getVersion(1L)).isZero();
+            status.setRollbackOnly();
+        });
+        assertThat(taskVersionRepository.getVersion(1L)).isZero();
+
+        transactionTemplate.executeWithoutResult(status -> taskVersionRepository.incrementVersion(1L));
+        assertThat(taskVersionRepository.getVersion(1L)).isEqualTo(1L);
+    }
+}
@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 
 import javax.sql.DataSource;
@@ -15,6 +16,7 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
 import org.springframework.web.servlet.handler.UserRoleAuthorizationInterceptor;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import todo.app.logic.User;
 
 /**
@@ -68,10 +70,17 @@ class JdbcUserRepositoryTest {
         
         assertThrows(IllegalArgumentException.class, 
                 ()-> { 
-                    jdbcUserRepository = new JdbcUserRepository(null); 
+                    jdbcUserRepository = new JdbcUserRepository((DataSource) null); 
                 }, 
                 EXCEPTION_MESSAGE_EXPECTED);
     }
+    
+    @Test
+    void shouldThrowExceptionWhenJdbcTemplateIsNull() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new JdbcUserRepository((JdbcTemplate) null, new SimpleMeterRegistry()),
+                "JdbcTemplate value is null");
+    }
 
     /**
      * Verifies successful user creation with valid attributes.
@@ -201,6 +210,33 @@ class JdbcUserRepositoryTest {
         
         assertThat(users.size()).isEqualTo(totalUsersInDatabase);
     }
+
+    /**
+     * Verifies that pages follow each other by user ID and are read without password hashes.
+     */
+    @Test
+    void shouldReturnUserPagesWithoutPasswords() {
+        List<User> firstPage = jdbcUserRepository.getPage(0L, 2);
+        List<User> secondPage = jdbcUserRepository.getPage(firstPage.get(1).getEntityId(), 2);
+
+        assertThat(firstPage).extracting(User::getUsername).containsExactly("Alice", "Bob");
+        assertThat(secondPage).extracting(User::getUsername).containsExactly("Charlie");
+        assertThat(firstPage).extracting(User::getPassword).containsOnlyNulls();
+    }
+
+    /**
+     * Verifies that an export hands every user to the consumer in ID order, without password hashes.
+     */
+    @Test
+    void shouldExportAllUsersWithoutPasswords() {
+        List<User> users = new ArrayList<>();
+
+        jdbcUserRepository.exportUsers(users::add);
+
+        assertThat(users).extracting(User::getEntityId).containsExactly(1L, 2L, 3L);
+        assertThat(users).extracting(User::getEmail).doesNotContainNull();
+        assertThat(users).extracting(User::getPassword).containsOnlyNulls();
+    }
     
     @Test
     void shouldReturnTrueWhenUserIdExist() {
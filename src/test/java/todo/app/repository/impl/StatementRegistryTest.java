@@ -0,0 +1,79 @@
+package todo.app.repository.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Test suite for the StatementRegistry class that verifies statement resolution and
+ * the metrics recorded for every execution.
+ *
+ * @see StatementRegistry
+ */
+class StatementRegistryTest {
+
+    /** Registry receiving the recorded metrics */
+    private SimpleMeterRegistry meterRegistry;
+
+    /** Instance of the statement registry being tested */
+    private StatementRegistry statements;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        statements = new StatementRegistry("tasks",
+            Map.of("getAll", "SELECT * FROM t_tasks WHERE user_id = ?"), meterRegistry);
+    }
+
+    @Test
+    void shouldThrowExceptionWhenMeterRegistryIsNull() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new StatementRegistry("tasks", Map.of(), null));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenStatementIsUnknown() {
+        assertThrows(IllegalArgumentException.class, () -> statements.sql("findTaskById"));
+    }
+
+    /**
+     * Verifies that a successful execution receives the registered SQL and records its latency and row count.
+     */
+    @Test
+    void shouldRecordLatencyAndRowsOfSuccessfulExecution() {
+        List<String> result = statements.execute("getAll", sql -> List.of(sql, sql, sql), List::size);
+
+        assertAll(
+            () -> assertThat(result).containsOnly("SELECT * FROM t_tasks WHERE user_id = ?"),
+            () -> assertThat(meterRegistry.get(StatementRegistry.TIMER_NAME)
+                .tags("repository", "tasks", "statement", "getAll", "outcome", "success").timer().count()).isEqualTo(1),
+            () -> assertThat(meterRegistry.get(StatementRegistry.ROWS_NAME)
+                .tags("statement", "getAll").summary().totalAmount()).isEqualTo(3),
+            () -> assertThat(meterRegistry.get(StatementRegistry.ERRORS_NAME)
+                .tags("statement", "getAll").counter().count()).isZero()
+        );
+    }
+
+    /**
+     * Verifies that a failing execution is rethrown and counted as an error.
+     */
+    @Test
+    void shouldRecordErrorOfFailedExecution() {
+        assertThrows(IllegalStateException.class, () -> statements.execute("getAll",
+            sql -> { throw new IllegalStateException("Connection lost"); }, result -> 0));
+
+        assertAll(
+            () -> assertThat(meterRegistry.get(StatementRegistry.TIMER_NAME)
+                .tags("statement", "getAll", "outcome", "error").timer().count()).isEqualTo(1),
+            () -> assertThat(meterRegistry.get(StatementRegistry.ERRORS_NAME)
+                .tags("statement", "getAll").counter().count()).isEqualTo(1)
+        );
+    }
+}
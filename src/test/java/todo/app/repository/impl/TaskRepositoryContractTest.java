@@ -0,0 +1,214 @@
+package todo.app.repository.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import todo.app.logic.Task;
+import todo.app.logic.TaskDTO;
+import todo.app.repository.TaskRepository;
+
+/**
+ * Test cases every TaskRepository implementation has to pass, run through the repository API
+ * only. The test suite of each implementation extends it and provides a repository holding
+ * the same tasks as the embedded test database:
+ * tasks 1 and 2 of user 1, and task 1 of users 2 and 3.
+ *
+ * @param <R> The type of the repository being tested.
+ * @see TaskRepository
+ * @see Task
+ */
+abstract class TaskRepositoryContractTest<R extends TaskRepository> {
+
+    /** Instance of the repository being tested */
+    protected R repository;
+
+    /**
+     * Creates the repository being tested, holding the tasks of the embedded test database.
+     *
+     * @return the repository, a new one for every test case
+     * @throws Exception if the repository cannot be set up
+     */
+    protected abstract R createRepository() throws Exception;
+
+    @BeforeEach
+    void setUpRepository() throws Exception {
+        repository = createRepository();
+    }
+
+    /**
+     * Verifies that a created task gets the next ID of its user.
+     */
+    @Test
+    void shouldCreateTaskWithNextIdOfUser() {
+        Task task = new Task("Do homework", "Finish math assignment");
+
+        Long task_id = repository.createTask(task, 3L);
+
+        assertThat(task_id).isEqualTo(2L);
+        assertThat(task.getEntityId()).isEqualTo(2L);
+        assertThat(repository.findTaskById(2L, 3L).getTitle()).isEqualTo("Do homework");
+    }
+
+    /**
+     * Verifies that a batch gets consecutive IDs, stored after the existing tasks.
+     */
+    @Test
+    void shouldCreateTasksInBatch() {
+        List<Task> tasks = List.of(new Task("Task 1", "Description 1"), new Task("Task 2", "Description 2"));
+
+        List<Long> ids = repository.createTasks(tasks, 1L);
+
+        assertThat(ids).containsExactly(3L, 4L);
+        assertThat(tasks.get(1).getEntityId()).isEqualTo(4L);
+        assertThat(repository.getAll(1L)).extracting(Task::getTitle)
+            .containsExactly("Buy groceries", "Book tickets", "Task 1", "Task 2");
+    }
+
+    @Test
+    void shouldFindTaskById() {
+        Task task = repository.findTaskById(2L, 1L);
+
+        assertThat(task.getEntityId()).isEqualTo(2L);
+        assertThat(task.getTitle()).isEqualTo("Book tickets");
+        assertThat(task.getDescription()).isEqualTo("Vacation tickets to Hawaii");
+    }
+
+    /**
+     * Verifies that lookup, update, patch and delete of a missing task report it without failing.
+     */
+    @Test
+    void shouldReportMissingTask() {
+        Task task = new Task("Hello World", "Start programming");
+
+        assertAll(
+            () -> assertNull(repository.findTaskById(2L, 3L)),
+            () -> assertNull(repository.findTaskById(1L, 42L)),
+            () -> assertFalse(repository.updateTask(7L, 1L, task)),
+            () -> assertFalse(repository.patchTask(7L, 1L, task)),
+            () -> assertFalse(repository.deleteTaskById(7L, 1L))
+        );
+    }
+
+    @Test
+    void shouldReturnCopiesOfStoredTasks() {
+        repository.findTaskById(1L, 1L).setTitle("Changed outside");
+
+        assertThat(repository.findTaskById(1L, 1L).getTitle()).isEqualTo("Buy groceries");
+    }
+
+    @Test
+    void shouldUpdateTask() {
+        assertTrue(repository.updateTask(1L, 2L, new Task("Finish thesis", "Write the conclusion")));
+
+        Task task = repository.findTaskById(1L, 2L);
+        assertThat(task.getTitle()).isEqualTo("Finish thesis");
+        assertThat(task.getDescription()).isEqualTo("Write the conclusion");
+    }
+
+    @Test
+    void shouldDeleteTask() {
+        assertTrue(repository.deleteTaskById(2L, 1L));
+        assertFalse(repository.existById(2L, 1L));
+        assertFalse(repository.deleteTaskById(2L, 1L));
+    }
+
+    /**
+     * Verifies the ownership probe, a task ID owned by another user is not reported as existing.
+     */
+    @Test
+    void shouldTellWhetherTaskExists() {
+        assertTrue(repository.existById(2L, 1L));
+        assertFalse(repository.existById(7L, 1L));
+        assertFalse(repository.existById(2L, 3L));
+    }
+
+    @Test
+    void shouldGetAllTasksOfUser() {
+        assertThat(repository.getAll(1L)).extracting(Task::getEntityId).containsExactly(1L, 2L);
+        assertThat(repository.getAll(42L)).isEmpty();
+    }
+
+    /**
+     * Verifies keyset pagination: each page starts after the given cursor and respects the limit.
+     */
+    @Test
+    void shouldGetPagesInIdOrder() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            tasks.add(new Task("Task " + i, "Description " + i));
+        }
+        repository.createTasks(tasks, 1L);
+        repository.deleteTaskById(5L, 1L);
+
+        assertThat(repository.getPage(1L, 0L, 3)).extracting(Task::getEntityId).containsExactly(1L, 2L, 3L);
+        assertThat(repository.getPage(1L, 3L, 3)).extracting(Task::getEntityId).containsExactly(4L, 6L, 7L);
+        assertThat(repository.getPage(1L, 11L, 3)).extracting(Task::getEntityId).containsExactly(12L);
+        assertThat(repository.getPage(1L, 12L, 3)).isEmpty();
+    }
+
+    /**
+     * Verifies that the DTO read path carries the same tasks as the entity path, in ID order.
+     */
+    @Test
+    void shouldProjectPagesIntoDTOs() {
+        List<TaskDTO> tasks = repository.getAllDTOs(1L);
+
+        assertThat(tasks).extracting(TaskDTO::getId).containsExactly(1L, 2L);
+        assertThat(tasks).extracting(TaskDTO::getTitle).containsExactly("Buy groceries", "Book tickets");
+        assertThat(tasks.get(1).getDescription()).isEqualTo("Vacation tickets to Hawaii");
+        assertThat(repository.getPageDTOs(1L, 1L, 3)).extracting(TaskDTO::getTitle).containsExactly("Book tickets");
+        assertThat(repository.getAllDTOs(42L)).isEmpty();
+    }
+
+    @Test
+    void shouldExportAllTasksInIdOrder() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            tasks.add(new Task("Task " + i, null));
+        }
+        repository.createTasks(tasks, 2L);
+
+        List<Long> exported = new ArrayList<>();
+        repository.exportTasks(2L, exportedTask -> exported.add(exportedTask.getEntityId()));
+
+        assertThat(exported).hasSize(1201).isSorted();
+    }
+
+    /**
+     * Verifies that a partial update changes only the supplied attributes, and reports no change
+     * when the task already holds the supplied values.
+     */
+    @Test
+    void shouldPatchOnlySuppliedAttributes() {
+        assertTrue(repository.patchTask(2L, 1L, new Task(null, "Flights to Hawaii")));
+        assertFalse(repository.patchTask(2L, 1L, new Task("Book tickets", null)));
+
+        Task task = repository.findTaskById(2L, 1L);
+        assertThat(task.getTitle()).isEqualTo("Book tickets");
+        assertThat(task.getDescription()).isEqualTo("Flights to Hawaii");
+    }
+
+    /**
+     * Verifies that bulk updates and deletes change only the tasks owned by the user and report their IDs.
+     */
+    @Test
+    void shouldApplyBulkChangesOnlyToTasksOfUser() {
+        Task update = new Task("Finish thesis", "Write the conclusion");
+        update.setEntityId(1L);
+        Task missing = new Task("Not mine", "Belongs to user 1");
+        missing.setEntityId(2L);
+
+        assertThat(repository.updateTasks(List.of(update, missing), 2L)).containsExactly(1L);
+        assertThat(repository.deleteTasksById(List.of(2L, 5L, 1L), 1L)).containsExactly(2L, 1L);
+
+        assertThat(repository.findTaskById(1L, 2L).getTitle()).isEqualTo("Finish thesis");
+        assertThat(repository.getAll(1L)).isEmpty();
+        assertTrue(repository.existById(1L, 3L));
+    }
+}
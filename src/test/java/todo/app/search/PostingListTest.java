@@ -0,0 +1,50 @@
+package todo.app.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test suite for the PostingList class that verifies the compressed entries decode in ID order
+ * whatever the order of the changes.
+ *
+ * @see PostingList
+ */
+class PostingListTest {
+
+    @Test
+    void shouldKeepEntriesInIdOrder() {
+        PostingList postings = new PostingList();
+        postings.add(5L, 1);
+        postings.add(300L, 4);
+        postings.add(2L, 3);
+        postings.add(Long.MAX_VALUE, 2);
+
+        assertThat(entries(postings)).containsExactly("2:3", "5:1", "300:4", Long.MAX_VALUE + ":2");
+    }
+
+    @Test
+    void shouldReplaceWeightAndRemoveEntries() {
+        PostingList postings = new PostingList();
+        postings.add(1L, 1);
+        postings.add(2L, 1);
+        postings.add(1L, 7);
+        postings.remove(2L);
+        postings.remove(9L);
+
+        assertThat(postings.count()).isEqualTo(1);
+        assertThat(entries(postings)).containsExactly("1:7");
+
+        postings.add(3L, 2);
+        assertThat(entries(postings)).containsExactly("1:7", "3:2");
+    }
+
+    private static List<String> entries(PostingList postings) {
+        List<String> entries = new ArrayList<>();
+        postings.forEach((taskId, weight) -> entries.add(taskId + ":" + weight));
+        return entries;
+    }
+}
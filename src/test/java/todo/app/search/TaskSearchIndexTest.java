@@ -0,0 +1,95 @@
+package todo.app.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import todo.app.logic.Task;
+import todo.app.logic.TaskDTO;
+import todo.app.repository.impl.InMemoryTaskRepository;
+
+/**
+ * Test suite for the TaskSearchIndex class that verifies incremental maintenance, ranking and
+ * the parallel rebuild from a task store.
+ *
+ * @see TaskSearchIndex
+ */
+class TaskSearchIndexTest {
+
+    /** Directory of the task store the index is rebuilt from */
+    @TempDir
+    Path directory;
+
+    /** Instance of the index being tested */
+    private TaskSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TaskSearchIndex();
+        index.index(1L, 1L, "Buy groceries", "Milk, eggs, bread");
+        index.index(1L, 2L, "Book tickets", "Vacation tickets to Hawaii");
+        index.index(1L, 3L, "Bake bread", "Sourdough for the weekend");
+        index.index(2L, 1L, "Finish project", "Complete the final report");
+    }
+
+    @Test
+    void shouldFindTasksCaseInsensitivelyInTitleAndDescription() {
+        assertThat(index.search(1L, "HAWAII", 10)).extracting(TaskDTO::getId).containsExactly(2L);
+        assertThat(index.search(1L, "sourdough", 10)).extracting(TaskDTO::getTitle).containsExactly("Bake bread");
+    }
+
+    @Test
+    void shouldRankTitleMatchesFirst() {
+        assertThat(index.search(1L, "bread", 10)).extracting(TaskDTO::getId).containsExactly(3L, 1L);
+    }
+
+    @Test
+    void shouldRankTasksMatchingMoreTermsFirstAndHonourLimit() {
+        assertThat(index.search(1L, "bread milk", 10)).extracting(TaskDTO::getId).first().isEqualTo(1L);
+        assertThat(index.search(1L, "bread milk", 1)).hasSize(1);
+    }
+
+    @Test
+    void shouldOnlySearchTasksOfUser() {
+        assertThat(index.search(2L, "bread", 10)).isEmpty();
+        assertThat(index.search(3L, "bread", 10)).isEmpty();
+    }
+
+    @Test
+    void shouldReflectUpdatesPatchesAndDeletes() {
+        index.index(1L, 2L, "Book flights", "Vacation in Japan");
+        index.patch(1L, 3L, null, "Rye for Sunday");
+        index.remove(1L, 1L);
+
+        assertThat(index.search(1L, "hawaii", 10)).isEmpty();
+        assertThat(index.search(1L, "japan", 10)).extracting(TaskDTO::getId).containsExactly(2L);
+        assertThat(index.search(1L, "sourdough milk", 10)).isEmpty();
+        assertThat(index.search(1L, "bread", 10)).extracting(TaskDTO::getDescription).containsExactly("Rye for Sunday");
+    }
+
+    @Test
+    void shouldIgnoreQueryWithoutTerms() {
+        assertThat(index.search(1L, " ,.! ", 10)).isEmpty();
+    }
+
+    @Test
+    void shouldRebuildIndexFromTaskStore() {
+        try (InMemoryTaskRepository repository = new InMemoryTaskRepository(directory, 1024 * 1024, null, false)) {
+            for (long userId = 1; userId <= 8; userId++) {
+                repository.createTasks(List.of(new Task("Water plants", "Balcony"), new Task("Call user " + userId, null)), userId);
+            }
+
+            TaskSearchIndex rebuilt = new TaskSearchIndex();
+            long indexed = rebuilt.rebuild(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L), repository, 4);
+
+            assertThat(indexed).isEqualTo(16L);
+            assertThat(rebuilt.search(5L, "balcony", 10)).extracting(TaskDTO::getId).containsExactly(1L);
+            assertThat(rebuilt.search(7L, "7", 10)).extracting(TaskDTO::getTitle).containsExactly("Call user 7");
+        }
+    }
+}
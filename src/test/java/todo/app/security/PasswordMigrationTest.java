@@ -0,0 +1,113 @@
+package todo.app.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Test suite for the PasswordMigration class that verifies paged, resumable encoding of
+ * plain-text passwords. Uses an embedded test database whose seed users have plain-text passwords.
+ *
+ * @see PasswordMigration
+ */
+class PasswordMigrationTest {
+
+    /** Encoder used by the application */
+    private final PasswordEncoder passwordEncoder = PasswordEncoderFactories.createDelegatingPasswordEncoder();
+
+    /** Template for executing JDBC operations in tests */
+    private JdbcTemplate jdbcTemplate;
+
+    /** Instance of the migration being tested, two users per page */
+    private PasswordMigration passwordMigration;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = new EmbeddedDatabaseBuilder()
+            .setName("To-Do-App")
+            .addScript("classpath:todo/testdb/schema.sql")
+            .addScript("classpath:todo/testdb/data.sql")
+            .build();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        passwordMigration = new PasswordMigration(jdbcTemplate, passwordEncoder, 2, 2);
+    }
+
+    /**
+     * Verifies that all plain-text passwords are encoded across pages and the progress points at the last user.
+     */
+    @Test
+    void shouldEncodePlainTextPasswords() {
+        int migrated = passwordMigration.migrate();
+
+        assertAll(
+            () -> assertThat(migrated).isEqualTo(3),
+            () -> assertTrue(passwordEncoder.matches("password123", password(1L))),
+            () -> assertTrue(passwordEncoder.matches("securepass", password(2L))),
+            () -> assertTrue(passwordEncoder.matches("mypassword", password(3L))),
+            () -> assertThat(jdbcTemplate.queryForObject("SELECT last_id FROM t_migration_progress", Long.class)).isEqualTo(3L)
+        );
+    }
+
+    /**
+     * Verifies that a second run leaves already encoded passwords untouched.
+     */
+    @Test
+    void shouldNotReencodeOnSecondRun() {
+        passwordMigration.migrate();
+        List<String> encoded = jdbcTemplate.queryForList("SELECT password FROM t_users ORDER BY id", String.class);
+
+        jdbcTemplate.update("UPDATE t_migration_progress SET last_id = 0");
+
+        assertAll(
+            () -> assertThat(passwordMigration.migrate()).isZero(),
+            () -> assertThat(jdbcTemplate.queryForList("SELECT password FROM t_users ORDER BY id", String.class))
+                .isEqualTo(encoded)
+        );
+    }
+
+    /**
+     * Verifies that a run resumes after the recorded progress instead of starting over.
+     */
+    @Test
+    void shouldResumeAfterRecordedProgress() {
+        jdbcTemplate.update("INSERT INTO t_migration_progress (migration_name, last_id) VALUES ('password-encoding', 2)");
+
+        int migrated = passwordMigration.migrate();
+
+        assertAll(
+            () -> assertThat(migrated).isEqualTo(1),
+            () -> assertThat(password(1L)).isEqualTo("password123"),
+            () -> assertTrue(passwordEncoder.matches("mypassword", password(3L)))
+        );
+    }
+
+    /**
+     * Verifies that a bare BCrypt hash only gets the delegating prefix.
+     */
+    @Test
+    void shouldPrefixBareBcryptHash() {
+        String bcryptHash = passwordEncoder.encode("securepass").substring("{bcrypt}".length());
+        jdbcTemplate.update("UPDATE t_users SET password = ? WHERE id = 2", bcryptHash);
+
+        passwordMigration.migrate();
+
+        assertAll(
+            () -> assertThat(password(2L)).isEqualTo("{bcrypt}" + bcryptHash),
+            () -> assertTrue(passwordEncoder.matches("securepass", password(2L)))
+        );
+    }
+
+    private String password(Long userId) {
+        return jdbcTemplate.queryForObject("SELECT password FROM t_users WHERE id = ?", String.class, userId);
+    }
+}
@@ -0,0 +1,84 @@
+package todo.app.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import todo.app.logic.TokenDTO;
+
+/**
+ * Test suite for the TokenService class that verifies issuing and verifying signed tokens.
+ *
+ * @see TokenService
+ */
+class TokenServiceTest {
+
+    /** Fixed point in time the tokens are issued at */
+    private static final Instant NOW = Instant.parse("2025-01-01T10:00:00Z");
+
+    /** Instance of the service being tested */
+    private TokenService tokenService;
+
+    /** Token issued for Alice before each test case */
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        tokenService = new TokenService(new byte[32], Duration.ofMinutes(15), Clock.fixed(NOW, ZoneOffset.UTC));
+        TodoUserDetails alice = new TodoUserDetails(1L, "Alice", "{noop}password123", true,
+            AuthorityUtils.createAuthorityList("ROLE_USER"));
+        TokenDTO tokenDTO = tokenService.issueToken(UsernamePasswordAuthenticationToken.authenticated(alice, null, alice.getAuthorities()));
+        token = tokenDTO.getToken();
+    }
+
+    @Test
+    void shouldThrowExceptionWhenSecretIsTooShort() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new TokenService(new byte[16], Duration.ofMinutes(15), Clock.systemUTC()));
+    }
+
+    /**
+     * Verifies that a freshly issued token resolves to the user it was issued for.
+     */
+    @Test
+    void shouldVerifyIssuedToken() {
+        TodoUserDetails user = tokenService.verifyToken(token);
+
+        assertNotNull(user);
+        assertAll("Verify principal attributes",
+            () -> assertThat(user.getId()).isEqualTo(1L),
+            () -> assertThat(user.getUsername()).isEqualTo("Alice"),
+            () -> assertThat(AuthorityUtils.authorityListToSet(user.getAuthorities())).containsExactly("ROLE_USER")
+        );
+    }
+
+    /**
+     * Verifies that tampered, foreign and expired tokens are rejected.
+     */
+    @Test
+    void shouldRejectInvalidTokens() {
+        String tamperedToken = "X" + token.substring(1);
+        TokenService otherKeyService = new TokenService(new byte[] {
+            1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16,
+            17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31, 32 },
+            Duration.ofMinutes(15), Clock.fixed(NOW, ZoneOffset.UTC));
+        TokenService laterService = new TokenService(new byte[32], Duration.ofMinutes(15),
+            Clock.fixed(NOW.plus(Duration.ofMinutes(16)), ZoneOffset.UTC));
+
+        assertAll(
+            () -> assertNull(tokenService.verifyToken(tamperedToken)),
+            () -> assertNull(tokenService.verifyToken("not-a-token")),
+            () -> assertNull(otherKeyService.verifyToken(token)),
+            () -> assertNull(laterService.verifyToken(token))
+        );
+    }
+}
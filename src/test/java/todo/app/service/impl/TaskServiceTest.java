@@ -1,17 +1,44 @@
 package todo.app.service.impl;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.sql.DataSource;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
 import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zaxxer.hikari.HikariDataSource;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import todo.app.config.SystemTestConfig;
 import todo.app.exception.InvalidTaskDataException;
 import todo.app.exception.TaskNotFoundException;
 import todo.app.logic.Task;
 import todo.app.logic.TaskDTO;
+import todo.app.logic.TaskResultDTO;
+import todo.app.repository.TaskVersionRepository;
+import todo.app.repository.impl.JdbcTaskIdAllocator;
+import todo.app.repository.impl.JdbcTaskRepository;
+import todo.app.repository.impl.JdbcTaskVersionRepository;
+import todo.app.search.TaskSearchIndex;
 import todo.app.security.SecurityConfig;
 import todo.app.service.TaskService;
 import todo.app.service.UserService;
@@ -38,6 +65,9 @@ class TaskServiceTest {
 	
 	@Autowired
 	TaskService taskService;
+	
+	@Autowired
+	DataSource dataSource;
 		
 	/** Task instance used across multiple test cases */
     private TaskDTO taskDTO;
@@ -93,5 +123,217 @@ class TaskServiceTest {
         assertThrows(TaskNotFoundException.class, () -> {
             taskService.deleteTaskById(task_id, user_id);
         }, INVALID_TASK_ID_EXCEPTION_MESSAGE); 
+        
+        assertThrows(TaskNotFoundException.class, () -> {
+            taskService.updateTask(task_id, user_id, new TaskDTO("Title", "Description"));
+        }, INVALID_TASK_ID_EXCEPTION_MESSAGE); 
+    }
+    
+    /**
+     * Verifies that batch creation fails when the batch exceeds the maximum size,
+     * and that no task of an invalid batch is saved.
+     */
+    @Test
+    void shouldThrowExceptionWhenTaskBatchIsInvalid() {
+        user_id = 1L;
+        List<TaskDTO> oversizedBatch = new ArrayList<>();
+        for (int i = 0; i <= TaskServiceImpl.DEFAULT_MAX_BATCH_SIZE; i++) {
+            oversizedBatch.add(new TaskDTO("Title " + i, "Description " + i));
+        }
+        int totalTasks = taskService.getAllTasks(user_id).size();
+        
+        assertThrows(InvalidTaskDataException.class, () -> {
+            taskService.saveTasks(oversizedBatch, user_id);
+        });
+        
+        assertThrows(InvalidTaskDataException.class, () -> {
+            taskService.saveTasks(List.of(new TaskDTO("Valid", "Task"), new TaskDTO("", "milk")), user_id);
+        }, INVALID_TASK_ATTRIBUTES_EXCEPTION_MESSAGE);
+        
+        assertEquals(totalTasks, taskService.getAllTasks(user_id).size());
+    }
+    
+    /**
+     * Verifies that every successful change advances the task list version, and a failed one does not.
+     */
+    @Test
+    void shouldIncrementTaskVersionOnEveryChange() {
+        user_id = 3L;
+        long initialVersion = taskService.getTaskVersion(user_id);
+        
+        Long newTaskId = taskService.saveTask(new TaskDTO("Title", "Description"), user_id);
+        taskService.updateTask(newTaskId, user_id, new TaskDTO("New title", "New description"));
+        taskService.deleteTaskById(newTaskId, user_id);
+        assertThrows(TaskNotFoundException.class, () -> taskService.deleteTaskById(newTaskId, user_id));
+        
+        assertEquals(initialVersion + 3, taskService.getTaskVersion(user_id));
+    }
+    
+    /**
+     * Verifies that a partial update rejects empty attributes and missing tasks, and that
+     * a patch changing nothing leaves the task list version as it was.
+     */
+    @Test
+    void shouldPatchTaskOnlyWhenSuppliedAttributesDiffer() {
+        user_id = 3L;
+        Long newTaskId = taskService.saveTask(new TaskDTO("Title", "Description"), user_id);
+        
+        assertThrows(InvalidTaskDataException.class, () -> {
+            taskService.patchTask(newTaskId, user_id, new TaskDTO("", null));
+        });
+        assertThrows(TaskNotFoundException.class, () -> {
+            taskService.patchTask(99L, user_id, new TaskDTO("Title", null));
+        }, INVALID_TASK_ID_EXCEPTION_MESSAGE);
+        
+        long initialVersion = taskService.getTaskVersion(user_id);
+        taskService.patchTask(newTaskId, user_id, new TaskDTO("Title", null));
+        assertEquals(initialVersion, taskService.getTaskVersion(user_id));
+        
+        taskService.patchTask(newTaskId, user_id, new TaskDTO(null, "New description"));
+        assertEquals(initialVersion + 1, taskService.getTaskVersion(user_id));
+        assertEquals("Title", taskService.getTaskById(newTaskId, user_id).getTitle());
+        assertEquals("New description", taskService.getTaskById(newTaskId, user_id).getDescription());
+    }
+    
+    /**
+     * Verifies that tasks become searchable when created, follow their updates and disappear
+     * when deleted, and that a blank query is rejected.
+     */
+    @Test
+    void shouldKeepSearchResultsInStepWithTaskChanges() {
+        user_id = 3L;
+        Long newTaskId = taskService.saveTask(new TaskDTO("Repair bicycle", "Front tyre is flat"), user_id);
+        assertEquals(List.of(newTaskId), taskService.searchTasks(user_id, "bicycle", 10).stream().map(TaskDTO::getId).toList());
+        
+        taskService.patchTask(newTaskId, user_id, new TaskDTO("Repair scooter", null));
+        assertTrue(taskService.searchTasks(user_id, "bicycle", 10).isEmpty());
+        assertEquals(1, taskService.searchTasks(user_id, "scooter tyre", 10).size());
+        
+        taskService.deleteTaskById(newTaskId, user_id);
+        assertTrue(taskService.searchTasks(user_id, "scooter", 10).isEmpty());
+        
+        assertThrows(InvalidTaskDataException.class, () -> taskService.searchTasks(user_id, " ", 10));
+    }
+    
+    /**
+     * Verifies that the tasks stored before startup are searchable.
+     */
+    @Test
+    void shouldSearchTasksIndexedAtStartup() {
+        assertEquals("Book tickets", taskService.searchTasks(1L, "hawaii", 10).get(0).getTitle());
+    }
+    
+    /**
+     * Verifies that a bulk update with a missing or repeated task ID is rejected before any task changes.
+     */
+    @Test
+    void shouldThrowExceptionWhenBulkTaskIdsAreInvalid() {
+        user_id = 1L;
+        
+        assertThrows(InvalidTaskDataException.class, () -> {
+            taskService.updateTasks(List.of(new TaskDTO("Title", "Description")), user_id);
+        });
+        assertThrows(InvalidTaskDataException.class, () -> {
+            taskService.updateTasks(List.of(new TaskDTO(1L, "Title", "Description"), new TaskDTO(1L, "Other", "Description")), user_id);
+        });
+        assertThrows(InvalidTaskDataException.class, () -> {
+            taskService.deleteTasks(List.of(), user_id);
+        });
+        
+        assertNotEquals("Other", taskService.getTaskById(1L, user_id).getTitle());
+    }
+    
+    /**
+     * Verifies that bulk changes report every ID in request order and advance the version once per batch.
+     */
+    @Test
+    void shouldReportResultPerTaskIdOfBulkChanges() {
+        user_id = 3L;
+        List<Long> newTaskIds = taskService.saveTasks(List.of(new TaskDTO("Title 1", "Description 1"),
+            new TaskDTO("Title 2", "Description 2")), user_id);
+        long initialVersion = taskService.getTaskVersion(user_id);
+        
+        List<TaskResultDTO> updated = taskService.updateTasks(List.of(new TaskDTO(99L, "Title", "Description"),
+            new TaskDTO(newTaskIds.get(0), "New title", "New description")), user_id);
+        List<TaskResultDTO> deleted = taskService.deleteTasks(List.of(newTaskIds.get(1), newTaskIds.get(0), 99L), user_id);
+        
+        assertAll(
+            () -> assertEquals(List.of(99L, newTaskIds.get(0)), updated.stream().map(TaskResultDTO::getId).toList()),
+            () -> assertEquals(List.of(TaskResultDTO.Status.NOT_FOUND, TaskResultDTO.Status.UPDATED),
+                updated.stream().map(TaskResultDTO::getStatus).toList()),
+            () -> assertEquals(List.of(TaskResultDTO.Status.DELETED, TaskResultDTO.Status.DELETED, TaskResultDTO.Status.NOT_FOUND),
+                deleted.stream().map(TaskResultDTO::getStatus).toList()),
+            () -> assertEquals(initialVersion + 2, taskService.getTaskVersion(user_id))
+        );
+    }
+    
+    /**
+     * Verifies that a task write is rolled back when its version increment fails, so no change is
+     * ever stored under the version from before it.
+     */
+    @Test
+    void shouldRollBackTaskWriteWhenVersionIncrementFails() {
+        user_id = 3L;
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        TaskVersionRepository failingVersions = mock(TaskVersionRepository.class);
+        given(failingVersions.incrementVersion(user_id)).willThrow(new QueryTimeoutException("Version store unavailable"));
+        TaskService transactionalService = new TaskServiceImpl(
+            new JdbcTaskRepository(jdbcTemplate, new JdbcTaskIdAllocator(jdbcTemplate, 5), new SimpleMeterRegistry()),
+            TaskServiceImpl.DEFAULT_MAX_BATCH_SIZE, failingVersions, new TaskSearchIndex(),
+            new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+        String initialTitle = taskService.getTaskById(1L, user_id).getTitle();
+        int initialTasks = taskService.getAllTasks(user_id).size();
+        
+        assertThrows(QueryTimeoutException.class,
+            () -> transactionalService.updateTask(1L, user_id, new TaskDTO("Pay rent", "Monthly")));
+        assertThrows(QueryTimeoutException.class,
+            () -> transactionalService.saveTask(new TaskDTO("Title", "Description"), user_id));
+        
+        assertEquals(initialTitle, taskService.getTaskById(1L, user_id).getTitle());
+        assertEquals(initialTasks, taskService.getAllTasks(user_id).size());
+    }
+    
+    /**
+     * Verifies that concurrent creations needing new ID blocks complete with more creators than pool
+     * connections, each write transaction holding a single connection.
+     */
+    @Test
+    void shouldCreateTasksConcurrentlyWithMoreCreatorsThanPoolConnections() throws Exception {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+            .generateUniqueName(true)
+            .addScript("classpath:todo/testdb/schema.sql")
+            .addScript("classpath:todo/testdb/data.sql")
+            .build();
+        HikariDataSource pool = new HikariDataSource();
+        pool.setDataSource(database);
+        pool.setMaximumPoolSize(2);
+        pool.setConnectionTimeout(250);
+        ExecutorService creators = Executors.newFixedThreadPool(8);
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(pool);
+            // Blocks of one ID, so every creation reserves in the database
+            TaskService pooledService = new TaskServiceImpl(
+                new JdbcTaskRepository(jdbcTemplate, new JdbcTaskIdAllocator(jdbcTemplate, 1), new SimpleMeterRegistry()),
+                TaskServiceImpl.DEFAULT_MAX_BATCH_SIZE, new JdbcTaskVersionRepository(jdbcTemplate), new TaskSearchIndex(),
+                new TransactionTemplate(new DataSourceTransactionManager(pool)));
+            List<Future<Long>> created = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                created.add(creators.submit(() -> pooledService.saveTask(new TaskDTO("Title", "Description"), 3L)));
+            }
+            Future<List<Long>> batch = creators.submit(() -> pooledService.saveTasks(
+                List.of(new TaskDTO("Title", "Description"), new TaskDTO("Title", "Description")), 3L));
+            
+            Set<Long> taskIds = new HashSet<>(batch.get());
+            for (Future<Long> taskId : created) {
+                taskIds.add(taskId.get());
+            }
+            
+            assertEquals(42, taskIds.size());
+            assertEquals(43, pooledService.getAllTasks(3L).size());
+        } finally {
+            creators.shutdownNow();
+            pool.close();
+            database.shutdown();
+        }
     }
 }
@@ -1,6 +1,7 @@
 package todo.app.service.impl;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,6 +11,9 @@ import todo.app.config.SystemTestConfig;
 import todo.app.exception.InvalidUserDataException;
 import todo.app.exception.UserNotFoundException;
 import todo.app.logic.User;
+import todo.app.logic.UserPageDTO;
+import todo.app.repository.TaskRepository;
+import todo.app.repository.UserRepository;
 import todo.app.security.SecurityConfig;
 import todo.app.service.UserService;
 
@@ -101,6 +105,22 @@ class UserServiceTest {
             EXCEPTION_MESSAGE_EXPECTED);
     }
     
+    /**
+     * Verifies that deleting a user evicts its tasks, which the database deletes by cascade,
+     * from the task repository.
+     */
+    @Test
+    void shouldEvictTasksOfDeletedUser() {
+        UserRepository userRepository = mock(UserRepository.class);
+        TaskRepository taskRepository = mock(TaskRepository.class);
+        given(userRepository.existById(3L)).willReturn(true);
+        given(userRepository.deleteUserById(3L)).willReturn(new User("Charlie", "charlie@example.com", "mypassword"));
+        
+        new UserServiceImpl(userRepository, null, taskRepository).deleteUserById(3L);
+        
+        then(taskRepository).should().evictUserTasks(3L);
+    }
+    
     @Test
     void shouldThrowExceptionWhenUserNameAndPasswordAreNotValid() {
     	username = ""; 
@@ -111,4 +131,18 @@ class UserServiceTest {
     		}, 
     		EXCEPTION_MESSAGE_EXPECTED);
     }
-}
\ No newline at end of file
+    
+    @Test
+    void shouldReturnUserPageWithNextCursor() {
+    	UserPageDTO page = userService.getUserPage(null, 1);
+    	
+    	assertEquals(1, page.getUsers().size());
+    	assertEquals(page.getUsers().get(0).getId(), page.getNextCursor());
+    }
+    
+    @Test
+    void shouldThrowExceptionWhenUserPageRequestIsNotValid() {
+    	assertThrows(InvalidUserDataException.class, () -> userService.getUserPage(-1L, 10));
+    	assertThrows(InvalidUserDataException.class, () -> userService.getUserPage(null, 0));
+    }
+}
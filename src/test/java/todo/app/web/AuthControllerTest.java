@@ -11,6 +11,7 @@ import static org.mockito.Mockito.when;
 import static org.mockito.BDDMockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import org.junit.jupiter.api.Test;
@@ -19,6 +20,11 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -28,6 +34,7 @@ import todo.app.exception.InvalidUserDataException;
 import todo.app.logic.Task;
 import todo.app.logic.User;
 import todo.app.security.SecurityConfig;
+import todo.app.security.TodoUserDetails;
 import todo.app.service.UserService;
 
 @WebMvcTest(AuthController.class)
@@ -41,6 +48,39 @@ class AuthControllerTest {
 	@MockBean
     private UserService userService;
 
+    @SuppressWarnings("removal")
+	@MockBean
+    private AuthenticationManager authenticationManager;
+
+    @Test
+    void shouldIssueTokenWhenLoginCredentialsAreValid() throws Exception {
+        // Arrange
+        TodoUserDetails user = new TodoUserDetails(4L, "MockUser", "", true, AuthorityUtils.createAuthorityList("ROLE_USER"));
+        given(authenticationManager.authenticate(any(Authentication.class)))
+            .willReturn(UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities()));
+
+        // Act & Assert
+        mockMvc.perform(post("/todo/app/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(createMockUserJson()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.tokenType").value("Bearer"))
+            .andExpect(jsonPath("$.token").isNotEmpty());
+    }
+
+    @Test
+    void shouldReturnUnauthorizedWhenLoginCredentialsAreInvalid() throws Exception {
+        // Arrange
+        given(authenticationManager.authenticate(any(Authentication.class)))
+            .willThrow(new BadCredentialsException("Bad credentials"));
+
+        // Act & Assert
+        mockMvc.perform(post("/todo/app/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(createMockUserJson()))
+            .andExpect(status().isUnauthorized());
+    }
+
     @Test
     void shouldRegisterUserWhenCredentialsAreValid() throws Exception {
         // Arrange
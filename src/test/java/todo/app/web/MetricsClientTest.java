@@ -0,0 +1,61 @@
+package todo.app.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+
+import todo.app.ToDoListApplication;
+import todo.app.config.SystemTestConfig;
+import todo.app.logic.TaskDTO;
+
+/**
+ * End-to-end test of the Prometheus scrape endpoint, checking that a request is reported per
+ * endpoint and split into its layers.
+ */
+@SpringBootTest(classes = {ToDoListApplication.class},
+				webEnvironment = WebEnvironment.RANDOM_PORT)
+@Import(SystemTestConfig.class)
+@TestPropertySource(locations = "classpath:todo/testdb/application-test.properties")
+@AutoConfigureObservability(tracing = false)
+class MetricsClientTest {
+	
+	@Autowired
+	private TestRestTemplate restTemplate;
+	
+	@Test
+	void shouldExposeEndpointAndLayerTimingsForScraping() {
+		// Arrange
+		restTemplate.withBasicAuth("Alice", "password123").getForEntity("/todo/app/tasks/{taskId}", TaskDTO.class, 1L);
+		
+		// Act
+		ResponseEntity<String> scrape = restTemplate.withBasicAuth("Bob", "securepass")
+				.getForEntity("/actuator/prometheus", String.class);
+		
+		// Assert
+		assertThat(scrape.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(scrape.getBody())
+			.contains("http_server_requests_seconds_bucket{")
+			.contains("uri=\"/todo/app/tasks/{taskId}\"")
+			.contains("todo_layer_seconds_count{component=\"task\",layer=\"service\",method=\"getTaskById\",outcome=\"success\"}")
+			.contains("todo_layer_seconds_count{component=\"task\",layer=\"repository\",method=\"findTaskById\",outcome=\"success\"}")
+			.contains("todo_security_password_seconds_count{operation=\"matches\"}")
+			.contains("todo_web_serialization_seconds_count{operation=\"write\",type=\"todo.app.logic.TaskDTO\"}");
+	}
+	
+	@Test
+	void shouldRestrictScrapingToAdmins() {
+		ResponseEntity<String> scrape = restTemplate.withBasicAuth("Alice", "password123")
+				.getForEntity("/actuator/prometheus", String.class);
+		
+		assertThat(scrape.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+	}
+}
@@ -0,0 +1,188 @@
+package todo.app.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import todo.app.ToDoListApplication;
+import todo.app.config.SystemTestConfig;
+import todo.app.exception.StatementBudgetExceededException;
+import todo.app.logic.TaskDTO;
+import todo.app.metrics.StatementBudgetFilter;
+
+/**
+ * Runs every endpoint against the test database with statement budgets enforced, so a request
+ * executing more SQL statements than its endpoint declares fails the build.
+ */
+@SpringBootTest(classes = {ToDoListApplication.class})
+@AutoConfigureMockMvc
+@Import(SystemTestConfig.class)
+@TestPropertySource(locations = "classpath:todo/testdb/application-test.properties",
+					properties = "todo.sql.statement-budget.default=1")
+class StatementBudgetTest {
+
+	private static final String TASKS_URL = "/todo/app/tasks/";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void shouldAttachStatementsOfRequestToLogAndMetrics() throws Exception {
+		// Act
+		MvcResult result = mockMvc.perform(get(TASKS_URL + 1).with(httpBasic("Alice", "password123")))
+				.andExpect(status().isOk())
+				.andReturn();
+
+		// Assert: user and authorities, the task, and the version unless already known
+		assertThat((Integer) result.getRequest().getAttribute(StatementBudgetFilter.STATEMENTS_ATTRIBUTE)).isBetween(3, 4);
+		assertThat(result.getRequest().getAttribute(StatementBudgetFilter.TIME_ATTRIBUTE)).isNotNull();
+
+		DistributionSummary statements = meterRegistry.find(StatementBudgetFilter.STATEMENTS_NAME)
+				.tags("method", "GET", "uri", "/todo/app/tasks/{taskId}")
+				.summary();
+		assertThat(statements).isNotNull();
+		assertThat(statements.count()).isPositive();
+		assertThat(meterRegistry.find(StatementBudgetFilter.TIME_NAME).tags("uri", "/todo/app/tasks/{taskId}").timer())
+			.isNotNull();
+	}
+
+	@Test
+	void shouldKeepTaskEndpointsWithinTheirBudgets() throws Exception {
+		// Each request fails with StatementBudgetExceededException when over its endpoint's budget
+		String location = mockMvc.perform(post(TASKS_URL).with(httpBasic("Charlie", "mypassword"))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(json(new TaskDTO("Walk the dog", "Around the park"))))
+			.andExpect(status().isCreated())
+			.andReturn().getResponse().getHeader("Location");
+		String taskUrl = location.substring(location.indexOf(TASKS_URL));
+		Long taskId = Long.valueOf(taskUrl.substring(TASKS_URL.length()));
+
+		mockMvc.perform(post(TASKS_URL + "batch").with(httpBasic("Charlie", "mypassword"))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[" + json(new TaskDTO("Water the plants", "Balcony")) + "]"))
+			.andExpect(status().isCreated());
+		mockMvc.perform(get(taskUrl).with(httpBasic("Charlie", "mypassword")))
+			.andExpect(status().isOk());
+		mockMvc.perform(get(TASKS_URL).with(httpBasic("Charlie", "mypassword")))
+			.andExpect(status().isOk());
+		mockMvc.perform(get(TASKS_URL).param("limit", "1").with(httpBasic("Charlie", "mypassword")))
+			.andExpect(status().isOk());
+		mockMvc.perform(get(TASKS_URL + "search").param("q", "dog").with(httpBasic("Charlie", "mypassword")))
+			.andExpect(status().isOk());
+		export(get(TASKS_URL + "export").with(httpBasic("Charlie", "mypassword")));
+		mockMvc.perform(put(taskUrl).with(httpBasic("Charlie", "mypassword"))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(json(new TaskDTO("Walk the dogs", "Around the park"))))
+			.andExpect(status().isNoContent());
+		mockMvc.perform(patch(taskUrl).with(httpBasic("Charlie", "mypassword"))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"title\":\"Walk the cat\"}"))
+			.andExpect(status().isNoContent());
+		mockMvc.perform(put(TASKS_URL + "batch").with(httpBasic("Charlie", "mypassword"))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[{\"id\":" + taskId + ",\"title\":\"Walk the cat\",\"description\":\"Twice\"}]"))
+			.andExpect(status().isOk());
+		mockMvc.perform(delete(TASKS_URL + "batch").param("ids", String.valueOf(taskId + 1))
+				.with(httpBasic("Charlie", "mypassword")))
+			.andExpect(status().isOk());
+		mockMvc.perform(delete(taskUrl).with(httpBasic("Charlie", "mypassword")))
+			.andExpect(status().isNoContent());
+
+		// First change of a user with no stored version yet, the coldest write
+		mockMvc.perform(patch(TASKS_URL + 2).with(httpBasic("Alice", "password123"))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"title\":\"Book flights\"}"))
+			.andExpect(status().isNoContent());
+	}
+
+	@Test
+	void shouldKeepUserAndAuthenticationEndpointsWithinTheirBudgets() throws Exception {
+		mockMvc.perform(get("/todo/app/users/").with(httpBasic("Bob", "securepass")))
+			.andExpect(status().isOk());
+		mockMvc.perform(get("/todo/app/users/1").with(httpBasic("Bob", "securepass")))
+			.andExpect(status().isOk());
+		mockMvc.perform(get("/todo/app/users/").param("limit", "2").with(httpBasic("Bob", "securepass")))
+			.andExpect(status().isOk());
+		export(get("/todo/app/users/export").with(httpBasic("Bob", "securepass")));
+		mockMvc.perform(post("/todo/app/login")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"username\":\"Alice\",\"password\":\"password123\"}"))
+			.andExpect(status().isOk());
+		String location = mockMvc.perform(post("/todo/app/register")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"username\":\"Dana\",\"email\":\"dana@example.com\",\"password\":\"danapass\"}"))
+			.andExpect(status().isCreated())
+			.andReturn().getResponse().getHeader("Location");
+		mockMvc.perform(delete(location.substring(location.indexOf("/todo/app/users/"))).with(httpBasic("Bob", "securepass")))
+			.andExpect(status().isNoContent());
+	}
+
+	/**
+	 * Verifies that the statements of a streamed export, run on another thread, count for its request.
+	 */
+	@Test
+	void shouldCountStatementsOfStreamedExport() throws Exception {
+		MvcResult result = export(get(TASKS_URL + "export").with(httpBasic("Alice", "password123")));
+
+		// Assert: user and authorities, then the export query on the streaming thread
+		assertThat((Integer) result.getRequest().getAttribute(StatementBudgetFilter.STATEMENTS_ATTRIBUTE)).isEqualTo(3);
+		assertThat(result.getResponse().getContentAsString()).contains("Buy groceries", "Vacation tickets to Hawaii");
+	}
+
+	@Test
+	void shouldFailRequestOverBudgetAndCountIt() {
+		// Endpoints without a declared budget get the default, lowered to 1 for this test
+		assertThatThrownBy(() -> mockMvc.perform(get("/actuator/metrics").with(httpBasic("Bob", "securepass"))))
+			.isInstanceOf(StatementBudgetExceededException.class)
+			.hasMessageContaining("over its budget of 1");
+
+		assertThat(meterRegistry.find(StatementBudgetFilter.OVER_BUDGET_NAME).tags("method", "GET").counter())
+			.isNotNull()
+			.satisfies(counter -> assertThat(counter.count()).isPositive());
+	}
+
+	/**
+	 * Performs an export and completes its streamed body, which is checked against the budget then.
+	 */
+	private MvcResult export(MockHttpServletRequestBuilder request) throws Exception {
+		MvcResult started = mockMvc.perform(request)
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		return mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andReturn();
+	}
+
+	private String json(Object body) throws Exception {
+		return objectMapper.writeValueAsString(body);
+	}
+}
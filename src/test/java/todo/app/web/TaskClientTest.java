@@ -22,17 +22,24 @@ import org.springframework.http.HttpHeaders;
 
 import todo.app.ToDoListApplication;
 import todo.app.config.SystemTestConfig;
+import todo.app.logic.LoginDTO;
 import todo.app.logic.Task;
 import todo.app.logic.TaskDTO;
+import todo.app.logic.TokenDTO;
+import todo.app.repository.TaskRepository;
 
 @SpringBootTest(classes = {ToDoListApplication.class}, 
 				webEnvironment = WebEnvironment.RANDOM_PORT)
 @Import(SystemTestConfig.class)
-@TestPropertySource(locations = "classpath:todo/testdb/application-test.properties")
+// Runs with the task cache, so the API is tested through it
+@TestPropertySource(locations = "classpath:todo/testdb/application-test.properties",
+					properties = "todo.tasks.cache.enabled=true")
 class TaskClientTest {
 	
 	@Autowired
 	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private TaskRepository taskRepository;
 	private static final String TASKS_URL = "/todo/app/tasks/";
 	private String username, password;
 	@Autowired
@@ -46,6 +53,10 @@ class TaskClientTest {
 				+ "(1,'Finish project', 'Complete the final draft by Friday', 2),\r\n"
 				+ "(2,'Book tickets', 'Vacation tickets to Hawaii', 1),\r\n"
 				+ "(1,'Pay bills', 'Electricity and water bills', 3);");
+		// The rows changed underneath the cache
+		for (long userId = 1; userId <= 3; userId++) {
+			taskRepository.evictUserTasks(userId);
+		}
 		
 		System.out.println("Table t_tasks has been successfully reseted");
 	}
@@ -70,6 +81,26 @@ class TaskClientTest {
 	        );
 	}
 	
+	@Test
+	void shouldReturnTaskWhenUserPresentsBearerToken() {
+		// Arrange
+		Long taskId = 1L;
+		String titleExpected = "Buy groceries";
+		ResponseEntity<TokenDTO> loginResponse =
+				restTemplate.postForEntity("/todo/app/login", new LoginDTO("Alice", "password123"), TokenDTO.class);
+		HttpHeaders headers = new HttpHeaders();
+		headers.setBearerAuth(loginResponse.getBody().getToken());
+		
+		// Act
+		ResponseEntity<TaskDTO> responseEntity =
+				restTemplate.exchange(TASKS_URL + "{taskId}", HttpMethod.GET, new HttpEntity<>(headers), TaskDTO.class, taskId);
+		
+		// Assert
+		assertThat(loginResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(responseEntity.getBody().getTitle()).isEqualTo(titleExpected);
+	}
+	
 	@Test
 	void shouldReturnAllTaskWhenUserIsAuthenticated() {
 		// Arrange
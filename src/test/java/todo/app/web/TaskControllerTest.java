@@ -6,14 +6,19 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.security.authentication.TestingAuthenticationToken;
 import org.springframework.security.test.context.support.WithAnonymousUser;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import todo.app.config.SystemTestConfig;
 import todo.app.exception.InvalidTaskDataException;
 import todo.app.exception.TaskNotFoundException;
 import todo.app.logic.TaskDTO;
+import todo.app.logic.TaskPageDTO;
+import todo.app.logic.TaskResultDTO;
 import todo.app.security.SecurityConfig;
 import todo.app.service.TaskService;
 import todo.app.service.UserService;
@@ -22,14 +27,18 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.BDDMockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import java.io.OutputStream;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.zip.ZipEntry;
 
 import javax.sound.midi.VoiceStatus;
@@ -49,6 +58,9 @@ class TaskControllerTest {
 	@MockBean
 	private TaskService taskService;
 	
+	@Autowired
+	private TaskController taskController;
+	
 	private static final String TASKS_URL = "/todo/app/tasks/";
 
 	@Test
@@ -141,6 +153,113 @@ class TaskControllerTest {
 		verify(taskService).getAllTasks(userId);
 	}
 
+	@Test
+	@WithMockUser(roles = {"USER"})
+	void shouldReturnETagOfTaskListVersion() throws Exception {
+		// Arrange
+		Long userId = 1L;
+		given(userService.getUserIdByUsername(any(String.class))).willReturn(userId);
+		given(taskService.getTaskVersion(userId)).willReturn(7L);
+		given(taskService.getAllTasks(userId)).willReturn(List.of(new TaskDTO("MockTitle", "MockDescription")));
+		
+		// Act & Assert
+		mockMvc.perform(get(TASKS_URL))
+			.andExpect(status().isOk())
+			.andExpect(header().string("ETag", "\"1-7\""));
+	}
+
+	@Test
+	@WithMockUser(roles = {"USER"})
+	void shouldReturnNotModifiedWithoutReadingTasksWhenETagMatches() throws Exception {
+		// Arrange
+		Long userId = 1L, taskId = 1L;
+		given(userService.getUserIdByUsername(any(String.class))).willReturn(userId);
+		given(taskService.getTaskVersion(userId)).willReturn(7L);
+		
+		// Act & Assert
+		mockMvc.perform(get(TASKS_URL).header("If-None-Match", "\"1-7\""))
+			.andExpect(status().isNotModified())
+			.andExpect(content().string(""));
+		mockMvc.perform(get(TASKS_URL + taskId).header("If-None-Match", "\"1-7\""))
+			.andExpect(status().isNotModified());
+		
+		// Verify
+		verify(taskService, never()).getAllTasks(any());
+		verify(taskService, never()).getTaskById(any(), any());
+	}
+
+	@Test
+	@WithMockUser(roles = {"USER"})
+	void shouldReturnTaskPageWhenLimitIsGiven() throws Exception {
+		// Arrange
+		Long userId = 1L, after = 1L;
+		int limit = 1;
+		TaskPageDTO taskPageDTO = new TaskPageDTO(Arrays.asList(new TaskDTO(2L, "MockTitle", "MockDescription")), 2L);
+		given(userService.getUserIdByUsername(any(String.class))).willReturn(userId);
+		given(taskService.getTaskPage(userId, after, limit)).willReturn(taskPageDTO);
+		
+		// Act & Assert
+		mockMvc.perform(get(TASKS_URL).param("after", "1").param("limit", "1"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.tasks[0].id").value(2))
+			.andExpect(jsonPath("$.nextCursor").value(2));
+		
+		// Verify
+		verify(taskService).getTaskPage(userId, after, limit);
+	}
+
+	@Test
+	@WithMockUser(roles = {"USER"})
+	void shouldExportTasksAsNdjsonWhenUserIsAuthenticated() throws Exception {
+		// Arrange
+		Long userId = 1L;
+		given(userService.getUserIdByUsername(any(String.class))).willReturn(userId);
+		willAnswer(invocation -> {
+			Consumer<TaskDTO> consumer = invocation.getArgument(1);
+			consumer.accept(new TaskDTO(1L, "First", "First task"));
+			consumer.accept(new TaskDTO(2L, "Second", "Second task"));
+			return null;
+		}).given(taskService).exportTasks(eq(userId), any());
+		
+		// Act & Assert
+		MvcResult mvcResult = mockMvc.perform(get(TASKS_URL + "export"))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		
+		mockMvc.perform(asyncDispatch(mvcResult))
+			.andExpect(status().isOk())
+			.andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+			.andExpect(content().string(
+					"{\"id\":1,\"title\":\"First\",\"description\":\"First task\"}\n"
+					+ "{\"id\":2,\"title\":\"Second\",\"description\":\"Second task\"}\n"));
+	}
+	
+	@Test
+	void shouldExportMillionTasksWithoutMaterializingThem() throws Exception {
+		// Arrange: one million generated tasks are handed to the consumer and dropped immediately
+		Long userId = 1L;
+		int totalTasks = 1_000_000;
+		given(userService.getUserIdByUsername("Alice")).willReturn(userId);
+		willAnswer(invocation -> {
+			Consumer<TaskDTO> consumer = invocation.getArgument(1);
+			for (long id = 1; id <= totalTasks; id++) {
+				consumer.accept(new TaskDTO(id, "Title " + id, "Description of task number " + id));
+			}
+			return null;
+		}).given(taskService).exportTasks(eq(userId), any());
+		CountingOutputStream outputStream = new CountingOutputStream();
+		
+		// Act
+		StreamingResponseBody responseBody = taskController
+				.exportTasks(new TestingAuthenticationToken("Alice", null, "ROLE_USER"))
+				.getBody();
+		assertNotNull(responseBody);
+		responseBody.writeTo(outputStream);
+		
+		// Assert
+		assertEquals(totalTasks, outputStream.lines);
+	}
+
 	@Test
 	@WithAnonymousUser
 	void shouldReturnUnauthorizedWhenUserIsNotAuthenticated() throws Exception {
@@ -168,14 +287,49 @@ class TaskControllerTest {
 		verify(taskService).updateTask(eq(taskId), eq(userId), any(TaskDTO.class));
 	}
 	
+	@Test
+	@WithMockUser(roles = {"USER"})
+	void shouldReturnRankedSearchResults() throws Exception {
+		// Arrange
+		Long userId = 1L;
+		given(userService.getUserIdByUsername(any(String.class))).willReturn(userId);
+		given(taskService.searchTasks(userId, "tickets", 5)).willReturn(List.of(new TaskDTO(2L, "Book tickets", "Hawaii")));
+		
+		// Act & Assert
+		mockMvc.perform(get(TASKS_URL + "search").param("q", "tickets").param("limit", "5"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$[0].id").value(2))
+			.andExpect(jsonPath("$[0].title").value("Book tickets"));
+		
+		// Verify
+		verify(taskService).searchTasks(userId, "tickets", 5);
+	}
+	
+	@Test
+	@WithMockUser(roles = {"USER"})
+	void shouldPatchTaskWithOnlySuppliedAttributes() throws Exception {
+		// Arrange
+		Long userId = 1L, taskId = 1L;
+		given(userService.getUserIdByUsername(any(String.class))).willReturn(userId);
+		
+		// Act & Assert
+		mockMvc.perform(patch(TASKS_URL + taskId)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"title\":\"Buy groceries\"}"))
+			.andExpect(status().isNoContent());
+		
+		// Verify
+		verify(taskService).patchTask(eq(taskId), eq(userId),
+				argThat(taskDTO -> "Buy groceries".equals(taskDTO.getTitle()) && taskDTO.getDescription() == null));
+	}
+	
 	@Test
 	@WithMockUser(roles = {"USER"})
 	void shouldCreateTaskWhenUserIsAuthenticatedAndTaskIsValid() throws Exception {
 		// Arrange
 		Long userId = 1L, newTaskId = 3L;
 		given(userService.getUserIdByUsername(any(String.class))).willReturn(userId);
-		willDoNothing().given(taskService).saveTask(any(TaskDTO.class), eq(userId));
-		given(taskService.getNextTaskIdForUser(userId)).willReturn(newTaskId);
+		given(taskService.saveTask(any(TaskDTO.class), eq(userId))).willReturn(newTaskId);
 		
 		// Act & Assert
 		mockMvc.perform(post(TASKS_URL)
@@ -188,13 +342,33 @@ class TaskControllerTest {
 		verify(taskService).saveTask(any(TaskDTO.class), eq(userId));
 	}
 	
+	@Test
+	@WithMockUser(roles = {"USER"})
+	void shouldCreateTasksInBatchWhenUserIsAuthenticated() throws Exception {
+		// Arrange
+		Long userId = 1L;
+		given(userService.getUserIdByUsername(any(String.class))).willReturn(userId);
+		given(taskService.saveTasks(anyList(), eq(userId))).willReturn(Arrays.asList(3L, 4L));
+		
+		// Act & Assert
+		mockMvc.perform(post(TASKS_URL + "batch")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[" + createMockTaskJson() + "," + createMockTaskJson() + "]"))
+			.andExpect(status().isCreated())
+			.andExpect(jsonPath("$[0]").value(3))
+			.andExpect(jsonPath("$[1]").value(4));
+		
+		// Verify
+		verify(taskService).saveTasks(anyList(), eq(userId));
+	}
+	
 	@Test
 	@WithMockUser(roles = {"USER"})
 	void shouldDeleteTaskWhenUserIsAuthenticatedAndTaskIdIsValid() throws Exception {
 		// Arrange
 		Long userId = 1L, taskId = 1L;
 		given(userService.getUserIdByUsername(any(String.class))).willReturn(userId);
-		given(taskService.deleteTaskById(taskId, userId)).willReturn(new TaskDTO("DELETE", "deleted task"));
+		willDoNothing().given(taskService).deleteTaskById(taskId, userId);
 		
 		// Act & Assert
 		mockMvc.perform(delete(TASKS_URL + taskId))
@@ -204,6 +378,67 @@ class TaskControllerTest {
 		verify(taskService).deleteTaskById(taskId, userId);
 	}
 
+	@Test
+	@WithMockUser(roles = {"USER"})
+	void shouldUpdateTasksInBatchAndReportEachId() throws Exception {
+		// Arrange
+		Long userId = 1L;
+		given(userService.getUserIdByUsername(any(String.class))).willReturn(userId);
+		given(taskService.updateTasks(anyList(), eq(userId))).willReturn(List.of(
+				new TaskResultDTO(1L, TaskResultDTO.Status.UPDATED), new TaskResultDTO(7L, TaskResultDTO.Status.NOT_FOUND)));
+		
+		// Act & Assert
+		mockMvc.perform(put(TASKS_URL + "batch")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[{\"id\":1,\"title\":\"Buy groceries\",\"description\":\"Milk\"},"
+						+ "{\"id\":7,\"title\":\"Walk the dog\",\"description\":\"Park\"}]"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$[0].id").value(1))
+			.andExpect(jsonPath("$[0].status").value("UPDATED"))
+			.andExpect(jsonPath("$[1].status").value("NOT_FOUND"));
+		
+		// Verify
+		verify(taskService).updateTasks(anyList(), eq(userId));
+	}
+	
+	@Test
+	@WithMockUser(roles = {"USER"})
+	void shouldDeleteTasksInBatchAndReportEachId() throws Exception {
+		// Arrange
+		Long userId = 1L;
+		given(userService.getUserIdByUsername(any(String.class))).willReturn(userId);
+		given(taskService.deleteTasks(List.of(1L, 2L), userId)).willReturn(List.of(
+				new TaskResultDTO(1L, TaskResultDTO.Status.DELETED), new TaskResultDTO(2L, TaskResultDTO.Status.DELETED)));
+		
+		// Act & Assert
+		mockMvc.perform(delete(TASKS_URL + "batch").param("ids", "1", "2"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$[1].id").value(2))
+			.andExpect(jsonPath("$[1].status").value("DELETED"));
+		
+		// Verify
+		verify(taskService).deleteTasks(List.of(1L, 2L), userId);
+	}
+
+	/**
+	 * Output stream that discards everything written to it, only counting line feeds.
+	 */
+	private static final class CountingOutputStream extends OutputStream {
+		private long lines;
+
+		@Override
+		public void write(int b) {
+			if (b == '\n') lines++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			for (int i = off; i < off + len; i++) {
+				write(b[i]);
+			}
+		}
+	}
+
 	private String createMockTaskJson() {
 		String mockUserJson = """
             {
@@ -9,10 +9,12 @@ import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithAnonymousUser;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import todo.app.config.SystemTestConfig;
 import todo.app.exception.UserNotFoundException;
 import todo.app.logic.UserDTO;
+import todo.app.logic.UserPageDTO;
 import todo.app.security.SecurityConfig;
 import todo.app.service.UserService;
 
@@ -21,12 +23,14 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.BDDMockito.*;
 import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 @WebMvcTest(UserController.class)
 @Import({SecurityConfig.class, SystemTestConfig.class})
@@ -150,4 +154,53 @@ class UserControllerTest {
 		// Verify
 		verify(userService).deleteUserById(1L);
 	}
+
+	@Test
+	@WithMockUser(roles = {"ADMIN"})
+	public void shouldReturnUserPageWhenLimitIsGiven() throws Exception {
+		// Arrange
+		UserPageDTO userPageDTO = new UserPageDTO(Arrays.asList(new UserDTO(2L, "mockUser", "mock@test.com")), 2L);
+		given(userService.getUserPage(1L, 1)).willReturn(userPageDTO);
+		
+		// Act & Assert
+		mockMvc.perform(get(USERS_URL).param("after", "1").param("limit", "1"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.users[0].username").value("mockUser"))
+			.andExpect(jsonPath("$.users[0].password").doesNotExist())
+			.andExpect(jsonPath("$.nextCursor").value(2));
+		
+		// Verify
+		verify(userService).getUserPage(1L, 1);
+	}
+	
+	@Test
+	@WithMockUser(roles = {"ADMIN"})
+	public void shouldExportUsersAsNdjsonWhenRequestedByAdmin() throws Exception {
+		// Arrange
+		willAnswer(invocation -> {
+			Consumer<UserDTO> consumer = invocation.getArgument(0);
+			consumer.accept(new UserDTO(1L, "first", "first@test.com"));
+			consumer.accept(new UserDTO(2L, "second", "second@test.com"));
+			return null;
+		}).given(userService).exportUsers(any());
+		
+		// Act & Assert
+		MvcResult mvcResult = mockMvc.perform(get(USERS_URL + "export"))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		
+		mockMvc.perform(asyncDispatch(mvcResult))
+			.andExpect(status().isOk())
+			.andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+			.andExpect(content().string(
+					"{\"id\":1,\"username\":\"first\",\"email\":\"first@test.com\"}\n"
+					+ "{\"id\":2,\"username\":\"second\",\"email\":\"second@test.com\"}\n"));
+	}
+	
+	@Test
+	@WithMockUser(roles = {"USER"})
+	public void shouldReturnForbiddenWhenUserRequestsUserExport() throws Exception {
+		mockMvc.perform(get(USERS_URL + "export"))
+			.andExpect(status().isForbidden());
+	}
 }
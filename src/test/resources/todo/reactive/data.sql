@@ -0,0 +1,15 @@
+INSERT INTO t_users (username, email, password) VALUES
+('Alice', 'alice@example.com', '{noop}password123'),
+('Bob', 'bob@example.com', '{noop}securepass'),
+('Charlie', 'charlie@example.com', '{noop}mypassword');
+
+INSERT INTO t_tasks (id, title, description, user_id) VALUES
+(1,'Buy groceries', 'Milk, eggs, bread', 1),
+(1,'Finish project', 'Complete the final draft by Friday', 2),
+(2,'Book tickets', 'Vacation tickets to Hawaii', 1),
+(1,'Pay bills', 'Electricity and water bills', 3);
+
+INSERT INTO t_authorities (username, authority, user_id) VALUES
+('Alice', 'ROLE_USER', 1),
+('Bob', 'ROLE_ADMIN', 2),
+('Charlie', 'ROLE_USER', 3);
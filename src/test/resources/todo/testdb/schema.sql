@@ -1,3 +1,6 @@
+DROP TABLE t_migration_progress IF EXISTS;
+DROP TABLE t_task_versions IF EXISTS;
+DROP TABLE t_task_sequences IF EXISTS;
 DROP TABLE t_tasks IF EXISTS;
 DROP TABLE t_authorities IF EXISTS;
 DROP TABLE t_users IF EXISTS;
@@ -15,9 +18,27 @@ CREATE TABLE t_tasks (
     id BIGINT NOT NULL,
     title VARCHAR(100) NOT NULL,
     description VARCHAR(255),
-    user_id BIGINT NOT NULL
+    user_id BIGINT NOT NULL,
+    PRIMARY KEY (user_id, id)
+);
+
+-- Per-user task ID counter, advanced in blocks by the task ID allocator
+CREATE TABLE t_task_sequences (
+    user_id BIGINT NOT NULL PRIMARY KEY,
+    next_id BIGINT NOT NULL
 );
 
+-- Per-user task list version, advanced on every task change and sent as the ETag of task reads
+CREATE TABLE t_task_versions (
+    user_id BIGINT NOT NULL PRIMARY KEY,
+    version BIGINT NOT NULL
+);
+
+-- Last user ID handled by each resumable data migration, e.g. the startup password encoding
+CREATE TABLE t_migration_progress (
+    migration_name VARCHAR(50) NOT NULL PRIMARY KEY,
+    last_id BIGINT NOT NULL
+);
 
 -- Create authorities table for role-based security
 CREATE TABLE t_authorities (
@@ -31,6 +52,8 @@ ALTER TABLE t_users
 ALTER COLUMN enabled SET DEFAULT 1;
 
 ALTER TABLE t_tasks ADD CONSTRAINT fk_tasks FOREIGN KEY (user_id) REFERENCES t_users(id) ON DELETE CASCADE;
+ALTER TABLE t_task_sequences ADD CONSTRAINT fk_task_sequences FOREIGN KEY (user_id) REFERENCES t_users(id) ON DELETE CASCADE;
+ALTER TABLE t_task_versions ADD CONSTRAINT fk_task_versions FOREIGN KEY (user_id) REFERENCES t_users(id) ON DELETE CASCADE;
 ALTER TABLE t_authorities ADD CONSTRAINT fk_authorities FOREIGN KEY (user_id) REFERENCES t_users(id) ON DELETE CASCADE;
 
 -- Create index on username and authority